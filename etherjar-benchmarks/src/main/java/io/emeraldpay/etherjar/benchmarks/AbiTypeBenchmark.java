@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.benchmarks;
+
+import io.emeraldpay.etherjar.abi.AddressType;
+import io.emeraldpay.etherjar.abi.DynamicArrayType;
+import io.emeraldpay.etherjar.abi.StringType;
+import io.emeraldpay.etherjar.abi.UIntType;
+import io.emeraldpay.etherjar.domain.Address;
+import io.emeraldpay.etherjar.hex.HexData;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of contract call arguments and return values
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AbiTypeBenchmark {
+
+    private final UIntType uint = UIntType.DEFAULT;
+    private final AddressType address = AddressType.DEFAULT;
+    private final StringType string = StringType.DEFAULT;
+    private final DynamicArrayType<BigInteger> uintArray = new DynamicArrayType<>(UIntType.DEFAULT);
+
+    private BigInteger amount;
+    private Address recipient;
+    private String name;
+    private BigInteger[] amounts;
+
+    private HexData amountEncoded;
+    private HexData recipientEncoded;
+    private HexData nameEncoded;
+    private HexData amountsEncoded;
+
+    @Setup
+    public void setup() {
+        amount = new BigInteger("115792089237316195423570985008687907853269984665640564039457584007913129639935");
+        recipient = Address.from("0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2");
+        name = "Wrapped Ether, but with a name long enough to take more than a single 32 byte word";
+        amounts = new BigInteger[32];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = BigInteger.valueOf(1_000_000L * (i + 1));
+        }
+
+        amountEncoded = uint.encode(amount);
+        recipientEncoded = address.encode(recipient);
+        nameEncoded = string.encode(name);
+        amountsEncoded = uintArray.encode(amounts);
+    }
+
+    @Benchmark
+    public HexData encodeUInt() {
+        return uint.encode(amount);
+    }
+
+    @Benchmark
+    public BigInteger decodeUInt() {
+        return uint.decode(amountEncoded);
+    }
+
+    @Benchmark
+    public HexData encodeAddress() {
+        return address.encode(recipient);
+    }
+
+    @Benchmark
+    public Address decodeAddress() {
+        return address.decode(recipientEncoded);
+    }
+
+    @Benchmark
+    public HexData encodeString() {
+        return string.encode(name);
+    }
+
+    @Benchmark
+    public String decodeString() {
+        return string.decode(nameEncoded);
+    }
+
+    @Benchmark
+    public HexData encodeUIntArray() {
+        return uintArray.encode(amounts);
+    }
+
+    // DynamicArrayType#decode gives an Object[] at runtime, so it must not be cast to the element type here
+    @Benchmark
+    public Object[] decodeUIntArray() {
+        return uintArray.decode(amountsEncoded);
+    }
+}
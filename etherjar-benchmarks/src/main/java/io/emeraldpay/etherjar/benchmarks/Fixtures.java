@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.benchmarks;
+
+import io.emeraldpay.etherjar.domain.Address;
+import io.emeraldpay.etherjar.domain.Wei;
+import io.emeraldpay.etherjar.hex.Hex32;
+import io.emeraldpay.etherjar.hex.HexData;
+import io.emeraldpay.etherjar.tx.PrivateKey;
+import io.emeraldpay.etherjar.tx.Transaction;
+import io.emeraldpay.etherjar.tx.TransactionWithAccess;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Shared inputs for the benchmarks. Everything is constant, so results are comparable between runs and versions.
+ */
+class Fixtures {
+
+    static final PrivateKey PRIVATE_KEY = PrivateKey.create("0x4646464646464646464646464646464646464646464646464646464646464646");
+
+    /**
+     * Legacy transaction with EIP-155 signature, ERC-20 transfer call
+     */
+    static final HexData RAW_LEGACY = HexData.from("0xf8cb82afdc843b9aca008303d090947ef66b77759e12caf3ddb3e4aff524e577c59d8d80b864e9c6c1760000000000000000000000000000000000000000000000000000000000000004000000000000000000000000000000000000000000000000000000000043c636a65ea4943acfacb227680b6ba20c477ba24ef87049a4a5b3958385e215bb08641ba01e8a3bacc31fc91ade73278d0267b70d38b53623ab0a28d1e20e133286f8a85ca02f2e0ac2c4e9e4410804fa62c9cba70e18eed8b93ec2a2ad5762279de8288b63");
+
+    /**
+     * EIP-2930 transaction with access list for two addresses
+     */
+    static final HexData RAW_ACCESS_LIST = HexData.from("0x01f8e201018504a817c800830249f0943535353535353535353535353535353535353535880de0b6b3a764000080f872f85994de0b295669a9fd93d5f28d9ec85e40f4cb697baef842a00000000000000000000000000000000000000000000000000000000000000003a00000000000000000000000000000000000000000000000000000000000000007d694bb9bc244d798123fde783fcc1c72d3bb8c189413c080a0b935047bf9b8464afec5bda917281610b2aaabd8de4b01d2eba6e876c934ca7aa0431b406eb13aefca05a0320c3595700b9375df6fac8cc8ec5603ac2e42af4894");
+
+    static Transaction transaction() {
+        Transaction tx = new Transaction();
+        fill(tx);
+        return tx;
+    }
+
+    static TransactionWithAccess transactionWithAccess() {
+        TransactionWithAccess tx = new TransactionWithAccess();
+        fill(tx);
+        tx.setChainId(1);
+        tx.setAccessList(Arrays.asList(
+            new TransactionWithAccess.Access(
+                Address.from("0xde0b295669a9fd93d5f28d9ec85e40f4cb697bae"),
+                Hex32.from("0x0000000000000000000000000000000000000000000000000000000000000003"),
+                Hex32.from("0x0000000000000000000000000000000000000000000000000000000000000007")
+            ),
+            new TransactionWithAccess.Access(
+                Address.from("0xbb9bc244d798123fde783fcc1c72d3bb8c189413")
+            )
+        ));
+        return tx;
+    }
+
+    private static void fill(Transaction tx) {
+        tx.setNonce(45020);
+        tx.setGasPrice(new BigInteger("20000000000"));
+        tx.setGas(150000);
+        tx.setTo(Address.from("0xa0b86991c6218b36c1d19d4a2e9eb0ce3606eb48"));
+        tx.setValue(Wei.ZERO);
+        tx.setData(HexData.from("0xa9059cbb000000000000000000000000c02aaa39b223fe8d0a0e5c4f27ead9083c756cc200000000000000000000000000000000000000000000000000000000000f4240"));
+    }
+
+    static byte[] resource(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture not found: " + name);
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[4096];
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                buffer.write(chunk, 0, read);
+            }
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.emeraldpay.etherjar.benchmarks;
+
+import io.emeraldpay.etherjar.domain.Address;
+import io.emeraldpay.etherjar.hex.Hex32;
+import io.emeraldpay.etherjar.hex.HexData;
+import io.emeraldpay.etherjar.hex.HexQuantity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and formatting of hex values, the most common operation when reading or writing JSON RPC.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HexDataBenchmark {
+
+    private String hash;
+    private String address;
+    private String input;
+    private String quantity;
+
+    private HexData inputData;
+    private Hex32 hashData;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        byte[] hashBytes = new byte[32];
+        random.nextBytes(hashBytes);
+        byte[] inputBytes = new byte[4 + 32 * 32];
+        random.nextBytes(inputBytes);
+
+        hashData = Hex32.from(hashBytes);
+        inputData = new HexData(inputBytes);
+        hash = hashData.toHex();
+        input = inputData.toHex();
+        address = "0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2";
+        quantity = "0x1b4fbd92b5f8000";
+    }
+
+    @Benchmark
+    public Hex32 decodeHash() {
+        return Hex32.from(hash);
+    }
+
+    @Benchmark
+    public HexData decodeInput() {
+        return HexData.from(input);
+    }
+
+    @Benchmark
+    public Address decodeAddress() {
+        return Address.from(address);
+    }
+
+    @Benchmark
+    public HexQuantity decodeQuantity() {
+        return HexQuantity.from(quantity);
+    }
+
+    @Benchmark
+    public String encodeHash() {
+        return hashData.toHex();
+    }
+
+    @Benchmark
+    public String encodeInput() {
+        return inputData.toHex();
+    }
+
+    @Benchmark
+    public Hex32[] splitInput() {
+        return inputData.split32(4);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.emeraldpay.etherjar.rpc.JacksonRpcConverter;
+import io.emeraldpay.etherjar.rpc.json.BlockJson;
+import io.emeraldpay.etherjar.rpc.json.ResponseJson;
+import io.emeraldpay.etherjar.rpc.json.TransactionReceiptJson;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a batch response, similar to what an indexer gets when it fetches a block with its receipts.
+ * The batch is built from real responses: a block with 200+ transaction hashes, a block with full
+ * transactions, and a set of receipts with logs, repeated a few times.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBatchBenchmark {
+
+    private static final String[] BLOCKS = {
+        "block-11388816.json",
+        "block-1920000-full.json"
+    };
+    private static final String[] RECEIPTS = {
+        "receipt-0x3f34b1.json",
+        "receipt-0x8883dd.json",
+        "receipt-0xec00aa.json"
+    };
+
+    @Param({"1", "10"})
+    public int repeat;
+
+    private final JacksonRpcConverter converter = new JacksonRpcConverter();
+
+    private byte[] batch;
+    private Map<Integer, Class> targets;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = converter.getObjectMapper();
+        ArrayNode responses = objectMapper.createArrayNode();
+        targets = new HashMap<>();
+        int id = 1;
+        for (int i = 0; i < repeat; i++) {
+            for (String name : BLOCKS) {
+                responses.add(response(objectMapper, name, id));
+                targets.put(id++, BlockJson.class);
+            }
+            for (String name : RECEIPTS) {
+                responses.add(response(objectMapper, name, id));
+                targets.put(id++, TransactionReceiptJson.class);
+            }
+        }
+        batch = objectMapper.writeValueAsBytes(responses);
+    }
+
+    private static ObjectNode response(ObjectMapper objectMapper, String name, int id) throws IOException {
+        ObjectNode response = (ObjectNode) objectMapper.readTree(Fixtures.resource(name));
+        response.put("id", id);
+        return response;
+    }
+
+    @Benchmark
+    public List<ResponseJson<Object, Integer>> parseBatch() {
+        return converter.parseBatch(new ByteArrayInputStream(batch), targets);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.emeraldpay.etherjar.benchmarks;
+
+import io.emeraldpay.etherjar.domain.Keccak256;
+import org.bouncycastle.crypto.digests.KeccakDigest;
+import org.bouncycastle.jcajce.provider.digest.Keccak;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keccak-256 of the EtherJar implementation compared to BouncyCastle, both the JCA digest which was used before
+ * and the lightweight one. Sizes are an address (20), a hash (32), a public key (64), a typical transaction (~110),
+ * exactly one block (136, which needs two permutations because of the padding) and a large contract input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeccakBenchmark {
+
+    @Param({"20", "32", "64", "110", "136", "1024"})
+    public int size;
+
+    private byte[] input;
+    private KeccakDigest bcDigest;
+
+    @Setup
+    public void setup() {
+        input = new byte[size];
+        new Random(1).nextBytes(input);
+        bcDigest = new KeccakDigest(256);
+    }
+
+    @Benchmark
+    public byte[] etherjar() {
+        return Keccak256.digest(input);
+    }
+
+    @Benchmark
+    public byte[] bouncycastleJca() {
+        Keccak.Digest256 digest = new Keccak.Digest256();
+        digest.update(input);
+        return digest.digest();
+    }
+
+    @Benchmark
+    public byte[] bouncycastleReused() {
+        bcDigest.update(input, 0, input.length);
+        byte[] result = new byte[32];
+        bcDigest.doFinal(result, 0);
+        return result;
+    }
+}
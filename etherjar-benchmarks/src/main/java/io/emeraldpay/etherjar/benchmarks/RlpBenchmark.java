@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.emeraldpay.etherjar.benchmarks;
+
+import io.emeraldpay.etherjar.rlp.RlpReader;
+import io.emeraldpay.etherjar.rlp.RlpType;
+import io.emeraldpay.etherjar.rlp.RlpWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and writing of an RLP structure shaped as a block header (15 items, mostly 32 byte hashes
+ * and small numbers), and of a list of such headers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RlpBenchmark {
+
+    private static final int HEADERS = 64;
+
+    private byte[] parentHash;
+    private byte[] unclesHash;
+    private byte[] coinbase;
+    private byte[] stateRoot;
+    private byte[] bloom;
+    private byte[] extraData;
+
+    private byte[] header;
+    private byte[] headers;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        parentHash = random(random, 32);
+        unclesHash = random(random, 32);
+        coinbase = random(random, 20);
+        stateRoot = random(random, 32);
+        bloom = random(random, 256);
+        extraData = random(random, 16);
+
+        header = writeHeader(new RlpWriter()).toByteArray();
+        RlpWriter wrt = new RlpWriter().startList();
+        for (int i = 0; i < HEADERS; i++) {
+            writeHeader(wrt);
+        }
+        headers = wrt.closeList().toByteArray();
+    }
+
+    private static byte[] random(Random random, int size) {
+        byte[] value = new byte[size];
+        random.nextBytes(value);
+        return value;
+    }
+
+    private RlpWriter writeHeader(RlpWriter wrt) {
+        return wrt.startList()
+            .write(parentHash)
+            .write(unclesHash)
+            .write(coinbase)
+            .write(stateRoot)
+            .write(stateRoot)
+            .write(stateRoot)
+            .write(bloom)
+            .write(new BigInteger("2d3b8dc3f0a5e4", 16))
+            .write(11388816L)
+            .write(12500000L)
+            .write(12491988L)
+            .write(1607000000L)
+            .write(extraData)
+            .write(parentHash)
+            .write(unclesHash)
+            .closeList();
+    }
+
+    private static void readHeader(RlpReader rdr, Blackhole bh) {
+        RlpReader fields = rdr.nextList();
+        while (fields.hasNext()) {
+            if (fields.getType() == RlpType.LIST) {
+                fields.skip();
+            } else {
+                bh.consume(fields.next());
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] writeHeader() {
+        return writeHeader(new RlpWriter()).toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeHeaders() {
+        RlpWriter wrt = new RlpWriter().startList();
+        for (int i = 0; i < HEADERS; i++) {
+            writeHeader(wrt);
+        }
+        return wrt.closeList().toByteArray();
+    }
+
+    @Benchmark
+    public void readHeader(Blackhole bh) {
+        readHeader(new RlpReader(header), bh);
+    }
+
+    @Benchmark
+    public void readHeaders(Blackhole bh) {
+        RlpReader list = new RlpReader(headers).nextList();
+        while (list.hasNext()) {
+            readHeader(list, bh);
+        }
+    }
+}
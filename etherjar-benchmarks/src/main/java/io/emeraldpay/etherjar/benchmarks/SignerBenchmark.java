@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.benchmarks;
+
+import io.emeraldpay.etherjar.domain.Address;
+import io.emeraldpay.etherjar.tx.Signature;
+import io.emeraldpay.etherjar.tx.Signer;
+import io.emeraldpay.etherjar.tx.Transaction;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the elliptic curve operations: signing a transaction and recovering its sender.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SignerBenchmark {
+
+    private final Signer signer = Signer.newMainnet();
+
+    private Transaction tx;
+    private Transaction signed;
+    private Signature signature;
+    private byte[] hash;
+
+    @Setup
+    public void setup() {
+        tx = Fixtures.transaction();
+        signature = signer.sign(tx, Fixtures.PRIVATE_KEY);
+        signed = Fixtures.transaction();
+        signed.setSignature(signature);
+        hash = signer.hash(tx);
+    }
+
+    @Benchmark
+    public Signature sign() {
+        return signer.sign(tx, Fixtures.PRIVATE_KEY);
+    }
+
+    /**
+     * Signing as it was done before, by ECDSASigner and then finding the recovery id with two ecrecover,
+     * to compare with {@link #sign()}
+     */
+    @Benchmark
+    public int signWithEcrecover() {
+        ECDSASigner ecdsa = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+        ecdsa.init(true, Fixtures.PRIVATE_KEY.getECKey());
+        BigInteger[] rs = ecdsa.generateSignature(hash);
+        BigInteger n = Signer.CURVE_PARAMS.getN();
+        BigInteger s = rs[1].compareTo(n.shiftRight(1)) > 0 ? n.subtract(rs[1]) : rs[1];
+        return signer.getY(hash, rs[0], s, Fixtures.PRIVATE_KEY.getPublicKey());
+    }
+
+    @Benchmark
+    public byte[] ecrecover() {
+        return Signer.ecrecover(signature);
+    }
+
+    @Benchmark
+    public Address recoverSender() {
+        return signed.extractFrom();
+    }
+}
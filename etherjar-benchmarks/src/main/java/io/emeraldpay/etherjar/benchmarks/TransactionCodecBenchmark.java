@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.benchmarks;
+
+import io.emeraldpay.etherjar.domain.Address;
+import io.emeraldpay.etherjar.domain.MethodId;
+import io.emeraldpay.etherjar.hex.HexData;
+import io.emeraldpay.etherjar.tx.LazyTransaction;
+import io.emeraldpay.etherjar.tx.Signer;
+import io.emeraldpay.etherjar.tx.Transaction;
+import io.emeraldpay.etherjar.tx.TransactionDecoder;
+import io.emeraldpay.etherjar.tx.TransactionEncoder;
+import io.emeraldpay.etherjar.tx.TransactionWithAccess;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionCodecBenchmark {
+
+    private final TransactionDecoder decoder = new TransactionDecoder();
+    private final TransactionEncoder encoder = new TransactionEncoder();
+
+    private byte[] rawLegacy;
+    private byte[] rawAccessList;
+    private Transaction legacy;
+    private TransactionWithAccess withAccess;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        rawLegacy = Fixtures.RAW_LEGACY.getBytes();
+        rawAccessList = Fixtures.RAW_ACCESS_LIST.getBytes();
+
+        Signer signer = Signer.newMainnet();
+        legacy = Fixtures.transaction();
+        legacy.setSignature(signer.sign(legacy, Fixtures.PRIVATE_KEY));
+        withAccess = Fixtures.transactionWithAccess();
+        withAccess.setSignature(signer.sign(withAccess, Fixtures.PRIVATE_KEY));
+        buffer = ByteBuffer.allocateDirect(4096);
+    }
+
+    @Benchmark
+    public Transaction decodeLegacy() {
+        return decoder.decode(rawLegacy);
+    }
+
+    @Benchmark
+    public Transaction decodeAccessList() {
+        return decoder.decode(rawAccessList);
+    }
+
+    /**
+     * Typical classification of a transaction: recipient, method and hash
+     */
+    @Benchmark
+    public void classifyLegacy(Blackhole bh) {
+        Transaction tx = decoder.decode(rawLegacy);
+        bh.consume(tx.getTo());
+        bh.consume(MethodId.fromInput(tx.getData()));
+        bh.consume(tx.transactionId());
+    }
+
+    @Benchmark
+    public void classifyLegacyLazy(Blackhole bh) {
+        LazyTransaction tx = decoder.decodeLazy(rawLegacy);
+        bh.consume(tx.getTo());
+        bh.consume(tx.getMethodId());
+        bh.consume(tx.getTransactionId());
+    }
+
+    @Benchmark
+    public Address toAccessListLazy() {
+        return decoder.decodeLazy(rawAccessList).getTo();
+    }
+
+    @Benchmark
+    public Address toAccessList() {
+        return decoder.decode(rawAccessList).getTo();
+    }
+
+    @Benchmark
+    public byte[] encodeLegacy() {
+        return encoder.encode(legacy, true);
+    }
+
+    @Benchmark
+    public byte[] encodeAccessList() {
+        return encoder.encode(withAccess, true);
+    }
+
+    @Benchmark
+    public int encodeLegacyToBuffer() {
+        buffer.clear();
+        return encoder.encodeTo(legacy, true, buffer);
+    }
+
+    /**
+     * Signed transaction to a hex value for a request, ex. eth_sendRawTransaction
+     */
+    @Benchmark
+    public String encodeLegacyHex() {
+        return new HexData(encoder.encode(legacy, true)).toHex();
+    }
+
+    @Benchmark
+    public int encodeLegacyHexToBuffer() {
+        buffer.clear();
+        return encoder.encodeHex(legacy, buffer);
+    }
+
+    @Benchmark
+    public byte[] hashLegacy() {
+        return legacy.hash(1);
+    }
+}
@@ -1,13 +1,15 @@
 package io.emeraldpay.etherjar.contract;
 
 import io.emeraldpay.etherjar.domain.Address;
+import io.emeraldpay.etherjar.domain.Keccak256;
 import io.emeraldpay.etherjar.hex.Hex32;
 import io.emeraldpay.etherjar.hex.HexData;
 import io.emeraldpay.etherjar.rlp.RlpWriter;
-import org.bouncycastle.jcajce.provider.digest.Keccak;
 
 public class AddressGenerator {
 
+    private static final HexData CREATE2_PREFIX = new HexData(new byte[] {(byte) 0xff});
+
     /**
      * Base contract address generation available in Ethereum from the beginning
      * as <code>CREATE (0xf0)</code> opcode
@@ -24,9 +26,7 @@ public class AddressGenerator {
             .closeList()
             .toByteArray();
 
-        Keccak.Digest256 keccak = new Keccak.Digest256();
-        keccak.update(rlp);
-        byte[] digest = keccak.digest();
+        byte[] digest = Keccak256.digest(rlp);
 
         byte[] address = new byte[Address.SIZE_BYTES];
         System.arraycopy(digest, digest.length - address.length, address, 0, address.length);
@@ -50,17 +50,13 @@ public class AddressGenerator {
         // keccak256( 0xff ++ address ++ salt ++ keccak256(init_code))[12:]
         //
 
-        Keccak.Digest256 keccak = new Keccak.Digest256();
-
-        keccak.update(initCode.getBytes());
-        byte[] initCodeHash = keccak.digest();
-
-        keccak.reset();
-        keccak.update((byte)0xff);
-        keccak.update(from.getBytes());
-        keccak.update(salt.getBytes());
-        keccak.update(initCodeHash);
-        byte[] digest = keccak.digest();
+        byte[] initCodeHash = Keccak256.digest(initCode);
+        byte[] digest = Keccak256.digestConcat(
+            CREATE2_PREFIX,
+            from,
+            salt,
+            Hex32.from(initCodeHash)
+        );
 
         byte[] address = new byte[Address.SIZE_BYTES];
         System.arraycopy(digest, digest.length - address.length, address, 0, address.length);
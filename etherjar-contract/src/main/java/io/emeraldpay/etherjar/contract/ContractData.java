@@ -84,12 +84,7 @@ public class ContractData {
             throw new IllegalArgumentException("Invalid size: " + input.getSize());
         }
         MethodId method = MethodId.fromInput(input);
-        HexData[] rawArguments = input.split(Hex32.SIZE_BYTES, MethodId.SIZE_BYTES);
-        Hex32[] arguments = new Hex32[rawArguments.length];
-        for (int i = 0; i < rawArguments.length; i++) {
-            HexData arg = rawArguments[i];
-            arguments[i] = Hex32.from(arg);
-        }
+        Hex32[] arguments = input.split32(MethodId.SIZE_BYTES);
         return new ContractData(method, arguments);
     }
 
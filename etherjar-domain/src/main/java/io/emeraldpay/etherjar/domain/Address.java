@@ -19,8 +19,7 @@ package io.emeraldpay.etherjar.domain;
 
 import io.emeraldpay.etherjar.hex.Hex32;
 import io.emeraldpay.etherjar.hex.HexData;
-import org.bouncycastle.jcajce.provider.digest.Keccak;
-import org.bouncycastle.util.encoders.Hex;
+import io.emeraldpay.etherjar.hex.HexDecoder;
 
 import java.util.Arrays;
 import java.util.regex.Pattern;
@@ -35,6 +34,8 @@ public class Address extends HexData {
     public static final int SIZE_BYTES = 20;
     public static final int SIZE_HEX = 2 + SIZE_BYTES * 2;
 
+    private static final InternCache.Holder<Address> INTERN = new InternCache.Holder<>(Address::new);
+
     private static final byte[] EMPTY_12BYTES = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
 
     /**
@@ -63,7 +64,7 @@ public class Address extends HexData {
         if (value.getSize() != SIZE_BYTES) {
             throw new IllegalArgumentException("Invalid input length: " + value.getSize() + " != " + SIZE_BYTES);
         }
-        return new Address(value.getBytes());
+        return INTERN.intern(new Address(value.getBytes()));
     }
 
     public static Address from(byte[] value) {
@@ -73,7 +74,26 @@ public class Address extends HexData {
         if (value.length != SIZE_BYTES) {
             throw new IllegalArgumentException("Invalid input length: " + value.length + " != " + SIZE_BYTES);
         }
-        return new Address(value);
+        return INTERN.intern(value);
+    }
+
+    /**
+     * Create address from 20 bytes at the specified position of the array. The array is not retained, so it can be
+     * reused by the caller, and the bytes are copied only if an equal address is not in the intern cache.
+     *
+     * @param src array with the address
+     * @param offset position of the address in the array
+     * @return address
+     */
+    public static Address from(byte[] src, int offset) {
+        if (src == null) {
+            throw new IllegalArgumentException("Null input value");
+        }
+        if (offset < 0 || src.length - offset < SIZE_BYTES) {
+            throw new IllegalArgumentException(
+                "Invalid input range: " + offset + ".." + (offset + SIZE_BYTES) + " of " + src.length);
+        }
+        return INTERN.intern(src, offset, SIZE_BYTES);
     }
 
     public static Address from(String value) {
@@ -83,7 +103,7 @@ public class Address extends HexData {
         if (value.length() != SIZE_HEX) {
             throw new IllegalArgumentException("Invalid input length: " + value.length() + " != " + SIZE_HEX);
         }
-        return new Address(HexData.from(value).getBytes());
+        return INTERN.intern(new Address(HexDecoder.decode(value)));
     }
 
     public static Address empty() {
@@ -109,7 +129,7 @@ public class Address extends HexData {
         }
         byte[] address = new byte[Address.SIZE_BYTES];
         System.arraycopy(bytes, Hex32.SIZE_BYTES - Address.SIZE_BYTES, address,0, address.length);
-        return new Address(address);
+        return INTERN.intern(new Address(address));
     }
 
     /**
@@ -125,29 +145,22 @@ public class Address extends HexData {
     }
 
     public String toChecksumString() {
-        Keccak.Digest256 digest256 = new Keccak.Digest256();
-
         byte[] hex = new byte[value.length * 2];
         for(int i = 0, j = 0; i < value.length; i++){
             hex[j++] = HEX_BYTES[(0xF0 & value[i]) >>> 4];
             hex[j++] = HEX_BYTES[0x0F & value[i]];
         }
-        digest256.update(hex);
-        String hash = Hex.toHexString(digest256.digest());
+        byte[] hash = Keccak256.digest(hex);
 
-        char[] plain = toHex().toCharArray();
         char[] str = new char[hex.length + 2];
-        if (plain.length != str.length) {
-            throw new IllegalStateException("Hex representation has invalid length: " + plain.length + " != " + str.length);
-        }
         str[0] = '0';
         str[1] = 'x';
-        for (int i = 0; i < 40; i++) {
-            int dg = Character.digit(hash.charAt(i), 16);
-            if (dg > 7) {
-                str[i + 2] = Character.toUpperCase(plain[i + 2]);
+        for (int i = 0; i < hex.length; i++) {
+            char ch = (char) hex[i];
+            if (hashNibble(hash, i) > 7) {
+                str[i + 2] = Character.toUpperCase(ch);
             } else {
-                str[i + 2] = plain[i + 2];
+                str[i + 2] = ch;
             }
         }
         return new String(str);
@@ -165,16 +178,15 @@ public class Address extends HexData {
      * @return {@code true} if address with checksum
      */
     static boolean isValidChecksum(String address) {
-        Keccak.Digest256 digest256 = new Keccak.Digest256();
-
-        digest256.update(
-                address.substring(2).toLowerCase().getBytes());
-
-        String hash = Hex.toHexString(digest256.digest());
+        byte[] hex = new byte[SIZE_HEX - 2];
+        for (int i = 0; i < hex.length; i++) {
+            hex[i] = (byte) Character.toLowerCase(address.charAt(i + 2));
+        }
+        byte[] hash = Keccak256.digest(hex);
 
-        for (int i = 0; i < 40; i++) {
+        for (int i = 0; i < hex.length; i++) {
             char ch = address.charAt(i + 2);
-            int dg = Character.digit(hash.charAt(i), 16);
+            int dg = hashNibble(hash, i);
 
             if ((dg > 7 && Character.toUpperCase(ch) != ch)
                     || (dg <= 7 && Character.toLowerCase(ch) != ch))
@@ -183,4 +195,19 @@ public class Address extends HexData {
 
         return true;
     }
+
+    private static int hashNibble(byte[] hash, int i) {
+        int b = hash[i >> 1];
+        return (i & 1) == 0 ? (b & 0xF0) >>> 4 : b & 0x0F;
+    }
+
+    /**
+     * Enable canonicalization of the instances created by the factory methods, i.e. {@code from(...)}, so the same
+     * value is backed by a single instance. Disabled by default.
+     *
+     * @param cache cache to use, or null to disable
+     */
+    public static void setInternCache(InternCache<Address> cache) {
+        INTERN.set(cache);
+    }
 }
@@ -18,12 +18,15 @@
 package io.emeraldpay.etherjar.domain;
 
 import io.emeraldpay.etherjar.hex.HexData;
+import io.emeraldpay.etherjar.hex.HexDecoder;
 
 public class BlockHash extends HexData {
 
     public static final int SIZE_BYTES = 32;
     public static final int SIZE_HEX = 2 + SIZE_BYTES * 2;
 
+    private static final InternCache.Holder<BlockHash> INTERN = new InternCache.Holder<>(BlockHash::new);
+
     public BlockHash(byte[] value) {
         super(value, SIZE_BYTES);
     }
@@ -35,7 +38,26 @@ public class BlockHash extends HexData {
         if (value.length != SIZE_BYTES) {
             throw new IllegalArgumentException("Invalid Block Hash length: " + value.length);
         }
-        return new BlockHash(value);
+        return INTERN.intern(value);
+    }
+
+    /**
+     * Create hash from 32 bytes at the specified position of the array. The array is not retained, so it can be
+     * reused by the caller, and the bytes are copied only if an equal hash is not in the intern cache.
+     *
+     * @param src array with the hash
+     * @param offset position of the hash in the array
+     * @return block hash
+     */
+    public static BlockHash from(byte[] src, int offset) {
+        if (src == null) {
+            throw new IllegalArgumentException("Null Hash");
+        }
+        if (offset < 0 || src.length - offset < SIZE_BYTES) {
+            throw new IllegalArgumentException(
+                "Invalid Block Hash range: " + offset + ".." + (offset + SIZE_BYTES) + " of " + src.length);
+        }
+        return INTERN.intern(src, offset, SIZE_BYTES);
     }
 
     public static BlockHash from(String value) {
@@ -45,10 +67,20 @@ public class BlockHash extends HexData {
         if (value.length() != SIZE_HEX) {
             throw new IllegalArgumentException("Invalid Block Hash length: " + value.length());
         }
-        return new BlockHash(HexData.from(value).getBytes());
+        return INTERN.intern(new BlockHash(HexDecoder.decode(value)));
     }
 
     public static BlockHash empty() {
         return new BlockHash(new byte[SIZE_BYTES]);
     }
+
+    /**
+     * Enable canonicalization of the instances created by the factory methods, i.e. {@code from(...)}, so the same
+     * value is backed by a single instance. Disabled by default.
+     *
+     * @param cache cache to use, or null to disable
+     */
+    public static void setInternCache(InternCache<BlockHash> cache) {
+        INTERN.set(cache);
+    }
 }
@@ -1,7 +1,7 @@
 package io.emeraldpay.etherjar.domain;
 
 import io.emeraldpay.etherjar.hex.HexData;
-import org.bouncycastle.jcajce.provider.digest.Keccak;
+import io.emeraldpay.etherjar.hex.HexDecoder;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -33,7 +33,7 @@ public class Bloom extends HexData {
         if (value.length() != SIZE_HEX) {
             throw new IllegalArgumentException("Invalid input length: " + value.length() + " != " + SIZE_HEX);
         }
-        return new Bloom(HexData.from(value).getBytes());
+        return new Bloom(HexDecoder.decode(value));
     }
 
     public static Bloom empty() {
@@ -63,11 +63,9 @@ public class Bloom extends HexData {
 
     public static class Builder {
         private final byte[] current = new byte[SIZE_BYTES];
-        private final Keccak.Digest256 keccak = new Keccak.Digest256();
 
         public Builder add(HexData value) {
-            keccak.update(value.getBytes());
-            byte[] hash = keccak.digest();
+            byte[] hash = Keccak256.digest(value);
 
             for (int i = 0; i < 6; i+= 2) {
                 int high = hash[i] & 0x7;
@@ -17,7 +17,7 @@ package io.emeraldpay.etherjar.domain;
 
 import io.emeraldpay.etherjar.hex.Hex32;
 import io.emeraldpay.etherjar.hex.HexData;
-import org.bouncycastle.jcajce.provider.digest.Keccak;
+import io.emeraldpay.etherjar.hex.HexDecoder;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -32,6 +32,8 @@ public class EventId extends Hex32 {
     public static final int SIZE_BYTES = Hex32.SIZE_BYTES;
     public static final int SIZE_HEX = Hex32.SIZE_HEX;
 
+    private static final InternCache.Holder<EventId> INTERN = new InternCache.Holder<>(EventId::new);
+
     private EventId(byte[] value) {
         super(value);
     }
@@ -43,7 +45,7 @@ public class EventId extends Hex32 {
         if (value.length != SIZE_BYTES)
             throw new IllegalArgumentException("Invalid EventId length: " + value.length);
 
-        return new EventId(value);
+        return INTERN.intern(value);
     }
 
     public static EventId from(String value) {
@@ -53,7 +55,7 @@ public class EventId extends Hex32 {
         if (value.length() != SIZE_HEX)
             throw new IllegalArgumentException("Invalid EventId length: " + value.length());
 
-        return new EventId(HexData.from(value).getBytes());
+        return INTERN.intern(new EventId(HexDecoder.decode(value)));
     }
 
     public static EventId empty() {
@@ -67,8 +69,16 @@ public class EventId extends Hex32 {
     public static EventId fromSignature(String name, Collection<String> types) {
         String sign = Objects.requireNonNull(name) +
             '(' + String.join(",", Objects.requireNonNull(types)) + ')';
-        Keccak.Digest256 digest256 = new Keccak.Digest256();
-        digest256.update(sign.getBytes());
-        return from(digest256.digest());
+        return from(Keccak256.digest(sign.getBytes()));
+    }
+
+    /**
+     * Enable canonicalization of the instances created by the factory methods, i.e. {@code from(...)}, so the same
+     * value is backed by a single instance. Disabled by default.
+     *
+     * @param cache cache to use, or null to disable
+     */
+    public static void setInternCache(InternCache<EventId> cache) {
+        INTERN.set(cache);
     }
 }
@@ -18,6 +18,7 @@
 package io.emeraldpay.etherjar.domain;
 
 import io.emeraldpay.etherjar.hex.HexData;
+import io.emeraldpay.etherjar.hex.HexDecoder;
 
 /**
  * An address, followed by a function selector.
@@ -48,6 +49,6 @@ public class Function extends HexData {
         if (value.length() != SIZE_HEX) {
             throw new IllegalArgumentException("Invalid Function length: " + value.length());
         }
-        return new Function(HexData.from(value).getBytes());
+        return new Function(HexDecoder.decode(value));
     }
 }
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.emeraldpay.etherjar.domain;
+
+import io.emeraldpay.etherjar.hex.HexData;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded concurrent cache of canonical instances, which allows to keep a single copy of frequently used values
+ * (i.e., same addresses of popular contracts) instead of retaining a new instance with its own array for each
+ * occurrence.
+ * <p>
+ * The cache is a fixed size hash table where a new value replaces the previous value in the same slot, so it never
+ * grows beyond the initial size and requires no locking. An instance evicted by a collision is still a valid
+ * value, so a lookup may only miss, and never returns a wrong value.
+ * <p>
+ * A canonical instance is shared by the whole process, so it must never wrap an array owned by a caller. A value
+ * which already has its own array is interned as is with {@link #intern(HexData)}, and a value stored in a caller's
+ * array is looked up by its bytes with {@link #intern(byte[], int, int, Function)}, which copies the bytes only if
+ * the value is not in the cache yet. So a hit doesn't allocate anything.
+ * <p>
+ * Use with {@link Address#setInternCache(InternCache)}, {@link BlockHash#setInternCache(InternCache)},
+ * {@link TransactionId#setInternCache(InternCache)} or {@link EventId#setInternCache(InternCache)} to enable it
+ * for the factory methods of the corresponding class, which use it through a {@link Holder}.
+ *
+ * @param <T> type of the values
+ */
+public class InternCache<T extends HexData> {
+
+    /**
+     * Approximate size of an object header plus the reference to the array, with compressed pointers
+     */
+    private static final int OBJECT_OVERHEAD = 16;
+    /**
+     * Approximate size of an array header, with compressed pointers
+     */
+    private static final int ARRAY_OVERHEAD = 16;
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+
+    /**
+     * @param size maximum number of cached values, rounded up to the nearest power of two
+     */
+    public InternCache(int size) {
+        if (size <= 0 || size > 1 << 30) {
+            throw new IllegalArgumentException("Invalid cache size: " + size);
+        }
+        int capacity = Integer.highestOneBit(size);
+        if (capacity < size) {
+            capacity <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Get canonical instance for the value. If the cache already has an equal value it's returned, otherwise the
+     * provided value is remembered and returned as is.
+     *
+     * @param value value to look up
+     * @return a cached equal instance or the value itself
+     */
+    public T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+        int index = index(value.hashCode());
+        T current = slots.get(index);
+        if (current != null && current.getClass() == value.getClass() && current.equals(value)) {
+            hits.increment();
+            savedBytes.add(OBJECT_OVERHEAD + align(ARRAY_OVERHEAD + value.getSize()));
+            return current;
+        }
+        misses.increment();
+        slots.set(index, value);
+        return value;
+    }
+
+    /**
+     * Get canonical instance for the value stored in a part of the array. If the cache already has an equal value
+     * it's returned without allocating anything, otherwise a new instance is created for a copy of the bytes and
+     * remembered. The source array is never retained by the cache, so the caller may reuse it.
+     *
+     * @param src array with the value
+     * @param offset position of the value in the array
+     * @param length size of the value
+     * @param factory creates an instance which owns the provided array
+     * @return a cached equal instance or a new instance
+     */
+    public T intern(byte[] src, int offset, int length, Function<byte[], T> factory) {
+        int index = index(hashCode(src, offset, length));
+        T current = slots.get(index);
+        if (current != null && current.contentEquals(src, offset, length)) {
+            hits.increment();
+            savedBytes.add(OBJECT_OVERHEAD + align(ARRAY_OVERHEAD + length));
+            return current;
+        }
+        misses.increment();
+        T value = factory.apply(Arrays.copyOfRange(src, offset, offset + length));
+        slots.set(index, value);
+        return value;
+    }
+
+    /**
+     * @return maximum number of cached values
+     */
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * @return number of lookups which returned a cached instance
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of lookups which returned the provided instance
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return ratio of hits to all lookups, or 0 if there were no lookups
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        if (total == 0) {
+            return 0;
+        }
+        return (double) hits / total;
+    }
+
+    /**
+     * Approximate amount of memory which is not retained because of the cache, i.e. a sum of the sizes of the
+     * duplicate instances which were replaced by a cached instance.
+     *
+     * @return number of bytes
+     */
+    public long getSavedBytes() {
+        return savedBytes.sum();
+    }
+
+    /**
+     * Remove all cached values and reset the stats
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+        hits.reset();
+        misses.reset();
+        savedBytes.reset();
+    }
+
+    private int index(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * @return same as {@link HexData#hashCode()} of the value with the specified bytes
+     */
+    private static int hashCode(byte[] src, int offset, int length) {
+        int result = 1;
+        for (int i = offset; i < offset + length; i++) {
+            result = 31 * result + src[i];
+        }
+        return result;
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
+
+    /**
+     * Optional cache used by the factory methods of a type, which returns new instances as is until a cache is set.
+     *
+     * @param <T> type of the values
+     */
+    public static final class Holder<T extends HexData> {
+
+        private final Function<byte[], T> factory;
+        private volatile InternCache<T> cache;
+
+        /**
+         * @param factory creates an instance which owns the provided array
+         */
+        public Holder(Function<byte[], T> factory) {
+            this.factory = factory;
+        }
+
+        /**
+         * @param cache cache to use, or null to disable
+         */
+        public void set(InternCache<T> cache) {
+            this.cache = cache;
+        }
+
+        /**
+         * @param value value which owns its array
+         * @return a cached equal instance, or the value itself
+         */
+        public T intern(T value) {
+            InternCache<T> current = cache;
+            if (current == null) {
+                return value;
+            }
+            return current.intern(value);
+        }
+
+        /**
+         * Get an instance for the whole array. Without a cache the array is wrapped as is, otherwise it's copied only
+         * if the value is not in the cache.
+         *
+         * @param value the bytes
+         * @return a cached equal instance, or a new instance
+         */
+        public T intern(byte[] value) {
+            InternCache<T> current = cache;
+            if (current == null) {
+                return factory.apply(value);
+            }
+            return current.intern(value, 0, value.length, factory);
+        }
+
+        /**
+         * Get an instance for a part of the array, which is never retained.
+         *
+         * @param src array with the value
+         * @param offset position of the value in the array
+         * @param length size of the value
+         * @return a cached equal instance, or a new instance with a copy of the bytes
+         */
+        public T intern(byte[] src, int offset, int length) {
+            InternCache<T> current = cache;
+            if (current == null) {
+                return factory.apply(Arrays.copyOfRange(src, offset, offset + length));
+            }
+            return current.intern(src, offset, length, factory);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.emeraldpay.etherjar.domain;
+
+import io.emeraldpay.etherjar.hex.HexData;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keccak-256 hash, as used by Ethereum (which is not the same as the final SHA3-256).
+ * <p>
+ * Keeps a digest per thread, so a hash doesn't allocate anything except the result, and reads the input directly
+ * from the provided array range or buffer without making a copy. A {@link HexData}, including a slice, is read
+ * through its read-only view, without copying it into a new array.
+ * <p>
+ * Uses own pure Java implementation of the Keccak permutation (see {@link KeccakState}), which is noticeably faster
+ * than the generic BouncyCastle digest on the short inputs typical for Ethereum (hashes, addresses, signatures
+ * and most of the transactions fit into a single 136 byte block).
+ * <p>
+ * Thread-safe. The digest is reset after each call.
+ */
+public final class Keccak256 {
+
+    /**
+     * Size of the hash in bytes
+     */
+    public static final int SIZE_BYTES = 32;
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private Keccak256() {
+    }
+
+    /**
+     * @param input data to hash
+     * @return Keccak-256 hash of the data
+     */
+    public static byte[] digest(byte[] input) {
+        return digest(input, 0, input.length);
+    }
+
+    /**
+     * @param input data to hash
+     * @param offset position of the first byte in the input
+     * @param length number of bytes to hash
+     * @return Keccak-256 hash of the data
+     */
+    public static byte[] digest(byte[] input, int offset, int length) {
+        byte[] result = new byte[SIZE_BYTES];
+        digest(input, offset, length, result, 0);
+        return result;
+    }
+
+    /**
+     * Hash the data into a provided array. Requires {@link #SIZE_BYTES} available in the target array.
+     *
+     * @param input data to hash
+     * @param offset position of the first byte in the input
+     * @param length number of bytes to hash
+     * @param dest target array
+     * @param destOffset position of the first byte of the hash in the target array
+     */
+    public static void digest(byte[] input, int offset, int length, byte[] dest, int destOffset) {
+        checkRange(input.length, offset, length);
+        checkRange(dest.length, destOffset, SIZE_BYTES);
+        KeccakState digest = STATE.get().digest;
+        digest.digest(input, offset, length, dest, destOffset);
+    }
+
+    /**
+     * Hash the remaining bytes of the buffer. The buffer position is moved to its limit.
+     *
+     * @param input data to hash, either heap or direct buffer
+     * @return Keccak-256 hash of the data
+     */
+    public static byte[] digest(ByteBuffer input) {
+        State state = STATE.get();
+        state.update(input);
+        byte[] result = new byte[SIZE_BYTES];
+        state.digest.doFinal(result, 0);
+        return result;
+    }
+
+    /**
+     * @param input data to hash
+     * @return Keccak-256 hash of the data
+     */
+    public static byte[] digest(HexData input) {
+        State state = STATE.get();
+        state.update(input);
+        byte[] result = new byte[SIZE_BYTES];
+        state.digest.doFinal(result, 0);
+        return result;
+    }
+
+    /**
+     * Hash a concatenation of the inputs, without actually concatenating them.
+     *
+     * @param inputs parts of the data to hash
+     * @return Keccak-256 hash of the concatenated data
+     */
+    public static byte[] digestConcat(byte[]... inputs) {
+        KeccakState digest = STATE.get().digest;
+        try {
+            for (byte[] input: inputs) {
+                digest.update(input, 0, input.length);
+            }
+        } catch (RuntimeException e) {
+            digest.reset();
+            throw e;
+        }
+        byte[] result = new byte[SIZE_BYTES];
+        digest.doFinal(result, 0);
+        return result;
+    }
+
+    /**
+     * Hash a concatenation of the inputs, without actually concatenating them.
+     *
+     * @param inputs parts of the data to hash
+     * @return Keccak-256 hash of the concatenated data
+     */
+    public static byte[] digestConcat(HexData... inputs) {
+        State state = STATE.get();
+        try {
+            for (HexData input: inputs) {
+                state.update(input);
+            }
+        } catch (RuntimeException e) {
+            state.digest.reset();
+            throw e;
+        }
+        byte[] result = new byte[SIZE_BYTES];
+        state.digest.doFinal(result, 0);
+        return result;
+    }
+
+    /**
+     * Hash each of the inputs separately. All hashes are placed into a single array, the hash of the input at
+     * index {@code i} is at {@code i * SIZE_BYTES}.
+     *
+     * @param inputs list of data to hash
+     * @return hashes of all inputs, {@code inputs.length * SIZE_BYTES} bytes
+     */
+    public static byte[] digestEach(byte[][] inputs) {
+        KeccakState digest = STATE.get().digest;
+        byte[] result = new byte[inputs.length * SIZE_BYTES];
+        for (int i = 0; i < inputs.length; i++) {
+            digest.digest(inputs[i], 0, inputs[i].length, result, i * SIZE_BYTES);
+        }
+        return result;
+    }
+
+    /**
+     * Hash each of the inputs separately.
+     *
+     * @param inputs list of data to hash
+     * @return hashes of all inputs, {@code inputs.size() * SIZE_BYTES} bytes
+     * @see #digestEach(byte[][])
+     */
+    public static byte[] digestEach(List<byte[]> inputs) {
+        KeccakState digest = STATE.get().digest;
+        byte[] result = new byte[inputs.size() * SIZE_BYTES];
+        int pos = 0;
+        for (byte[] input: inputs) {
+            digest.digest(input, 0, input.length, result, pos);
+            pos += SIZE_BYTES;
+        }
+        return result;
+    }
+
+    private static void checkRange(int size, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > size - length) {
+            throw new IndexOutOfBoundsException("Range " + offset + "+" + length + " is out of bounds of " + size);
+        }
+    }
+
+    /**
+     * Per-thread state
+     */
+    private static class State {
+        private final KeccakState digest = new KeccakState();
+        private byte[] buffer;
+
+        void update(HexData input) {
+            Objects.requireNonNull(input);
+            // a read-only view, so the data is copied in small chunks through the buffer and never exposed
+            update(input.asByteBuffer());
+        }
+
+        void update(ByteBuffer input) {
+            if (input.hasArray()) {
+                digest.update(input.array(), input.arrayOffset() + input.position(), input.remaining());
+                input.position(input.limit());
+                return;
+            }
+            if (buffer == null) {
+                buffer = new byte[BUFFER_SIZE];
+            }
+            while (input.hasRemaining()) {
+                int len = Math.min(buffer.length, input.remaining());
+                input.get(buffer, 0, len);
+                digest.update(buffer, 0, len);
+            }
+        }
+    }
+}
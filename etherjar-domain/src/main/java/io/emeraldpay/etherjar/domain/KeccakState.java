@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.emeraldpay.etherjar.domain;
+
+import java.util.Arrays;
+
+/**
+ * Keccak sponge with Keccak-f[1600] permutation, configured for the 256 bit output used by Ethereum
+ * (rate 1088 bits, original Keccak padding {@code 0x01 .. 0x80}).
+ * <p>
+ * The state is kept as 25 little-endian 64 bit lanes, full blocks are absorbed straight from the input and the
+ * permutation is unrolled over the lanes held in local variables.
+ * <p>
+ * Not thread-safe, see {@link Keccak256} for the shared per-thread instances.
+ */
+final class KeccakState {
+
+    /**
+     * Size of a block absorbed per permutation, in bytes
+     */
+    static final int RATE = 136;
+
+    private static final int RATE_LANES = RATE / 8;
+
+    private static final long[] ROUND_CONSTANTS = {
+        0x0000000000000001L, 0x0000000000008082L, 0x800000000000808aL, 0x8000000080008000L,
+        0x000000000000808bL, 0x0000000080000001L, 0x8000000080008081L, 0x8000000000008009L,
+        0x000000000000008aL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000aL,
+        0x000000008000808bL, 0x800000000000008bL, 0x8000000000008089L, 0x8000000000008003L,
+        0x8000000000008002L, 0x8000000000000080L, 0x000000000000800aL, 0x800000008000000aL,
+        0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L
+    };
+
+    private final long[] state = new long[25];
+    /**
+     * Tail of the input which doesn't make a full block yet
+     */
+    private final byte[] queue = new byte[RATE];
+    private int queued = 0;
+
+    void update(byte b) {
+        queue[queued++] = b;
+        if (queued == RATE) {
+            absorb(queue, 0);
+            queued = 0;
+        }
+    }
+
+    void update(byte[] input, int offset, int length) {
+        if (queued > 0) {
+            int len = Math.min(RATE - queued, length);
+            System.arraycopy(input, offset, queue, queued, len);
+            queued += len;
+            offset += len;
+            length -= len;
+            if (queued < RATE) {
+                return;
+            }
+            absorb(queue, 0);
+            queued = 0;
+        }
+        while (length >= RATE) {
+            absorb(input, offset);
+            offset += RATE;
+            length -= RATE;
+        }
+        if (length > 0) {
+            System.arraycopy(input, offset, queue, 0, length);
+            queued = length;
+        }
+    }
+
+    /**
+     * Finish the hash, write 32 bytes of it into the target and reset the state for the next use
+     *
+     * @param dest target array
+     * @param destOffset position of the first byte of the hash in the target array
+     */
+    void doFinal(byte[] dest, int destOffset) {
+        Arrays.fill(queue, queued, RATE, (byte) 0);
+        queue[queued] ^= 0x01;
+        queue[RATE - 1] ^= (byte) 0x80;
+        absorb(queue, 0);
+        squeeze(dest, destOffset);
+        reset();
+    }
+
+    /**
+     * Hash a complete input. Must be called on a clean state, i.e. without a preceding {@link #update}. Inputs
+     * shorter than a block are loaded into the lanes directly, without copying them into the queue first, which
+     * is the most common case for Ethereum data.
+     *
+     * @param input data to hash
+     * @param offset position of the first byte in the input
+     * @param length number of bytes to hash
+     * @param dest target array
+     * @param destOffset position of the first byte of the hash in the target array
+     */
+    void digest(byte[] input, int offset, int length, byte[] dest, int destOffset) {
+        if (length >= RATE) {
+            update(input, offset, length);
+            doFinal(dest, destOffset);
+            return;
+        }
+        long[] s = state;
+        int lanes = length >>> 3;
+        for (int i = 0; i < lanes; i++) {
+            s[i] = getLong(input, offset + i * 8);
+        }
+        // the last partial lane with the first padding byte right after the data
+        int pos = offset + lanes * 8;
+        int tail = length & 7;
+        long last = 0x01L << (tail * 8);
+        for (int j = 0; j < tail; j++) {
+            last |= (input[pos + j] & 0xffL) << (j * 8);
+        }
+        s[lanes] = last;
+        s[RATE_LANES - 1] ^= 0x80L << 56;
+        permute(s);
+        squeeze(dest, destOffset);
+        reset();
+    }
+
+    void reset() {
+        Arrays.fill(state, 0L);
+        queued = 0;
+    }
+
+    private void squeeze(byte[] dest, int destOffset) {
+        long[] s = state;
+        for (int i = 0; i < 4; i++) {
+            long lane = s[i];
+            int pos = destOffset + i * 8;
+            for (int j = 0; j < 8; j++) {
+                dest[pos + j] = (byte) (lane >>> (j * 8));
+            }
+        }
+    }
+
+    private void absorb(byte[] input, int offset) {
+        long[] s = state;
+        for (int i = 0; i < RATE_LANES; i++) {
+            s[i] ^= getLong(input, offset + i * 8);
+        }
+        permute(s);
+    }
+
+    private static long getLong(byte[] input, int offset) {
+        return (input[offset] & 0xffL)
+            | (input[offset + 1] & 0xffL) << 8
+            | (input[offset + 2] & 0xffL) << 16
+            | (input[offset + 3] & 0xffL) << 24
+            | (input[offset + 4] & 0xffL) << 32
+            | (input[offset + 5] & 0xffL) << 40
+            | (input[offset + 6] & 0xffL) << 48
+            | (input[offset + 7] & 0xffL) << 56;
+    }
+
+    /**
+     * Keccak-f[1600] permutation over the lanes {@code a00..a24}, where lane {@code (x, y)} is at {@code x + 5 * y}.
+     * Each round applies theta, rho and pi together in place, following the single 24 lane cycle of pi,
+     * then chi row by row and iota. Working in place keeps fewer values alive than the textbook version with a
+     * temporary copy of the state, which matters for the register allocation.
+     *
+     * @param s state lanes
+     */
+    static void permute(long[] s) {
+        long a00 = s[0];
+        long a01 = s[1];
+        long a02 = s[2];
+        long a03 = s[3];
+        long a04 = s[4];
+        long a05 = s[5];
+        long a06 = s[6];
+        long a07 = s[7];
+        long a08 = s[8];
+        long a09 = s[9];
+        long a10 = s[10];
+        long a11 = s[11];
+        long a12 = s[12];
+        long a13 = s[13];
+        long a14 = s[14];
+        long a15 = s[15];
+        long a16 = s[16];
+        long a17 = s[17];
+        long a18 = s[18];
+        long a19 = s[19];
+        long a20 = s[20];
+        long a21 = s[21];
+        long a22 = s[22];
+        long a23 = s[23];
+        long a24 = s[24];
+
+        for (int round = 0; round < 24; round++) {
+            long c0 = a00 ^ a05 ^ a10 ^ a15 ^ a20;
+            long c1 = a01 ^ a06 ^ a11 ^ a16 ^ a21;
+            long c2 = a02 ^ a07 ^ a12 ^ a17 ^ a22;
+            long c3 = a03 ^ a08 ^ a13 ^ a18 ^ a23;
+            long c4 = a04 ^ a09 ^ a14 ^ a19 ^ a24;
+            long d0 = c4 ^ Long.rotateLeft(c1, 1);
+            long d1 = c0 ^ Long.rotateLeft(c2, 1);
+            long d2 = c1 ^ Long.rotateLeft(c3, 1);
+            long d3 = c2 ^ Long.rotateLeft(c4, 1);
+            long d4 = c3 ^ Long.rotateLeft(c0, 1);
+            a00 ^= d0;
+            long t = a01 ^ d1;
+            a01 = Long.rotateLeft(a06 ^ d1, 44);
+            a06 = Long.rotateLeft(a09 ^ d4, 20);
+            a09 = Long.rotateLeft(a22 ^ d2, 61);
+            a22 = Long.rotateLeft(a14 ^ d4, 39);
+            a14 = Long.rotateLeft(a20 ^ d0, 18);
+            a20 = Long.rotateLeft(a02 ^ d2, 62);
+            a02 = Long.rotateLeft(a12 ^ d2, 43);
+            a12 = Long.rotateLeft(a13 ^ d3, 25);
+            a13 = Long.rotateLeft(a19 ^ d4, 8);
+            a19 = Long.rotateLeft(a23 ^ d3, 56);
+            a23 = Long.rotateLeft(a15 ^ d0, 41);
+            a15 = Long.rotateLeft(a04 ^ d4, 27);
+            a04 = Long.rotateLeft(a24 ^ d4, 14);
+            a24 = Long.rotateLeft(a21 ^ d1, 2);
+            a21 = Long.rotateLeft(a08 ^ d3, 55);
+            a08 = Long.rotateLeft(a16 ^ d1, 45);
+            a16 = Long.rotateLeft(a05 ^ d0, 36);
+            a05 = Long.rotateLeft(a03 ^ d3, 28);
+            a03 = Long.rotateLeft(a18 ^ d3, 21);
+            a18 = Long.rotateLeft(a17 ^ d2, 15);
+            a17 = Long.rotateLeft(a11 ^ d1, 10);
+            a11 = Long.rotateLeft(a07 ^ d2, 6);
+            a07 = Long.rotateLeft(a10 ^ d0, 3);
+            a10 = Long.rotateLeft(t, 1);
+            c0 = a00;
+            c1 = a01;
+            c2 = a02;
+            c3 = a03;
+            c4 = a04;
+            a00 = c0 ^ (~c1 & c2);
+            a01 = c1 ^ (~c2 & c3);
+            a02 = c2 ^ (~c3 & c4);
+            a03 = c3 ^ (~c4 & c0);
+            a04 = c4 ^ (~c0 & c1);
+            c0 = a05;
+            c1 = a06;
+            c2 = a07;
+            c3 = a08;
+            c4 = a09;
+            a05 = c0 ^ (~c1 & c2);
+            a06 = c1 ^ (~c2 & c3);
+            a07 = c2 ^ (~c3 & c4);
+            a08 = c3 ^ (~c4 & c0);
+            a09 = c4 ^ (~c0 & c1);
+            c0 = a10;
+            c1 = a11;
+            c2 = a12;
+            c3 = a13;
+            c4 = a14;
+            a10 = c0 ^ (~c1 & c2);
+            a11 = c1 ^ (~c2 & c3);
+            a12 = c2 ^ (~c3 & c4);
+            a13 = c3 ^ (~c4 & c0);
+            a14 = c4 ^ (~c0 & c1);
+            c0 = a15;
+            c1 = a16;
+            c2 = a17;
+            c3 = a18;
+            c4 = a19;
+            a15 = c0 ^ (~c1 & c2);
+            a16 = c1 ^ (~c2 & c3);
+            a17 = c2 ^ (~c3 & c4);
+            a18 = c3 ^ (~c4 & c0);
+            a19 = c4 ^ (~c0 & c1);
+            c0 = a20;
+            c1 = a21;
+            c2 = a22;
+            c3 = a23;
+            c4 = a24;
+            a20 = c0 ^ (~c1 & c2);
+            a21 = c1 ^ (~c2 & c3);
+            a22 = c2 ^ (~c3 & c4);
+            a23 = c3 ^ (~c4 & c0);
+            a24 = c4 ^ (~c0 & c1);
+            a00 ^= ROUND_CONSTANTS[round];
+        }
+
+        s[0] = a00;
+        s[1] = a01;
+        s[2] = a02;
+        s[3] = a03;
+        s[4] = a04;
+        s[5] = a05;
+        s[6] = a06;
+        s[7] = a07;
+        s[8] = a08;
+        s[9] = a09;
+        s[10] = a10;
+        s[11] = a11;
+        s[12] = a12;
+        s[13] = a13;
+        s[14] = a14;
+        s[15] = a15;
+        s[16] = a16;
+        s[17] = a17;
+        s[18] = a18;
+        s[19] = a19;
+        s[20] = a20;
+        s[21] = a21;
+        s[22] = a22;
+        s[23] = a23;
+        s[24] = a24;
+    }
+}
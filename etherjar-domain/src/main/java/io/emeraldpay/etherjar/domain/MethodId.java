@@ -18,7 +18,7 @@
 package io.emeraldpay.etherjar.domain;
 
 import io.emeraldpay.etherjar.hex.HexData;
-import org.bouncycastle.jcajce.provider.digest.Keccak;
+import io.emeraldpay.etherjar.hex.HexDecoder;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -45,13 +45,8 @@ public class MethodId extends HexData {
         String sign = Objects.requireNonNull(name) +
                 '(' + String.join(",", Objects.requireNonNull(types)) + ')';
 
-        byte[] head = new byte[SIZE_BYTES];
-        Keccak.Digest256 digest256 = new Keccak.Digest256();
-
-        digest256.update(sign.getBytes());
-        System.arraycopy(digest256.digest(), 0, head, 0, SIZE_BYTES);
-
-        return from(head);
+        byte[] hash = Keccak256.digest(sign.getBytes());
+        return from(Arrays.copyOf(hash, SIZE_BYTES));
     }
 
     public static MethodId from(byte[] value) {
@@ -71,7 +66,7 @@ public class MethodId extends HexData {
         if (value.length() != SIZE_HEX)
             throw new IllegalArgumentException("Invalid MethodId length: " + value.length());
 
-        return new MethodId(HexData.from(value).getBytes());
+        return new MethodId(HexDecoder.decode(value));
     }
 
     public static MethodId empty() {
@@ -82,13 +77,10 @@ public class MethodId extends HexData {
         if (input == null) {
             return null;
         }
-        byte[] data = input.getBytes();
-        if (data.length < SIZE_BYTES) {
+        if (input.getSize() < SIZE_BYTES) {
             return null;
         }
-        byte[] head = new byte[SIZE_BYTES];
-        System.arraycopy(data, 0, head, 0, SIZE_BYTES);
-        return new MethodId(head);
+        return new MethodId(input.extract(SIZE_BYTES).getBytes());
     }
 
     public MethodId(byte[] value) {
@@ -19,6 +19,7 @@ package io.emeraldpay.etherjar.domain;
 
 
 import io.emeraldpay.etherjar.hex.HexData;
+import io.emeraldpay.etherjar.hex.HexDecoder;
 
 public class Nonce extends HexData {
 
@@ -46,6 +47,6 @@ public class Nonce extends HexData {
         if (value.length() != SIZE_HEX) {
             throw new IllegalArgumentException("Invalid Nonce length: " + value.length());
         }
-        return new Nonce(HexData.from(value).getBytes());
+        return new Nonce(HexDecoder.decode(value));
     }
 }
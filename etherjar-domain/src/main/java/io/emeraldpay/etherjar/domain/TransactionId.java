@@ -18,6 +18,7 @@
 package io.emeraldpay.etherjar.domain;
 
 import io.emeraldpay.etherjar.hex.HexData;
+import io.emeraldpay.etherjar.hex.HexDecoder;
 
 /**
  * Transaction Hash value
@@ -27,6 +28,8 @@ public class TransactionId extends HexData {
     public static final int SIZE_BYTES = 32;
     public static final int SIZE_HEX = 2 + SIZE_BYTES * 2;
 
+    private static final InternCache.Holder<TransactionId> INTERN = new InternCache.Holder<>(TransactionId::new);
+
     protected TransactionId(byte[] value) {
         super(value, SIZE_BYTES);
     }
@@ -41,7 +44,23 @@ public class TransactionId extends HexData {
         if (value.length != SIZE_BYTES) {
             throw new IllegalArgumentException("Invalid Tx length: " + value.length);
         }
-        return new TransactionId(value);
+        return INTERN.intern(value);
+    }
+
+    /**
+     * Parse value from 32 bytes at the specified position of the array. The array is not retained, so it can be
+     * reused by the caller, and the bytes are copied only if an equal value is not in the intern cache.
+     *
+     * @param src array with the bytes representation
+     * @param offset position of the value in the array
+     * @return TransactionId
+     */
+    public static TransactionId from(byte[] src, int offset) {
+        if (offset < 0 || src.length - offset < SIZE_BYTES) {
+            throw new IllegalArgumentException(
+                "Invalid Tx range: " + offset + ".." + (offset + SIZE_BYTES) + " of " + src.length);
+        }
+        return INTERN.intern(src, offset, SIZE_BYTES);
     }
 
     /**
@@ -57,11 +76,20 @@ public class TransactionId extends HexData {
         if (value.length() != SIZE_HEX) {
             throw new IllegalArgumentException("Invalid Tx length: " + value.length());
         }
-        return new TransactionId(HexData.from(value).getBytes());
+        return INTERN.intern(new TransactionId(HexDecoder.decode(value)));
     }
 
     public static TransactionId empty() {
         return new TransactionId(new byte[SIZE_BYTES]);
     }
 
+    /**
+     * Enable canonicalization of the instances created by the factory methods, i.e. {@code from(...)}, so the same
+     * value is backed by a single instance. Disabled by default.
+     *
+     * @param cache cache to use, or null to disable
+     */
+    public static void setInternCache(InternCache<TransactionId> cache) {
+        INTERN.set(cache);
+    }
 }
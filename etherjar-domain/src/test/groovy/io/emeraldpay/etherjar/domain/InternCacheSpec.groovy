@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.emeraldpay.etherjar.domain
+
+import io.emeraldpay.etherjar.hex.HexData
+import spock.lang.Specification
+
+class InternCacheSpec extends Specification {
+
+    def "Returns same instance for equal values"() {
+        setup:
+        def cache = new InternCache<Address>(16)
+        when:
+        def a1 = cache.intern(Address.from("0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2"))
+        def a2 = cache.intern(Address.from("0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2"))
+        def a3 = cache.intern(Address.from("0x2260fac5e5542a773aa44fbcfedf7c193bc2c599"))
+        then:
+        a1.is(a2)
+        !a1.is(a3)
+        a1 != a3
+        cache.hits == 1
+        cache.misses == 2
+        cache.hitRate == 1.0d / 3
+        cache.savedBytes == 16 + 40
+    }
+
+    def "Rounds capacity to power of two"() {
+        expect:
+        new InternCache<Address>(size).capacity == exp
+        where:
+        size | exp
+        1    | 1
+        3    | 4
+        16   | 16
+        1000 | 1024
+    }
+
+    def "Bounded by capacity"() {
+        setup:
+        def cache = new InternCache<TransactionId>(4)
+        def values = (0..<100).collect {
+            TransactionId.from(String.format("0x%064x", it))
+        }
+        when:
+        values.each { cache.intern(it) }
+        def act = values.collect { cache.intern(TransactionId.from(it.toHex())) }
+        then:
+        act == values
+        cache.misses >= 196
+        cache.hits + cache.misses == 200
+    }
+
+    def "Clear resets stats"() {
+        setup:
+        def cache = new InternCache<BlockHash>(16)
+        def hash = BlockHash.from("0x000019c05a62ab070fa4e3a1f6007d6ecf8d3f3d150b469eac04fa168c3a42ed")
+        cache.intern(hash)
+        cache.intern(BlockHash.from(hash.bytes))
+        when:
+        cache.clear()
+        then:
+        cache.hits == 0
+        cache.misses == 0
+        cache.hitRate == 0
+        !cache.intern(BlockHash.from(hash.bytes)).is(hash)
+    }
+
+    def "Used by factory methods when enabled"() {
+        setup:
+        def cache = new InternCache<Address>(64)
+        Address.setInternCache(cache)
+        when:
+        def a1 = Address.from("0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2")
+        def a2 = Address.from("0xC02aaA39b223FE8D0A0e5C4F27eAD9083C756Cc2")
+        def a3 = Address.from(HexData.from("0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2"))
+        then:
+        a1.is(a2)
+        a1.is(a3)
+        cache.hits == 2
+        cleanup:
+        Address.setInternCache(null)
+    }
+
+    def "Doesn't keep caller array in cache"() {
+        setup:
+        def cache = new InternCache<BlockHash>(16)
+        BlockHash.setInternCache(cache)
+        def buffer = BlockHash.from("0x0000000000000000000000000000000000000000000000000000000000000001").bytes
+        when:
+        def h1 = BlockHash.from(buffer)
+        buffer[31] = 2
+        def h2 = BlockHash.from(buffer)
+        then:
+        h1.toHex() == "0x0000000000000000000000000000000000000000000000000000000000000001"
+        h2.toHex() == "0x0000000000000000000000000000000000000000000000000000000000000002"
+        BlockHash.from("0x0000000000000000000000000000000000000000000000000000000000000001").is(h1)
+        cleanup:
+        BlockHash.setInternCache(null)
+    }
+
+    def "Looks up part of array without copying it"() {
+        setup:
+        def cache = new InternCache<Address>(16)
+        def hex = "c02aaa39b223fe8d0a0e5c4f27ead9083c756cc2"
+        def src = HexData.from("0x00" + hex + "00").bytes
+        def created = 0
+        def factory = { byte[] it -> created++; Address.from(it) }
+        when:
+        def a1 = cache.intern(src, 1, 20, factory)
+        def a2 = cache.intern(src, 1, 20, factory)
+        def a3 = cache.intern(Address.from("0x" + hex))
+        src[1] = 0
+        def a4 = cache.intern(src, 1, 20, factory)
+        then:
+        created == 2
+        a1.toHex() == "0x" + hex
+        a1.is(a2)
+        a1.is(a3)
+        !a4.is(a1)
+        a1.toHex() == "0x" + hex
+        cache.hits == 2
+        cache.misses == 2
+    }
+
+    def "Reads value at offset with factory methods"() {
+        setup:
+        def cache = new InternCache<TransactionId>(16)
+        TransactionId.setInternCache(cache)
+        def hash = "0x8ca5b1926e6286b1a0555b017ac7cbf5ebb7f289b5ae16d79458100f6e1f866f"
+        def src = HexData.from("0xff" + hash.substring(2)).bytes
+        when:
+        def t1 = TransactionId.from(src, 1)
+        def t2 = TransactionId.from(src, 1)
+        def t3 = TransactionId.from(hash)
+        then:
+        t1.toHex() == hash
+        t1.is(t2)
+        t1.is(t3)
+        cache.hits == 2
+        cleanup:
+        TransactionId.setInternCache(null)
+    }
+
+    def "Reads value at offset without cache"() {
+        setup:
+        def src = HexData.from("0xff" + "11" * 20).bytes
+        when:
+        def a1 = Address.from(src, 1)
+        src[1] = 0
+        then:
+        a1.toHex() == "0x" + "11" * 20
+        !a1.is(Address.from(src, 1))
+    }
+
+    def "Fails to read value out of array"() {
+        when:
+        BlockHash.from(new byte[40], 9)
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "Not used when disabled"() {
+        when:
+        def a1 = EventId.from("0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef")
+        def a2 = EventId.from("0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef")
+        then:
+        a1 == a2
+        !a1.is(a2)
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.emeraldpay.etherjar.domain
+
+import io.emeraldpay.etherjar.hex.HexData
+import org.bouncycastle.util.encoders.Hex
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+
+class Keccak256Spec extends Specification {
+
+    static final String EMPTY_HASH = "c5d2460186f7233c927e7db2dcc703c0e500b653ca82273b7bfad8045d85a470"
+    static final String HELLO_HASH = "1c8aff950685c2ed4bc3174f3472287b56d9517b9c948127319a09a7a36deac8"
+
+    def "hashes empty input"() {
+        expect:
+        Hex.toHexString(Keccak256.digest(new byte[0])) == EMPTY_HASH
+    }
+
+    def "hashes bytes"() {
+        expect:
+        Hex.toHexString(Keccak256.digest("hello".bytes)) == HELLO_HASH
+        // repeated call on the same thread gets a clean state
+        Hex.toHexString(Keccak256.digest("hello".bytes)) == HELLO_HASH
+    }
+
+    def "hashes a range"() {
+        setup:
+        def input = "__hello__".bytes
+        def dest = new byte[40]
+        when:
+        Keccak256.digest(input, 2, 5, dest, 4)
+        then:
+        Hex.toHexString(Keccak256.digest(input, 2, 5)) == HELLO_HASH
+        Hex.toHexString(Arrays.copyOfRange(dest, 4, 36)) == HELLO_HASH
+        dest[0..3].every { it == 0 }
+    }
+
+    def "rejects invalid range"() {
+        when:
+        Keccak256.digest("hello".bytes, 2, 4)
+        then:
+        thrown(IndexOutOfBoundsException)
+        // state is not affected
+        Hex.toHexString(Keccak256.digest("hello".bytes)) == HELLO_HASH
+    }
+
+    def "hashes a heap buffer"() {
+        setup:
+        def buf = ByteBuffer.wrap("__hello__".bytes, 2, 5).slice()
+        when:
+        def act = Keccak256.digest(buf)
+        then:
+        Hex.toHexString(act) == HELLO_HASH
+        !buf.hasRemaining()
+    }
+
+    def "hashes a direct buffer"() {
+        setup:
+        def data = new byte[3000]
+        new Random(1).nextBytes(data)
+        def buf = ByteBuffer.allocateDirect(data.length)
+        buf.put(data).flip()
+        when:
+        def act = Keccak256.digest(buf)
+        then:
+        act == Keccak256.digest(data)
+        !buf.hasRemaining()
+    }
+
+    def "hashes a slice of hex data"() {
+        setup:
+        def data = HexData.from("0x00" + Hex.toHexString("hello".bytes) + "00")
+        when:
+        def act = Keccak256.digest(data.extract(5, 1))
+        then:
+        Hex.toHexString(act) == HELLO_HASH
+    }
+
+    def "hashes concatenated data"() {
+        expect:
+        Hex.toHexString(Keccak256.digestConcat("he".bytes, new byte[0], "llo".bytes)) == HELLO_HASH
+        Hex.toHexString(Keccak256.digestConcat(HexData.from("0x6865"), HexData.from("0x6c6c6f"))) == HELLO_HASH
+    }
+
+    def "resets state on failed concat"() {
+        when:
+        Keccak256.digestConcat("he".bytes, null)
+        then:
+        thrown(NullPointerException)
+        Hex.toHexString(Keccak256.digest("hello".bytes)) == HELLO_HASH
+    }
+
+    def "hashes each input"() {
+        setup:
+        def inputs = ["hello".bytes, new byte[0], "hello".bytes]
+        when:
+        def act = Keccak256.digestEach(inputs)
+        def actArray = Keccak256.digestEach(inputs as byte[][])
+        then:
+        act.length == 3 * 32
+        Hex.toHexString(act) == HELLO_HASH + EMPTY_HASH + HELLO_HASH
+        actArray == act
+    }
+
+    def "hashes on multiple threads"() {
+        setup:
+        def inputs = (0..<200).collect { ("value-" + it).bytes }
+        def expected = inputs.collect { Hex.toHexString(Keccak256.digest(it)) }
+        when:
+        def act = inputs.parallelStream()
+            .map { Hex.toHexString(Keccak256.digest(it)) }
+            .collect(java.util.stream.Collectors.toList())
+        then:
+        act == expected
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.emeraldpay.etherjar.domain
+
+import org.bouncycastle.crypto.digests.KeccakDigest
+import org.bouncycastle.util.encoders.Hex
+import spock.lang.Specification
+
+class KeccakStateSpec extends Specification {
+
+    static byte[] reference(byte[] input) {
+        def digest = new KeccakDigest(256)
+        digest.update(input, 0, input.length)
+        def result = new byte[32]
+        digest.doFinal(result, 0)
+        return result
+    }
+
+    static byte[] hash(KeccakState state, byte[] input) {
+        state.update(input, 0, input.length)
+        def result = new byte[32]
+        state.doFinal(result, 0)
+        return result
+    }
+
+    def "hashes known values"() {
+        setup:
+        def state = new KeccakState()
+        expect:
+        Hex.toHexString(hash(state, input.bytes)) == exp
+        where:
+        input                                                                           | exp
+        ""                                                                              | "c5d2460186f7233c927e7db2dcc703c0e500b653ca82273b7bfad8045d85a470"
+        "abc"                                                                           | "4e03657aea45a94fc7d47ba826c8d667c0d1e6e33a64a036ec44f58fa12d6c45"
+        "Transfer(address,address,uint256)"                                             | "ddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef"
+    }
+
+    def "same as reference for all sizes around block boundaries"() {
+        setup:
+        def random = new Random(1)
+        def state = new KeccakState()
+        expect:
+        (0..600).every { size ->
+            def input = new byte[size]
+            random.nextBytes(input)
+            hash(state, input) == reference(input)
+        }
+    }
+
+    def "hashes complete input same as reference"() {
+        setup:
+        def random = new Random(3)
+        def state = new KeccakState()
+        expect:
+        (0..300).every { size ->
+            def input = new byte[size + 3]
+            random.nextBytes(input)
+            def act = new byte[34]
+            state.digest(input, 2, size, act, 1)
+            Arrays.copyOfRange(act, 1, 33) == reference(Arrays.copyOfRange(input, 2, 2 + size))
+        }
+    }
+
+    def "same as reference when updated by parts"() {
+        setup:
+        def input = new byte[1000]
+        new Random(2).nextBytes(input)
+        def state = new KeccakState()
+        when:
+        int pos = 0
+        [1, 7, 135, 136, 137, 0, 300, 1, 83].each { len ->
+            state.update(input, pos, len)
+            pos += len
+        }
+        (pos..<input.length).each { state.update(input[it]) }
+        def act = new byte[32]
+        state.doFinal(act, 0)
+        then:
+        act == reference(input)
+    }
+
+    def "resets after final"() {
+        setup:
+        def state = new KeccakState()
+        when:
+        hash(state, new byte[200])
+        state.update(new byte[10], 0, 10)
+        state.reset()
+        def act = hash(state, "abc".bytes)
+        then:
+        Hex.toHexString(act) == "4e03657aea45a94fc7d47ba826c8d667c0d1e6e33a64a036ec44f58fa12d6c45"
+    }
+}
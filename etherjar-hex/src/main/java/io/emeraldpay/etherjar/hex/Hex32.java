@@ -47,13 +47,23 @@ public class Hex32 extends HexData {
             throw new IllegalArgumentException(
                     String.format("Data length is not %d: %d", Hex32.SIZE_BYTES, data.getSize()));
 
-        return from(data.getBytes());
+        return new Hex32(data.getBytes());
     }
 
     public Hex32(byte[] value) {
         super(value, SIZE_BYTES);
     }
 
+    /**
+     * Constructor for a view over 32 bytes of the existing array, used by {@link Hex32Slice}
+     *
+     * @param value shared array
+     * @param offset position of the data in the array
+     */
+    Hex32(byte[] value, int offset) {
+        super(value, offset, SIZE_BYTES);
+    }
+
     public static Hex32 from(byte[] value) {
         if (value == null) {
             throw new IllegalArgumentException("Null Hex32");
@@ -71,7 +81,15 @@ public class Hex32 extends HexData {
         if (value.length() != SIZE_HEX) {
             throw new IllegalArgumentException("Invalid Hex32 length: " + value.length());
         }
-        return new Hex32(HexData.from(value).getBytes());
+        return new Hex32(HexDecoder.decode(value));
+    }
+
+    @Override
+    public Hex32 compact() {
+        if (!isSlice()) {
+            return this;
+        }
+        return new Hex32(getBytes());
     }
 
     public static Hex32 empty() {
@@ -129,7 +147,7 @@ public class Hex32 extends HexData {
      * @return number
      */
     public BigInteger asUInt() {
-        return new BigInteger(1, value);
+        return new BigInteger(1, isSlice() ? getBytes() : value);
     }
 
     /**
@@ -137,9 +155,9 @@ public class Hex32 extends HexData {
      * @return number
      */
     public BigInteger asInt() {
-        BigInteger number = new BigInteger(1, value);
+        BigInteger number = asUInt();
         // for negative value the highest bit is set to 1
-        if (value[0] >= 0) {
+        if (value[offset()] >= 0) {
             // just positive number, return as is
             return number;
         } else {
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.hex;
+
+/**
+ * A view over 32 bytes of an array shared with another {@link HexData}, produced by {@link HexData#split32(int)}.
+ *
+ * @see HexDataSlice
+ */
+class Hex32Slice extends Hex32 {
+
+    private final int offset;
+
+    Hex32Slice(byte[] value, int offset) {
+        super(value, offset);
+        this.offset = offset;
+    }
+
+    @Override
+    public int getSize() {
+        return SIZE_BYTES;
+    }
+
+    @Override
+    int offset() {
+        return offset;
+    }
+
+    @Override
+    boolean isSlice() {
+        return true;
+    }
+
+    /**
+     * Keep only actual data when serialized, instead of the whole shared array
+     *
+     * @return compact copy of the slice
+     */
+    private Object writeReplace() {
+        return new Hex32(getBytes());
+    }
+}
@@ -21,13 +21,13 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.IntFunction;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * Fixed size value, such as Wallet Address, represented in Hex.
@@ -75,30 +75,7 @@ public class HexData implements Serializable {
      * @return parsed value
      */
     public static HexData from(String value) {
-        if (value.isEmpty())
-            throw new IllegalArgumentException("Empty value");
-
-        if (!value.startsWith("0x"))
-            throw new IllegalArgumentException("Invalid hex format: " + value);
-
-        value = value.substring(2);
-
-        if (value.length() <= 0) return empty();
-
-        byte[] bytes = new BigInteger(value, 16).toByteArray();
-
-        int len = (value.length() / 2) + (value.length() % 2);
-
-        if (bytes.length == len)
-            return new HexData(bytes);
-
-        byte[] buf = new byte[len];
-
-        // for values like 0xffffff it produces extra 0 byte in the beginning, we need to skip it
-        int pos = bytes.length > buf.length ? bytes.length - buf.length : 0;
-        System.arraycopy(bytes, pos, buf, buf.length - bytes.length + pos, bytes.length - pos);
-
-        return new HexData(buf);
+        return new HexData(HexDecoder.decode(value));
     }
 
     public static HexData empty(int size) {
@@ -112,6 +89,10 @@ public class HexData implements Serializable {
         return empty(0);
     }
 
+    /**
+     * Underlying bytes. For a slice (see {@link #extract(int, int)}) it's the array shared with the parent instance,
+     * and the actual data is placed at {@link #offset()}.
+     */
     protected final byte[] value;
 
     public HexData(byte[] value) {
@@ -125,6 +106,20 @@ public class HexData implements Serializable {
         this.value = value;
     }
 
+    /**
+     * Constructor for a view over a part of the existing array, used by {@link HexDataSlice} and {@link Hex32Slice}.
+     *
+     * @param value shared array
+     * @param offset position of the data in the array
+     * @param size size of the data
+     */
+    HexData(byte[] value, int offset, int size) {
+        if (offset < 0 || size < 0 || value.length < offset + size)
+            throw new IllegalArgumentException("Invalid slice " + offset + ".." + (offset + size) + " of " + value.length);
+
+        this.value = value;
+    }
+
     /**
      * Concat with an array of {@link HexData}.
      *
@@ -198,7 +193,8 @@ public class HexData implements Serializable {
     }
 
     /**
-     * Extract tail of the underlying data, skipping {@code offset} bytes.
+     * Extract tail of the underlying data, skipping {@code offset} bytes. The result shares the underlying
+     * array with the current instance.
      *
      * @param offset size in bytes to skip
      * @return extracted data
@@ -207,18 +203,20 @@ public class HexData implements Serializable {
         if (offset == 0) {
             return this;
         }
-        if (offset > this.value.length) {
-            throw new IndexOutOfBoundsException("Cannot skip " + offset + " of " + this.value.length);
+        if (offset > getSize()) {
+            throw new IndexOutOfBoundsException("Cannot skip " + offset + " of " + getSize());
         }
-        if (offset == this.value.length) {
+        if (offset == getSize()) {
             return HexData.empty();
         }
-        return extract(this.value.length - offset, offset);
+        return extract(getSize() - offset, offset);
     }
 
     /**
      * Extract a new object by required {@code size} bytes
-     * and from {@code offset}.
+     * and from {@code offset}. The extracted {@link HexData} is a slice which shares the underlying array with the
+     * current instance, i.e. no data is copied. The slice keeps the whole array reachable, so use {@link #compact()}
+     * on a value which is kept for a long time.
      *
      * @param size a size in bytes
      * @param offset an offset in bytes
@@ -239,8 +237,7 @@ public class HexData implements Serializable {
         if (size == 0)
             return conv.apply(empty());
 
-        return conv.apply(
-                new HexData(Arrays.copyOfRange(value, offset, size + offset)));
+        return conv.apply(new HexDataSlice(value, offset() + offset, size));
     }
 
     /**
@@ -312,13 +309,19 @@ public class HexData implements Serializable {
      * @see #split32()
      */
     public Hex32[] split32(int offset) {
-        return split(Hex32.SIZE_BYTES, offset, Hex32[]::new, v -> Hex32.from(v.value));
+        checkSplit(Hex32.SIZE_BYTES, offset);
+        Hex32[] result = new Hex32[(getSize() - offset) / Hex32.SIZE_BYTES];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new Hex32Slice(value, offset() + offset + i * Hex32.SIZE_BYTES);
+        }
+        return result;
     }
 
     /**
      * Returns an array of the elements were split by required {@code size}
      * bytes and from {@code offset}, using the provided {@code conv}
      * function to convert {@link HexData} into required object type.
+     * Each of the parts passed to {@code conv} is a slice sharing the underlying array with the current instance.
      *
      * <pre>{@code
      *     List<String> coll = data.split(32, 0, String[]::new, data::toHex);
@@ -338,6 +341,19 @@ public class HexData implements Serializable {
     public <T> T[] split(int size, int offset, IntFunction<T[]> gen, Function<? super HexData, T> conv) {
         Objects.requireNonNull(conv);
 
+        checkSplit(size, offset);
+
+        if (size == 0)
+            return gen.apply(0);
+
+        T[] result = gen.apply((getSize() - offset) / size);
+        for (int i = 0; i < result.length; i++) {
+            result[i] = conv.apply(new HexDataSlice(value, offset() + offset + i * size, size));
+        }
+        return result;
+    }
+
+    private void checkSplit(int size, int offset) {
         if (size < 0 || offset < 0)
             throw new IllegalArgumentException("Negative extract arguments");
 
@@ -346,32 +362,102 @@ public class HexData implements Serializable {
 
         if (size != 0 && (getSize() - offset) % size != 0)
             throw new IllegalArgumentException("Length to split is not a multiple of " + size);
+    }
 
-        if (size == 0)
-            return gen.apply(0);
+    public String toHex() {
+        char[] hex = new char[getSize() * 2 + 2];
+        writeHex(hex, 0);
+        return new String(hex);
+    }
 
-        Stream<byte[]> stream = IntStream.range(0, (getSize() - offset) / size)
-                .map(i -> i * size + offset).mapToObj(j -> Arrays.copyOfRange(value, j, j + size));
+    /**
+     * Write hex representation, the same as produced by {@link #toHex()}, into the provided array.
+     * Requires {@code 2 + getSize() * 2} chars available in the destination.
+     *
+     * @param dest target array
+     * @param destOffset position of the first char in the target array
+     * @return number of written chars
+     */
+    public int writeHex(char[] dest, int destOffset) {
+        int offset = offset();
+        int size = getSize();
+
+        dest[destOffset] = '0';
+        dest[destOffset + 1] = 'x';
+
+        for(int i = offset, j = destOffset + 2; i < offset + size; i++){
+            dest[j++] = HEX_DIGITS[(0xF0 & value[i]) >>> 4];
+            dest[j++] = HEX_DIGITS[0x0F & value[i]];
+        }
 
-        return stream.map(HexData::new).map(conv::apply).toArray(gen);
+        return 2 + size * 2;
     }
 
-    public String toHex() {
-        char[] hex = new char[value.length * 2 + 2];
+    /**
+     * Write hex representation, the same as produced by {@link #toHex()}, into the provided output without
+     * creating an intermediate String.
+     *
+     * @param out target output
+     * @throws IOException if thrown by the output
+     */
+    public void writeHex(Appendable out) throws IOException {
+        int offset = offset();
+        int size = getSize();
 
-        hex[0] = '0';
-        hex[1] = 'x';
+        out.append('0').append('x');
 
-        for(int i = 0, j = 2; i < value.length; i++){
-            hex[j++] = HEX_DIGITS[(0xF0 & value[i]) >>> 4];
-            hex[j++] = HEX_DIGITS[0x0F & value[i]];
+        for(int i = offset; i < offset + size; i++){
+            out.append(HEX_DIGITS[(0xF0 & value[i]) >>> 4]);
+            out.append(HEX_DIGITS[0x0F & value[i]]);
         }
+    }
 
-        return new String(hex);
+    /**
+     * Write hex representation, the same as produced by {@link #toHex()}, as ASCII bytes into the provided buffer.
+     * Requires {@code 2 + getSize() * 2} bytes remaining in the buffer.
+     *
+     * @param out target buffer
+     * @throws java.nio.BufferOverflowException if there is not enough space in the buffer, in this case the buffer
+     *         stays unchanged
+     */
+    public void writeHex(ByteBuffer out) {
+        int offset = offset();
+        int size = getSize();
+
+        if (out.remaining() < 2 + size * 2) {
+            throw new BufferOverflowException();
+        }
+
+        out.put((byte) '0').put((byte) 'x');
+
+        for(int i = offset; i < offset + size; i++){
+            out.put((byte) HEX_DIGITS[(0xF0 & value[i]) >>> 4]);
+            out.put((byte) HEX_DIGITS[0x0F & value[i]]);
+        }
+    }
+
+    /**
+     * Get a read-only view of the raw bytes. Unlike {@link #getBytes()} it doesn't make a copy, so a slice can be
+     * passed to a digest as is, and since the view doesn't give access to the array the value stays immutable.
+     *
+     * @return read-only buffer with the data between its position and limit
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(value, offset(), getSize()).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Write the raw bytes into the provided buffer, without making a copy.
+     *
+     * @param out target buffer, its position is moved to the end of the written data
+     * @throws java.nio.BufferOverflowException if there is not enough space in the buffer
+     */
+    public void writeTo(ByteBuffer out) {
+        out.put(value, offset(), getSize());
     }
 
     public HexQuantity asQuantity() {
-        return new HexQuantity(new BigInteger(1, value));
+        return new HexQuantity(new BigInteger(1, isSlice() ? getBytes() : value));
     }
 
     /**
@@ -382,20 +468,15 @@ public class HexData implements Serializable {
      * @throws IllegalArgumentException if invalid structure or length
      */
     public Hex32[] asEncodedArray() {
-        HexData[] parts = split(Hex32.SIZE_BYTES);
+        Hex32[] parts = split32();
         if (parts.length < 2) {
             throw new IllegalArgumentException("Not an encoded array");
         }
-        Hex32 _offset = Hex32.from(parts[0]);
         int len = parts[1].asQuantity().getValue().intValue();
         if (parts.length != 2 + len) {
             throw new IllegalArgumentException("Invalid data length. " + parts.length + " != " + (2 + len));
         }
-        Hex32[] result = new Hex32[len];
-        for (int i = 0; i < len; i++) {
-            result[i] = Hex32.from(parts[2 + i]);
-        }
-        return result;
+        return Arrays.copyOfRange(parts, 2, parts.length);
     }
 
     /**
@@ -420,16 +501,72 @@ public class HexData implements Serializable {
     }
 
     public byte[] getBytes() {
-        return value.clone();
+        if (!isSlice()) {
+            return value.clone();
+        }
+        return Arrays.copyOfRange(value, offset(), offset() + getSize());
+    }
+
+    /**
+     * Get the value without a reference to a larger array. A value produced by {@link #extract(int, int)},
+     * {@link #skip(int)} or {@code split} shares the array of the source data, and keeps all of it in memory while
+     * the value is reachable, i.e. when the value is used as a key of a cache.
+     *
+     * @return this instance if it has its own array, or a copy of the data
+     */
+    public HexData compact() {
+        if (!isSlice()) {
+            return this;
+        }
+        return new HexData(getBytes());
     }
 
     public int getSize() {
         return value.length;
     }
 
+    /**
+     * @return position of the data in the {@link #value}, which is not 0 only for a slice
+     */
+    int offset() {
+        return 0;
+    }
+
+    /**
+     * @return true if the instance is a view over a part of a larger array
+     */
+    boolean isSlice() {
+        return false;
+    }
+
+    /**
+     * Compare the value with a part of an array, without copying either of them.
+     *
+     * @param src array to compare with
+     * @param offset position of the compared bytes in the array
+     * @param length number of the compared bytes
+     * @return true if the value has the same bytes as the specified part of the array
+     */
+    public boolean contentEquals(byte[] src, int offset, int length) {
+        int size = getSize();
+        if (size != length) return false;
+        int start = offset();
+        for (int i = 0; i < size; i++) {
+            if (value[start + i] != src[offset + i]) return false;
+        }
+        return true;
+    }
+
     @Override
     public int hashCode() {
-        return Arrays.hashCode(value);
+        int offset = offset();
+        int size = getSize();
+        // same as Arrays.hashCode(getBytes())
+        int result = 1;
+        for (int i = offset; i < offset + size; i++) {
+            result = 31 * result + value[i];
+        }
+        return result;
     }
 
     @Override
@@ -440,6 +577,18 @@ public class HexData implements Serializable {
 
         HexData hexData = (HexData) o;
 
-        return Arrays.equals(value, hexData.value);
+        if (!isSlice() && !hexData.isSlice()) {
+            return Arrays.equals(value, hexData.value);
+        }
+
+        int size = getSize();
+        if (size != hexData.getSize()) return false;
+
+        int offset = offset();
+        int otherOffset = hexData.offset();
+        for (int i = 0; i < size; i++) {
+            if (value[offset + i] != hexData.value[otherOffset + i]) return false;
+        }
+        return true;
     }
 }
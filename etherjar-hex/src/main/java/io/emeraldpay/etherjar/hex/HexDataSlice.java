@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.hex;
+
+/**
+ * A view over a part of an array shared with another {@link HexData}, produced by {@link HexData#extract(int, int)},
+ * {@link HexData#skip(int)} and {@link HexData#split(int, int)} to avoid copying of the data. Behaves exactly as
+ * a {@link HexData} with a copy of the same bytes, including {@code equals} and {@code hashCode}.
+ */
+class HexDataSlice extends HexData {
+
+    private final int offset;
+    private final int size;
+
+    HexDataSlice(byte[] value, int offset, int size) {
+        super(value, offset, size);
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    int offset() {
+        return offset;
+    }
+
+    @Override
+    boolean isSlice() {
+        return true;
+    }
+
+    /**
+     * Keep only actual data when serialized, instead of the whole shared array
+     *
+     * @return compact copy of the slice
+     */
+    private Object writeReplace() {
+        return new HexData(getBytes());
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.emeraldpay.etherjar.hex;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Table-driven decoder of hex strings into bytes. Parses the input in place, without intermediate
+ * {@link java.math.BigInteger} or {@link String} instances.
+ * <p>
+ * An odd number of digits is accepted and treated as if it was padded with a leading zero, i.e. {@code 0x123}
+ * is decoded into {@code [0x01, 0x23]}.
+ */
+public final class HexDecoder {
+
+    private static final byte[] DIGITS = new byte[128];
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            DIGITS['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            DIGITS['a' + i] = (byte) (10 + i);
+            DIGITS['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private HexDecoder() {
+    }
+
+    /**
+     * Decode a hex value which must start with {@code 0x}.
+     *
+     * @param value hex value
+     * @return decoded bytes, empty array for {@code 0x}
+     * @throws IllegalArgumentException if value is empty or not prefixed with {@code 0x}
+     * @throws NumberFormatException if value contains non hex characters
+     */
+    public static byte[] decode(CharSequence value) {
+        if (value.length() == 0)
+            throw new IllegalArgumentException("Empty value");
+
+        if (!hasPrefix(value))
+            throw new IllegalArgumentException("Invalid hex format: " + value);
+
+        int digits = value.length() - 2;
+        byte[] result = new byte[(digits + 1) / 2];
+        decode(value, 2, value.length(), result, 0);
+        return result;
+    }
+
+    /**
+     * Decode naked hex digits of {@code value} between {@code start} (inclusive) and {@code end} (exclusive)
+     * into {@code dest}, starting at {@code destOffset}. Writes exactly {@code (end - start + 1) / 2} bytes.
+     *
+     * @param value source of hex digits
+     * @param start index of the first digit
+     * @param end index after the last digit
+     * @param dest target array
+     * @param destOffset position of the first byte in the target array
+     * @throws NumberFormatException if value contains non hex characters
+     */
+    public static void decode(CharSequence value, int start, int end, byte[] dest, int destOffset) {
+        int pos = start;
+        if (((end - start) & 1) == 1) {
+            dest[destOffset++] = (byte) digit(value, pos++);
+        }
+        while (pos < end) {
+            int hi = digit(value, pos++);
+            int lo = digit(value, pos++);
+            dest[destOffset++] = (byte) ((hi << 4) | lo);
+        }
+    }
+
+    /**
+     * Decode naked hex digits from a char buffer, i.e. as provided by a parser without creating a {@link String}.
+     *
+     * @param value source of hex digits
+     * @param start index of the first digit
+     * @param end index after the last digit
+     * @param dest target array
+     * @param destOffset position of the first byte in the target array
+     * @throws NumberFormatException if value contains non hex characters
+     * @see #decode(CharSequence, int, int, byte[], int)
+     */
+    public static void decode(char[] value, int start, int end, byte[] dest, int destOffset) {
+        int pos = start;
+        if (((end - start) & 1) == 1) {
+            dest[destOffset++] = (byte) digit(value, start, end, pos++);
+        }
+        while (pos < end) {
+            int hi = digit(value, start, end, pos++);
+            int lo = digit(value, start, end, pos++);
+            dest[destOffset++] = (byte) ((hi << 4) | lo);
+        }
+    }
+
+    /**
+     * Decode naked hex digits from ASCII bytes, i.e. from a raw network buffer.
+     *
+     * @param value source of hex digits as ASCII bytes
+     * @param start index of the first digit
+     * @param end index after the last digit
+     * @param dest target array
+     * @param destOffset position of the first byte in the target array
+     * @throws NumberFormatException if value contains non hex characters
+     * @see #decode(CharSequence, int, int, byte[], int)
+     */
+    public static void decode(byte[] value, int start, int end, byte[] dest, int destOffset) {
+        int pos = start;
+        if (((end - start) & 1) == 1) {
+            dest[destOffset++] = (byte) digit(value, start, end, pos++);
+        }
+        while (pos < end) {
+            int hi = digit(value, start, end, pos++);
+            int lo = digit(value, start, end, pos++);
+            dest[destOffset++] = (byte) ((hi << 4) | lo);
+        }
+    }
+
+    /**
+     * Decode naked hex digits of {@code value} between {@code start} (inclusive) and {@code end} (exclusive)
+     * as a number. The value must have no more than 16 significant digits, higher digits are silently lost.
+     *
+     * @param value source of hex digits
+     * @param start index of the first digit
+     * @param end index after the last digit
+     * @return decoded number
+     * @throws NumberFormatException if value contains non hex characters
+     */
+    public static long decodeLong(CharSequence value, int start, int end) {
+        long result = 0;
+        for (int pos = start; pos < end; pos++) {
+            result = (result << 4) | digit(value, pos);
+        }
+        return result;
+    }
+
+    /**
+     * Decode naked hex digits from a char buffer as a number
+     *
+     * @param value source of hex digits
+     * @param start index of the first digit
+     * @param end index after the last digit
+     * @return decoded number
+     * @throws NumberFormatException if value contains non hex characters
+     * @see #decodeLong(CharSequence, int, int)
+     */
+    public static long decodeLong(char[] value, int start, int end) {
+        long result = 0;
+        for (int pos = start; pos < end; pos++) {
+            result = (result << 4) | digit(value, start, end, pos);
+        }
+        return result;
+    }
+
+    /**
+     * Value of a single hex digit
+     *
+     * @param ch a character
+     * @return value of the digit (0..15), or -1 if it's not a hex digit
+     */
+    public static int digit(char ch) {
+        return ch < DIGITS.length ? DIGITS[ch] : -1;
+    }
+
+    /**
+     * @param value a value to check
+     * @return true if value starts with {@code 0x}
+     */
+    public static boolean hasPrefix(CharSequence value) {
+        return value.length() >= 2 && value.charAt(0) == '0' && value.charAt(1) == 'x';
+    }
+
+    private static int digit(CharSequence value, int pos) {
+        int d = digit(value.charAt(pos));
+        if (d < 0) {
+            throw new NumberFormatException("Invalid hex format: " + value);
+        }
+        return d;
+    }
+
+    private static int digit(char[] value, int start, int end, int pos) {
+        int d = digit(value[pos]);
+        if (d < 0) {
+            throw new NumberFormatException("Invalid hex format: " + new String(value, start, end - start));
+        }
+        return d;
+    }
+
+    private static int digit(byte[] value, int start, int end, int pos) {
+        int d = digit((char) (value[pos] & 0xff));
+        if (d < 0) {
+            throw new NumberFormatException("Invalid hex format: " + new String(value, start, end - start, StandardCharsets.US_ASCII));
+        }
+        return d;
+    }
+}
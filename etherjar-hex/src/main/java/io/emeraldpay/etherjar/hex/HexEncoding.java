@@ -38,9 +38,27 @@ public interface HexEncoding {
      * @see #HEX_PREFIX
      */
     static BigInteger fromHex(String hex) {
-        return new BigInteger(
-            hex.startsWith(HEX_PREFIX) ?
-                hex.substring(HEX_PREFIX.length()) : hex, 16);
+        int start = hex.startsWith(HEX_PREFIX) ? HEX_PREFIX.length() : 0;
+        if (HexQuantity.isLong(hex, start, hex.length())) {
+            return BigInteger.valueOf(HexDecoder.decodeLong(hex, start, hex.length()));
+        }
+        return new BigInteger(hex.substring(start), 16);
+    }
+
+    /**
+     * Parse a number as a primitive long, without creating a {@link BigInteger} for values which fit into 63 bits.
+     * For larger values only low-order 64 bits are returned, as in {@link BigInteger#longValue()}.
+     *
+     * @param hex hex-encoded {@link String} with optional {@value #HEX_PREFIX}
+     * @return parsed value
+     * @see #fromHex(String)
+     */
+    static long fromHexToLong(String hex) {
+        int start = hex.startsWith(HEX_PREFIX) ? HEX_PREFIX.length() : 0;
+        if (HexQuantity.isLong(hex, start, hex.length())) {
+            return HexDecoder.decodeLong(hex, start, hex.length());
+        }
+        return new BigInteger(hex.substring(start), 16).longValue();
     }
 
     /**
@@ -15,26 +15,53 @@
  */
 package io.emeraldpay.etherjar.hex;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigInteger;
-import java.util.Objects;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
+/**
+ * Hex encoded number. Values which fit into a {@code long} are kept as a primitive value and don't use
+ * {@link BigInteger} until it's explicitly requested with {@link #getValue()}.
+ */
 public class HexQuantity implements Serializable {
 
-    private final BigInteger value;
+    private final static char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Value if it fits into long, i.e. when {@link #big} is null
+     */
+    private final long value;
+    /**
+     * Value if it doesn't fit into long, otherwise null
+     */
+    private final BigInteger big;
 
     public HexQuantity(BigInteger value) {
         if (value == null) {
             throw new IllegalArgumentException("Can't create instance of null quantity");
         }
+        if (value.bitLength() < 64) {
+            this.value = value.longValue();
+            this.big = null;
+        } else {
+            this.value = 0;
+            this.big = value;
+        }
+    }
+
+    public HexQuantity(long value) {
         this.value = value;
+        this.big = null;
     }
 
     public static HexQuantity from(Long value) {
         if (value == null) {
             return null;
         }
-        return new HexQuantity(BigInteger.valueOf(value));
+        return new HexQuantity(value.longValue());
     }
 
     public static HexQuantity from(BigInteger value) {
@@ -49,30 +76,137 @@ public class HexQuantity implements Serializable {
             return null;
         }
         int signum = 1;
+        int start = 0;
         if (value.startsWith("-")) {
             signum = -1;
-            value = value.substring(1);
+            start = 1;
         }
-        if (!value.startsWith("0x")) {
+        if (!value.startsWith("0x", start)) {
             throw new IllegalArgumentException("Input must be formatted as a hex value");
         }
-        value = value.substring(2);
-        if (value.length() == 0) {
+        start += 2;
+        if (value.length() == start) {
             return null;
         }
         try {
-            BigInteger num = new BigInteger(value, 16);
+            if (isLong(value, start, value.length())) {
+                return new HexQuantity(signum * HexDecoder.decodeLong(value, start, value.length()));
+            }
+            BigInteger num = new BigInteger(value.substring(start), 16);
             if (signum == -1) {
                 num = num.negate();
             }
             return new HexQuantity(num);
         } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Invalid quantity value: " + value);
+            throw new IllegalArgumentException("Invalid quantity value: " + value.substring(start));
+        }
+    }
+
+    /**
+     * Check if the hex digits represent a number which can be parsed as a positive {@code long}. Doesn't validate
+     * all the digits, only the first significant one.
+     *
+     * @param value source of hex digits
+     * @param start index of the first digit
+     * @param end index after the last digit
+     * @return true if the value fits into 63 bits
+     */
+    static boolean isLong(CharSequence value, int start, int end) {
+        while (start < end - 1 && value.charAt(start) == '0') {
+            start++;
+        }
+        int digits = end - start;
+        if (digits == 0) {
+            return false;
         }
+        int first = HexDecoder.digit(value.charAt(start));
+        return first >= 0 && (digits < 16 || (digits == 16 && first < 8));
     }
 
     public String toHex() {
-        return (value.signum() == -1 ? "-" : "") + "0x" + value.abs().toString(16);
+        if (big != null) {
+            return (big.signum() == -1 ? "-" : "") + "0x" + big.abs().toString(16);
+        }
+        char[] hex = new char[3 + 16];
+        int pos = 0;
+        if (value < 0) {
+            hex[pos++] = '-';
+        }
+        hex[pos++] = '0';
+        hex[pos++] = 'x';
+        long abs = Math.abs(value);
+        for (int shift = (nibbles(abs) - 1) * 4; shift >= 0; shift -= 4) {
+            hex[pos++] = HEX_DIGITS[(int) ((abs >>> shift) & 0x0F)];
+        }
+        return new String(hex, 0, pos);
+    }
+
+    /**
+     * Write hex representation, the same as produced by {@link #toHex()}, into the provided output without
+     * creating an intermediate String.
+     *
+     * @param out target output
+     * @throws IOException if thrown by the output
+     */
+    public void writeHex(Appendable out) throws IOException {
+        if (big != null) {
+            out.append(toHex());
+            return;
+        }
+        if (value < 0) {
+            out.append('-');
+        }
+        out.append('0').append('x');
+        long abs = Math.abs(value);
+        for (int shift = (nibbles(abs) - 1) * 4; shift >= 0; shift -= 4) {
+            out.append(HEX_DIGITS[(int) ((abs >>> shift) & 0x0F)]);
+        }
+    }
+
+    /**
+     * Write hex representation, the same as produced by {@link #toHex()}, as ASCII bytes into the provided buffer.
+     *
+     * @param out target buffer
+     * @throws java.nio.BufferOverflowException if there is not enough space in the buffer
+     */
+    public void writeHex(ByteBuffer out) {
+        if (big != null) {
+            out.put(toHex().getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        long abs = Math.abs(value);
+        int nibbles = nibbles(abs);
+        if (out.remaining() < nibbles + 2 + (value < 0 ? 1 : 0)) {
+            throw new BufferOverflowException();
+        }
+        if (value < 0) {
+            out.put((byte) '-');
+        }
+        out.put((byte) '0').put((byte) 'x');
+        for (int shift = (nibbles - 1) * 4; shift >= 0; shift -= 4) {
+            out.put((byte) HEX_DIGITS[(int) ((abs >>> shift) & 0x0F)]);
+        }
+    }
+
+    /**
+     * Length of the hex representation, i.e. of the string produced by {@link #toHex()}, calculated without
+     * creating it and without creating a {@link BigInteger} for a value which fits into long.
+     *
+     * @return number of characters, including the sign and 0x prefix
+     */
+    public int getHexLength() {
+        if (big != null) {
+            return (big.signum() == -1 ? 3 : 2) + (big.abs().bitLength() + 3) / 4;
+        }
+        return (value < 0 ? 3 : 2) + nibbles(Math.abs(value));
+    }
+
+    /**
+     * @param value non-negative value, or Long.MIN_VALUE which is treated as unsigned
+     * @return number of hex digits required to represent the value, at least one
+     */
+    private static int nibbles(long value) {
+        return Math.max(1, (64 - Long.numberOfLeadingZeros(value) + 3) / 4);
     }
 
     public String toString() {
@@ -80,11 +214,41 @@ public class HexQuantity implements Serializable {
     }
 
     public BigInteger getValue() {
+        if (big != null) {
+            return big;
+        }
+        return BigInteger.valueOf(value);
+    }
+
+    /**
+     * Get value as long, without creating a {@link BigInteger}. If the value doesn't fit into long, only the low-order
+     * 64 bits are returned, as in {@link BigInteger#longValue()}.
+     *
+     * @return value as long
+     * @see #longValueExact()
+     */
+    public long longValue() {
+        if (big != null) {
+            return big.longValue();
+        }
+        return value;
+    }
+
+    /**
+     * Get value as long, without creating a {@link BigInteger}
+     *
+     * @return value as long
+     * @throws ArithmeticException if the value doesn't fit into long
+     */
+    public long longValueExact() {
+        if (big != null) {
+            throw new ArithmeticException("Quantity is out of long range");
+        }
         return value;
     }
 
     public HexData asData() {
-        return new HexData(value.toByteArray());
+        return new HexData(getValue().toByteArray());
     }
 
     @Override
@@ -92,11 +256,17 @@ public class HexQuantity implements Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         HexQuantity that = (HexQuantity) o;
-        return value.equals(that.value);
+        if (big != null) {
+            return big.equals(that.big);
+        }
+        return that.big == null && value == that.value;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        if (big != null) {
+            return big.hashCode();
+        }
+        return Long.hashCode(value);
     }
 }
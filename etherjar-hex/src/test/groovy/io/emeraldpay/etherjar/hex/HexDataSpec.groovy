@@ -435,4 +435,178 @@ class HexDataSpec extends Specification {
         act[0] == 0x3c756cc2
         act[1] == 0xdf7c193bc2c599
     }
+
+    def "extracted slice is same as a copy"() {
+        setup:
+        def data = HexData.from('0x0123456789abcdef')
+        when:
+        def act = data.extract(3, 2)
+        def exp = new HexData([0x45, 0x67, 0x89] as byte[])
+        then:
+        act == exp
+        exp == act
+        act.hashCode() == exp.hashCode()
+        act.size == 3
+        act.bytes == [0x45, 0x67, 0x89] as byte[]
+        act.toHex() == '0x456789'
+        act.asQuantity().value == 0x456789
+    }
+
+    def "slice of a slice"() {
+        setup:
+        def data = HexData.from('0x0123456789abcdef')
+        when:
+        def act = data.skip(2).extract(2, 1).skip(1)
+        then:
+        act == HexData.from('0x89')
+        act.toHex() == '0x89'
+    }
+
+    def "split into slices"() {
+        setup:
+        def data = HexData.from('0x0123456789abcdef')
+        when:
+        def act = data.skip(2).split(2)
+        then:
+        act.toList() == [HexData.from('0x4567'), HexData.from('0x89ab'), HexData.from('0xcdef')]
+        act.collect { it.hashCode() } == [HexData.from('0x4567').hashCode(), HexData.from('0x89ab').hashCode(), HexData.from('0xcdef').hashCode()]
+    }
+
+    def "split32 into signed slices"() {
+        setup:
+        def data = HexData.from("0x01" +
+            "0000000000000000000000000000000000000000000000000000000000000020" +
+            "fffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffe")
+        when:
+        def act = data.split32(1)
+        then:
+        act.length == 2
+        act[0].asUInt() == 32
+        act[0].asInt() == 32
+        act[1].asInt() == -2
+        act[1] == Hex32.from("0xfffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffe")
+    }
+
+    def "serialize slice as compact copy"() {
+        setup:
+        def data = HexData.from('0x0123456789abcdef')
+        def slice = data.extract(2, 3)
+        def hex32 = HexData.from('0x00' + '11' * 32).split32(1)[0]
+        when:
+        def buf = new ByteArrayOutputStream()
+        new ObjectOutputStream(buf).with {
+            writeObject(slice)
+            writeObject(hex32)
+            close()
+        }
+        def input = new ObjectInputStream(new ByteArrayInputStream(buf.toByteArray()))
+        def act = input.readObject()
+        def act32 = input.readObject()
+        then:
+        act == HexData.from('0x6789')
+        act.getClass() == HexData
+        act32 == Hex32.from('0x' + '11' * 32)
+        act32.getClass() == Hex32
+    }
+
+    def "compact slice into own array"() {
+        setup:
+        def data = HexData.from('0x00' + '11' * 32)
+        def slice = data.extract(2, 3)
+        def hex32 = data.split32(1)[0]
+        when:
+        def act = slice.compact()
+        def act32 = hex32.compact()
+        then:
+        act == slice
+        !act.isSlice()
+        act.value.length == 2
+        act32 == hex32
+        act32.getClass() == Hex32
+        !act32.isSlice()
+        act32.value.length == 32
+        data.compact().is(data)
+    }
+
+    def "Hex32 from slice doesn't keep source array"() {
+        setup:
+        def data = HexData.from('0x00' + '11' * 32 + '22')
+        when:
+        def act = Hex32.from(data.extract(32, 1))
+        then:
+        act == Hex32.from('0x' + '11' * 32)
+        !act.isSlice()
+        act.value.length == 32
+    }
+
+    def "writes hex into appendable"() {
+        setup:
+        def buf = new StringBuilder("value=")
+        when:
+        HexData.from('0x0123456789abcdef').skip(1).writeHex(buf)
+        then:
+        buf.toString() == "value=0x23456789abcdef"
+    }
+
+    def "writes hex into char array"() {
+        setup:
+        def buf = new char[10]
+        when:
+        def len = HexData.from('0x00ff10').writeHex(buf, 1)
+        then:
+        len == 8
+        new String(buf, 1, len) == "0x00ff10"
+    }
+
+    def "writes hex into byte buffer"() {
+        setup:
+        def buf = java.nio.ByteBuffer.allocate(16)
+        when:
+        HexData.from('0x00ff10').writeHex(buf)
+        then:
+        buf.position() == 8
+        new String(buf.array(), 0, 8, "US-ASCII") == "0x00ff10"
+    }
+
+    def "fails to write into a small byte buffer"() {
+        setup:
+        def buf = java.nio.ByteBuffer.allocate(7)
+        when:
+        HexData.from('0x00ff10').writeHex(buf)
+        then:
+        thrown(java.nio.BufferOverflowException)
+        buf.position() == 0
+    }
+
+    def "reads raw bytes of a slice as read-only buffer"() {
+        when:
+        def act = HexData.from('0x0123456789abcdef').extract(3, 2).asByteBuffer()
+        then:
+        act.readOnly
+        !act.hasArray()
+        act.position() == 0
+        act.remaining() == 3
+        act.get(0) == (byte) 0x45
+        act.get(2) == (byte) 0x89
+    }
+
+    def "writes raw bytes of a slice into byte buffer"() {
+        setup:
+        def buf = java.nio.ByteBuffer.allocate(4)
+        when:
+        HexData.from('0x0123456789abcdef').extract(3, 2).writeTo(buf)
+        then:
+        buf.position() == 3
+        buf.array() == [0x45, 0x67, 0x89, 0x00] as byte[]
+    }
+
+    def "compares content with part of array"() {
+        setup:
+        def src = [0x00, 0x11, 0x22, 0x33] as byte[]
+        expect:
+        HexData.from('0x1122').contentEquals(src, 1, 2)
+        HexData.from('0x00112233').extract(2, 1).contentEquals(src, 1, 2)
+        !HexData.from('0x1122').contentEquals(src, 0, 2)
+        !HexData.from('0x1122').contentEquals(src, 1, 3)
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.emeraldpay.etherjar.hex
+
+import spock.lang.Specification
+
+class HexDecoderSpec extends Specification {
+
+    def "Decodes prefixed hex"() {
+        expect:
+        HexDecoder.decode(hex) == bytes
+
+        where:
+        hex             | bytes
+        '0x'            | [] as byte[]
+        '0x0'           | [0] as byte[]
+        '0xf'           | [15] as byte[]
+        '0x00'          | [0] as byte[]
+        '0xff'          | [-1] as byte[]
+        '0x123'         | [1, 35] as byte[]
+        '0xABcD'        | [-85, -51] as byte[]
+        '0x000001'      | [0, 0, 1] as byte[]
+        '0xffffff'      | [-1, -1, -1] as byte[]
+    }
+
+    def "Decodes from a StringBuilder"() {
+        expect:
+        HexDecoder.decode(new StringBuilder("0x0102ff")) == [1, 2, -1] as byte[]
+    }
+
+    def "Decodes range of chars into target"() {
+        setup:
+        def dest = new byte[4]
+        when:
+        HexDecoder.decode('"0x0102"'.toCharArray(), 3, 7, dest, 1)
+        then:
+        dest == [0, 1, 2, 0] as byte[]
+    }
+
+    def "Decodes range of ascii bytes into target"() {
+        setup:
+        def dest = new byte[3]
+        when:
+        HexDecoder.decode('xx0aBc'.getBytes("US-ASCII"), 2, 6, dest, 0)
+        then:
+        dest == [10, -68, 0] as byte[]
+    }
+
+    def "Fails on empty"() {
+        when:
+        HexDecoder.decode("")
+        then:
+        def t = thrown(IllegalArgumentException)
+        t.message == "Empty value"
+    }
+
+    def "Fails without prefix"() {
+        when:
+        HexDecoder.decode("0102")
+        then:
+        def t = thrown(IllegalArgumentException)
+        t.message == "Invalid hex format: 0102"
+    }
+
+    def "Fails on invalid characters"() {
+        when:
+        HexDecoder.decode(hex)
+        then:
+        thrown(NumberFormatException)
+        where:
+        hex << ['0xfake', '0x-1', '0x 1', '0x0٠', '0xx1']
+    }
+
+    def "Fails on invalid char in buffer"() {
+        when:
+        HexDecoder.decode('0g'.toCharArray(), 0, 2, new byte[1], 0)
+        then:
+        def t = thrown(NumberFormatException)
+        t.message == "Invalid hex format: 0g"
+    }
+}
@@ -57,4 +57,36 @@ class HexEncodingSpec extends Specification {
         _ | '0x'
         _ | 'xyz'
     }
+
+    def "should decode as long"() {
+        expect:
+        HexEncoding.fromHexToLong(hex) == val
+        HexEncoding.fromHex(hex) == new BigInteger(hex.replace("0x", ""), 16)
+
+        where:
+        hex                     | val
+        '0x0'                   | 0L
+        '0x00'                  | 0L
+        '0x1054'                | 4180L
+        '1054'                  | 4180L
+        '0x7fffffffffffffff'    | Long.MAX_VALUE
+        '0x00007fffffffffffffff'| Long.MAX_VALUE
+        '0x8000000000000000'    | Long.MIN_VALUE
+        '0x10000000000000001'   | 1L
+    }
+
+    def "should detect wrong hex-encoding for long"() {
+        when:
+        HexEncoding.fromHexToLong hex
+
+        then:
+        thrown NumberFormatException
+
+        where:
+        _ | hex
+        _ | ''
+        _ | '0x'
+        _ | 'xyz'
+        _ | '0x12z'
+    }
 }
@@ -185,4 +185,78 @@ class HexQuantitySpec extends Specification {
         x.hashCode() == y.hashCode()
         y.hashCode() == z.hashCode()
     }
+
+    def "Writes hex to appendable"() {
+        setup:
+        def buf = new StringBuilder()
+        when:
+        HexQuantity.from(val).writeHex(buf)
+        then:
+        buf.toString() == HexQuantity.from(val).toHex()
+        where:
+        val << [0, 1, 15, 16, 256, -256, Long.MAX_VALUE, Long.MIN_VALUE, new BigInteger("fffffffffffffffffffffffffffffffff", 16)]
+    }
+
+    def "Writes hex to byte buffer"() {
+        setup:
+        def buf = java.nio.ByteBuffer.allocate(64)
+        when:
+        HexQuantity.from(val).writeHex(buf)
+        then:
+        new String(buf.array(), 0, buf.position(), "US-ASCII") == HexQuantity.from(val).toHex()
+        where:
+        val << [0, 1, 15, 16, 256, -256, Long.MAX_VALUE, Long.MIN_VALUE, new BigInteger("fffffffffffffffffffffffffffffffff", 16)]
+    }
+
+    def "Provides length of hex"() {
+        expect:
+        HexQuantity.from(val).hexLength == HexQuantity.from(val).toHex().length()
+        where:
+        val << [0, 1, 15, 16, 256, -256, Long.MAX_VALUE, Long.MIN_VALUE,
+                new BigInteger("ffffffffffffffff", 16), new BigInteger("-10000000000000000", 16),
+                new BigInteger("fffffffffffffffffffffffffffffffff", 16)]
+    }
+
+    def "Parses large values"() {
+        when:
+        def act = HexQuantity.from(hex)
+        then:
+        act.value == new BigInteger(hex.replace("0x", ""), 16)
+        act.toHex() == hex.replaceFirst("0x0*", "0x")
+        act == HexQuantity.from(new BigInteger(hex.replace("0x", ""), 16))
+        where:
+        hex << ['0x7fffffffffffffff', '0x8000000000000000', '-0x8000000000000000', '0xffffffffffffffffff', '0x000000000000000000ff']
+    }
+
+    def "Provides long value"() {
+        expect:
+        HexQuantity.from(hex).longValue() == val
+        HexQuantity.from(hex).longValueExact() == val
+        where:
+        hex                     | val
+        '0x0'                   | 0
+        '0x100'                 | 256
+        '-0x100'                | -256
+        '0x7fffffffffffffff'    | Long.MAX_VALUE
+        '-0x8000000000000000'   | Long.MIN_VALUE
+    }
+
+    def "Fails to provide exact long value for large value"() {
+        setup:
+        def value = HexQuantity.from('0x10000000000000000')
+        expect:
+        value.longValue() == 0
+        when:
+        value.longValueExact()
+        then:
+        thrown(ArithmeticException)
+    }
+
+    def "Same value from long and BigInteger"() {
+        expect:
+        HexQuantity.from(val) == HexQuantity.from(BigInteger.valueOf(val))
+        HexQuantity.from(val).hashCode() == HexQuantity.from(BigInteger.valueOf(val)).hashCode()
+        where:
+        val << [0L, 1L, -1L, Long.MAX_VALUE, Long.MIN_VALUE]
+    }
 }
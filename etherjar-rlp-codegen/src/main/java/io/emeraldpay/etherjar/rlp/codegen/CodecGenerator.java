@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rlp.codegen;
+
+import java.util.List;
+
+/**
+ * Generates source of a codec for a class
+ */
+class CodecGenerator {
+
+    private final String packageName;
+    private final String codecName;
+    private final String type;
+    private final List<RlpCodecProcessor.CodecField> fields;
+
+    CodecGenerator(String packageName, String codecName, String type, List<RlpCodecProcessor.CodecField> fields) {
+        this.packageName = packageName;
+        this.codecName = codecName;
+        this.type = type;
+        this.fields = fields;
+    }
+
+    String generate() {
+        SourceWriter out = new SourceWriter();
+        if (!packageName.isEmpty()) {
+            out.line("package " + packageName + ";").line("");
+        }
+        out.line("import io.emeraldpay.etherjar.rlp.RlpCodec;")
+            .line("import io.emeraldpay.etherjar.rlp.RlpReader;")
+            .line("import io.emeraldpay.etherjar.rlp.RlpWriter;")
+            .line("")
+            .line("/**")
+            .line(" * RLP codec for {@link " + type + "}.")
+            .line(" * Generated by etherjar-rlp-codegen, do not edit.")
+            .line(" */")
+            .open("public final class " + codecName + " implements RlpCodec<" + type + ">")
+            .line("")
+            .line("public static final " + codecName + " INSTANCE = new " + codecName + "();")
+            .line("")
+            .line("private static final byte[] EMPTY = new byte[0];")
+            .line("");
+
+        out.line("@Override")
+            .open("public void write(RlpWriter writer, " + type + " value)")
+            .line("writer.startList();");
+        for (RlpCodecProcessor.CodecField field : fields) {
+            String var = out.var(field.name);
+            out.line(field.type.javaType + " " + var + " = value." + field.getter + ";");
+            field.type.write(out, "writer", var);
+        }
+        out.line("writer.closeList();")
+            .close()
+            .line("");
+
+        out.line("@Override")
+            .open("public int encodedLength(" + type + " value)")
+            .line("int length = 0;");
+        for (RlpCodecProcessor.CodecField field : fields) {
+            String var = out.var(field.name);
+            out.line(field.type.javaType + " " + var + " = value." + field.getter + ";");
+            field.type.length(out, "length", var);
+        }
+        out.line("return RlpWriter.encodedListLength(length);")
+            .close()
+            .line("");
+
+        out.line("@Override")
+            .open("public " + type + " read(RlpReader reader)")
+            .line("RlpReader list = reader.nextList();")
+            .line(type + " value = new " + type + "();");
+        for (RlpCodecProcessor.CodecField field : fields) {
+            String read = field.type.read(out, "list");
+            out.line("value." + String.format(field.setter, read) + ";");
+        }
+        out.open("if (list.hasNext())")
+            .line("throw new IllegalStateException(\"Incorrect RLP. Has more items than fields of " + type + "\");")
+            .close()
+            .line("return value;")
+            .close();
+
+        out.close();
+        return out.toString();
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rlp.codegen;
+
+/**
+ * Code generation for a type of a field. Each method gets a name of a local variable holding the value, so the
+ * value is never evaluated twice.
+ */
+abstract class FieldType {
+
+    /**
+     * Type as it's used in the source
+     */
+    final String javaType;
+
+    FieldType(String javaType) {
+        this.javaType = javaType;
+    }
+
+    /**
+     * Generate statements writing the value
+     *
+     * @param out target source
+     * @param writer name of the RlpWriter variable
+     * @param value name of the variable with the value
+     */
+    abstract void write(SourceWriter out, String writer, String value);
+
+    /**
+     * Generate statements adding length of the encoded value
+     *
+     * @param out target source
+     * @param length name of the int variable to add the length to
+     * @param value name of the variable with the value
+     */
+    abstract void length(SourceWriter out, String length, String value);
+
+    /**
+     * Generate statements reading the value
+     *
+     * @param out target source
+     * @param reader name of the RlpReader variable
+     * @return an expression with the read value
+     */
+    abstract String read(SourceWriter out, String reader);
+
+    /**
+     * Primitive numbers and booleans, and their boxed versions. Written as unsigned numbers.
+     */
+    static class Number extends FieldType {
+        private final String primitive;
+        private final boolean boxed;
+
+        Number(String javaType, String primitive, boolean boxed) {
+            super(javaType);
+            this.primitive = primitive;
+            this.boxed = boxed;
+        }
+
+        private String asLong(String value) {
+            String primitiveValue = boxed ? value + "." + primitive + "Value()" : value;
+            String result;
+            switch (primitive) {
+                case "boolean": result = "(" + primitiveValue + " ? 1L : 0L)"; break;
+                case "int": result = "Integer.toUnsignedLong(" + primitiveValue + ")"; break;
+                case "short": result = "(" + primitiveValue + " & 0xffffL)"; break;
+                case "byte": result = "(" + primitiveValue + " & 0xffL)"; break;
+                default: result = primitiveValue;
+            }
+            if (boxed) {
+                return "(" + value + " == null ? 0L : " + result + ")";
+            }
+            return result;
+        }
+
+        @Override
+        void write(SourceWriter out, String writer, String value) {
+            out.line(writer + ".write(" + asLong(value) + ");");
+        }
+
+        @Override
+        void length(SourceWriter out, String length, String value) {
+            out.line(length + " += RlpWriter.encodedLength(" + asLong(value) + ");");
+        }
+
+        @Override
+        String read(SourceWriter out, String reader) {
+            switch (primitive) {
+                case "boolean": return "(" + reader + ".nextInt() != 0)";
+                case "int": return reader + ".nextInt()";
+                case "short": return "(short) " + reader + ".nextInt()";
+                case "byte": return "(byte) " + reader + ".nextInt()";
+                default: return reader + ".nextLong()";
+            }
+        }
+    }
+
+    /**
+     * BigInteger, as unsigned number
+     */
+    static class BigNumber extends FieldType {
+
+        BigNumber() {
+            super("java.math.BigInteger");
+        }
+
+        private String orZero(String value) {
+            return "(" + value + " == null ? java.math.BigInteger.ZERO : " + value + ")";
+        }
+
+        @Override
+        void write(SourceWriter out, String writer, String value) {
+            out.line(writer + ".write(" + orZero(value) + ");");
+        }
+
+        @Override
+        void length(SourceWriter out, String length, String value) {
+            out.line(length + " += RlpWriter.encodedLength(" + orZero(value) + ");");
+        }
+
+        @Override
+        String read(SourceWriter out, String reader) {
+            return reader + ".nextBigInt()";
+        }
+    }
+
+    /**
+     * Byte array, or a String encoded as UTF-8
+     */
+    static class Bytes extends FieldType {
+        private final boolean string;
+
+        Bytes(boolean string) {
+            super(string ? "String" : "byte[]");
+            this.string = string;
+        }
+
+        private String asBytes(String value) {
+            if (string) {
+                return "(" + value + " == null ? EMPTY : " + value + ".getBytes(java.nio.charset.StandardCharsets.UTF_8))";
+            }
+            return "(" + value + " == null ? EMPTY : " + value + ")";
+        }
+
+        @Override
+        void write(SourceWriter out, String writer, String value) {
+            out.line(writer + ".write(" + asBytes(value) + ");");
+        }
+
+        @Override
+        void length(SourceWriter out, String length, String value) {
+            out.line(length + " += RlpWriter.encodedLength(" + asBytes(value) + ");");
+        }
+
+        @Override
+        String read(SourceWriter out, String reader) {
+            if (string) {
+                return "new String(" + reader + ".next(), java.nio.charset.StandardCharsets.UTF_8)";
+            }
+            return reader + ".next()";
+        }
+    }
+
+    /**
+     * A type convertable to and from bytes with {@code getBytes()} and {@code from(byte[])}, such as Address.
+     * If it also has {@code getSize()} it's used to calculate length without converting to bytes.
+     */
+    static class BytesValue extends FieldType {
+        private final boolean hasSize;
+
+        BytesValue(String javaType, boolean hasSize) {
+            super(javaType);
+            this.hasSize = hasSize;
+        }
+
+        @Override
+        void write(SourceWriter out, String writer, String value) {
+            out.line(writer + ".write(" + value + " == null ? EMPTY : " + value + ".getBytes());");
+        }
+
+        @Override
+        void length(SourceWriter out, String length, String value) {
+            if (hasSize) {
+                // only a single byte value may be encoded without a header, and it depends on the value
+                out.open("if (" + value + " == null)")
+                    .line(length + " += 1;")
+                    .next("else if (" + value + ".getSize() == 1)")
+                    .line(length + " += RlpWriter.encodedLength(" + value + ".getBytes());")
+                    .next("else")
+                    .line(length + " += RlpWriter.encodedStringLength(" + value + ".getSize());")
+                    .close();
+            } else {
+                out.line(length + " += RlpWriter.encodedLength(" + value + " == null ? EMPTY : " + value + ".getBytes());");
+            }
+        }
+
+        @Override
+        String read(SourceWriter out, String reader) {
+            String bytes = out.var("bytes");
+            out.line("byte[] " + bytes + " = " + reader + ".next();");
+            return "(" + bytes + ".length == 0 ? null : " + javaType + ".from(" + bytes + "))";
+        }
+    }
+
+    /**
+     * Another class annotated with RlpList, encoded with its codec. A null value cannot be written, since an empty
+     * list wouldn't be read back as the same value.
+     */
+    static class Nested extends FieldType {
+        private final String codec;
+        private final String field;
+
+        /**
+         * @param javaType the nested class
+         * @param codec codec of the nested class
+         * @param field name of the field, to report a null value
+         */
+        Nested(String javaType, String codec, String field) {
+            super(javaType);
+            this.codec = codec;
+            this.field = field;
+        }
+
+        private void requireValue(SourceWriter out, String value) {
+            out.open("if (" + value + " == null)")
+                .line("throw new IllegalArgumentException(\"Null value of " + field + " cannot be encoded as RLP list of " + javaType + "\");")
+                .close();
+        }
+
+        @Override
+        void write(SourceWriter out, String writer, String value) {
+            requireValue(out, value);
+            out.line(codec + ".INSTANCE.write(" + writer + ", " + value + ");");
+        }
+
+        @Override
+        void length(SourceWriter out, String length, String value) {
+            requireValue(out, value);
+            out.line(length + " += " + codec + ".INSTANCE.encodedLength(" + value + ");");
+        }
+
+        @Override
+        String read(SourceWriter out, String reader) {
+            return codec + ".INSTANCE.read(" + reader + ")";
+        }
+    }
+
+    /**
+     * A java.util.List, as an RLP list of its elements. A null list is written as an empty list.
+     */
+    static class ListOf extends FieldType {
+        private final FieldType element;
+
+        ListOf(String javaType, FieldType element) {
+            super(javaType);
+            this.element = element;
+        }
+
+        @Override
+        void write(SourceWriter out, String writer, String value) {
+            String item = out.var("item");
+            out.line(writer + ".startList();")
+                .open("if (" + value + " != null)")
+                .open("for (" + element.javaType + " " + item + " : " + value + ")");
+            element.write(out, writer, item);
+            out.close()
+                .close()
+                .line(writer + ".closeList();");
+        }
+
+        @Override
+        void length(SourceWriter out, String length, String value) {
+            String items = out.var("itemsLength");
+            String item = out.var("item");
+            out.line("int " + items + " = 0;")
+                .open("if (" + value + " != null)")
+                .open("for (" + element.javaType + " " + item + " : " + value + ")");
+            element.length(out, items, item);
+            out.close()
+                .close()
+                .line(length + " += RlpWriter.encodedListLength(" + items + ");");
+        }
+
+        @Override
+        String read(SourceWriter out, String reader) {
+            String items = out.var("items");
+            String result = out.var("list");
+            out.line("RlpReader " + items + " = " + reader + ".nextList();")
+                .line("java.util.List<" + element.javaType + "> " + result + " = new java.util.ArrayList<>();")
+                .open("while (" + items + ".hasNext())");
+            String value = element.read(out, items);
+            out.line(result + ".add(" + value + ");")
+                .close();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rlp.codegen;
+
+import io.emeraldpay.etherjar.rlp.RlpField;
+import io.emeraldpay.etherjar.rlp.RlpList;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Annotation processor which generates an {@link io.emeraldpay.etherjar.rlp.RlpCodec} for each class annotated
+ * with {@link RlpList}. The generated code uses {@link io.emeraldpay.etherjar.rlp.RlpWriter} and
+ * {@link io.emeraldpay.etherjar.rlp.RlpReader} directly, without reflection, and calculates the exact encoded
+ * length before writing so the data is encoded into a buffer of the right size.
+ */
+@SupportedAnnotationTypes({"io.emeraldpay.etherjar.rlp.RlpList", "io.emeraldpay.etherjar.rlp.RlpField"})
+public class RlpCodecProcessor extends AbstractProcessor {
+
+    static final String CODEC_SUFFIX = "RlpCodec";
+
+    private Types types;
+    private Elements elements;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        types = processingEnv.getTypeUtils();
+        elements = processingEnv.getElementUtils();
+        for (Element element : roundEnv.getElementsAnnotatedWith(RlpList.class)) {
+            try {
+                generate(element);
+            } catch (InvalidElementException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.getElement());
+            }
+        }
+        return true;
+    }
+
+    private void generate(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            throw new InvalidElementException("@RlpList is allowed only for a class", element);
+        }
+        TypeElement type = (TypeElement) element;
+        checkClass(type);
+        List<CodecField> fields = fields(type);
+
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String codecName = codecName(type);
+        String source = new CodecGenerator(packageName, codecName, type.getQualifiedName().toString(), fields).generate();
+        String qualifiedName = packageName.isEmpty() ? codecName : packageName + "." + codecName;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+        } catch (IOException e) {
+            throw new InvalidElementException("Cannot write " + qualifiedName + ": " + e.getMessage(), type);
+        }
+    }
+
+    private void checkClass(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new InvalidElementException("@RlpList class cannot be abstract", type);
+        }
+        for (Element current = type; current.getKind() != ElementKind.PACKAGE; current = current.getEnclosingElement()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new InvalidElementException("@RlpList class must be accessible from its package", type);
+            }
+            boolean nested = current.getEnclosingElement().getKind() != ElementKind.PACKAGE;
+            if (nested && current.getKind() == ElementKind.CLASS && !current.getModifiers().contains(Modifier.STATIC)) {
+                throw new InvalidElementException("@RlpList nested class must be static", type);
+            }
+        }
+        boolean hasConstructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+            .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+        if (!hasConstructor) {
+            throw new InvalidElementException("@RlpList class must have a non-private constructor without arguments", type);
+        }
+    }
+
+    /**
+     * Name of the codec for the type, which includes names of the outer classes for a nested class
+     */
+    static String codecName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element current = type.getEnclosingElement();
+        while (!(current instanceof PackageElement)) {
+            name.insert(0, '_').insert(0, current.getSimpleName());
+            current = current.getEnclosingElement();
+        }
+        return name.append(CODEC_SUFFIX).toString();
+    }
+
+    private List<CodecField> fields(TypeElement type) {
+        List<CodecField> fields = new ArrayList<>();
+        List<? extends Element> members = elements.getAllMembers(type);
+        for (VariableElement field : ElementFilter.fieldsIn(members)) {
+            RlpField annotation = field.getAnnotation(RlpField.class);
+            if (annotation == null) {
+                continue;
+            }
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                throw new InvalidElementException("@RlpField cannot be static", field);
+            }
+            FieldType fieldType = fieldType(field.asType(), field);
+            String name = field.getSimpleName().toString();
+            String getter;
+            String setter;
+            if (field.getModifiers().contains(Modifier.PRIVATE)) {
+                getter = findGetter(members, field) + "()";
+                setter = findSetter(members, field) + "(%s)";
+            } else {
+                if (field.getModifiers().contains(Modifier.FINAL)) {
+                    throw new InvalidElementException("@RlpField cannot be final", field);
+                }
+                getter = name;
+                setter = name + " = %s";
+            }
+            fields.add(new CodecField(annotation.value(), name, fieldType, getter, setter));
+        }
+        fields.sort(Comparator.comparingInt(f -> f.index));
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).index != i) {
+                throw new InvalidElementException("@RlpField positions must go from 0 without gaps or duplicates, " +
+                    "but position " + i + " is " + (fields.get(i).index > i ? "missing" : "duplicated"), type);
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new InvalidElementException("@RlpList class has no @RlpField fields", type);
+        }
+        return fields;
+    }
+
+    private String findGetter(List<? extends Element> members, VariableElement field) {
+        String name = capitalize(field.getSimpleName().toString());
+        for (ExecutableElement method : ElementFilter.methodsIn(members)) {
+            String methodName = method.getSimpleName().toString();
+            boolean nameMatches = methodName.equals("get" + name)
+                || (methodName.equals("is" + name) && field.asType().getKind() == TypeKind.BOOLEAN);
+            if (nameMatches && method.getParameters().isEmpty() && accessible(method)
+                && types.isSameType(method.getReturnType(), field.asType())) {
+                return methodName;
+            }
+        }
+        throw new InvalidElementException("Private @RlpField requires a getter: get" + name + "()", field);
+    }
+
+    private String findSetter(List<? extends Element> members, VariableElement field) {
+        String name = "set" + capitalize(field.getSimpleName().toString());
+        for (ExecutableElement method : ElementFilter.methodsIn(members)) {
+            if (method.getSimpleName().contentEquals(name) && method.getParameters().size() == 1 && accessible(method)
+                && types.isAssignable(field.asType(), method.getParameters().get(0).asType())) {
+                return name;
+            }
+        }
+        throw new InvalidElementException("Private @RlpField requires a setter: " + name + "(value)", field);
+    }
+
+    private boolean accessible(ExecutableElement method) {
+        return !method.getModifiers().contains(Modifier.PRIVATE) && !method.getModifiers().contains(Modifier.STATIC);
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private FieldType fieldType(TypeMirror type, Element field) {
+        if (type.getKind().isPrimitive()) {
+            return number(type.toString(), type.toString(), false, field);
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            if (((ArrayType) type).getComponentType().getKind() == TypeKind.BYTE) {
+                return new FieldType.Bytes(false);
+            }
+            throw new InvalidElementException("Unsupported type for RLP: " + type + ". Only byte[] arrays are supported", field);
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            throw new InvalidElementException("Unsupported type for RLP: " + type, field);
+        }
+        DeclaredType declared = (DeclaredType) type;
+        TypeElement element = (TypeElement) declared.asElement();
+        String name = element.getQualifiedName().toString();
+        switch (name) {
+            case "java.lang.String":
+                return new FieldType.Bytes(true);
+            case "java.math.BigInteger":
+                return new FieldType.BigNumber();
+            case "java.util.List":
+                if (declared.getTypeArguments().size() != 1 || declared.getTypeArguments().get(0).getKind() != TypeKind.DECLARED) {
+                    throw new InvalidElementException("Unsupported type for RLP: " + type + ". List must have an element type", field);
+                }
+                TypeMirror elementType = declared.getTypeArguments().get(0);
+                return new FieldType.ListOf(type.toString(), fieldType(elementType, field));
+            default:
+        }
+        try {
+            return number(name, types.unboxedType(type).toString(), true, field);
+        } catch (IllegalArgumentException e) {
+            // not a boxed primitive
+        }
+        if (element.getAnnotation(RlpList.class) != null) {
+            String packageName = elements.getPackageOf(element).getQualifiedName().toString();
+            String codec = codecName(element);
+            String fieldName = ((TypeElement) field.getEnclosingElement()).getQualifiedName() + "." + field.getSimpleName();
+            return new FieldType.Nested(name, packageName.isEmpty() ? codec : packageName + "." + codec, fieldName);
+        }
+        if (isBytesValue(declared)) {
+            boolean hasSize = ElementFilter.methodsIn(elements.getAllMembers(element)).stream()
+                .anyMatch(m -> m.getSimpleName().contentEquals("getSize") && m.getParameters().isEmpty()
+                    && m.getModifiers().contains(Modifier.PUBLIC) && m.getReturnType().getKind() == TypeKind.INT);
+            return new FieldType.BytesValue(name, hasSize);
+        }
+        throw new InvalidElementException("Unsupported type for RLP: " + type, field);
+    }
+
+    private FieldType number(String javaType, String primitive, boolean boxed, Element field) {
+        switch (primitive) {
+            case "long":
+            case "int":
+            case "short":
+            case "byte":
+            case "boolean":
+                return new FieldType.Number(javaType, primitive, boxed);
+            default:
+                throw new InvalidElementException("Unsupported type for RLP: " + javaType, field);
+        }
+    }
+
+    /**
+     * @return true if the type has {@code byte[] getBytes()} and a static {@code from(byte[])} factory
+     */
+    private boolean isBytesValue(DeclaredType type) {
+        boolean getter = false;
+        boolean factory = false;
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers((TypeElement) type.asElement()))) {
+            if (!method.getModifiers().contains(Modifier.PUBLIC)) {
+                continue;
+            }
+            if (method.getSimpleName().contentEquals("getBytes") && method.getParameters().isEmpty()
+                && !method.getModifiers().contains(Modifier.STATIC) && isBytes(method.getReturnType())) {
+                getter = true;
+            }
+            if (method.getSimpleName().contentEquals("from") && method.getParameters().size() == 1
+                && method.getModifiers().contains(Modifier.STATIC)
+                && isBytes(method.getParameters().get(0).asType())
+                && types.isAssignable(method.getReturnType(), type)) {
+                factory = true;
+            }
+        }
+        return getter && factory;
+    }
+
+    private boolean isBytes(TypeMirror type) {
+        return type.getKind() == TypeKind.ARRAY && ((ArrayType) type).getComponentType().getKind() == TypeKind.BYTE;
+    }
+
+    static class CodecField {
+        final int index;
+        final String name;
+        final FieldType type;
+        /**
+         * Expression to get the value from an object
+         */
+        final String getter;
+        /**
+         * Format of a statement to set the value
+         */
+        final String setter;
+
+        CodecField(int index, String name, FieldType type, String getter, String setter) {
+            this.index = index;
+            this.name = name;
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+}
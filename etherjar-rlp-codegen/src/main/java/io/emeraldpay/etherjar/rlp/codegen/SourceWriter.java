@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rlp.codegen;
+
+/**
+ * Builder of a Java source with indentation and unique names for local variables
+ */
+class SourceWriter {
+
+    private final StringBuilder buffer = new StringBuilder();
+    private int indent = 0;
+    private int vars = 0;
+
+    SourceWriter line(String line) {
+        if (!line.isEmpty()) {
+            for (int i = 0; i < indent; i++) {
+                buffer.append("    ");
+            }
+        }
+        buffer.append(line).append('\n');
+        return this;
+    }
+
+    SourceWriter open(String line) {
+        line(line + " {");
+        indent++;
+        return this;
+    }
+
+    /**
+     * Close current block and open the next one, ex. for {@code } else {}
+     */
+    SourceWriter next(String line) {
+        indent--;
+        line("} " + line + " {");
+        indent++;
+        return this;
+    }
+
+    SourceWriter close() {
+        indent--;
+        return line("}");
+    }
+
+    /**
+     * @param prefix name prefix
+     * @return a new name of a local variable
+     */
+    String var(String prefix) {
+        return prefix + (vars++);
+    }
+
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+}
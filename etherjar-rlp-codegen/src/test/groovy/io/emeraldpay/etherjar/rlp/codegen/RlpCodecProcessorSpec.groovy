@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rlp.codegen
+
+import io.emeraldpay.etherjar.domain.Address
+import io.emeraldpay.etherjar.hex.Hex32
+import io.emeraldpay.etherjar.rlp.RlpWriter
+import spock.lang.Specification
+
+import javax.tools.Diagnostic
+import javax.tools.DiagnosticCollector
+import javax.tools.JavaFileObject
+import javax.tools.SimpleJavaFileObject
+import javax.tools.ToolProvider
+import java.nio.file.Files
+import java.nio.file.Path
+
+class RlpCodecProcessorSpec extends Specification {
+
+    static final String RECEIPT = """
+        package test;
+
+        import io.emeraldpay.etherjar.rlp.RlpField;
+        import io.emeraldpay.etherjar.rlp.RlpList;
+        import java.math.BigInteger;
+        import java.util.List;
+
+        @RlpList
+        public class Receipt {
+            @RlpField(0) public long status;
+            @RlpField(1) BigInteger gasUsed;
+            @RlpField(2) private byte[] bloom;
+            @RlpField(3) public List<Log> logs;
+
+            public byte[] getBloom() { return bloom; }
+            public void setBloom(byte[] bloom) { this.bloom = bloom; }
+        }
+    """
+
+    static final String LOG = """
+        package test;
+
+        import io.emeraldpay.etherjar.domain.Address;
+        import io.emeraldpay.etherjar.hex.Hex32;
+        import io.emeraldpay.etherjar.rlp.RlpField;
+        import io.emeraldpay.etherjar.rlp.RlpList;
+        import java.util.List;
+
+        @RlpList
+        public class Log {
+            @RlpField(0) public Address address;
+            @RlpField(1) public List<Hex32> topics;
+            @RlpField(2) public byte[] data;
+        }
+    """
+
+    static final String VALUES = """
+        package test;
+
+        import io.emeraldpay.etherjar.rlp.RlpField;
+        import io.emeraldpay.etherjar.rlp.RlpList;
+        import java.util.List;
+
+        public class Outer {
+            @RlpList
+            public static class Values {
+                @RlpField(1) public int number;
+                @RlpField(0) public String name;
+                @RlpField(2) public Long boxed;
+                @RlpField(3) public boolean flag;
+                @RlpField(4) public List<List<Integer>> matrix;
+                @RlpField(5) public short small;
+                public String ignored;
+            }
+        }
+    """
+
+    static final String ENTRY = """
+        package test;
+
+        import io.emeraldpay.etherjar.rlp.RlpField;
+        import io.emeraldpay.etherjar.rlp.RlpList;
+
+        @RlpList
+        public class Entry {
+            @RlpField(0) public long index;
+            @RlpField(1) public Log log;
+        }
+    """
+
+    Path output
+
+    def setup() {
+        output = Files.createTempDirectory("rlp-codegen")
+    }
+
+    def cleanup() {
+        output.toFile().deleteDir()
+    }
+
+    def compile(Map<String, String> sources) {
+        def compiler = ToolProvider.getSystemJavaCompiler()
+        def diagnostics = new DiagnosticCollector<JavaFileObject>()
+        def files = sources.collect { name, code ->
+            new SimpleJavaFileObject(URI.create("string:///" + name.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+                @Override
+                CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return code
+                }
+            }
+        }
+        def options = ["-d", output.toString(), "-s", output.toString(), "-classpath", System.getProperty("java.class.path")]
+        def task = compiler.getTask(null, null, diagnostics, options, null, files)
+        task.setProcessors([new RlpCodecProcessor()])
+        boolean success = task.call()
+        def errors = diagnostics.diagnostics.findAll { it.kind == Diagnostic.Kind.ERROR }.collect { it.getMessage(Locale.ENGLISH) }
+        def loader = success ? new URLClassLoader([output.toUri().toURL()] as URL[], this.class.classLoader) : null
+        return [success, errors, loader]
+    }
+
+    def "Generate codec compatible with manual encoding"() {
+        setup:
+        def (success, errors, loader) = compile(["test.Receipt": RECEIPT, "test.Log": LOG])
+        def bloom = new byte[256]
+        bloom[10] = 1
+        def address = Address.from("0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2")
+        def topic = Hex32.from("0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef")
+        def expected = new RlpWriter()
+            .startList()
+                .write(1)
+                .write(BigInteger.valueOf(21000))
+                .write(bloom)
+                .startList()
+                    .startList()
+                        .write(address.bytes)
+                        .startList().write(topic.bytes).write(topic.bytes).closeList()
+                        .write([1, 2, 3] as byte[])
+                    .closeList()
+                .closeList()
+            .closeList()
+            .toByteArray()
+        when:
+        def codec = loader.loadClass("test.ReceiptRlpCodec").INSTANCE
+        def receipt = loader.loadClass("test.Receipt").newInstance()
+        def log = loader.loadClass("test.Log").newInstance()
+        log.address = address
+        log.topics = [topic, topic]
+        log.data = [1, 2, 3] as byte[]
+        receipt.status = 1
+        receipt.gasUsed = BigInteger.valueOf(21000)
+        receipt.bloom = bloom
+        receipt.logs = [log]
+        def act = codec.encode(receipt)
+        then:
+        success
+        act == expected
+        codec.encodedLength(receipt) == expected.length
+
+        when:
+        def decoded = codec.decode(expected)
+        then:
+        decoded.status == 1
+        decoded.gasUsed == BigInteger.valueOf(21000)
+        decoded.bloom == bloom
+        decoded.logs.size() == 1
+        decoded.logs[0].address == address
+        decoded.logs[0].topics == [topic, topic]
+        decoded.logs[0].data == [1, 2, 3] as byte[]
+    }
+
+    def "Write nulls as empty values"() {
+        setup:
+        def (success, errors, loader) = compile(["test.Receipt": RECEIPT, "test.Log": LOG])
+        def codec = loader.loadClass("test.LogRlpCodec").INSTANCE
+        def log = loader.loadClass("test.Log").newInstance()
+        when:
+        def act = codec.encode(log)
+        then:
+        act == [0xc3, 0x80, 0xc0, 0x80] as byte[]
+        codec.encodedLength(log) == 4
+
+        when:
+        def decoded = codec.decode(act)
+        then:
+        decoded.address == null
+        decoded.topics == []
+        decoded.data == new byte[0]
+    }
+
+    def "Fail to write null nested list"() {
+        setup:
+        def (success, errors, loader) = compile(["test.Entry": ENTRY, "test.Receipt": RECEIPT, "test.Log": LOG])
+        def codec = loader.loadClass("test.EntryRlpCodec").INSTANCE
+        def entry = loader.loadClass("test.Entry").newInstance()
+        when:
+        codec.encode(entry)
+        then:
+        def t = thrown(IllegalArgumentException)
+        t.message.contains("test.Entry.log")
+
+        when:
+        def receipt = loader.loadClass("test.Receipt").newInstance()
+        receipt.logs = [null]
+        loader.loadClass("test.ReceiptRlpCodec").INSTANCE.encode(receipt)
+        then:
+        t = thrown(IllegalArgumentException)
+        t.message.contains("test.Receipt.logs")
+
+        when:
+        entry.log = loader.loadClass("test.Log").newInstance()
+        def act = codec.decode(codec.encode(entry))
+        then:
+        act.index == 0
+        act.log.topics == []
+    }
+
+    def "Generate codec for nested class with various types"() {
+        setup:
+        def (success, errors, loader) = compile(["test.Outer": VALUES])
+        when:
+        def codec = loader.loadClass('test.Outer_ValuesRlpCodec').INSTANCE
+        def values = loader.loadClass('test.Outer$Values').newInstance()
+        values.name = "тест"
+        values.number = -1
+        values.boxed = 1024L
+        values.flag = true
+        values.matrix = [[1, 2], [], [300]]
+        values.small = (short) 0x8000
+        values.ignored = "ignored"
+        def act = codec.encode(values)
+        def decoded = codec.decode(act)
+        then:
+        success
+        act.length == codec.encodedLength(values)
+        decoded.name == "тест"
+        decoded.number == -1
+        decoded.boxed == 1024L
+        decoded.flag
+        decoded.matrix == [[1, 2], [], [300]]
+        decoded.small == (short) 0x8000
+        decoded.ignored == null
+    }
+
+    def "Fail to decode RLP with extra items"() {
+        setup:
+        def (success, errors, loader) = compile(["test.Receipt": RECEIPT, "test.Log": LOG])
+        def codec = loader.loadClass("test.LogRlpCodec").INSTANCE
+        when:
+        codec.decode([0xc4, 0x80, 0xc0, 0x80, 0x01] as byte[])
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "Report invalid classes"() {
+        when:
+        def (success, errors, loader) = compile(["test.Invalid": source])
+        then:
+        !success
+        errors.any { it.contains(message) }
+        where:
+        source << [
+            """
+            package test;
+            @io.emeraldpay.etherjar.rlp.RlpList
+            public class Invalid {
+                @io.emeraldpay.etherjar.rlp.RlpField(0) public long a;
+                @io.emeraldpay.etherjar.rlp.RlpField(2) public long b;
+            }
+            """,
+            """
+            package test;
+            @io.emeraldpay.etherjar.rlp.RlpList
+            public class Invalid {
+                @io.emeraldpay.etherjar.rlp.RlpField(0) private long a;
+            }
+            """,
+            """
+            package test;
+            @io.emeraldpay.etherjar.rlp.RlpList
+            public class Invalid {
+                @io.emeraldpay.etherjar.rlp.RlpField(0) public double a;
+            }
+            """,
+            """
+            package test;
+            @io.emeraldpay.etherjar.rlp.RlpList
+            public class Invalid {
+                public Invalid(long a) { }
+                @io.emeraldpay.etherjar.rlp.RlpField(0) public long a;
+            }
+            """,
+        ]
+        message << [
+            "position 1 is missing",
+            "requires a getter: getA()",
+            "Unsupported type for RLP: double",
+            "constructor without arguments",
+        ]
+    }
+}
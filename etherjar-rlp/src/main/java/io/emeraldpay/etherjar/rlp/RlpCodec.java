@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rlp;
+
+/**
+ * Encoder and decoder of an object as RLP. Usually generated for an {@link RlpList} class by
+ * {@code etherjar-rlp-codegen}.
+ *
+ * @param <T> type of the object
+ */
+public interface RlpCodec<T> {
+
+    /**
+     * Write the object into the writer
+     *
+     * @param writer target writer
+     * @param value the object
+     */
+    void write(RlpWriter writer, T value);
+
+    /**
+     * Read the next element of the reader as the object
+     *
+     * @param reader source reader
+     * @return decoded object
+     * @throws IllegalStateException if RLP doesn't match the object structure
+     */
+    T read(RlpReader reader);
+
+    /**
+     * Exact length of the object encoded as RLP
+     *
+     * @param value the object
+     * @return length of the encoded object
+     */
+    int encodedLength(T value);
+
+    /**
+     * Encode the object as RLP
+     *
+     * @param value the object
+     * @return RLP encoded object
+     */
+    default byte[] encode(T value) {
+        RlpWriter writer = new RlpWriter(encodedLength(value));
+        write(writer, value);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decode an object from RLP
+     *
+     * @param rlp RLP encoded object
+     * @return decoded object
+     * @throws IllegalStateException if RLP is invalid or has more data after the object
+     */
+    default T decode(byte[] rlp) {
+        RlpReader reader = new RlpReader(rlp);
+        T value = read(reader);
+        if (!reader.isConsumed()) {
+            throw new IllegalStateException("Incorrect RLP. Has data after the object");
+        }
+        return value;
+    }
+}
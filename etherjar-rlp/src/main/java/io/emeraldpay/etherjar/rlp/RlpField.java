@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rlp;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A field of an {@link RlpList} class, with its position in the RLP list. Positions must start with 0 and go
+ * without gaps. A private field is accessed through its getter and setter.
+ * <p>
+ * Supported types are:
+ * <ul>
+ *     <li>{@code long}, {@code int}, {@code short}, {@code byte}, {@code boolean} and their boxed versions,
+ *     written as unsigned numbers</li>
+ *     <li>{@code BigInteger}, written as unsigned number</li>
+ *     <li>{@code byte[]}</li>
+ *     <li>{@code String}, as UTF-8 bytes</li>
+ *     <li>a type with {@code byte[] getBytes()} method and a static {@code from(byte[])} factory, such as
+ *     {@code Address} or {@code Hex32}. A {@code null} value is written as empty bytes, and vice versa</li>
+ *     <li>another {@link RlpList} class</li>
+ *     <li>{@code List} of any of above, written as a nested list</li>
+ * </ul>
+ * A {@code null} value of a boxed number, {@code BigInteger}, {@code byte[]} or {@code String} is written same
+ * as zero or empty value.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface RlpField {
+
+    /**
+     * @return position of the field in the RLP list
+     */
+    int value();
+}
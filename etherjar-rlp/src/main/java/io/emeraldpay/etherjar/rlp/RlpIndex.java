@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rlp;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Index of items of an RLP list, for random access to them. It's built with a single pass over the headers
+ * of the items, without decoding or copying their data, and then gives position of any item in constant time.
+ * <p>
+ * Example, get the 173rd transaction of a block {@code [header, [tx, ...], [uncle, ...]]}:
+ * <pre><code>
+ * byte[] tx = RlpIndex.of(block).getIndex(1).getRaw(173);
+ * </code></pre>
+ *
+ * @see RlpReader#nextIndex()
+ */
+public class RlpIndex {
+
+    private final byte[] input;
+    private final int size;
+    /**
+     * Position of each item, i.e. of its header
+     */
+    private final int[] starts;
+    /**
+     * Position of the data of each item, i.e. right after the header
+     */
+    private final int[] offsets;
+    private final int[] lengths;
+
+    private RlpIndex(byte[] input, int size, int[] starts, int[] offsets, int[] lengths) {
+        this.input = input;
+        this.size = size;
+        this.starts = starts;
+        this.offsets = offsets;
+        this.lengths = lengths;
+    }
+
+    /**
+     * Index items of the RLP encoded list
+     *
+     * @param rlp a list encoded as RLP
+     * @return index of the list items
+     * @throws IllegalStateException if RLP is not a list or it's invalid
+     */
+    public static RlpIndex of(byte[] rlp) {
+        return of(rlp, 0, rlp.length);
+    }
+
+    /**
+     * Index items of the RLP encoded list
+     *
+     * @param input an input with RLP encoded list
+     * @param position position of the list in the input
+     * @param length length of the RLP encoded list
+     * @return index of the list items
+     * @throws IllegalStateException if RLP is not a list or it's invalid
+     */
+    public static RlpIndex of(byte[] input, int position, int length) {
+        RlpReader rdr = new RlpReader(input, position, length);
+        if (rdr.getType() != RlpType.LIST) {
+            throw new IllegalStateException("Not a list: " + rdr.getType());
+        }
+        RlpIndex index = rdr.nextIndex();
+        if (!rdr.isConsumed()) {
+            throw new IllegalStateException("Incorrect RLP. Has data after the list");
+        }
+        return index;
+    }
+
+    /**
+     * Index items in the payload of a list, i.e. the concatenated RLP encoded items
+     *
+     * @param input the input
+     * @param position position of the first item
+     * @param length total length of the items
+     * @return index of the items
+     * @throws IllegalStateException if RLP is invalid
+     */
+    static RlpIndex ofItems(byte[] input, int position, int length) {
+        int end = position + length;
+        int capacity = Math.max(4, Math.min(length, 64));
+        int[] starts = new int[capacity];
+        int[] offsets = new int[capacity];
+        int[] lengths = new int[capacity];
+        int count = 0;
+        int pos = position;
+        while (pos < end) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+                lengths = Arrays.copyOf(lengths, count * 2);
+            }
+            int start = pos;
+            int i0 = input[pos++] & 0xff;
+            int itemLength;
+            if (i0 <= 0x7f) {
+                pos = start;
+                itemLength = 1;
+            } else if (i0 <= 0xb7) {
+                itemLength = i0 - 0x80;
+            } else if (i0 <= 0xbf) {
+                itemLength = readSize(input, pos, i0 - 0xb7, end);
+                pos += i0 - 0xb7;
+            } else if (i0 <= 0xf7) {
+                itemLength = i0 - 0xc0;
+            } else {
+                itemLength = readSize(input, pos, i0 - 0xf7, end);
+                pos += i0 - 0xf7;
+            }
+            if (end - pos < itemLength) {
+                throw new IllegalStateException("Incorrect RLP. Item at " + start + " ends at " + ((long) pos + itemLength) + " after the list end at " + end);
+            }
+            starts[count] = start;
+            offsets[count] = pos;
+            lengths[count] = itemLength;
+            count++;
+            pos += itemLength;
+        }
+        return new RlpIndex(input, count, starts, offsets, lengths);
+    }
+
+    private static int readSize(byte[] input, int pos, int sizeLength, int end) {
+        if (sizeLength > 4 || end - pos < sizeLength) {
+            throw new IllegalStateException("Incorrect RLP. Invalid size of item at " + (pos - 1));
+        }
+        int value = 0;
+        for (int i = 0; i < sizeLength; i++) {
+            value = (value << 8) | (input[pos + i] & 0xff);
+        }
+        if (value >= Integer.MAX_VALUE - 8 || value <= 0) {
+            throw new IllegalStateException("Input list is too long: " + value);
+        }
+        return value;
+    }
+
+    private int check(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", size: " + size);
+        }
+        return i;
+    }
+
+    /**
+     * @return number of items in the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the input the index refers to
+     */
+    public byte[] getRawData() {
+        return input;
+    }
+
+    /**
+     * @param i index of the item
+     * @return type of the item, BYTES or LIST
+     */
+    public RlpType getType(int i) {
+        return (input[starts[check(i)]] & 0xff) >= 0xc0 ? RlpType.LIST : RlpType.BYTES;
+    }
+
+    /**
+     * @param i index of the item
+     * @return position of the item data (without header) in the input
+     */
+    public int getOffset(int i) {
+        return offsets[check(i)];
+    }
+
+    /**
+     * @param i index of the item
+     * @return length of the item data, without header
+     */
+    public int getLength(int i) {
+        return lengths[check(i)];
+    }
+
+    /**
+     * @param i index of the item
+     * @return position of the item, including its header, in the input
+     */
+    public int getRawOffset(int i) {
+        return starts[check(i)];
+    }
+
+    /**
+     * @param i index of the item
+     * @return length of the item including its header
+     */
+    public int getRawLength(int i) {
+        check(i);
+        return offsets[i] + lengths[i] - starts[i];
+    }
+
+    /**
+     * @param i index of the item
+     * @return copy of the item data
+     */
+    public byte[] get(int i) {
+        int offset = getOffset(i);
+        return Arrays.copyOfRange(input, offset, offset + lengths[i]);
+    }
+
+    /**
+     * @param i index of the item
+     * @return copy of the item as RLP, i.e. including its header
+     */
+    public byte[] getRaw(int i) {
+        int start = getRawOffset(i);
+        return Arrays.copyOfRange(input, start, offsets[i] + lengths[i]);
+    }
+
+    /**
+     * @param i index of the item
+     * @return read-only view of the item data
+     */
+    public ByteBuffer getSlice(int i) {
+        return ByteBuffer.wrap(input, getOffset(i), lengths[i]).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * @param i index of the item
+     * @return item as a number
+     * @throws IllegalArgumentException if item is larger than 8 bytes
+     */
+    public long getLong(int i) {
+        int length = getLength(i);
+        if (length > 8) {
+            throw new IllegalArgumentException("Input is too long. Has " + length + " bytes. Max accepted is 8 bytes");
+        }
+        long result = 0;
+        for (int pos = offsets[i]; pos < offsets[i] + length; pos++) {
+            result = (result << 8) | (input[pos] & 0xff);
+        }
+        return result;
+    }
+
+    /**
+     * @param i index of the item
+     * @return item as an unsigned number
+     */
+    public BigInteger getBigInt(int i) {
+        if (getLength(i) == 0) {
+            return BigInteger.ZERO;
+        }
+        return new BigInteger(1, get(i));
+    }
+
+    /**
+     * @param i index of the item, which must be a list
+     * @return reader for the items of the list
+     * @throws IllegalStateException if the item is not a list
+     */
+    public RlpReader getList(int i) {
+        requireList(i);
+        return new RlpReader(input, offsets[i], lengths[i]);
+    }
+
+    /**
+     * @param i index of the item, which must be a list
+     * @return index of the items of the list
+     * @throws IllegalStateException if the item is not a list
+     */
+    public RlpIndex getIndex(int i) {
+        requireList(i);
+        return ofItems(input, offsets[i], lengths[i]);
+    }
+
+    private void requireList(int i) {
+        if (getType(i) != RlpType.LIST) {
+            throw new IllegalStateException("Item " + i + " is not list");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rlp;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class which is encoded as an RLP list of its {@link RlpField} fields. With {@code etherjar-rlp-codegen}
+ * annotation processor enabled it generates an {@link RlpCodec} for the class, named {@code <Class>RlpCodec} and
+ * placed into the same package. For a nested class the name includes the outer classes, ex.
+ * {@code Block_HeaderRlpCodec} for {@code Block.Header}.
+ * <p>
+ * The class must have a non-private constructor without arguments.
+ *
+ * @see RlpField
+ * @see RlpCodec
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface RlpList {
+}
@@ -17,15 +17,25 @@ package io.emeraldpay.etherjar.rlp;
 
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * RLP (Recursive Length Prefix) encoding reader
+ * <p>
+ * The reader doesn't copy the input. Nested lists are read by a new reader over the same input array, and
+ * a value is copied only when it's requested as {@code byte[]}, i.e. with {@link #next()}. Use {@link #nextSlice()}
+ * to get a value as a view over the original input, or {@link #nextLong()}/{@link #nextInt()} which decode
+ * numbers directly from the input.
  *
  * See RLP Spec at https://github.com/ethereum/wiki/wiki/RLP
  */
 public class RlpReader {
 
+    private static final Current NONE = new Current(RlpType.NONE, 0, 0);
+
     private byte[] input;
+    private final boolean nested;
+    private final int origin;
 
     private Current current;
     private int position = 0;
@@ -39,6 +49,8 @@ public class RlpReader {
     public RlpReader(byte[] input) {
         this.input = input;
         this.limit = input.length;
+        this.nested = false;
+        this.origin = 0;
     }
 
     /**
@@ -49,9 +61,25 @@ public class RlpReader {
      * @param length total length of RLP encoded data in provided input
      */
     public RlpReader(byte[] input, int position, int length) {
+        if (position < 0 || length < 0 || position + length > input.length) {
+            throw new IllegalArgumentException("Invalid range " + position + ".." + (position + length) + " for input of " + input.length + " bytes");
+        }
+        this.input = input;
+        this.position = position;
+        this.limit = position + length;
+        this.nested = false;
+        this.origin = 0;
+    }
+
+    /**
+     * Reader for a nested list, which starts at {@code position} of the shared input
+     */
+    private RlpReader(byte[] input, int position, int length, boolean nested) {
         this.input = input;
         this.position = position;
         this.limit = position + length;
+        this.nested = nested;
+        this.origin = position;
     }
 
     private int unsigned(byte b) {
@@ -59,39 +87,63 @@ public class RlpReader {
     }
 
     /**
-     * Access to the underlying bytes data
+     * Access to the underlying bytes data. For a reader returned by {@link #nextList()} it's a copy of the list
+     * content, use {@link #getInput()} to access it without copying.
+     *
      * @return the whole input
      */
     public byte[] getRawData() {
+        if (nested) {
+            return Arrays.copyOfRange(input, origin, limit);
+        }
         return input;
     }
 
     /**
-     * Access current position of the reader
+     * Access current position of the reader. For a reader returned by {@link #nextList()} it's relative to the start
+     * of the list.
+     *
      * @return position
      */
     public int getPosition() {
+        return position - origin;
+    }
+
+    /**
+     * Access to the input without copying. For a reader returned by {@link #nextList()} it's the input of
+     * the top level reader, and the current position in it is {@link #getOffset()}
+     *
+     * @return the whole input shared with the parent reader
+     */
+    public byte[] getInput() {
+        return input;
+    }
+
+    /**
+     * Access current position of the reader in {@link #getInput()}
+     *
+     * @return absolute position
+     */
+    public int getOffset() {
         return position;
     }
 
     private Current read() {
         if (notEnough(1)) {
-            return new Current(RlpType.NONE, input);
+            return NONE;
         }
-        byte b0 = input[position];
-        int i0 = unsigned(b0);
+        int i0 = unsigned(input[position]);
         position++;
         // the data is a string if the range of the first byte(i.e. prefix)
         // is [0x00, 0x7f], and the string is the first byte itself exactly;
         if (i0 <= 0x7f) {
-            return new Current(RlpType.BYTES, new byte[] {b0});
+            return new Current(RlpType.BYTES, position - 1, 1);
         }
         // the data is a string if the range of the first byte is [0x80, 0xb7], and the
         // string whose length is equal to the first byte minus 0x80 follows the first byte;
         if (i0 <= 0xb7) {
             int length = i0 - 0x80;
-            byte[] buf = consume(length);
-            return new Current(RlpType.BYTES, buf);
+            return new Current(RlpType.BYTES, consume(length), length);
         }
         // the data is a string if the range of the first byte is [0xb8, 0xbf], and the length of the
         // string whose length in bytes is equal to the first byte minus 0xb7 follows the first byte, and the
@@ -99,51 +151,49 @@ public class RlpReader {
         if (i0 <= 0xbf) {
             int sizeLength = i0 - 0xb7;
             int length = consumeSize(sizeLength);
-            byte[] buf = consume(length);
-            return new Current(RlpType.BYTES, buf);
+            return new Current(RlpType.BYTES, consume(length), length);
         }
         // the data is a list if the range of the first byte is [0xc0, 0xf7], and the concatenation of the RLP encodings
         // of all items of the list which the total payload is equal to the first byte minus 0xc0 follows the first byte;
         if (i0 <= 0xf7) {
             int length = i0 - 0xc0;
-            byte[] buf = consume(length);
-            return new Current(RlpType.LIST, new RlpReader(buf));
+            return new Current(RlpType.LIST, consume(length), length);
         }
         // the data is a list if the range of the first byte is [0xf8, 0xff], and the total payload of the list whose
         // length is equal to the first byte minus 0xf7 follows the first byte, and the concatenation of the RLP
         // encodings of all items of the list follows the total payload of the list;
-        if (i0 <= 0xff) {
-            int sizeLength = i0 - 0xf7;
-            int length = consumeSize(sizeLength);
-            byte[] buf = consume(length);
-            return new Current(RlpType.LIST, new RlpReader(buf));
-        }
-        return new Current(RlpType.INVALID, input);
+        int sizeLength = i0 - 0xf7;
+        int length = consumeSize(sizeLength);
+        return new Current(RlpType.LIST, consume(length), length);
     }
 
     private boolean notEnough(int length) {
-        return input.length < position + length;
+        return limit < position + length;
     }
 
-    private byte[] consume(byte[] buf, int bufPosition, int length) {
+    /**
+     * Skip the next {@code length} bytes of the input
+     *
+     * @return position of the first skipped byte
+     */
+    private int consume(int length) {
         if (notEnough(length)) {
-            throw new IllegalStateException("Incorrect RLP. Must be: " + (position + length) + " bytes long. Has " + input.length + " bytes");
-        }
-        if (buf.length < bufPosition + length) {
-            throw new IllegalArgumentException("Buffer is too small. Required to read " + length + " bytes (after " + bufPosition + "), has " + buf.length + " bytes buffer");
+            throw new IllegalStateException("Incorrect RLP. Must be: " + (position + length) + " bytes long. Has " + limit + " bytes");
         }
-        System.arraycopy(input, position, buf, bufPosition, length);
+        int start = position;
         position += length;
-        return buf;
-    }
-
-    private byte[] consume(int length) {
-        return consume(new byte[length], 0, length);
+        return start;
     }
 
     private int consumeSize(int length) {
-        byte[] lengthBuf = consume(new byte[4], 4 - length, length);
-        int value = ByteBuffer.wrap(lengthBuf).getInt();
+        if (length > 4) {
+            throw new IllegalStateException("Input list is too long. Size takes " + length + " bytes");
+        }
+        int start = consume(length);
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            value = (value << 8) | unsigned(input[start + i]);
+        }
         if (value >= Integer.MAX_VALUE - 8 || value <= 0) {
             throw new IllegalStateException("Input list is too long: " + value);
         }
@@ -164,6 +214,16 @@ public class RlpReader {
         }
     }
 
+    private Current take() {
+        tryRead();
+        if (current == null) {
+            throw new IllegalStateException("RLP stream is fully read");
+        }
+        Current value = current;
+        current = null;
+        return value;
+    }
+
     /**
      *
      * @return true if RLP input has more data to read
@@ -174,21 +234,30 @@ public class RlpReader {
     }
 
     /**
-     * Read next element as bytes
+     * Read next element as bytes. The value is copied from the input, use {@link #nextSlice()} to avoid the copy.
      *
      * @return byte[] data for the next element
      * @throws IllegalStateException if fully read
      */
     public byte[] next() {
-        tryRead();
-        if (current == null) {
-            throw new IllegalStateException("RLP stream is fully read");
-        }
-        byte[] data = current.data;
-        current = null;
+        Current value = take();
+        byte[] data = new byte[value.length];
+        System.arraycopy(input, value.offset, data, 0, value.length);
         return data;
     }
 
+    /**
+     * Read next element as a read-only view over the input, without copying it. The view stays valid as long as
+     * the original input is not modified.
+     *
+     * @return data for the next element, positioned at its first byte
+     * @throws IllegalStateException if fully read
+     */
+    public ByteBuffer nextSlice() {
+        Current value = take();
+        return ByteBuffer.wrap(input, value.offset, value.length).slice().asReadOnlyBuffer();
+    }
+
     /**
      *
      * @return type of the next element
@@ -215,7 +284,8 @@ public class RlpReader {
      * @return next element converted to String
      */
     public String nextString() {
-        return new String(next());
+        Current value = take();
+        return new String(input, value.offset, value.length);
     }
 
     /**
@@ -226,16 +296,15 @@ public class RlpReader {
      * @throws IllegalStateException if RLP element is empty
      */
     public long nextLong() {
-        byte[] decoded = next();
-        if (decoded.length == 0) {
-            return 0;
+        Current value = take();
+        if (value.length > 8) {
+            throw new IllegalArgumentException("Input is too long. Has " + value.length + " bytes. Max accepted is 8 bytes");
         }
-        if (decoded.length > 8) {
-            throw new IllegalArgumentException("Input is too long. Has " + decoded.length + " bytes. Max accepted is 8 bytes");
+        long result = 0;
+        for (int i = value.offset; i < value.offset + value.length; i++) {
+            result = (result << 8) | unsigned(input[i]);
         }
-        byte[] buf = new byte[8];
-        System.arraycopy(decoded, 0, buf, 8 - decoded.length, decoded.length);
-        return ByteBuffer.wrap(buf).getLong();
+        return result;
     }
 
     /**
@@ -246,16 +315,15 @@ public class RlpReader {
      * @throws IllegalStateException if RLP element is empty
      */
     public int nextInt() {
-        byte[] decoded = next();
-        if (decoded.length == 0) {
-            return 0;
+        Current value = take();
+        if (value.length > 4) {
+            throw new IllegalArgumentException("Input is too long. Has " + value.length + " bytes. Max accepted is 4 bytes");
         }
-        if (decoded.length > 4) {
-            throw new IllegalArgumentException("Input is too long. Has " + decoded.length + " bytes. Max accepted is 4 bytes");
+        int result = 0;
+        for (int i = value.offset; i < value.offset + value.length; i++) {
+            result = (result << 8) | unsigned(input[i]);
         }
-        byte[] buf = new byte[4];
-        System.arraycopy(decoded, 0, buf, 4 - decoded.length, decoded.length);
-        return ByteBuffer.wrap(buf).getInt();
+        return result;
     }
 
     /**
@@ -274,7 +342,7 @@ public class RlpReader {
     }
 
     /**
-     * Read next element as a list
+     * Read next element as a list. The returned reader shares the input with the current reader.
      *
      * @return new RlpReader for the list
      */
@@ -286,24 +354,39 @@ public class RlpReader {
         if (current.type != RlpType.LIST) {
             throw new IllegalStateException("Next item is not list: " + current.type);
         }
-        RlpReader list = current.list;
+        RlpReader list = new RlpReader(input, current.offset, current.length, true);
         current = null;
         return list;
     }
 
-    private class Current {
-        RlpType type;
-        byte[] data;
-        RlpReader list;
-
-        Current(RlpType type, byte[] data) {
-            this.type = type;
-            this.data = data;
+    /**
+     * Read next element as a list, and index its items for random access
+     *
+     * @return index of the list items
+     * @see RlpIndex
+     */
+    public RlpIndex nextIndex() {
+        tryRead();
+        if (current == null) {
+            throw new IllegalStateException("RLP stream is fully read");
+        }
+        if (current.type != RlpType.LIST) {
+            throw new IllegalStateException("Next item is not list: " + current.type);
         }
+        RlpIndex index = RlpIndex.ofItems(input, current.offset, current.length);
+        current = null;
+        return index;
+    }
+
+    private static class Current {
+        final RlpType type;
+        final int offset;
+        final int length;
 
-        Current(RlpType type, RlpReader list) {
+        Current(RlpType type, int offset, int length) {
             this.type = type;
-            this.list = list;
+            this.offset = offset;
+            this.length = length;
         }
     }
 }
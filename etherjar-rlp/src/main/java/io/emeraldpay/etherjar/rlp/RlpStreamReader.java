@@ -0,0 +1,569 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rlp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Incremental RLP reader over a stream of data, i.e. for RLP files which don't fit into memory such as a block export
+ * (a sequence of RLP encoded blocks).
+ * <p>
+ * The reader keeps only a fixed size buffer. Items are read one by one, and an item is loaded into memory only when
+ * it's requested with {@link #next()} or {@link #nextRaw()}, otherwise it can be skipped with {@link #skip()} without
+ * reading its content (the source is seeked when it supports it). To read items of a list use {@link #enterList()},
+ * then {@link #hasNext()} returns false at the end of the list, and {@link #exitList()} returns to the outer level.
+ * <p>
+ * Example:
+ * <pre><code>
+ * try (RlpStreamReader rdr = RlpStreamReader.mapped(Paths.get("blocks.rlp"))) {
+ *     while (rdr.hasNext()) {
+ *         RlpReader block = new RlpReader(rdr.nextRaw());
+ *         ...
+ *     }
+ * }
+ * </code></pre>
+ * Errors of the underlying source are thrown as {@link UncheckedIOException}, invalid or truncated RLP as
+ * {@link IllegalStateException}, same as for {@link RlpReader}.
+ *
+ * @see RlpReader
+ */
+public class RlpStreamReader implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int MIN_BUFFER_SIZE = 16;
+    private static final int MAX_ITEM_SIZE = Integer.MAX_VALUE - 8;
+
+    private final Source source;
+    /**
+     * Buffer in read mode, bytes between position and limit are not consumed yet
+     */
+    private final ByteBuffer buffer;
+    private boolean eof = false;
+    /**
+     * Position in the stream of the first not consumed byte
+     */
+    private long position = 0;
+
+    // positions where the currently entered lists end
+    private long[] ends = new long[8];
+    private int depth = 0;
+
+    // header of the next item, if it's already read
+    private RlpType type;
+    private int headerLength;
+    private long payloadLength;
+
+    /**
+     * Read from an input stream
+     *
+     * @param input source of RLP data
+     */
+    public RlpStreamReader(InputStream input) {
+        this(input, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Read from an input stream
+     *
+     * @param input source of RLP data
+     * @param bufferSize size of the read buffer
+     */
+    public RlpStreamReader(InputStream input, int bufferSize) {
+        this(new StreamSource(input), bufferSize);
+    }
+
+    /**
+     * Read from a channel. If it's a {@link SeekableByteChannel}, skipped items are not read from the channel.
+     *
+     * @param input source of RLP data
+     */
+    public RlpStreamReader(ReadableByteChannel input) {
+        this(input, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Read from a channel. If it's a {@link SeekableByteChannel}, skipped items are not read from the channel.
+     *
+     * @param input source of RLP data
+     * @param bufferSize size of the read buffer
+     */
+    public RlpStreamReader(ReadableByteChannel input, int bufferSize) {
+        this(new ChannelSource(input), bufferSize);
+    }
+
+    private RlpStreamReader(Source source, int bufferSize) {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer is too small: " + bufferSize + ". Min is " + MIN_BUFFER_SIZE);
+        }
+        this.source = source;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+    }
+
+    /**
+     * Read a file mapped into memory. The file is mapped by regions, so it may be larger than 2Gb.
+     *
+     * @param file path to the file
+     * @return reader for the file, must be closed after use
+     * @throws IOException if file cannot be opened
+     */
+    public static RlpStreamReader mapped(Path file) throws IOException {
+        return new RlpStreamReader(new MappedSource(FileChannel.open(file, StandardOpenOption.READ)), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @return position in the stream of the next item
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return number of currently entered lists
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     *
+     * @return true if there is a next item in the stream, or in the current list
+     */
+    public boolean hasNext() {
+        return getType() != RlpType.NONE;
+    }
+
+    /**
+     *
+     * @return type of the next item, or NONE at the end of the stream or the current list
+     */
+    public RlpType getType() {
+        peek();
+        return type;
+    }
+
+    /**
+     *
+     * @return length of the next item, without its header
+     */
+    public long getLength() {
+        peek();
+        return payloadLength;
+    }
+
+    /**
+     * Read next element as bytes
+     *
+     * @return byte[] data for the next element
+     * @throws IllegalStateException if fully read, or if next element is a list
+     */
+    public byte[] next() {
+        requireNext(RlpType.BYTES);
+        int length = checkItemSize(payloadLength);
+        consume(headerLength);
+        byte[] value = new byte[length];
+        readFully(value);
+        return value;
+    }
+
+    /**
+     * Read next element (a list or bytes) as RLP encoded data, i.e. together with its header. The result can be
+     * decoded with {@link RlpReader}.
+     *
+     * @return RLP of the next element
+     * @throws IllegalStateException if fully read
+     */
+    public byte[] nextRaw() {
+        requireNext(null);
+        byte[] value = new byte[checkItemSize(headerLength + payloadLength)];
+        readFully(value);
+        return value;
+    }
+
+    /**
+     * Read next element as a long number.
+     *
+     * @return next element as a long
+     * @throws IllegalArgumentException if element size is larger that 8 bytes, i.e. cannot fit into a long
+     */
+    public long nextLong() {
+        requireNext(RlpType.BYTES);
+        if (payloadLength > 8) {
+            throw new IllegalArgumentException("Input is too long. Has " + payloadLength + " bytes. Max accepted is 8 bytes");
+        }
+        int length = (int) payloadLength;
+        consume(headerLength);
+        if (!ensure(length)) {
+            throw new IllegalStateException("Incorrect RLP. Stream ends at " + (position + buffer.remaining()) + " inside an item");
+        }
+        long result = 0;
+        for (int i = 0; i < length; i++) {
+            result = (result << 8) | (buffer.get() & 0xff);
+        }
+        position += length;
+        return result;
+    }
+
+    /**
+     * Read next element as a BigInteger, as an unsigned value
+     *
+     * @return next element as a BigInteger
+     */
+    public BigInteger nextBigInt() {
+        byte[] value = next();
+        if (value.length == 0) {
+            return BigInteger.ZERO;
+        }
+        return new BigInteger(1, value);
+    }
+
+    /**
+     * Skip the next element, without reading it if the source supports that
+     *
+     * @throws IllegalStateException if fully read
+     */
+    public void skip() {
+        requireNext(null);
+        consume(headerLength + payloadLength);
+    }
+
+    /**
+     * Start reading items of the list, which is the next element
+     *
+     * @return length of the list payload
+     * @throws IllegalStateException if next element is not a list
+     */
+    public long enterList() {
+        requireNext(RlpType.LIST);
+        long length = payloadLength;
+        consume(headerLength);
+        if (depth == ends.length) {
+            ends = Arrays.copyOf(ends, depth * 2);
+        }
+        ends[depth++] = position + length;
+        return length;
+    }
+
+    /**
+     * Skip the rest of the current list and continue with the items after it
+     *
+     * @throws IllegalStateException if no list is entered
+     */
+    public void exitList() {
+        if (depth == 0) {
+            throw new IllegalStateException("Not in a list");
+        }
+        long end = ends[--depth];
+        type = null;
+        consume(end - position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private void requireNext(RlpType expected) {
+        peek();
+        if (type == RlpType.NONE) {
+            throw new IllegalStateException(depth > 0 ? "RLP list is fully read" : "RLP stream is fully read");
+        }
+        if (expected != null && type != expected) {
+            throw new IllegalStateException("Next item is not " + expected + ": " + type);
+        }
+    }
+
+    private int checkItemSize(long length) {
+        if (length > MAX_ITEM_SIZE) {
+            throw new IllegalStateException("Item is too large to read into memory: " + length);
+        }
+        return (int) length;
+    }
+
+    private void peek() {
+        if (type != null) {
+            return;
+        }
+        long end = depth > 0 ? ends[depth - 1] : Long.MAX_VALUE;
+        if (position >= end || !ensure(1)) {
+            if (depth > 0 && position < end) {
+                throw new IllegalStateException("Incorrect RLP. List must end at " + end + " but stream ends at " + position);
+            }
+            type = RlpType.NONE;
+            headerLength = 0;
+            payloadLength = 0;
+            return;
+        }
+        int i0 = buffer.get(buffer.position()) & 0xff;
+        if (i0 <= 0x7f) {
+            type = RlpType.BYTES;
+            headerLength = 0;
+            payloadLength = 1;
+        } else if (i0 <= 0xb7) {
+            type = RlpType.BYTES;
+            headerLength = 1;
+            payloadLength = i0 - 0x80;
+        } else if (i0 <= 0xbf) {
+            type = RlpType.BYTES;
+            readSize(i0 - 0xb7);
+        } else if (i0 <= 0xf7) {
+            type = RlpType.LIST;
+            headerLength = 1;
+            payloadLength = i0 - 0xc0;
+        } else {
+            type = RlpType.LIST;
+            readSize(i0 - 0xf7);
+        }
+        if (end - position < headerLength + payloadLength) {
+            long required = position + headerLength + payloadLength;
+            type = null;
+            throw new IllegalStateException("Incorrect RLP. Item ends at " + required + " after the list end at " + end);
+        }
+    }
+
+    private void readSize(int sizeLength) {
+        if (!ensure(1 + sizeLength)) {
+            throw new IllegalStateException("Incorrect RLP. Stream ends at " + (position + buffer.remaining()) + " inside an item header");
+        }
+        long value = 0;
+        for (int i = 1; i <= sizeLength; i++) {
+            value = (value << 8) | (buffer.get(buffer.position() + i) & 0xff);
+        }
+        if (value < 0) {
+            throw new IllegalStateException("Incorrect RLP. Invalid size: " + value);
+        }
+        headerLength = 1 + sizeLength;
+        payloadLength = value;
+    }
+
+    /**
+     * Make sure the buffer has at least {@code length} bytes, unless the source is fully read
+     *
+     * @return true if buffer has enough data
+     */
+    private boolean ensure(int length) {
+        if (buffer.remaining() >= length) {
+            return true;
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < length && !eof) {
+                if (source.read(buffer) < 0) {
+                    eof = true;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            buffer.flip();
+        }
+        return buffer.remaining() >= length;
+    }
+
+    /**
+     * Mark next {@code length} bytes as consumed, reading or skipping them in the source if they're not in the buffer
+     */
+    private void consume(long length) {
+        type = null;
+        if (buffer.remaining() >= length) {
+            buffer.position(buffer.position() + (int) length);
+            position += length;
+            return;
+        }
+        long left = length - buffer.remaining();
+        position += buffer.remaining();
+        buffer.position(buffer.limit());
+        try {
+            while (left > 0) {
+                long skipped = source.skip(left);
+                if (skipped <= 0) {
+                    // source doesn't support skipping, or it's at the end
+                    buffer.clear();
+                    int read = source.read(buffer);
+                    buffer.flip();
+                    if (read < 0) {
+                        eof = true;
+                        throw new IllegalStateException("Incorrect RLP. Stream ends at " + position + " but item requires " + left + " more bytes");
+                    }
+                    skipped = Math.min(left, buffer.remaining());
+                    buffer.position((int) skipped);
+                }
+                left -= skipped;
+                position += skipped;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readFully(byte[] dest) {
+        type = null;
+        int copied = Math.min(dest.length, buffer.remaining());
+        buffer.get(dest, 0, copied);
+        position += copied;
+        if (copied == dest.length) {
+            return;
+        }
+        // the rest is read directly into the destination
+        ByteBuffer target = ByteBuffer.wrap(dest, copied, dest.length - copied);
+        try {
+            while (target.hasRemaining()) {
+                if (source.read(target) < 0) {
+                    eof = true;
+                    throw new IllegalStateException("Incorrect RLP. Stream ends at " + (position + target.position() - copied) + " inside an item");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        position += dest.length - copied;
+    }
+
+    private interface Source extends Closeable {
+
+        /**
+         * @return number of bytes read, or -1 at the end of the stream
+         */
+        int read(ByteBuffer dest) throws IOException;
+
+        /**
+         * @return number of skipped bytes, 0 if skipping is not supported or if it's the end of the stream
+         */
+        long skip(long length) throws IOException;
+    }
+
+    private static class StreamSource implements Source {
+        private final InputStream input;
+
+        StreamSource(InputStream input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read(ByteBuffer dest) throws IOException {
+            int read = input.read(dest.array(), dest.arrayOffset() + dest.position(), dest.remaining());
+            if (read > 0) {
+                dest.position(dest.position() + read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long length) throws IOException {
+            return input.skip(length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+
+    private static class ChannelSource implements Source {
+        private final ReadableByteChannel channel;
+
+        ChannelSource(ReadableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read(ByteBuffer dest) throws IOException {
+            return channel.read(dest);
+        }
+
+        @Override
+        public long skip(long length) throws IOException {
+            if (!(channel instanceof SeekableByteChannel)) {
+                return 0;
+            }
+            SeekableByteChannel seekable = (SeekableByteChannel) channel;
+            long current = seekable.position();
+            long skipped = Math.min(length, seekable.size() - current);
+            if (skipped <= 0) {
+                return 0;
+            }
+            seekable.position(current + skipped);
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static class MappedSource implements Source {
+        private static final long REGION_SIZE = 256L * 1024 * 1024;
+
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer region;
+        private long regionStart;
+        private long offset = 0;
+
+        MappedSource(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        @Override
+        public int read(ByteBuffer dest) throws IOException {
+            if (offset >= size) {
+                return -1;
+            }
+            if (region == null || offset < regionStart || offset >= regionStart + region.capacity()) {
+                regionStart = offset;
+                region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, Math.min(REGION_SIZE, size - regionStart));
+            }
+            int start = (int) (offset - regionStart);
+            int length = Math.min(dest.remaining(), region.capacity() - start);
+            region.limit(start + length);
+            region.position(start);
+            dest.put(region);
+            region.clear();
+            offset += length;
+            return length;
+        }
+
+        @Override
+        public long skip(long length) {
+            long skipped = Math.min(length, size - offset);
+            if (skipped <= 0) {
+                return 0;
+            }
+            offset += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            region = null;
+            channel.close();
+        }
+    }
+}
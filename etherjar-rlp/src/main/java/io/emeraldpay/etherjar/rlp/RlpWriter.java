@@ -17,28 +17,69 @@
 package io.emeraldpay.etherjar.rlp;
 
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
-import java.util.LinkedList;
+import java.util.Arrays;
 
 /**
  * RLP (Recursive Length Prefix) encoding writer
+ * <p>
+ * All data is written into a single buffer. The length of a list is not known until it's closed, so list headers
+ * are not written into the buffer, but kept aside and inserted when the result is produced. This way nested
+ * lists are never copied, and the final RLP is assembled with a single copy, either with {@link #toByteArray()}
+ * or directly into a caller provided buffer with {@link #writeTo(byte[], int)}/{@link #writeTo(ByteBuffer)}.
+ * <p>
+ * A writer can be reused for another value after {@link #reset()}, which keeps the allocated buffers.
  *
  * See RLP Spec at https://github.com/ethereum/wiki/wiki/RLP
  */
 public class RlpWriter {
 
-    private ByteArrayOutputStream buffer;
-    private LinkedList<ByteArrayOutputStream> levels;
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * Optional target stream, the encoded data is copied into it when a top level element is complete
+     */
+    private final ByteArrayOutputStream target;
+
+    /**
+     * Written data, without headers of lists
+     */
+    private byte[] buffer;
+    private int size = 0;
+
+    // lists in order they were started, i.e. in order their headers appear in the output
+    private int[] listStart = new int[16];
+    private int[] listHeadersBefore = new int[16];
+    private int[] listPayload = new int[16];
+    private int lists = 0;
+    // total length of headers of closed lists
+    private int headersLength = 0;
+
+    // currently open lists, as indexes of the lists above
+    private int[] open = new int[8];
+    private int depth = 0;
 
     public RlpWriter(ByteArrayOutputStream buffer) {
-        levels = new LinkedList<>();
-        this.buffer = buffer;
+        this.target = buffer;
+        this.buffer = new byte[DEFAULT_CAPACITY];
     }
 
     public RlpWriter() {
-        this(new ByteArrayOutputStream());
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity initial size of the buffer, the buffer grows if the data doesn't fit into it
+     */
+    public RlpWriter(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        }
+        this.target = null;
+        this.buffer = new byte[initialCapacity];
     }
 
     /**
@@ -48,8 +89,19 @@ public class RlpWriter {
      * @return writer for the list
      */
     public RlpWriter startList() {
-        levels.push(buffer);
-        buffer = new ByteArrayOutputStream();
+        if (lists == listStart.length) {
+            int capacity = lists * 2;
+            listStart = Arrays.copyOf(listStart, capacity);
+            listHeadersBefore = Arrays.copyOf(listHeadersBefore, capacity);
+            listPayload = Arrays.copyOf(listPayload, capacity);
+        }
+        if (depth == open.length) {
+            open = Arrays.copyOf(open, depth * 2);
+        }
+        listStart[lists] = size;
+        listHeadersBefore[lists] = headersLength;
+        open[depth++] = lists;
+        lists++;
         return this;
     }
 
@@ -60,12 +112,14 @@ public class RlpWriter {
      * @return writer for the list
      */
     public RlpWriter closeList() {
-        if (levels.isEmpty()) {
+        if (depth == 0) {
             throw new IllegalStateException("List not started");
         }
-        byte[] list = buffer.toByteArray();
-        buffer = levels.pop();
-        write(list, RlpType.LIST);
+        int list = open[--depth];
+        int payload = size - listStart[list] + headersLength - listHeadersBefore[list];
+        listPayload[list] = payload;
+        headersLength += encodedListLength(payload) - payload;
+        flushComplete();
         return this;
     }
 
@@ -74,10 +128,91 @@ public class RlpWriter {
      * @return resulting data, encoded as RLP
      */
     public byte[] toByteArray() {
-        if (!levels.isEmpty()) {
+        if (depth > 0) {
+            throw new IllegalStateException("List is not closed");
+        }
+        if (target != null) {
+            return target.toByteArray();
+        }
+        byte[] result = new byte[size + headersLength];
+        assemble(result, 0);
+        return result;
+    }
+
+    /**
+     * Exact length of the encoded data, i.e. the size of array produced by {@link #toByteArray()}
+     *
+     * @return length of the encoded data
+     * @throws IllegalStateException if a list is not closed
+     */
+    public int getEncodedLength() {
+        if (depth > 0) {
             throw new IllegalStateException("List is not closed");
         }
-        return buffer.toByteArray();
+        if (target != null) {
+            return target.size();
+        }
+        return size + headersLength;
+    }
+
+    /**
+     * Copy the encoded data into the provided array
+     *
+     * @param dest target array
+     * @param offset position in the target array
+     * @return number of bytes written, same as {@link #getEncodedLength()}
+     * @throws IllegalStateException if a list is not closed
+     * @throws IndexOutOfBoundsException if the data doesn't fit into the array
+     */
+    public int writeTo(byte[] dest, int offset) {
+        int length = getEncodedLength();
+        if (offset < 0 || dest.length - offset < length) {
+            throw new IndexOutOfBoundsException("Required " + length + " bytes at " + offset + ", has " + dest.length + " bytes array");
+        }
+        if (target != null) {
+            System.arraycopy(target.toByteArray(), 0, dest, offset, length);
+        } else {
+            assemble(dest, offset);
+        }
+        return length;
+    }
+
+    /**
+     * Copy the encoded data into the provided buffer, starting at its current position
+     *
+     * @param dest target buffer, its position is moved to the end of the written data
+     * @return number of bytes written, same as {@link #getEncodedLength()}
+     * @throws IllegalStateException if a list is not closed
+     * @throws BufferOverflowException if the data doesn't fit into the buffer
+     */
+    public int writeTo(ByteBuffer dest) {
+        int length = getEncodedLength();
+        if (dest.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        if (dest.hasArray()) {
+            writeTo(dest.array(), dest.arrayOffset() + dest.position());
+            dest.position(dest.position() + length);
+        } else {
+            dest.put(toByteArray());
+        }
+        return length;
+    }
+
+    /**
+     * Discard all written data so the writer can be used for a new value. Allocated buffers are kept.
+     *
+     * @return writer
+     */
+    public RlpWriter reset() {
+        if (target != null) {
+            target.reset();
+        }
+        size = 0;
+        lists = 0;
+        headersLength = 0;
+        depth = 0;
+        return this;
     }
 
     /**
@@ -86,7 +221,7 @@ public class RlpWriter {
      * @return writer for the list
      */
     public RlpWriter write(String value) {
-        return write(value == null ? new byte[0] : value.getBytes());
+        return write(value == null ? EMPTY : value.getBytes());
     }
 
     /**
@@ -95,7 +230,7 @@ public class RlpWriter {
      * @return writer for the list
      */
     public RlpWriter write(int value) {
-        return write(toBytes(value));
+        return write((long) value);
     }
 
     /**
@@ -104,7 +239,19 @@ public class RlpWriter {
      * @return writer for the list
      */
     public RlpWriter write(long value) {
-        return write(toBytes(value));
+        checkSingleValue();
+        if (value >= 0 && value <= 0x7f) {
+            // zero is an empty string, and a single byte below 0x80 is the byte itself
+            ensureCapacity(1);
+            buffer[size++] = value == 0 ? (byte) 0x80 : (byte) value;
+        } else {
+            int length = bytesLength(value);
+            ensureCapacity(1 + length);
+            buffer[size++] = (byte) (0x80 + length);
+            putNumber(value, length);
+        }
+        flushComplete();
+        return this;
     }
 
     /**
@@ -119,7 +266,13 @@ public class RlpWriter {
      * @return writer for the list
      */
     public RlpWriter write(BigInteger value) {
-        return write(shorten(value.toByteArray()));
+        if (value.signum() >= 0 && value.bitLength() < 64) {
+            return write(value.longValue());
+        }
+        byte[] bytes = value.toByteArray();
+        int pos = 0;
+        while (pos < bytes.length && bytes[pos] == 0) pos++;
+        return write(bytes, pos, bytes.length - pos);
     }
 
     /**
@@ -128,7 +281,31 @@ public class RlpWriter {
      * @return writer for the list
      */
     public RlpWriter write(byte[] value) {
-        return this.write(value, RlpType.BYTES);
+        return write(value, 0, value.length);
+    }
+
+    /**
+     * Write a part of the array as a byte string
+     *
+     * @param value source array
+     * @param offset position of the first byte
+     * @param length number of bytes to write
+     * @return writer for the list
+     */
+    public RlpWriter write(byte[] value, int offset, int length) {
+        checkSingleValue();
+        if (length == 1 && (value[offset] & 0xff) <= 0x7f) {
+            // the data is a string if the range of the first byte(i.e. prefix) is [0x00, 0x7f], and the
+            // string is the first byte itself exactly;
+            ensureCapacity(1);
+            buffer[size++] = value[offset];
+        } else {
+            putHeader(0x80, 0xb7, length);
+            System.arraycopy(value, offset, buffer, size, length);
+            size += length;
+        }
+        flushComplete();
+        return this;
     }
 
     /**
@@ -141,10 +318,9 @@ public class RlpWriter {
     }
 
     public RlpWriter write(byte value) {
-        return write(new byte[] {value});
+        return write(new byte[] {value}, 0, 1);
     }
 
-
     /**
      *
      * @param value bytes to encode into RLP list
@@ -152,61 +328,82 @@ public class RlpWriter {
      * @return writer for the list
      */
     protected RlpWriter write(byte[] value, RlpType type) {
-        if (type != RlpType.LIST && buffer.size() > 0 && levels.size() == 0) {
-            throw new IllegalStateException("Cannot encode another value into same RLP output. Use LIST to write multiple values.");
+        if (type == RlpType.BYTES) {
+            return write(value, 0, value.length);
+        } else if (type == RlpType.LIST) {
+            putHeader(0xc0, 0xf7, value.length);
+            System.arraycopy(value, 0, buffer, size, value.length);
+            size += value.length;
+            flushComplete();
+            return this;
+        } else {
+            throw new IllegalArgumentException("Invalid RLP type: "+ type);
         }
-        try {
-            if (type == RlpType.BYTES) {
-                if (value.length == 0) {
-                    buffer.write(0x80);
-                } else if (value.length == 1) {
-                    if ((value[0] & 0xff) <= 0x7f) {
-                        // the data is a string if the range of the first byte(i.e. prefix) is [0x00, 0x7f], and the
-                        // string is the first byte itself exactly;
-                        buffer.write(value[0]);
-                    } else {
-                        // the data is a string if the range of the first byte is [0x80, 0xb7], and the string whose
-                        // length is equal to the first byte minus 0x80 follows the first byte;
-                        buffer.write(0x80 + 1);
-                        buffer.write(value[0]);
-                    }
-                } else if (value.length <= (0xb7 - 0x80)) {
-                    // the data is a string if the range of the first byte is [0x80, 0xb7], and the string whose
-                    // length is equal to the first byte minus 0x80 follows the first byte;
-                    buffer.write(0x80 + value.length);
-                    buffer.write(value);
-                } else {
-                    // the data is a string if the range of the first byte is [0xb8, 0xbf], and the length of the
-                    // string whose length in bytes is equal to the first byte minus 0xb7 follows the first byte,
-                    // and the string follows the length of the string;
-                    byte[] size = toBytes(value.length);
-                    buffer.write(0xb7 + size.length);
-                    buffer.write(size);
-                    buffer.write(value);
-                }
-            } else if (type == RlpType.LIST) {
-                if (value.length <= 0xf7 - 0xc0) {
-                    // the data is a list if the range of the first byte is [0xc0, 0xf7], and the concatenation of the
-                    // RLP encodings of all items of the list which the total payload is equal to the first byte minus
-                    // 0xc0 follows the first byte;
-                    buffer.write(0xc0 + value.length);
-                    buffer.write(value);
-                } else {
-                    // the data is a list if the range of the first byte is [0xf8, 0xff], and the total payload of the
-                    // list whose length is equal to the first byte minus 0xf7 follows the first byte, and the concatenation
-                    // of the RLP encodings of all items of the list follows the total payload of the list;
-                    byte[] size = toBytes(value.length);
-                    buffer.write(0xf7 + size.length);
-                    buffer.write(size);
-                    buffer.write(value);
-                }
-            } else {
-                throw new IllegalArgumentException("Invalid RLP type: "+ type);
-            }
-        } catch (IOException e) {
-            throw new IllegalStateException("Cannot write to RLP buffer", e);
+    }
+
+    /**
+     * Length of a byte string encoded as RLP
+     *
+     * @param value a byte string
+     * @return size of its RLP encoding
+     */
+    public static int encodedLength(byte[] value) {
+        if (value.length == 1 && (value[0] & 0xff) <= 0x7f) {
+            return 1;
         }
-        return this;
+        return encodedStringLength(value.length);
+    }
+
+    /**
+     * Length of a number encoded as RLP, same as produced by {@link #write(long)}
+     *
+     * @param value a number
+     * @return size of its RLP encoding
+     */
+    public static int encodedLength(long value) {
+        if (value >= 0 && value <= 0x7f) {
+            return 1;
+        }
+        return 1 + bytesLength(value);
+    }
+
+    /**
+     * Length of a number encoded as RLP, same as produced by {@link #write(BigInteger)}
+     *
+     * @param value a number
+     * @return size of its RLP encoding
+     */
+    public static int encodedLength(BigInteger value) {
+        if (value.signum() >= 0 && value.bitLength() < 64) {
+            return encodedLength(value.longValue());
+        }
+        return encodedStringLength(value.signum() < 0 ? (value.bitLength() / 8 + 1) : (value.bitLength() + 7) / 8);
+    }
+
+    /**
+     * Length of a byte string of the specified length encoded as RLP, unless it's a single byte below 0x80
+     *
+     * @param length length of the string
+     * @return size of its RLP encoding, i.e. the length with its header
+     */
+    public static int encodedStringLength(int length) {
+        if (length <= 0xb7 - 0x80) {
+            return 1 + length;
+        }
+        return 1 + bytesLength(length) + length;
+    }
+
+    /**
+     * Length of a list encoded as RLP
+     *
+     * @param payloadLength total length of the encoded items of the list
+     * @return size of the list encoding, i.e. the payload with its header
+     */
+    public static int encodedListLength(int payloadLength) {
+        if (payloadLength <= 0xf7 - 0xc0) {
+            return 1 + payloadLength;
+        }
+        return 1 + bytesLength(payloadLength) + payloadLength;
     }
 
     /**
@@ -238,4 +435,85 @@ public class RlpWriter {
         }
         return shorten(ByteBuffer.allocate(8).putLong(value).array());
     }
+
+    private void checkSingleValue() {
+        if (depth == 0 && (size + headersLength > 0 || (target != null && target.size() > 0))) {
+            throw new IllegalStateException("Cannot encode another value into same RLP output. Use LIST to write multiple values.");
+        }
+    }
+
+    /**
+     * Write a header for a string (offsets 0x80/0xb7) or list (0xc0/0xf7) of the specified length, and make sure
+     * the buffer has enough space for the payload
+     */
+    private void putHeader(int shortOffset, int longOffset, int length) {
+        if (length <= longOffset - shortOffset) {
+            ensureCapacity(1 + length);
+            buffer[size++] = (byte) (shortOffset + length);
+        } else {
+            int sizeLength = bytesLength(length);
+            ensureCapacity(1 + sizeLength + length);
+            buffer[size++] = (byte) (longOffset + sizeLength);
+            putNumber(length, sizeLength);
+        }
+    }
+
+    private void putNumber(long value, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            buffer[size++] = (byte) (value >>> (i * 8));
+        }
+    }
+
+    private void ensureCapacity(int length) {
+        if (buffer.length - size < length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+        }
+    }
+
+    /**
+     * When a top level element is complete and there is a target stream, copy the encoded data into it
+     */
+    private void flushComplete() {
+        if (target == null || depth > 0) {
+            return;
+        }
+        byte[] encoded = new byte[size + headersLength];
+        assemble(encoded, 0);
+        target.write(encoded, 0, encoded.length);
+        size = 0;
+        lists = 0;
+        headersLength = 0;
+    }
+
+    /**
+     * Copy data from the buffer into the destination, inserting headers of the lists
+     */
+    private void assemble(byte[] dest, int offset) {
+        int src = 0;
+        int pos = offset;
+        for (int i = 0; i < lists; i++) {
+            int at = listStart[i];
+            System.arraycopy(buffer, src, dest, pos, at - src);
+            pos += at - src;
+            src = at;
+            int payload = listPayload[i];
+            if (payload <= 0xf7 - 0xc0) {
+                dest[pos++] = (byte) (0xc0 + payload);
+            } else {
+                int sizeLength = bytesLength(payload);
+                dest[pos++] = (byte) (0xf7 + sizeLength);
+                for (int j = sizeLength - 1; j >= 0; j--) {
+                    dest[pos++] = (byte) (payload >>> (j * 8));
+                }
+            }
+        }
+        System.arraycopy(buffer, src, dest, pos, size - src);
+    }
+
+    /**
+     * @return number of bytes required to represent the value without leading zeroes
+     */
+    private static int bytesLength(long value) {
+        return (64 - Long.numberOfLeadingZeros(value) + 7) / 8;
+    }
 }
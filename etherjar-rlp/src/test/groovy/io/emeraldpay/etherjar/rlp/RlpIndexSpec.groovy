@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rlp
+
+import org.apache.commons.codec.binary.Hex
+import spock.lang.Specification
+
+class RlpIndexSpec extends Specification {
+
+    def "Index transaction 0x19442f"() {
+        setup:
+        def tx = Hex.decodeHex("f86b823ca485059b9b95f08303d090948b3b3b624c3c0397d3da8fd861512393d51dcbac8084667a2f581ca0d7ddf1368fa81f6092ec15734000f911501af11876ef908a418f015030503a64a039837b1d2ee9c8ee011f44407927b540df893884eef98f67b164c8cafb82061b")
+        when:
+        def act = RlpIndex.of(tx)
+        then:
+        act.size() == 9
+        act.getLong(0) == 15524
+        act.getBigInt(1).toString(16) == "59b9b95f0"
+        act.getLong(2) == 0x03d090
+        Hex.encodeHexString(act.get(3)) == "8b3b3b624c3c0397d3da8fd861512393d51dcbac"
+        act.getLength(4) == 0
+        act.getLong(4) == 0
+        Hex.encodeHexString(act.get(5)) == "667a2f58"
+        act.getLong(6) == 28
+        act.getRawLength(6) == 1
+        act.getBigInt(8).toString(16) == "39837b1d2ee9c8ee011f44407927b540df893884eef98f67b164c8cafb82061b"
+        (0..8).every { act.getType(it) == RlpType.BYTES }
+    }
+
+    def "Gives offsets in the original input"() {
+        setup:
+        // [cat, [dog]]
+        def rlp = Hex.decodeHex("c983636174c483646f67")
+        when:
+        def act = RlpIndex.of(rlp)
+        then:
+        act.rawData.is(rlp)
+        act.size() == 2
+        act.getRawOffset(0) == 1
+        act.getOffset(0) == 2
+        act.getLength(0) == 3
+        act.getType(1) == RlpType.LIST
+        act.getRawOffset(1) == 5
+        act.getOffset(1) == 6
+        act.getRawLength(1) == 5
+        Hex.encodeHexString(act.getRaw(1)) == "c483646f67"
+        act.getSlice(0).remaining() == 3
+        act.getList(1).nextString() == "dog"
+        act.getIndex(1).size() == 1
+        new String(act.getIndex(1).get(0)) == "dog"
+    }
+
+    def "Access element of a large list"() {
+        setup:
+        def wrt = new RlpWriter().startList()
+        1000.times { i ->
+            wrt.startList().write(i).write("item " + i).closeList()
+        }
+        def rlp = wrt.closeList().toByteArray()
+        when:
+        def act = RlpIndex.of(rlp)
+        then:
+        act.size() == 1000
+        act.getIndex(173).getLong(0) == 173
+        new String(act.getIndex(173).get(1)) == "item 173"
+        act.getList(999).nextInt() == 999
+    }
+
+    def "Index nested list from reader"() {
+        setup:
+        // [[], [cat, dog], 1]
+        def rlp = Hex.decodeHex("cbc0c88363617483646f6701")
+        def rdr = new RlpReader(rlp).nextList()
+        when:
+        rdr.skip()
+        def act = rdr.nextIndex()
+        then:
+        act.size() == 2
+        new String(act.get(1)) == "dog"
+        rdr.nextInt() == 1
+        !rdr.hasNext()
+    }
+
+    def "Index empty list"() {
+        when:
+        def act = RlpIndex.of(Hex.decodeHex("c0"))
+        then:
+        act.size() == 0
+
+        when:
+        act.get(0)
+        then:
+        thrown(IndexOutOfBoundsException)
+    }
+
+    def "Fail to index not a list"() {
+        when:
+        RlpIndex.of(Hex.decodeHex("83636174"))
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "Fail to index item longer than list"() {
+        when:
+        RlpIndex.of(Hex.decodeHex("c4856361746361"))
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "Fail to get bytes as list"() {
+        setup:
+        def act = RlpIndex.of(Hex.decodeHex("c483636174"))
+        when:
+        act.getList(0)
+        then:
+        thrown(IllegalStateException)
+    }
+}
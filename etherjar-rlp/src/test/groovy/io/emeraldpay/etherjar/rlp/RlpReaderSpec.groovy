@@ -340,4 +340,112 @@ class RlpReaderSpec extends Specification {
         !rdr.hasNext()
     }
 
+    def "Read long of 8 bytes"() {
+        setup:
+        def tx = Hex.decodeHex("88ffffffffffffffff")
+        when:
+        def rdr = new RlpReader(tx)
+        def act = rdr.nextLong()
+        then:
+        act == -1L
+    }
+
+    def "Read int of 4 bytes"() {
+        setup:
+        def tx = Hex.decodeHex("847fffffff")
+        when:
+        def rdr = new RlpReader(tx)
+        def act = rdr.nextInt()
+        then:
+        act == Integer.MAX_VALUE
+    }
+
+    def "Read empty as zero number"() {
+        setup:
+        def tx = Hex.decodeHex("c28080")
+        when:
+        def rdr = new RlpReader(tx).nextList()
+        then:
+        rdr.nextLong() == 0
+        rdr.nextInt() == 0
+        !rdr.hasNext()
+    }
+
+    def "Fail to read too long number"() {
+        when:
+        new RlpReader(Hex.decodeHex("89010000000000000000")).nextLong()
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        new RlpReader(Hex.decodeHex("850100000000")).nextInt()
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "Read slice without copying"() {
+        setup:
+        // [[cat, dog]]
+        def tx = Hex.decodeHex("c9c88363617483646f67")
+        when:
+        def list = new RlpReader(tx).nextList().nextList()
+        def cat = list.nextSlice()
+        def dog = list.nextSlice()
+        then:
+        list.input.is(tx)
+        list.offset == tx.length
+        cat.remaining() == 3
+        cat.readOnly
+        cat.get(0) == (byte)'c'
+        dog.get(0) == (byte)'d'
+        dog.remaining() == 3
+        !list.hasNext()
+
+        when:
+        tx[9] = (byte)'t'
+        then:
+        dog.get(2) == (byte)'t'
+    }
+
+    def "Nested list doesn't read beyond its end"() {
+        setup:
+        // [[cat], dog]
+        def tx = Hex.decodeHex("c9c4836361748364" + "6f67")
+        when:
+        def rdr = new RlpReader(tx).nextList()
+        def inner = rdr.nextList()
+        then:
+        inner.nextString() == "cat"
+        !inner.hasNext()
+        inner.consumed
+        rdr.nextString() == "dog"
+        !rdr.hasNext()
+    }
+
+    def "Fail on truncated list"() {
+        setup:
+        def tx = Hex.decodeHex("c88363617483646f")
+        when:
+        new RlpReader(tx).nextList()
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "Nested list has own raw data and position"() {
+        setup:
+        // [[cat, dog]]
+        def tx = Hex.decodeHex("c9c88363617483646f67")
+        when:
+        def list = new RlpReader(tx).nextList().nextList()
+        then:
+        list.rawData == Hex.decodeHex("8363617483646f67")
+        !list.rawData.is(tx)
+        list.position == 0
+        list.offset == 2
+        when:
+        list.next()
+        then:
+        list.position == 4
+        list.offset == 6
+    }
 }
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2020 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rlp
+
+import org.apache.commons.codec.binary.Hex
+import spock.lang.Specification
+
+import java.nio.channels.Channels
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.StandardOpenOption
+
+class RlpStreamReaderSpec extends Specification {
+
+    // [cat, dog], [[], 1024], "Lorem ipsum..."
+    static final String STREAM = "c88363617483646f67" +
+        "c4c0820400" +
+        "b8384c6f72656d20697073756d20646f6c6f722073697420616d65742c20636f6e7365637465747572206164697069736963696e6720656c6974"
+
+    def "Read sequence of items"() {
+        setup:
+        def rdr = new RlpStreamReader(new ByteArrayInputStream(Hex.decodeHex(STREAM)), 16)
+        when:
+        def first = rdr.nextRaw()
+        def second = rdr.nextRaw()
+        def third = rdr.next()
+        then:
+        Hex.encodeHexString(first) == "c88363617483646f67"
+        Hex.encodeHexString(second) == "c4c0820400"
+        new String(third) == "Lorem ipsum dolor sit amet, consectetur adipisicing elit"
+        !rdr.hasNext()
+        rdr.type == RlpType.NONE
+        rdr.position == STREAM.length() / 2
+    }
+
+    def "Read items of lists"() {
+        setup:
+        def rdr = new RlpStreamReader(new ByteArrayInputStream(Hex.decodeHex(STREAM)), 16)
+        when:
+        def firstLength = rdr.enterList()
+        then:
+        firstLength == 8
+        rdr.depth == 1
+        new String(rdr.next()) == "cat"
+        new String(rdr.next()) == "dog"
+        !rdr.hasNext()
+
+        when:
+        rdr.exitList()
+        rdr.enterList()
+        then:
+        rdr.type == RlpType.LIST
+        rdr.length == 0
+
+        when:
+        rdr.enterList()
+        then:
+        !rdr.hasNext()
+
+        when:
+        rdr.exitList()
+        then:
+        rdr.nextLong() == 1024
+        !rdr.hasNext()
+
+        when:
+        rdr.exitList()
+        then:
+        rdr.depth == 0
+        rdr.type == RlpType.BYTES
+        rdr.length == 56
+    }
+
+    def "Exit list without reading it"() {
+        setup:
+        def rdr = new RlpStreamReader(new ByteArrayInputStream(Hex.decodeHex(STREAM)), 16)
+        when:
+        rdr.enterList()
+        rdr.exitList()
+        then:
+        Hex.encodeHexString(rdr.nextRaw()) == "c4c0820400"
+    }
+
+    def "Skip items"() {
+        setup:
+        def rdr = new RlpStreamReader(new ByteArrayInputStream(Hex.decodeHex(STREAM)), 16)
+        when:
+        rdr.skip()
+        rdr.skip()
+        then:
+        rdr.position == 14
+        rdr.hasNext()
+
+        when:
+        rdr.skip()
+        then:
+        !rdr.hasNext()
+    }
+
+    def "Skip large payload without reading it"() {
+        setup:
+        def size = 10 * 1024 * 1024
+        def header = Hex.decodeHex("ba" + String.format("%06x", size))
+        def tail = Hex.decodeHex("83646f67")
+        long read = 0
+        // a stream which has only the header and tail, and fails if the payload is read
+        def input = new InputStream() {
+            long pos = 0
+            int read() {
+                byte[] b = new byte[1]
+                return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff
+            }
+            int read(byte[] b, int off, int len) {
+                def end = header.length + size + tail.length
+                if (pos >= end) {
+                    return -1
+                }
+                if (pos < header.length) {
+                    def n = Math.min(len, header.length - (int)pos)
+                    System.arraycopy(header, (int)pos, b, off, n)
+                    pos += n
+                    read += n
+                    return n
+                }
+                if (pos >= header.length + size) {
+                    def start = (int)(pos - header.length - size)
+                    def n = Math.min(len, tail.length - start)
+                    System.arraycopy(tail, start, b, off, n)
+                    pos += n
+                    read += n
+                    return n
+                }
+                throw new IllegalStateException("Payload is read")
+            }
+            long skip(long n) {
+                pos += n
+                return n
+            }
+        }
+        def rdr = new RlpStreamReader(input, 16)
+        when:
+        def length = rdr.getLength()
+        rdr.skip()
+        def act = rdr.next()
+        then:
+        length == size
+        new String(act) == "dog"
+        read == header.length + tail.length
+        !rdr.hasNext()
+    }
+
+    def "Read from channel"() {
+        setup:
+        def channel = Channels.newChannel(new ByteArrayInputStream(Hex.decodeHex(STREAM)))
+        def rdr = new RlpStreamReader(channel, 16)
+        when:
+        rdr.skip()
+        rdr.skip()
+        def act = rdr.next()
+        then:
+        new String(act) == "Lorem ipsum dolor sit amet, consectetur adipisicing elit"
+        !rdr.hasNext()
+    }
+
+    def "Read from file"() {
+        setup:
+        def file = Files.createTempFile("rlp", ".bin")
+        Files.write(file, Hex.decodeHex(STREAM))
+        when:
+        def items = []
+        def rdr = new RlpStreamReader(FileChannel.open(file, StandardOpenOption.READ), 16)
+        while (rdr.hasNext()) {
+            items << Hex.encodeHexString(rdr.nextRaw())
+        }
+        rdr.close()
+        then:
+        items.size() == 3
+        items[1] == "c4c0820400"
+
+        when:
+        items = []
+        rdr = RlpStreamReader.mapped(file)
+        rdr.skip()
+        while (rdr.hasNext()) {
+            items << Hex.encodeHexString(rdr.nextRaw())
+        }
+        rdr.close()
+        then:
+        items.size() == 2
+        items[0] == "c4c0820400"
+
+        cleanup:
+        Files.deleteIfExists(file)
+    }
+
+    def "Read items larger than buffer"() {
+        setup:
+        def wrt = new RlpWriter().startList()
+        100.times {
+            wrt.write(new byte[100])
+        }
+        def data = wrt.closeList().toByteArray()
+        def both = new ByteArrayOutputStream()
+        both.write(data)
+        both.write(data)
+        def rdr = new RlpStreamReader(new ByteArrayInputStream(both.toByteArray()), 16)
+        when:
+        def act = rdr.nextRaw()
+        then:
+        act == data
+
+        when:
+        rdr.enterList()
+        def count = 0
+        while (rdr.hasNext()) {
+            assert rdr.next() == new byte[100]
+            count++
+        }
+        then:
+        count == 100
+    }
+
+    def "Fail on truncated item"() {
+        setup:
+        def rdr = new RlpStreamReader(new ByteArrayInputStream(Hex.decodeHex("c88363617483646f")), 16)
+        when:
+        rdr.nextRaw()
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "Fail on truncated list"() {
+        setup:
+        def rdr = new RlpStreamReader(new ByteArrayInputStream(Hex.decodeHex("c88363617483646f")), 16)
+        when:
+        rdr.enterList()
+        rdr.next()
+        rdr.next()
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "Fail on item longer than list"() {
+        setup:
+        // list of 4 bytes, with a string of 5 bytes
+        def rdr = new RlpStreamReader(new ByteArrayInputStream(Hex.decodeHex("c4856361746361")), 16)
+        when:
+        rdr.enterList()
+        rdr.next()
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "Fail to read list as bytes"() {
+        setup:
+        def rdr = new RlpStreamReader(new ByteArrayInputStream(Hex.decodeHex(STREAM)), 16)
+        when:
+        rdr.next()
+        then:
+        thrown(IllegalStateException)
+    }
+}
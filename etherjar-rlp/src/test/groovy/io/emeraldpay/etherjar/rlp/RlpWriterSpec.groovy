@@ -20,6 +20,8 @@ import io.emeraldpay.etherjar.hex.HexData
 import org.apache.commons.codec.binary.Hex
 import spock.lang.Specification
 
+import java.nio.ByteBuffer
+
 class RlpWriterSpec extends Specification {
 
     def "Official examples - bytes - dog"() {
@@ -244,4 +246,157 @@ class RlpWriterSpec extends Specification {
         then:
         Hex.encodeHexString(act)  == "c483646f67"
     }
+
+    def "Encode nested long lists"() {
+        setup:
+        def item = new byte[60]
+        Arrays.fill(item, (byte)1)
+        when:
+        // [[item, [item]], item]
+        def wrt = new RlpWriter(4)
+        def act = wrt.startList()
+                .startList()
+                    .write(item)
+                    .startList().write(item).closeList()
+                .closeList()
+                .write(item)
+            .closeList()
+            .toByteArray()
+        def rdr = new RlpReader(act).nextList()
+        def inner = rdr.nextList()
+        then:
+        Hex.encodeHexString(act).startsWith("f8be" + "f87e" + "b83c")
+        act.length == wrt.encodedLength
+        inner.next() == item
+        inner.nextList().next() == item
+        !inner.hasNext()
+        rdr.next() == item
+        !rdr.hasNext()
+    }
+
+    def "Encode list of 1000 items"() {
+        when:
+        def wrt = new RlpWriter().startList()
+        1000.times {
+            wrt.startList().write(it).closeList()
+        }
+        def act = wrt.closeList().toByteArray()
+        def rdr = new RlpReader(act).nextList()
+        def values = []
+        while (rdr.hasNext()) {
+            values << rdr.nextList().nextInt()
+        }
+        then:
+        values == (0..999).toList()
+    }
+
+    def "Write to provided array"() {
+        setup:
+        def wrt = new RlpWriter()
+            .startList()
+            .write("cat")
+            .write("dog")
+            .closeList()
+        def dest = new byte[12]
+        when:
+        def len = wrt.writeTo(dest, 2)
+        then:
+        len == 9
+        Hex.encodeHexString(dest) == "0000c88363617483646f67" + "00"
+
+        when:
+        wrt.writeTo(new byte[10], 2)
+        then:
+        thrown(IndexOutOfBoundsException)
+    }
+
+    def "Write to provided buffer"() {
+        setup:
+        def wrt = new RlpWriter()
+            .startList()
+            .write("cat")
+            .write("dog")
+            .closeList()
+        when:
+        def heap = ByteBuffer.allocate(10)
+        heap.put((byte)1)
+        wrt.writeTo(heap)
+        then:
+        heap.position() == 10
+        Hex.encodeHexString(heap.array()) == "01c88363617483646f67"
+
+        when:
+        def direct = ByteBuffer.allocateDirect(9)
+        wrt.writeTo(direct)
+        direct.flip()
+        def copy = new byte[9]
+        direct.get(copy)
+        then:
+        Hex.encodeHexString(copy) == "c88363617483646f67"
+    }
+
+    def "Reuse after reset"() {
+        setup:
+        def wrt = new RlpWriter()
+        when:
+        def first = wrt.startList().write("cat").closeList().toByteArray()
+        def second = wrt.reset().startList().write("dog").closeList().toByteArray()
+        then:
+        Hex.encodeHexString(first) == "c483636174"
+        Hex.encodeHexString(second) == "c483646f67"
+    }
+
+    def "Write into provided stream"() {
+        setup:
+        def out = new ByteArrayOutputStream()
+        out.write(1)
+        when:
+        def wrt = new RlpWriter(out)
+        wrt.startList().write("cat").closeList()
+        then:
+        Hex.encodeHexString(out.toByteArray()) == "01c483636174"
+        Hex.encodeHexString(wrt.toByteArray()) == "01c483636174"
+    }
+
+    def "Fail to write unclosed list"() {
+        when:
+        new RlpWriter().startList().write(1).toByteArray()
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "Fail to close not started list"() {
+        when:
+        new RlpWriter().write(1).closeList()
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "Encoded length is same as actual"() {
+        when:
+        def wrt = new RlpWriter()
+        wrt.write(value)
+        then:
+        RlpWriter.encodedLength(value) == wrt.toByteArray().length
+        where:
+        value << [
+            0L, 1L, 127L, 128L, 255L, 256L, 0xffffffffL, Long.MAX_VALUE, -1L,
+            BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf(128), BigInteger.ONE.shiftLeft(63), BigInteger.ONE.shiftLeft(64),
+            new BigInteger("d7ddf1368fa81f6092ec15734000f911501af11876ef908a418f015030503a64", 16), BigInteger.valueOf(-1), BigInteger.valueOf(-256),
+            new byte[0], [0x7f] as byte[], [0x80] as byte[], new byte[55], new byte[56], new byte[1024]
+        ]
+    }
+
+    def "Encoded list length"() {
+        expect:
+        RlpWriter.encodedListLength(payload) == exp
+        where:
+        payload | exp
+        0       | 1
+        55      | 56
+        56      | 58
+        255     | 257
+        256     | 259
+        65536   | 65540
+    }
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2021 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rpc;
+
+import io.emeraldpay.etherjar.domain.BlockHash;
+import io.emeraldpay.etherjar.hex.HexQuantity;
+import io.emeraldpay.etherjar.rpc.json.BlockJson;
+import io.emeraldpay.etherjar.rpc.json.TransactionJson;
+import io.emeraldpay.etherjar.rpc.json.TransactionReceiptJson;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides which calls produced by {@link EthCommands} have immutable results, which can be kept in a {@link ResponseCache}.
+ * <p>
+ * Always cacheable, as the results are addressed by hash:
+ * <ul>
+ *     <li>{@code eth_getBlockByHash}, {@code eth_getUncleByBlockHashAndIndex}</li>
+ *     <li>{@code eth_getTransactionByBlockHashAndIndex}, {@code eth_getBlockTransactionCountByHash},
+ *     {@code eth_getUncleCountByBlockHash}</li>
+ *     <li>{@code eth_getTransactionByHash}, for a mined transaction only, and past finality if the current height
+ *     is known</li>
+ *     <li>{@code eth_getCode}, at a block hash</li>
+ * </ul>
+ * Cacheable only when the result is past finality, i.e. with enough confirmations according to the current height
+ * provided with {@link #CacheableCalls(LongSupplier, long)}, because a reorg may replace the block:
+ * <ul>
+ *     <li>{@code eth_getTransactionReceipt}</li>
+ *     <li>{@code eth_getBlockByNumber}, at a fixed height</li>
+ *     <li>{@code eth_getCode}, at a fixed height, not a tag like {@code latest}</li>
+ * </ul>
+ * A null result, i.e. an unknown block or transaction, is never cached.
+ */
+public class CacheableCalls {
+
+    private final LongSupplier currentHeight;
+    private final long confirmations;
+
+    /**
+     * Cache only results addressed by hash, without any knowledge of the current height
+     */
+    public CacheableCalls() {
+        this.currentHeight = null;
+        this.confirmations = 0;
+    }
+
+    /**
+     * @param currentHeight provides the current height of the blockchain, ex. updated from a subscription to new blocks
+     * @param confirmations number of blocks on top of a block after which it's considered final
+     */
+    public CacheableCalls(LongSupplier currentHeight, long confirmations) {
+        if (currentHeight == null) {
+            throw new IllegalArgumentException("Current height supplier must be set");
+        }
+        if (confirmations < 0) {
+            throw new IllegalArgumentException("Invalid confirmations: " + confirmations);
+        }
+        this.currentHeight = currentHeight;
+        this.confirmations = confirmations;
+    }
+
+    /**
+     * Check if the call may have a cacheable result, i.e. if it makes sense to look it up in the cache.
+     *
+     * @param call a call
+     * @return true if a result of the call may be cached
+     */
+    public boolean isCacheable(RpcCall<?, ?> call) {
+        List<?> params = call.getParams();
+        switch (call.getMethod()) {
+            case "eth_getBlockByHash":
+            case "eth_getUncleByBlockHashAndIndex":
+            case "eth_getTransactionByBlockHashAndIndex":
+            case "eth_getBlockTransactionCountByHash":
+            case "eth_getUncleCountByBlockHash":
+            case "eth_getTransactionByHash":
+                return true;
+            case "eth_getCode":
+                return params.size() == 2
+                    && (isBlockHash(params.get(1)) || currentHeight != null && isHeight(params.get(1)));
+            case "eth_getTransactionReceipt":
+                return currentHeight != null;
+            case "eth_getBlockByNumber":
+                return currentHeight != null && params.size() == 2 && isHeight(params.get(0));
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Check if the actual result of the call can be cached
+     *
+     * @param call a call
+     * @param result its result
+     * @return true if the result is immutable
+     */
+    public boolean isCacheable(RpcCall<?, ?> call, Object result) {
+        if (result == null || !isCacheable(call)) {
+            return false;
+        }
+        switch (call.getMethod()) {
+            case "eth_getTransactionByHash":
+                if (!(result instanceof TransactionJson) || ((TransactionJson) result).getBlockHash() == null) {
+                    return false;
+                }
+                // a mined transaction may still move to another block on a reorg
+                return currentHeight == null || isFinal(((TransactionJson) result).getBlockNumber());
+            case "eth_getTransactionReceipt":
+                return result instanceof TransactionReceiptJson && isFinal(((TransactionReceiptJson) result).getBlockNumber());
+            case "eth_getBlockByNumber":
+                return result instanceof BlockJson && isFinal(((BlockJson<?>) result).getNumber());
+            case "eth_getCode":
+                // code at a height may be replaced by a reorg, as any other state of a non-final block
+                return isBlockHash(call.getParams().get(1)) || isFinal(getHeight(call.getParams().get(1)));
+            default:
+                return true;
+        }
+    }
+
+    private boolean isFinal(Long height) {
+        return height != null && height <= currentHeight.getAsLong() - confirmations;
+    }
+
+    private static boolean isHeight(Object param) {
+        return param instanceof String && ((String) param).startsWith("0x") && !isBlockHash(param);
+    }
+
+    private static Long getHeight(Object param) {
+        if (!isHeight(param)) {
+            return null;
+        }
+        try {
+            HexQuantity height = HexQuantity.from((String) param);
+            return height == null ? null : height.longValueExact();
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the parameter refers to a block by its hash, either as a plain hash or as an EIP-1898 object
+     */
+    private static boolean isBlockHash(Object param) {
+        if (param instanceof Map) {
+            return ((Map<?, ?>) param).get("blockHash") instanceof String;
+        }
+        return param instanceof String && ((String) param).length() == BlockHash.SIZE_HEX
+            && ((String) param).startsWith("0x");
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2021 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rpc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Client which serves immutable results from a {@link ResponseCache} and executes the rest of the calls with the
+ * actual client.
+ *
+ * @see CacheableCalls
+ */
+public class CachingFuturesRpcClient implements FuturesRpcClient {
+
+    private final FuturesRpcClient delegate;
+    private final ResponseCache cache;
+    private final CacheableCalls cacheableCalls;
+
+    /**
+     * @param delegate actual client
+     * @param cache cache for results
+     * @param cacheableCalls decides which results can be cached
+     */
+    public CachingFuturesRpcClient(FuturesRpcClient delegate, ResponseCache cache, CacheableCalls cacheableCalls) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate client must be set");
+        }
+        if (cache == null) {
+            throw new IllegalArgumentException("Cache must be set");
+        }
+        if (cacheableCalls == null) {
+            throw new IllegalArgumentException("Cacheable calls must be set");
+        }
+        this.delegate = delegate;
+        this.cache = cache;
+        this.cacheableCalls = cacheableCalls;
+    }
+
+    public CachingFuturesRpcClient(FuturesRpcClient delegate, ResponseCache cache) {
+        this(delegate, cache, new CacheableCalls());
+    }
+
+    public ResponseCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public <JS, RES> CompletableFuture<RES> execute(RpcCall<JS, RES> call) {
+        if (!cacheableCalls.isCacheable(call)) {
+            return delegate.execute(call);
+        }
+        RES cached = cache.get(call);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return delegate.execute(call).whenComplete((value, t) -> {
+            if (t == null) {
+                store(call, value);
+            }
+        });
+    }
+
+    /**
+     * Completes the cached items immediately and executes a batch with only the remaining items
+     *
+     * @param batch batch to execute
+     * @return results of all the items
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<CompletableFuture> execute(DefaultBatch batch) {
+        List<CompletableFuture> result = new ArrayList<>();
+        DefaultBatch upstream = new DefaultBatch();
+        List<DefaultBatch.FutureBatchItem> pending = new ArrayList<>();
+        List<CompletableFuture<?>> forwarded = new ArrayList<>();
+        for (DefaultBatch.FutureBatchItem item: batch.getItems()) {
+            result.add(item.getResult());
+            RpcCall<Object, Object> call = item.getCall();
+            Object cached = cacheableCalls.isCacheable(call) ? cache.get(call) : null;
+            if (cached != null) {
+                item.onResult(cached);
+                continue;
+            }
+            pending.add(item);
+            DefaultBatch.FutureBatchItem<Object, Object> upstreamItem = upstream.add(call);
+            forwarded.add(upstreamItem.getResult().whenComplete((value, t) -> {
+                if (t == null) {
+                    store(call, value);
+                    item.onResult(value);
+                } else {
+                    item.onError(asRpcException(t));
+                }
+            }));
+        }
+        if (forwarded.isEmpty()) {
+            batch.close();
+            return result;
+        }
+        try {
+            delegate.execute(upstream);
+        } catch (RuntimeException e) {
+            RpcException err = asRpcException(e);
+            for (DefaultBatch.FutureBatchItem item: pending) {
+                item.onError(err);
+            }
+            batch.close();
+            return result;
+        }
+        CompletableFuture.allOf(forwarded.toArray(new CompletableFuture[0]))
+            .whenComplete((_it, t) -> batch.close());
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void store(RpcCall<?, ?> call, Object value) {
+        if (cacheableCalls.isCacheable(call, value)) {
+            cache.put((RpcCall<?, Object>) call, value);
+        }
+    }
+
+    static RpcException asRpcException(Throwable t) {
+        if (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        if (t instanceof RpcException) {
+            return (RpcException) t;
+        }
+        return new RpcException(RpcResponseError.CODE_INTERNAL_ERROR, String.valueOf(t.getMessage()), null, t);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2021 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rpc;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client which serves immutable results from a {@link ResponseCache} and executes the rest of the calls with the
+ * actual client.
+ *
+ * @see CacheableCalls
+ */
+public class CachingReactorRpcClient implements ReactorRpcClient {
+
+    private final ReactorRpcClient delegate;
+    private final ResponseCache cache;
+    private final CacheableCalls cacheableCalls;
+
+    /**
+     * @param delegate actual client
+     * @param cache cache for results
+     * @param cacheableCalls decides which results can be cached
+     */
+    public CachingReactorRpcClient(ReactorRpcClient delegate, ResponseCache cache, CacheableCalls cacheableCalls) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate client must be set");
+        }
+        if (cache == null) {
+            throw new IllegalArgumentException("Cache must be set");
+        }
+        if (cacheableCalls == null) {
+            throw new IllegalArgumentException("Cacheable calls must be set");
+        }
+        this.delegate = delegate;
+        this.cache = cache;
+        this.cacheableCalls = cacheableCalls;
+    }
+
+    public CachingReactorRpcClient(ReactorRpcClient delegate, ResponseCache cache) {
+        this(delegate, cache, new CacheableCalls());
+    }
+
+    public ResponseCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public <JS, RES> Mono<RES> execute(RpcCall<JS, RES> call) {
+        if (!cacheableCalls.isCacheable(call)) {
+            return delegate.execute(call);
+        }
+        return Mono.defer(() -> {
+            RES cached = cache.get(call);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return delegate.execute(call).doOnNext((value) -> store(call, value));
+        });
+    }
+
+    /**
+     * Responds to the cached items immediately and executes a batch with only the remaining items
+     *
+     * @param batch batch to execute
+     * @return responses for all the items
+     */
+    @Override
+    public Flux<RpcCallResponse> execute(ReactorBatch batch) {
+        BatchCallContext<ReactorBatch.ReactorBatchItem> context = new BatchCallContext<>();
+        Flux<RpcCallResponse> result = batch.getItems()
+            .doOnNext(context::add)
+            .collectList()
+            .flatMapMany(this::executeMissing)
+            .onErrorResume(RpcException.class, (err) -> batch.getItems()
+                .doOnNext((bi) -> bi.onError(err))
+                .then(Mono.<RpcCallResponse>error(err))
+            )
+            .doOnNext(new ProcessBatchResult(context))
+            .share()
+            .cache();
+
+        batch.withExecution(result);
+
+        return result
+            .doFinally((s) -> batch.close());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Flux<RpcCallResponse> executeMissing(List<ReactorBatch.ReactorBatchItem> items) {
+        List<RpcCallResponse> cached = new ArrayList<>();
+        ReactorBatch upstream = new ReactorBatch();
+        int missing = 0;
+        for (ReactorBatch.ReactorBatchItem item: items) {
+            RpcCall call = item.getCall();
+            Object value = cacheableCalls.isCacheable(call) ? cache.get(call) : null;
+            if (value != null) {
+                cached.add(new RpcCallResponse(call, value));
+            } else {
+                upstream.add(call);
+                missing++;
+            }
+        }
+        if (missing == 0) {
+            return Flux.fromIterable(cached);
+        }
+        Flux<RpcCallResponse> fetched = delegate.execute(upstream)
+            .doOnNext((response) -> {
+                if (response.isSuccessful()) {
+                    store(response.getSource(), response.getValue());
+                }
+            });
+        return Flux.concat(Flux.fromIterable(cached), fetched);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void store(RpcCall<?, ?> call, Object value) {
+        if (cacheableCalls.isCacheable(call, value)) {
+            cache.put((RpcCall<?, Object>) call, value);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.emeraldpay.etherjar.rpc;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Client which shares one execution of a call between all concurrent requests for an equal {@link RpcCall}.
+ * A call is kept as in-flight only until it's completed, so a request made after that goes to the actual client
+ * again. Each caller gets its own future, so cancelling it doesn't affect other callers of the same call.
+ * <br>
+ * Batches are passed to the actual client as is.
+ */
+public class CoalescingFuturesRpcClient implements FuturesRpcClient {
+
+    private final FuturesRpcClient delegate;
+    private final ConcurrentMap<RpcCall<?, ?>, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * @param delegate actual client
+     */
+    public CoalescingFuturesRpcClient(FuturesRpcClient delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate client must be set");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <JS, RES> CompletableFuture<RES> execute(RpcCall<JS, RES> call) {
+        CompletableFuture<RES> created = new CompletableFuture<>();
+        CompletableFuture<RES> existing = (CompletableFuture<RES>) inFlight.putIfAbsent(call, created);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.thenApply(Function.identity());
+        }
+        try {
+            delegate.execute(call).whenComplete((value, t) -> {
+                // remove before completing, so a caller reacting on the result doesn't join the finished call
+                inFlight.remove(call, created);
+                if (t != null) {
+                    created.completeExceptionally(t);
+                } else {
+                    created.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(call, created);
+            created.completeExceptionally(e);
+        }
+        return created.thenApply(Function.identity());
+    }
+
+    @Override
+    public List<CompletableFuture> execute(DefaultBatch batch) {
+        return delegate.execute(batch);
+    }
+
+    /**
+     *
+     * @return number of calls currently executed by the actual client
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     *
+     * @return number of requests which joined an already executing call
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+}
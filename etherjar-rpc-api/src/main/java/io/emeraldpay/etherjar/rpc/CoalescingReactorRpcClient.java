@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.emeraldpay.etherjar.rpc;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client which shares one execution of a call between all concurrent subscribers for an equal {@link RpcCall}.
+ * A call is kept as in-flight until it's completed, failed, or all of its subscribers cancelled, so a request
+ * made after that goes to the actual client again. A subscriber cancelling doesn't affect other subscribers of
+ * the same call, the actual request is cancelled only when no subscribers are left.
+ * <br>
+ * Batches are passed to the actual client as is.
+ */
+public class CoalescingReactorRpcClient implements ReactorRpcClient {
+
+    private final ReactorRpcClient delegate;
+    private final ConcurrentMap<RpcCall<?, ?>, Shared<?>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * @param delegate actual client
+     */
+    public CoalescingReactorRpcClient(ReactorRpcClient delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate client must be set");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <JS, RES> Mono<RES> execute(RpcCall<JS, RES> call) {
+        return Mono.defer(() -> {
+            Shared<RES> created = new Shared<>();
+            created.result = Mono.defer(() -> delegate.execute(call))
+                .doFinally((s) -> inFlight.remove(call, created))
+                // replay the result to a subscriber which joins right after it was produced, and cancel
+                // the actual call only after the last subscriber cancelled
+                .flux()
+                .replay(1)
+                .refCount()
+                .singleOrEmpty();
+            Shared<RES> existing = (Shared<RES>) inFlight.putIfAbsent(call, created);
+            if (existing != null) {
+                coalesced.increment();
+                return existing.result;
+            }
+            return created.result;
+        });
+    }
+
+    @Override
+    public Flux<RpcCallResponse> execute(ReactorBatch batch) {
+        return delegate.execute(batch);
+    }
+
+    /**
+     *
+     * @return number of calls currently executed by the actual client
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     *
+     * @return number of subscriptions which joined an already executing call
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    private static class Shared<T> {
+        private Mono<T> result;
+    }
+}
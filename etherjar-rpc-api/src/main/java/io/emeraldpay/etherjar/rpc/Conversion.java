@@ -35,7 +35,7 @@ public class Conversion {
                 .thenApply(BigInteger::longValue);
     }
 
-    public static java.util.function.Function<String, Long> asLong = s -> HexEncoding.fromHex(s).longValue();
+    public static java.util.function.Function<String, Long> asLong = HexEncoding::fromHexToLong;
 
     public static java.util.function.Function<String[], HexData[]> asHexArray = (String[] s) -> {
         return Arrays.stream(s).map(HexData::from).collect(Collectors.toList()).toArray(new HexData[s.length]);
@@ -21,6 +21,8 @@ import io.emeraldpay.etherjar.hex.HexData;
 import io.emeraldpay.etherjar.hex.HexQuantity;
 import io.emeraldpay.etherjar.rpc.json.*;
 
+import java.util.Collections;
+
 public class EthCommands {
 
     private final Class<BlockJson<TransactionJson>> blockWithTxJson = getBlockWithTx();
@@ -245,6 +247,16 @@ public class EthCommands {
         return RpcCall.create("eth_getCode", address.toHex(), HexQuantity.from(block).toHex()).converted(HexData.class, HexData::from);
     }
 
+    /**
+     *
+     * @param address address
+     * @param block block hash, passed as an EIP-1898 object
+     * @return code at a given address
+     */
+    public RpcCall<String, HexData> getCode(Address address, BlockHash block) {
+        return RpcCall.create("eth_getCode", address.toHex(), Collections.singletonMap("blockHash", block.toHex())).converted(HexData.class, HexData::from);
+    }
+
     /**
      *
      * @param address address
@@ -17,26 +17,34 @@
 
 package io.emeraldpay.etherjar.rpc;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import io.emeraldpay.etherjar.domain.Wei;
 import io.emeraldpay.etherjar.hex.HexData;
+import io.emeraldpay.etherjar.hex.HexQuantity;
 import io.emeraldpay.etherjar.rpc.json.*;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class JacksonRpcConverter implements RpcConverter {
 
     private ObjectMapper objectMapper;
+    private final ConcurrentMap<Class<?>, ObjectReader> resultReaders = new ConcurrentHashMap<>();
 
     public JacksonRpcConverter(ObjectMapper objectMapper) {
         if (objectMapper == null) {
@@ -52,6 +60,7 @@ public class JacksonRpcConverter implements RpcConverter {
     public ObjectMapper createJsonMapper() {
         SimpleModule module = new SimpleModule("EtherJar");
         module.addSerializer(HexData.class, new HexDataSerializer());
+        module.addSerializer(HexQuantity.class, new HexQuantitySerializer());
         module.addSerializer(Wei.class, new WeiSerializer());
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(module);
@@ -86,6 +95,14 @@ public class JacksonRpcConverter implements RpcConverter {
         }
     }
 
+    /**
+     * Write the batch with a single JsonGenerator straight into the output
+     */
+    @Override
+    public void writeJson(List<RequestJson<Integer>> batch, OutputStream out) throws IOException {
+        objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, batch);
+    }
+
     @Override
     public <T> T fromJson(InputStream content, Class<T> target) throws RpcException {
         return fromJson(content, target, Integer.class);
@@ -118,28 +135,35 @@ public class JacksonRpcConverter implements RpcConverter {
         }
     }
 
+    /**
+     * Parse a batch response as a stream of tokens. The {@code result} of each item is deserialized straight into its
+     * target type, without building an intermediate JSON tree of the whole response.
+     *
+     * @param content response content
+     * @param targets target types of the results by request id, items with other ids are skipped
+     * @return parsed items, in the order of the response
+     * @throws RpcException if the response is not a valid JSON array
+     */
     @Override
     public List<ResponseJson<Object, Integer>> parseBatch(InputStream content, Map<Integer, Class> targets) throws RpcException {
-        try {
-            JsonNode nodes = objectMapper.reader().readTree(content);
-            if (!nodes.isArray()) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
                 throw new RpcException(RpcResponseError.CODE_UPSTREAM_INVALID_RESPONSE, "Not array");
             }
-            Iterator<JsonNode> elements = nodes.elements();
             List<ResponseJson<Object, Integer>> parsedBatch = new ArrayList<>();
-            while (elements.hasNext()) {
-                JsonNode resp = elements.next();
-                if (!resp.isObject()) {
-                    continue;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new RpcException(RpcResponseError.CODE_UPSTREAM_INVALID_RESPONSE, "Unexpected end of batch");
                 }
-                Integer id = resp.get("id").asInt();
-                if (!targets.containsKey(id)) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
                     continue;
                 }
-                Class[] inner = new Class[] { targets.get(id), Integer.class };
-                JavaType type1 = objectMapper.getTypeFactory().constructParametricType(ResponseJson.class, inner);
-                ResponseJson<Object, Integer> parsedItem = objectMapper.reader().forType(type1).readValue(resp);
-                parsedBatch.add(parsedItem);
+                ResponseJson<Object, Integer> parsedItem = parseBatchItem(parser, targets);
+                if (parsedItem != null) {
+                    parsedBatch.add(parsedItem);
+                }
             }
             return parsedBatch;
         } catch (IOException e) {
@@ -147,6 +171,102 @@ public class JacksonRpcConverter implements RpcConverter {
         }
     }
 
+    /**
+     * Read a single item of a batch, with the parser positioned on its START_OBJECT.
+     * A result placed before the id is buffered until the id, and therefore its target type, is known.
+     *
+     * @return parsed item, or null if its id is not expected
+     */
+    private ResponseJson<Object, Integer> parseBatchItem(JsonParser parser, Map<Integer, Class> targets) throws IOException {
+        Integer id = null;
+        Class target = null;
+        boolean hasResult = false;
+        Object result = null;
+        TokenBuffer bufferedResult = null;
+        RpcResponseError error = null;
+        String jsonrpc = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id":
+                    id = readId(parser, value);
+                    target = id == null ? null : targets.get(id);
+                    break;
+                case "result":
+                    hasResult = true;
+                    if (target != null) {
+                        result = readResult(parser, value, target);
+                    } else if (id == null) {
+                        bufferedResult = new TokenBuffer(parser);
+                        bufferedResult.copyCurrentStructure(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                    break;
+                case "error":
+                    error = value == JsonToken.VALUE_NULL ? null : getErrorReader().readValue(parser);
+                    break;
+                case "jsonrpc":
+                    jsonrpc = parser.getValueAsString();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if (target == null) {
+            return null;
+        }
+        if (bufferedResult != null) {
+            try (JsonParser buffered = bufferedResult.asParser()) {
+                result = readResult(buffered, buffered.nextToken(), target);
+            }
+        }
+        ResponseJson<Object, Integer> parsedItem = new ResponseJson<>();
+        if (jsonrpc != null) {
+            parsedItem.setJsonrpc(jsonrpc);
+        }
+        parsedItem.setId(id);
+        if (hasResult) {
+            parsedItem.setResult(result);
+        }
+        parsedItem.setError(error);
+        return parsedItem;
+    }
+
+    private Integer readId(JsonParser parser, JsonToken value) throws IOException {
+        switch (value) {
+            case VALUE_NUMBER_INT:
+                return parser.getIntValue();
+            case VALUE_STRING:
+                return parser.getValueAsInt();
+            case VALUE_NULL:
+                return null;
+            default:
+                parser.skipChildren();
+                return null;
+        }
+    }
+
+    private Object readResult(JsonParser parser, JsonToken value, Class target) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return getResultReader(target).readValue(parser);
+    }
+
+    /**
+     * @param target target type of a result
+     * @return reader for the type, shared between calls
+     */
+    protected ObjectReader getResultReader(Class<?> target) {
+        return resultReaders.computeIfAbsent(target, objectMapper::readerFor);
+    }
+
+    private ObjectReader getErrorReader() {
+        return getResultReader(RpcResponseError.class);
+    }
+
     public <T> List<T> fromJsonList(InputStream content, Class<T> target) throws RpcException {
         JavaType dataType = objectMapper.getTypeFactory().constructParametricType(List.class, target);
         JavaType idType = objectMapper.getTypeFactory().constructType(Integer.class);
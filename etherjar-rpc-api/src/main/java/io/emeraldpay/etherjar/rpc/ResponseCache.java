@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2021 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rpc;
+
+import io.emeraldpay.etherjar.hex.HexData;
+import io.emeraldpay.etherjar.rpc.json.BlockJson;
+import io.emeraldpay.etherjar.rpc.json.TransactionJson;
+import io.emeraldpay.etherjar.rpc.json.TransactionLogJson;
+import io.emeraldpay.etherjar.rpc.json.TransactionReceiptJson;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded LRU cache of RPC results, keyed by the {@link RpcCall}. It's bounded both by the number of entries and by
+ * their total weight, an estimated size of the results in bytes, because a block with full transactions may be
+ * thousands times larger than a balance.
+ * <p>
+ * The cache keeps the result instances as is and returns the same instance to all callers, so the results must not
+ * be modified.
+ *
+ * @see CacheableCalls
+ * @see CachingFuturesRpcClient
+ * @see CachingReactorRpcClient
+ */
+public class ResponseCache {
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToLongFunction<Object> weigher;
+
+    private final Map<RpcCall<?, ?>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries maximum number of entries
+     * @param maxWeight maximum total weight of the entries, in estimated bytes
+     */
+    public ResponseCache(int maxEntries, long maxWeight) {
+        this(maxEntries, maxWeight, ResponseCache::estimateWeight);
+    }
+
+    /**
+     * @param maxEntries maximum number of entries
+     * @param maxWeight maximum total weight of the entries
+     * @param weigher weight of a result
+     */
+    public ResponseCache(int maxEntries, long maxWeight, ToLongFunction<Object> weigher) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Invalid cache size: " + maxEntries);
+        }
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Invalid cache weight: " + maxWeight);
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * @param call the call
+     * @param <RES> type of the result
+     * @return cached result of the call, or null
+     */
+    @SuppressWarnings("unchecked")
+    public <RES> RES get(RpcCall<?, RES> call) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(call);
+        }
+        if (entry != null) {
+            hits.increment();
+            return (RES) entry.value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Remember the result, may evict the least recently used entries. A result heavier than the whole cache is ignored.
+     *
+     * @param call the call
+     * @param value result of the call
+     * @param <RES> type of the result
+     */
+    public <RES> void put(RpcCall<?, RES> call, RES value) {
+        if (value == null) {
+            throw new NullPointerException("Value is null");
+        }
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxWeight) {
+            return;
+        }
+        synchronized (entries) {
+            Entry previous = entries.put(call, new Entry(value, valueWeight));
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            weight += valueWeight;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries || weight > maxWeight) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * @return current number of entries
+     */
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return current total weight of the entries
+     */
+    public long getWeight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    /**
+     * @return number of lookups which found the result
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of lookups which didn't find the result
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of entries removed to give space to new entries
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return ratio of hits to all lookups, or 0 if there were no lookups
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        if (total == 0) {
+            return 0;
+        }
+        return (double) hits / total;
+    }
+
+    /**
+     * Remove all entries and reset the stats
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0;
+        }
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * Rough estimation of the memory retained by a result, in bytes. Counts the main variable size parts, i.e. the
+     * transactions of a block, the logs of a receipt and the data.
+     *
+     * @param value a result
+     * @return estimated size
+     */
+    public static long estimateWeight(Object value) {
+        if (value instanceof HexData) {
+            return 32 + ((HexData) value).getSize();
+        }
+        if (value instanceof String) {
+            return 40 + ((String) value).length();
+        }
+        if (value instanceof TransactionJson) {
+            return 640 + sizeOf(((TransactionJson) value).getInput());
+        }
+        if (value instanceof BlockJson) {
+            BlockJson<?> block = (BlockJson<?>) value;
+            long size = 1024 + sizeOf(block.getExtraData());
+            if (block.getTransactions() != null) {
+                for (Object tx: block.getTransactions()) {
+                    size += tx instanceof TransactionJson ? estimateWeight(tx) : 96;
+                }
+            }
+            return size;
+        }
+        if (value instanceof TransactionReceiptJson) {
+            TransactionReceiptJson receipt = (TransactionReceiptJson) value;
+            long size = 768;
+            if (receipt.getLogs() != null) {
+                for (TransactionLogJson log: receipt.getLogs()) {
+                    size += 384 + sizeOf(log.getData()) + (log.getTopics() == null ? 0 : log.getTopics().size() * 64L);
+                }
+            }
+            return size;
+        }
+        return 64;
+    }
+
+    private static long sizeOf(HexData value) {
+        return value == null ? 0 : value.getSize();
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final long weight;
+
+        Entry(Object value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
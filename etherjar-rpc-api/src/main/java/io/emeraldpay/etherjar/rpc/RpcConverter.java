@@ -20,7 +20,10 @@ package io.emeraldpay.etherjar.rpc;
 import io.emeraldpay.etherjar.rpc.json.RequestJson;
 import io.emeraldpay.etherjar.rpc.json.ResponseJson;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -34,4 +37,15 @@ public interface RpcConverter {
 
     String toJson(List<RequestJson<Integer>> batch);
 
+    /**
+     * Write a batch as a JSON array directly into the output, without an intermediate String
+     *
+     * @param batch requests
+     * @param out target output
+     * @throws IOException if failed to write into the output
+     */
+    default void writeJson(List<RequestJson<Integer>> batch, OutputStream out) throws IOException {
+        out.write(toJson(batch).getBytes(StandardCharsets.UTF_8));
+    }
+
 }
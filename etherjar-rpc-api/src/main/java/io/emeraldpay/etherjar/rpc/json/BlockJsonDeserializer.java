@@ -19,11 +19,11 @@ package io.emeraldpay.etherjar.rpc.json;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.emeraldpay.etherjar.domain.BlockHash;
 import io.emeraldpay.etherjar.domain.Bloom;
-import io.emeraldpay.etherjar.domain.TransactionId;
 import io.emeraldpay.etherjar.hex.HexData;
 
 import java.io.IOException;
@@ -37,60 +37,115 @@ public class BlockJsonDeserializer extends EtherJsonDeserializer<BlockJson<?>> {
 
     @Override @SuppressWarnings("unchecked")
     public BlockJson deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
-        JsonNode node = jp.readValueAsTree();
-        return deserialize(node);
+        return read(jp);
     }
 
     public BlockJson<? extends TransactionRefJson> deserialize(JsonNode node) {
+        return readTree(node, this::read);
+    }
+
+    /**
+     * Read a block field by field, with the parser positioned at the start of the object. Full transactions are
+     * read in place, without building a tree for them.
+     *
+     * @param jp parser
+     * @return block
+     * @throws IOException if JSON is invalid
+     */
+    public BlockJson<? extends TransactionRefJson> read(JsonParser jp) throws IOException {
         BlockJson<TransactionRefJson> blockJson = new BlockJson<>();
-        Long number = getLong(node, "number");
+        Long number = null;
+        Long timestamp = null;
+        List<BlockHash> uncles = new ArrayList<>();
+
+        for (JsonToken token = firstField(jp); token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+            String field = jp.getCurrentName();
+            JsonToken value = jp.nextToken();
+            switch (field) {
+                case "number":
+                    number = readLong(jp);
+                    break;
+                case "hash":
+                    blockJson.setHash(readBlockHash(jp));
+                    break;
+                case "timestamp":
+                    timestamp = readLong(jp);
+                    break;
+                case "transactions":
+                    List<TransactionRefJson> txes = new ArrayList<>();
+                    if (value == JsonToken.START_ARRAY) {
+                        while ((value = jp.nextToken()) != JsonToken.END_ARRAY) {
+                            if (value == JsonToken.START_OBJECT) {
+                                txes.add(transactionJsonDeserializer.read(jp));
+                            } else {
+                                txes.add(new TransactionRefJson(readTxHash(jp)));
+                                jp.skipChildren();
+                            }
+                        }
+                    } else {
+                        jp.skipChildren();
+                    }
+                    blockJson.setTransactions(txes);
+                    break;
+                case "parentHash":
+                    blockJson.setParentHash(readBlockHash(jp));
+                    break;
+                case "sha3Uncles":
+                    blockJson.setSha3Uncles(readData(jp));
+                    break;
+                case "miner":
+                    blockJson.setMiner(readAddress(jp));
+                    break;
+                case "difficulty":
+                    blockJson.setDifficulty(readQuantity(jp));
+                    break;
+                case "totalDifficulty":
+                    blockJson.setTotalDifficulty(readQuantity(jp));
+                    break;
+                case "size":
+                    Long size = readLong(jp);
+                    if (size != null) {
+                        blockJson.setSize(size);
+                    }
+                    break;
+                case "gasLimit":
+                    blockJson.setGasLimit(readLong(jp));
+                    break;
+                case "gasUsed":
+                    blockJson.setGasUsed(readLong(jp));
+                    break;
+                case "extraData":
+                    blockJson.setExtraData(readData(jp));
+                    break;
+                case "logsBloom":
+                    HexData logsBloom = readData(jp);
+                    if (logsBloom != null) {
+                        blockJson.setLogsBloom(Bloom.from(logsBloom));
+                    }
+                    break;
+                case "uncles":
+                    if (value == JsonToken.START_ARRAY) {
+                        while (jp.nextToken() != JsonToken.END_ARRAY) {
+                            uncles.add(readBlockHash(jp));
+                            jp.skipChildren();
+                        }
+                    } else {
+                        jp.skipChildren();
+                    }
+                    break;
+                default:
+                    jp.skipChildren();
+            }
+        }
+
         if (number != null) {
             blockJson.setNumber(number);
         }
-        blockJson.setHash(getBlockHash(node, "hash"));
-        Long timestamp = getLong(node, "timestamp");
         if (timestamp != null) {
             blockJson.setTimestamp(Instant.ofEpochSecond(timestamp));
         } else {
             System.err.println("Null timestamp for block " + number);
         }
-
-        if (node.has("transactions")) {
-            List<TransactionRefJson> txes = new ArrayList<>();
-            for (JsonNode tx: node.get("transactions")) {
-                if (tx.isObject()) {
-                    txes.add(transactionJsonDeserializer.deserialize(tx));
-                } else {
-                    txes.add(new TransactionRefJson(TransactionId.from(tx.textValue())));
-                }
-            }
-            blockJson.setTransactions(txes);
-        }
-
-        blockJson.setParentHash(getBlockHash(node, "parentHash"));
-        blockJson.setSha3Uncles(getData(node, "sha3Uncles"));
-        blockJson.setMiner(getAddress(node, "miner"));
-        blockJson.setDifficulty(getQuantity(node, "difficulty"));
-        blockJson.setTotalDifficulty(getQuantity(node, "totalDifficulty"));
-        Long size = getLong(node, "size");
-        if (size != null) {
-            blockJson.setSize(size);
-        }
-        blockJson.setGasLimit(getLong(node, "gasLimit"));
-        blockJson.setGasUsed(getLong(node, "gasUsed"));
-        blockJson.setExtraData(getData(node, "extraData"));
-        HexData logsBloom = getData(node, "logsBloom");
-        if (logsBloom != null) {
-            blockJson.setLogsBloom(Bloom.from(logsBloom));
-        }
-
-        List<BlockHash> uncles = new ArrayList<>();
-        JsonNode unclesNode = node.get("uncles");
-        if (unclesNode != null && unclesNode.isArray()) {
-            for (JsonNode tx: unclesNode) {
-                uncles.add(BlockHash.from(tx.textValue()));
-            }
-        }
         blockJson.setUncles(uncles);
 
         return blockJson;
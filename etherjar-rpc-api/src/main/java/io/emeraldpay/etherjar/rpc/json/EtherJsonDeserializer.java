@@ -17,6 +17,8 @@
 
 package io.emeraldpay.etherjar.rpc.json;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.NumericNode;
@@ -25,15 +27,27 @@ import io.emeraldpay.etherjar.domain.BlockHash;
 import io.emeraldpay.etherjar.domain.TransactionId;
 import io.emeraldpay.etherjar.domain.Wei;
 import io.emeraldpay.etherjar.hex.HexData;
+import io.emeraldpay.etherjar.hex.HexDecoder;
 import io.emeraldpay.etherjar.hex.HexEncoding;
 
+import java.io.IOException;
 import java.math.BigInteger;
 
 /**
- * Utility class for Ethereum RPC JSON deserialization
+ * Utility class for Ethereum RPC JSON deserialization.
+ * <p>
+ * Provides two sets of methods: the {@code read*} methods work on the current value of a {@link JsonParser} and parse
+ * hex values directly from the parser's char buffer, and the {@code get*} methods read a field of an already parsed
+ * {@link JsonNode}.
  */
 public abstract class EtherJsonDeserializer<T> extends JsonDeserializer<T> {
 
+    /**
+     * Per-thread buffer for decoding addresses and hashes, which are copied into their own array only if they are
+     * not found in the intern cache (see {@link io.emeraldpay.etherjar.domain.InternCache})
+     */
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[32]);
+
     protected String getHexString(JsonNode node) {
         if (node == null) {
             return null;
@@ -72,15 +86,19 @@ public abstract class EtherJsonDeserializer<T> extends JsonDeserializer<T> {
     }
 
     protected Long getLong(JsonNode node, String name) {
-        BigInteger quantity = getQuantity(node, name);
-        if (quantity == null) return null;
-        return quantity.longValue();
+        return getLong(node.get(name));
     }
 
     protected Long getLong(JsonNode node) {
-        BigInteger quantity = getQuantity(node);
-        if (quantity == null) return null;
-        return quantity.longValue();
+        if (node instanceof NumericNode) {
+            return node.longValue();
+        }
+        String value = getHexString(node);
+        if (value == null) return null;
+        if (!value.startsWith("0x")) {
+            return new BigInteger(value, 10).longValue();
+        }
+        return HexEncoding.fromHexToLong(value);
     }
 
     protected Address getAddress(JsonNode node, String name) {
@@ -113,4 +131,220 @@ public abstract class EtherJsonDeserializer<T> extends JsonDeserializer<T> {
         }
         return node.get(name).asBoolean();
     }
+
+    /**
+     * Reads a value from a stream of tokens, with the parser positioned at the first token of the value
+     *
+     * @param <R> type of the value
+     */
+    @FunctionalInterface
+    protected interface StreamReader<R> {
+        R read(JsonParser jp) throws IOException;
+    }
+
+    /**
+     * Read a value from an already parsed JSON tree with a reader made for a stream of tokens
+     *
+     * @param node JSON tree
+     * @param reader reader of the value
+     * @param <R> type of the value
+     * @return read value
+     */
+    protected static <R> R readTree(JsonNode node, StreamReader<R> reader) {
+        try (JsonParser jp = node.traverse()) {
+            jp.nextToken();
+            return reader.read(jp);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Moves the parser to the first field of an object. Accepts a parser positioned either on START_OBJECT or on the
+     * first FIELD_NAME, as Jackson may provide both.
+     *
+     * @param jp parser
+     * @return current token, a FIELD_NAME if the object has any fields
+     * @throws IOException if the parser fails
+     */
+    protected static JsonToken firstField(JsonParser jp) throws IOException {
+        JsonToken token = jp.getCurrentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = jp.nextToken();
+        }
+        return token;
+    }
+
+    /**
+     * @param jp parser positioned on a value
+     * @return true if the current value is a non-empty string, and not just {@code 0x}
+     * @throws IOException if the parser fails
+     */
+    protected static boolean hasHexString(JsonParser jp) throws IOException {
+        if (jp.getCurrentToken() != JsonToken.VALUE_STRING) {
+            return false;
+        }
+        int length = jp.getTextLength();
+        if (length == 0) {
+            return false;
+        }
+        if (length == 2) {
+            char[] chars = jp.getTextCharacters();
+            int start = jp.getTextOffset();
+            return !(chars[start] == '0' && chars[start + 1] == 'x');
+        }
+        return true;
+    }
+
+    /**
+     * Decode the current hex value, which must start with {@code 0x}, straight from the parser's buffer
+     *
+     * @param jp parser positioned on a value
+     * @param size expected size in bytes, or -1 for any size
+     * @return decoded bytes, or null if the value is not a string or is empty
+     * @throws IOException if the parser fails
+     */
+    protected byte[] readHexBytes(JsonParser jp, int size) throws IOException {
+        if (!hasHexString(jp)) {
+            return null;
+        }
+        byte[] result = new byte[(checkHex(jp, size) - 1) / 2];
+        decodeHex(jp, result);
+        return result;
+    }
+
+    /**
+     * Decode the current fixed size hex value into the per-thread scratch buffer, which is overwritten by the next
+     * call on the same thread
+     *
+     * @param jp parser positioned on a value
+     * @param size expected size in bytes, up to 32
+     * @return the scratch buffer with the value at the beginning, or null if the value is not a string or is empty
+     * @throws IOException if the parser fails
+     */
+    private byte[] readHexScratch(JsonParser jp, int size) throws IOException {
+        if (!hasHexString(jp)) {
+            return null;
+        }
+        checkHex(jp, size);
+        byte[] result = SCRATCH.get();
+        decodeHex(jp, result);
+        return result;
+    }
+
+    /**
+     * @return length of the current value in chars, including the 0x prefix
+     */
+    private int checkHex(JsonParser jp, int size) throws IOException {
+        int length = jp.getTextLength();
+        if (!hasPrefix(jp.getTextCharacters(), jp.getTextOffset(), jp.getTextOffset() + length)) {
+            throw new IllegalArgumentException("Invalid hex format: " + jp.getText());
+        }
+        if (size >= 0 && length != 2 + size * 2) {
+            throw new IllegalArgumentException("Invalid input length: " + length + " != " + (2 + size * 2));
+        }
+        return length;
+    }
+
+    private void decodeHex(JsonParser jp, byte[] dest) throws IOException {
+        int start = jp.getTextOffset();
+        HexDecoder.decode(jp.getTextCharacters(), start + 2, start + jp.getTextLength(), dest, 0);
+    }
+
+    protected HexData readData(JsonParser jp) throws IOException {
+        byte[] value = readHexBytes(jp, -1);
+        if (value == null) return null;
+        return new HexData(value);
+    }
+
+    protected Address readAddress(JsonParser jp) throws IOException {
+        byte[] value = readHexScratch(jp, Address.SIZE_BYTES);
+        if (value == null) return null;
+        return Address.from(value, 0);
+    }
+
+    protected TransactionId readTxHash(JsonParser jp) throws IOException {
+        byte[] value = readHexScratch(jp, TransactionId.SIZE_BYTES);
+        if (value == null) return null;
+        return TransactionId.from(value, 0);
+    }
+
+    protected BlockHash readBlockHash(JsonParser jp) throws IOException {
+        byte[] value = readHexScratch(jp, BlockHash.SIZE_BYTES);
+        if (value == null) return null;
+        return BlockHash.from(value, 0);
+    }
+
+    protected BigInteger readQuantity(JsonParser jp) throws IOException {
+        if (jp.getCurrentToken().isNumeric()) {
+            return BigInteger.valueOf(jp.getValueAsLong());
+        }
+        if (!hasHexString(jp)) {
+            return null;
+        }
+        char[] chars = jp.getTextCharacters();
+        int start = jp.getTextOffset();
+        int end = start + jp.getTextLength();
+        if (!hasPrefix(chars, start, end)) {
+            return new BigInteger(jp.getText(), 10);
+        }
+        return parseHex(chars, start + 2, end);
+    }
+
+    protected Long readLong(JsonParser jp) throws IOException {
+        if (jp.getCurrentToken().isNumeric()) {
+            return jp.getValueAsLong();
+        }
+        if (!hasHexString(jp)) {
+            return null;
+        }
+        char[] chars = jp.getTextCharacters();
+        int start = jp.getTextOffset();
+        int end = start + jp.getTextLength();
+        if (!hasPrefix(chars, start, end)) {
+            return new BigInteger(jp.getText(), 10).longValue();
+        }
+        if (isLong(chars, start + 2, end)) {
+            return HexDecoder.decodeLong(chars, start + 2, end);
+        }
+        return parseHex(chars, start + 2, end).longValue();
+    }
+
+    protected Wei readWei(JsonParser jp) throws IOException {
+        if (!hasHexString(jp)) {
+            return null;
+        }
+        char[] chars = jp.getTextCharacters();
+        int start = jp.getTextOffset();
+        int end = start + jp.getTextLength();
+        if (hasPrefix(chars, start, end)) {
+            start += 2;
+        }
+        return new Wei(parseHex(chars, start, end));
+    }
+
+    protected Boolean readBoolean(JsonParser jp) throws IOException {
+        return jp.getValueAsBoolean();
+    }
+
+    private static boolean hasPrefix(char[] chars, int start, int end) {
+        return end - start >= 2 && chars[start] == '0' && chars[start + 1] == 'x';
+    }
+
+    /**
+     * @return true if the hex digits fit into a positive long, i.e. have no more than 15 significant digits
+     */
+    private static boolean isLong(char[] chars, int start, int end) {
+        while (start < end - 1 && chars[start] == '0') {
+            start++;
+        }
+        return end > start && end - start < 16;
+    }
+
+    private static BigInteger parseHex(char[] chars, int start, int end) {
+        if (isLong(chars, start, end)) {
+            return BigInteger.valueOf(HexDecoder.decodeLong(chars, start, end));
+        }
+        return new BigInteger(new String(chars, start, end - start), 16);
+    }
 }
@@ -30,7 +30,8 @@ public abstract class EtherJsonSerializer<T> extends JsonSerializer<T> {
         if (value == null) {
             return;
         }
-        gen.writeStringField(name, value.toHex());
+        gen.writeFieldName(name);
+        HexDataSerializer.writeHex(gen, value);
     }
 
     protected void writeField(JsonGenerator gen, String name, Wei value) throws IOException {
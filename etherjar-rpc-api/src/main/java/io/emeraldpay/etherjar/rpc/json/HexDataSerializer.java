@@ -33,7 +33,20 @@ public class HexDataSerializer extends StdSerializer<HexData> {
         if (value == null) {
             gen.writeNull();
         } else {
-            gen.writeString(value.toHex());
+            writeHex(gen, value);
         }
     }
+
+    /**
+     * Write value as a JSON string without creating an intermediate {@link String} for its hex representation
+     *
+     * @param gen target generator
+     * @param value value to write
+     * @throws IOException if thrown by the generator
+     */
+    public static void writeHex(JsonGenerator gen, HexData value) throws IOException {
+        char[] hex = new char[2 + value.getSize() * 2];
+        value.writeHex(hex, 0);
+        gen.writeString(hex, 0, hex.length);
+    }
 }
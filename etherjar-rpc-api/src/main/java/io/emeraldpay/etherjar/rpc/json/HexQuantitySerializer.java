@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2016-2019 Igor Artamonov, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.rpc.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.emeraldpay.etherjar.hex.HexQuantity;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+public class HexQuantitySerializer extends StdSerializer<HexQuantity> {
+
+    public HexQuantitySerializer() {
+        super(HexQuantity.class);
+    }
+
+    @Override
+    public void serialize(HexQuantity value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            writeHex(gen, value);
+        }
+    }
+
+    /**
+     * Write value as a JSON string without creating an intermediate {@link String} for its hex representation
+     *
+     * @param gen target generator
+     * @param value value to write
+     * @throws IOException if thrown by the generator
+     */
+    public static void writeHex(JsonGenerator gen, HexQuantity value) throws IOException {
+        char[] hex = new char[value.getHexLength()];
+        value.writeHex(CharBuffer.wrap(hex));
+        gen.writeString(hex, 0, hex.length);
+    }
+}
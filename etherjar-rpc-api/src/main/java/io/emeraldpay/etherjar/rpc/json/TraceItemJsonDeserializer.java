@@ -19,8 +19,8 @@ package io.emeraldpay.etherjar.rpc.json;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.JsonNode;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -30,71 +30,147 @@ public class TraceItemJsonDeserializer extends EtherJsonDeserializer<TraceItemJs
 
     @Override
     public TraceItemJson deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
-        JsonNode node = jp.readValueAsTree();
         TraceItemJson trace = new TraceItemJson();
 
-        JsonNode typeNode = node.get("type");
-        if (typeNode != null) {
-            String type = typeNode.asText();
-            if (type != null) {
-                trace.setType(TraceItemJson.TraceType.valueOf(type.toUpperCase()));
+        for (JsonToken token = firstField(jp); token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+            String field = jp.getCurrentName();
+            JsonToken value = jp.nextToken();
+            switch (field) {
+                case "type":
+                    if (value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+                        trace.setType(TraceItemJson.TraceType.valueOf(jp.getText().toUpperCase()));
+                    } else {
+                        jp.skipChildren();
+                    }
+                    break;
+                case "action":
+                    if (value == JsonToken.START_OBJECT) {
+                        trace.setAction(readAction(jp));
+                    } else {
+                        jp.skipChildren();
+                    }
+                    break;
+                case "blockHash":
+                    trace.setBlockHash(readBlockHash(jp));
+                    break;
+                case "blockNumber":
+                    trace.setBlockNumber(readLong(jp));
+                    break;
+                case "result":
+                    if (value == JsonToken.START_OBJECT) {
+                        trace.setResult(readResult(jp));
+                    } else {
+                        jp.skipChildren();
+                    }
+                    break;
+                case "error":
+                    if (value == JsonToken.VALUE_STRING) {
+                        trace.setError(jp.getText());
+                    } else {
+                        jp.skipChildren();
+                    }
+                    break;
+                case "subtraces":
+                    trace.setSubtraces(readLong(jp));
+                    break;
+                case "traceAddress":
+                    if (value == JsonToken.START_ARRAY) {
+                        List<Long> traceAddr = new ArrayList<>();
+                        while (jp.nextToken() != JsonToken.END_ARRAY) {
+                            traceAddr.add(readLong(jp));
+                            jp.skipChildren();
+                        }
+                        trace.setTraceAddress(traceAddr);
+                    } else {
+                        jp.skipChildren();
+                    }
+                    break;
+                case "transactionHash":
+                    trace.setTransactionHash(readTxHash(jp));
+                    break;
+                case "transactionPosition":
+                    trace.setTransactionPosition(readLong(jp));
+                    break;
+                default:
+                    jp.skipChildren();
             }
         }
 
-        JsonNode actionNode = node.get("action");
-        if (actionNode != null && actionNode.isObject()) {
-            TraceItemJson.Action action = new TraceItemJson.Action();
-            trace.setAction(action);
+        return trace;
+    }
 
-            JsonNode callType = actionNode.get("callType");
-            if (callType != null) {
-                String name = callType.asText();
-                if (name != null && name.length() > 0) {
-                    action.setCallType(TraceItemJson.CallType.valueOf(name.toUpperCase()));
-                }
+    private TraceItemJson.Action readAction(JsonParser jp) throws IOException {
+        TraceItemJson.Action action = new TraceItemJson.Action();
+        for (JsonToken token = jp.nextToken(); token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+            String field = jp.getCurrentName();
+            JsonToken value = jp.nextToken();
+            switch (field) {
+                case "callType":
+                    if (value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+                        String name = jp.getText();
+                        if (name.length() > 0) {
+                            action.setCallType(TraceItemJson.CallType.valueOf(name.toUpperCase()));
+                        }
+                    } else {
+                        jp.skipChildren();
+                    }
+                    break;
+                case "from":
+                    action.setFrom(readAddress(jp));
+                    break;
+                case "gas":
+                    action.setGas(readLong(jp));
+                    break;
+                case "input":
+                    action.setInput(readData(jp));
+                    break;
+                case "to":
+                    action.setTo(readAddress(jp));
+                    break;
+                case "value":
+                    action.setValue(readWei(jp));
+                    break;
+                case "init":
+                    action.setInit(readData(jp));
+                    break;
+                case "address":
+                    action.setAddress(readAddress(jp));
+                    break;
+                case "balance":
+                    action.setBalance(readWei(jp));
+                    break;
+                case "refundAddress":
+                    action.setRefundAddress(readAddress(jp));
+                    break;
+                default:
+                    jp.skipChildren();
             }
-            action.setFrom(getAddress(actionNode, "from"));
-            action.setGas(getLong(actionNode, "gas"));
-            action.setInput(getData(actionNode, "input"));
-            action.setTo(getAddress(actionNode, "to"));
-            action.setValue(getWei(actionNode, "value"));
-            action.setInit(getData(actionNode, "init"));
-            action.setAddress(getAddress(actionNode, "address"));
-            action.setBalance(getWei(actionNode, "balance"));
-            action.setRefundAddress(getAddress(actionNode, "refundAddress"));
-
         }
-        trace.setBlockHash(getBlockHash(node, "blockHash"));
-        trace.setBlockNumber(getLong(node, "blockNumber"));
-
-        JsonNode resultNode = node.get("result");
-        if (resultNode != null && resultNode.isObject()) {
-            TraceItemJson.Result result = new TraceItemJson.Result();
-            trace.setResult(result);
-
-            result.setGasUsed(getLong(resultNode, "gasUsed"));
-            result.setOutput(getData(resultNode, "output"));
+        return action;
+    }
 
-            result.setAddress(getAddress(resultNode, "address"));
-            result.setCode(getData(resultNode, "code"));
-        }
-        JsonNode errorNode = node.get("error");
-        if (errorNode != null) {
-            trace.setError(errorNode.textValue());
-        }
-        trace.setSubtraces(getLong(node, "subtraces"));
-        JsonNode traceAddrNode = node.get("traceAddress");
-        if (traceAddrNode != null && traceAddrNode.isArray()) {
-            List<Long> traceAddr = new ArrayList<>(traceAddrNode.size());
-            for (JsonNode el: traceAddrNode) {
-                traceAddr.add(getLong(el));
+    private TraceItemJson.Result readResult(JsonParser jp) throws IOException {
+        TraceItemJson.Result result = new TraceItemJson.Result();
+        for (JsonToken token = jp.nextToken(); token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+            String field = jp.getCurrentName();
+            jp.nextToken();
+            switch (field) {
+                case "gasUsed":
+                    result.setGasUsed(readLong(jp));
+                    break;
+                case "output":
+                    result.setOutput(readData(jp));
+                    break;
+                case "address":
+                    result.setAddress(readAddress(jp));
+                    break;
+                case "code":
+                    result.setCode(readData(jp));
+                    break;
+                default:
+                    jp.skipChildren();
             }
-            trace.setTraceAddress(traceAddr);
         }
-
-        trace.setTransactionHash(getTxHash(node, "transactionHash"));
-        trace.setTransactionPosition(getLong(node, "transactionPosition"));
-
-        return trace;
+        return result;
     }
 }
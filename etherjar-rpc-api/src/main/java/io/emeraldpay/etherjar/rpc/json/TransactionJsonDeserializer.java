@@ -19,10 +19,12 @@ package io.emeraldpay.etherjar.rpc.json;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.emeraldpay.etherjar.domain.ChainId;
 import io.emeraldpay.etherjar.domain.TransactionSignature;
+import io.emeraldpay.etherjar.hex.HexData;
 
 import java.io.IOException;
 
@@ -30,40 +32,105 @@ public class TransactionJsonDeserializer extends EtherJsonDeserializer<Transacti
 
     @Override
     public TransactionJson deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
-        JsonNode node = jp.readValueAsTree();
-        return deserialize(node);
+        return read(jp);
     }
 
     public TransactionJson deserialize(JsonNode node) {
+        return readTree(node, this::read);
+    }
+
+    /**
+     * Read a transaction field by field, with the parser positioned at the start of the object
+     *
+     * @param jp parser
+     * @return transaction
+     * @throws IOException if JSON is invalid
+     */
+    public TransactionJson read(JsonParser jp) throws IOException {
         TransactionJson tx = new TransactionJson();
-        tx.setHash(getTxHash(node, "hash"));
-        tx.setNonce(getLong(node, "nonce"));
-        tx.setBlockHash(getBlockHash(node, "blockHash"));
-        Long blockNumber = getLong(node, "blockNumber");
-        if (blockNumber != null)  {
-            tx.setBlockNumber(blockNumber);
-        }
-        Long txIndex = getLong(node, "transactionIndex");
-        if (txIndex != null) {
-            tx.setTransactionIndex(txIndex);
+        boolean hasR = false, hasS = false, hasV = false;
+        HexData r = null, s = null, publicKey = null;
+        Long v = null;
+        Integer networkId = null;
+
+        for (JsonToken token = firstField(jp); token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+            String field = jp.getCurrentName();
+            JsonToken value = jp.nextToken();
+            switch (field) {
+                case "hash":
+                    tx.setHash(readTxHash(jp));
+                    break;
+                case "nonce":
+                    tx.setNonce(readLong(jp));
+                    break;
+                case "blockHash":
+                    tx.setBlockHash(readBlockHash(jp));
+                    break;
+                case "blockNumber":
+                    Long blockNumber = readLong(jp);
+                    if (blockNumber != null) {
+                        tx.setBlockNumber(blockNumber);
+                    }
+                    break;
+                case "transactionIndex":
+                    Long txIndex = readLong(jp);
+                    if (txIndex != null) {
+                        tx.setTransactionIndex(txIndex);
+                    }
+                    break;
+                case "from":
+                    tx.setFrom(readAddress(jp));
+                    break;
+                case "to":
+                    tx.setTo(readAddress(jp));
+                    break;
+                case "value":
+                    tx.setValue(readWei(jp));
+                    break;
+                case "gasPrice":
+                    tx.setGasPrice(readWei(jp));
+                    break;
+                case "gas":
+                    tx.setGas(readLong(jp));
+                    break;
+                case "input":
+                    tx.setInput(readData(jp));
+                    break;
+                case "r":
+                    hasR = true;
+                    r = readData(jp);
+                    break;
+                case "s":
+                    hasS = true;
+                    s = readData(jp);
+                    break;
+                case "v":
+                    hasV = true;
+                    v = readLong(jp);
+                    break;
+                case "publicKey":
+                    publicKey = readData(jp);
+                    break;
+                case "networkId":
+                    if (value != JsonToken.VALUE_NULL) {
+                        networkId = value.isNumeric() ? jp.getIntValue() : 0;
+                    }
+                    break;
+                default:
+                    jp.skipChildren();
+            }
         }
-        tx.setFrom(getAddress(node, "from"));
-        tx.setTo(getAddress(node, "to"));
-        tx.setValue(getWei(node, "value"));
-        tx.setGasPrice(getWei(node, "gasPrice"));
-        tx.setGas(getLong(node, "gas"));
-        tx.setInput(getData(node, "input"));
 
-        if (node.has("r") && node.has("v") && node.has("s")) {
+        if (hasR && hasV && hasS) {
             TransactionSignature signature = new TransactionSignature();
 
-            if (node.hasNonNull("networkId")) {
-                signature.setChainId(new ChainId(node.get("networkId").intValue()));
+            if (networkId != null) {
+                signature.setChainId(new ChainId(networkId));
             }
-            signature.setR(getData(node, "r"));
-            signature.setS(getData(node, "s"));
-            signature.setV(getLong(node, "v").intValue());
-            signature.setPublicKey(getData(node, "publicKey"));
+            signature.setR(r);
+            signature.setS(s);
+            signature.setV(v.intValue());
+            signature.setPublicKey(publicKey);
 
             tx.setSignature(signature);
         }
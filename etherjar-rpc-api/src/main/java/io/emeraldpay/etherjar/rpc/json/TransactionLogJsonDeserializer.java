@@ -19,10 +19,10 @@ package io.emeraldpay.etherjar.rpc.json;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.emeraldpay.etherjar.hex.Hex32;
-import io.emeraldpay.etherjar.hex.HexData;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -32,26 +32,66 @@ public class TransactionLogJsonDeserializer extends EtherJsonDeserializer<Transa
 
     @Override
     public TransactionLogJson deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
-        JsonNode node = jp.readValueAsTree();
-        return deserialize(node);
+        return read(jp);
     }
 
     public TransactionLogJson deserialize(JsonNode node) {
-        TransactionLogJson log = new TransactionLogJson();
+        return readTree(node, this::read);
+    }
 
-        log.setAddress(getAddress(node, "address"));
-        log.setBlockHash(getBlockHash(node, "blockHash"));
-        log.setBlockNumber(getLong(node, "blockNumber"));
-        log.setData(getData(node, "data"));
-        log.setLogIndex(getLong(node, "logIndex"));
+    /**
+     * Read a log field by field, with the parser positioned at the start of the object
+     *
+     * @param jp parser
+     * @return log
+     * @throws IOException if JSON is invalid
+     */
+    public TransactionLogJson read(JsonParser jp) throws IOException {
+        TransactionLogJson log = new TransactionLogJson();
         List<Hex32> topics = new ArrayList<>();
-        for (JsonNode topic: node.get("topics")) {
-            topics.add(Hex32.from(topic.textValue()));
+
+        for (JsonToken token = firstField(jp); token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+            String field = jp.getCurrentName();
+            JsonToken value = jp.nextToken();
+            switch (field) {
+                case "address":
+                    log.setAddress(readAddress(jp));
+                    break;
+                case "blockHash":
+                    log.setBlockHash(readBlockHash(jp));
+                    break;
+                case "blockNumber":
+                    log.setBlockNumber(readLong(jp));
+                    break;
+                case "data":
+                    log.setData(readData(jp));
+                    break;
+                case "logIndex":
+                    log.setLogIndex(readLong(jp));
+                    break;
+                case "topics":
+                    if (value == JsonToken.START_ARRAY) {
+                        while (jp.nextToken() != JsonToken.END_ARRAY) {
+                            topics.add(Hex32.from(readHexBytes(jp, Hex32.SIZE_BYTES)));
+                        }
+                    } else {
+                        jp.skipChildren();
+                    }
+                    break;
+                case "transactionHash":
+                    log.setTransactionHash(readTxHash(jp));
+                    break;
+                case "transactionIndex":
+                    log.setTransactionIndex(readLong(jp));
+                    break;
+                case "removed":
+                    log.setRemoved(readBoolean(jp));
+                    break;
+                default:
+                    jp.skipChildren();
+            }
         }
         log.setTopics(topics);
-        log.setTransactionHash(getTxHash(node, "transactionHash"));
-        log.setTransactionIndex(getLong(node, "transactionIndex"));
-        log.setRemoved(getBoolean(node, "removed"));
 
         return log;
     }
@@ -19,8 +19,8 @@ package io.emeraldpay.etherjar.rpc.json;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.JsonNode;
 import io.emeraldpay.etherjar.domain.Bloom;
 import io.emeraldpay.etherjar.hex.HexData;
 
@@ -35,36 +35,67 @@ public class TransactionReceiptJsonDeserializer extends EtherJsonDeserializer<Tr
     @Override
     public TransactionReceiptJson deserialize(JsonParser jp, DeserializationContext ctxt)
         throws IOException, JsonProcessingException {
-        JsonNode node = jp.readValueAsTree();
         TransactionReceiptJson receipt = new TransactionReceiptJson();
-
-        receipt.setBlockHash(getBlockHash(node, "blockHash"));
-        receipt.setBlockNumber(getLong(node, "blockNumber"));
-        receipt.setContractAddress(getAddress(node, "contractAddress"));
-        receipt.setFrom(getAddress(node, "from"));
-        receipt.setTo(getAddress(node, "to"));
-        receipt.setCumulativeGasUsed(getLong(node, "cumulativeGasUsed"));
-        receipt.setGasUsed(getLong(node, "gasUsed"));
-        receipt.setTransactionHash(getTxHash(node, "transactionHash"));
-        receipt.setTransactionIndex(getLong(node, "transactionIndex"));
-        HexData logsBloom = getData(node, "logsBloom");
-        if (logsBloom != null) {
-            receipt.setLogsBloom(Bloom.from(logsBloom));
-        }
-
         List<TransactionLogJson> logs = new ArrayList<>();
-        if (node.hasNonNull("logs")) {
-            for (JsonNode log: node.get("logs")) {
-                logs.add(transactionLogJsonDeserializer.deserialize(log));
+
+        for (JsonToken token = firstField(jp); token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+            String field = jp.getCurrentName();
+            JsonToken value = jp.nextToken();
+            switch (field) {
+                case "blockHash":
+                    receipt.setBlockHash(readBlockHash(jp));
+                    break;
+                case "blockNumber":
+                    receipt.setBlockNumber(readLong(jp));
+                    break;
+                case "contractAddress":
+                    receipt.setContractAddress(readAddress(jp));
+                    break;
+                case "from":
+                    receipt.setFrom(readAddress(jp));
+                    break;
+                case "to":
+                    receipt.setTo(readAddress(jp));
+                    break;
+                case "cumulativeGasUsed":
+                    receipt.setCumulativeGasUsed(readLong(jp));
+                    break;
+                case "gasUsed":
+                    receipt.setGasUsed(readLong(jp));
+                    break;
+                case "transactionHash":
+                    receipt.setTransactionHash(readTxHash(jp));
+                    break;
+                case "transactionIndex":
+                    receipt.setTransactionIndex(readLong(jp));
+                    break;
+                case "logsBloom":
+                    HexData logsBloom = readData(jp);
+                    if (logsBloom != null) {
+                        receipt.setLogsBloom(Bloom.from(logsBloom));
+                    }
+                    break;
+                case "logs":
+                    if (value == JsonToken.START_ARRAY) {
+                        while (jp.nextToken() != JsonToken.END_ARRAY) {
+                            logs.add(transactionLogJsonDeserializer.read(jp));
+                        }
+                    } else {
+                        jp.skipChildren();
+                    }
+                    break;
+                case "status":
+                    Long status = readLong(jp);
+                    if (status != null) {
+                        receipt.setStatus(status.intValue());
+                    }
+                    break;
+                default:
+                    jp.skipChildren();
             }
         }
         receipt.setLogs(logs);
 
-        Long status = getLong(node, "status");
-        if (status != null) {
-            receipt.setStatus(status.intValue());
-        }
-
         return receipt;
     }
 }
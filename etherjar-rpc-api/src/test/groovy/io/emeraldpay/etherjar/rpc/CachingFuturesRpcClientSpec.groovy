@@ -0,0 +1,132 @@
+package io.emeraldpay.etherjar.rpc
+
+import io.emeraldpay.etherjar.domain.Address
+import io.emeraldpay.etherjar.domain.BlockHash
+import io.emeraldpay.etherjar.hex.HexData
+import io.emeraldpay.etherjar.rpc.json.BlockJson
+import io.emeraldpay.etherjar.rpc.json.BlockTag
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+
+class CachingFuturesRpcClientSpec extends Specification {
+
+    static BlockHash hash(int i) {
+        return BlockHash.from(String.format("0x%064x", i))
+    }
+
+    def "Serves repeated call from cache"() {
+        setup:
+        def delegate = Mock(FuturesRpcClient)
+        def client = new CachingFuturesRpcClient(delegate, new ResponseCache(16, 1024 * 1024))
+        def block = new BlockJson()
+        when:
+        def first = client.execute(Commands.eth().getBlock(hash(1))).get()
+        def second = client.execute(Commands.eth().getBlock(hash(1))).get()
+        then:
+        1 * delegate.execute(Commands.eth().getBlock(hash(1))) >> CompletableFuture.completedFuture(block)
+        first.is(block)
+        second.is(block)
+        client.cache.hits == 1
+        client.cache.misses == 1
+    }
+
+    def "Doesn't cache failed call"() {
+        setup:
+        def delegate = Mock(FuturesRpcClient)
+        def client = new CachingFuturesRpcClient(delegate, new ResponseCache(16, 1024 * 1024))
+        def failed = new CompletableFuture<BlockJson>()
+        failed.completeExceptionally(new RpcException(-32000, "test"))
+        when:
+        client.execute(Commands.eth().getBlock(hash(1))).get()
+        then:
+        1 * delegate.execute(_) >> failed
+        thrown(ExecutionException)
+        client.cache.size == 0
+    }
+
+    def "Doesn't cache latest state"() {
+        setup:
+        def delegate = Mock(FuturesRpcClient)
+        def client = new CachingFuturesRpcClient(delegate, new ResponseCache(16, 1024 * 1024))
+        def address = Address.from("0x0000000000000000000000000000000000000001")
+        when:
+        client.execute(Commands.eth().getCode(address, BlockTag.LATEST)).get()
+        client.execute(Commands.eth().getCode(address, BlockTag.LATEST)).get()
+        then:
+        2 * delegate.execute(_) >> CompletableFuture.completedFuture(HexData.from("0x00"))
+        client.cache.size == 0
+        client.cache.hits == 0
+    }
+
+    def "Executes only missing items of batch"() {
+        setup:
+        def delegate = Mock(FuturesRpcClient)
+        def cache = new ResponseCache(16, 1024 * 1024)
+        def client = new CachingFuturesRpcClient(delegate, cache)
+        def cached = new BlockJson()
+        def fetched = new BlockJson()
+        cache.put(Commands.eth().getBlock(hash(1)), cached)
+        def batch = new DefaultBatch()
+        def item1 = batch.add(Commands.eth().getBlock(hash(1)))
+        def item2 = batch.add(Commands.eth().getBlock(hash(2)))
+        def item3 = batch.add(Commands.eth().getBlockNumber())
+        DefaultBatch upstream = null
+        when:
+        def act = client.execute(batch)
+        then:
+        1 * delegate.execute(_ as DefaultBatch) >> { DefaultBatch b ->
+            upstream = b
+            b.items[0].onResult(fetched)
+            b.items[1].onResult(100L)
+            return b.items*.result
+        }
+        upstream.items*.call == [Commands.eth().getBlock(hash(2)), Commands.eth().getBlockNumber()]
+        act.size() == 3
+        item1.result.get().is(cached)
+        item2.result.get().is(fetched)
+        item3.result.get() == 100L
+        cache.get(Commands.eth().getBlock(hash(2))).is(fetched)
+        cache.size == 2
+    }
+
+    def "Doesn't call upstream when all items are cached"() {
+        setup:
+        def delegate = Mock(FuturesRpcClient)
+        def cache = new ResponseCache(16, 1024 * 1024)
+        def client = new CachingFuturesRpcClient(delegate, cache)
+        def cached = new BlockJson()
+        cache.put(Commands.eth().getBlock(hash(1)), cached)
+        def batch = new DefaultBatch()
+        def item = batch.add(Commands.eth().getBlock(hash(1)))
+        when:
+        client.execute(batch)
+        then:
+        0 * delegate.execute(_)
+        item.result.get().is(cached)
+    }
+
+    def "Fails batch items when upstream throws"() {
+        setup:
+        def delegate = Mock(FuturesRpcClient)
+        def cache = new ResponseCache(16, 1024 * 1024)
+        def client = new CachingFuturesRpcClient(delegate, cache)
+        def cached = new BlockJson()
+        cache.put(Commands.eth().getBlock(hash(1)), cached)
+        def batch = new DefaultBatch()
+        def item1 = batch.add(Commands.eth().getBlock(hash(1)))
+        def item2 = batch.add(Commands.eth().getBlock(hash(2)))
+        when:
+        client.execute(batch)
+        then:
+        1 * delegate.execute(_ as DefaultBatch) >> { throw new IllegalStateException("closed") }
+        item1.result.get().is(cached)
+        when:
+        item2.result.get()
+        then:
+        def t = thrown(ExecutionException)
+        t.cause instanceof RpcException
+        t.cause.message.contains("closed")
+    }
+}
@@ -0,0 +1,137 @@
+package io.emeraldpay.etherjar.rpc
+
+import io.emeraldpay.etherjar.domain.Address
+import io.emeraldpay.etherjar.domain.BlockHash
+import io.emeraldpay.etherjar.hex.HexData
+import io.emeraldpay.etherjar.rpc.json.BlockJson
+import io.emeraldpay.etherjar.rpc.json.BlockTag
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import reactor.test.StepVerifier
+import spock.lang.Specification
+
+import java.time.Duration
+
+class CachingReactorRpcClientSpec extends Specification {
+
+    static BlockHash hash(int i) {
+        return BlockHash.from(String.format("0x%064x", i))
+    }
+
+    def "Serves repeated call from cache"() {
+        setup:
+        def delegate = Mock(ReactorRpcClient)
+        def client = new CachingReactorRpcClient(delegate, new ResponseCache(16, 1024 * 1024))
+        def block = new BlockJson()
+        when:
+        def first = client.execute(Commands.eth().getBlock(hash(1))).block(Duration.ofSeconds(1))
+        def second = client.execute(Commands.eth().getBlock(hash(1))).block(Duration.ofSeconds(1))
+        then:
+        1 * delegate.execute(Commands.eth().getBlock(hash(1))) >> Mono.just(block)
+        first.is(block)
+        second.is(block)
+        client.cache.hits == 1
+        client.cache.misses == 1
+    }
+
+    def "Doesn't cache failed call"() {
+        setup:
+        def delegate = Mock(ReactorRpcClient)
+        def client = new CachingReactorRpcClient(delegate, new ResponseCache(16, 1024 * 1024))
+        delegate.execute(_ as RpcCall) >> Mono.error(new RpcException(-32000, "test"))
+        when:
+        def act = client.execute(Commands.eth().getBlock(hash(1)))
+        then:
+        StepVerifier.create(act)
+            .expectError(RpcException)
+            .verify(Duration.ofSeconds(1))
+        client.cache.size == 0
+    }
+
+    def "Doesn't cache latest state"() {
+        setup:
+        def delegate = Mock(ReactorRpcClient)
+        def client = new CachingReactorRpcClient(delegate, new ResponseCache(16, 1024 * 1024))
+        def address = Address.from("0x0000000000000000000000000000000000000001")
+        when:
+        client.execute(Commands.eth().getCode(address, BlockTag.LATEST)).block(Duration.ofSeconds(1))
+        client.execute(Commands.eth().getCode(address, BlockTag.LATEST)).block(Duration.ofSeconds(1))
+        then:
+        2 * delegate.execute(_ as RpcCall) >> Mono.just(HexData.from("0x00"))
+        client.cache.size == 0
+        client.cache.hits == 0
+    }
+
+    def "Executes only missing items of batch"() {
+        setup:
+        def delegate = Mock(ReactorRpcClient)
+        def cache = new ResponseCache(16, 1024 * 1024)
+        def client = new CachingReactorRpcClient(delegate, cache)
+        def cached = new BlockJson()
+        def fetched = new BlockJson()
+        cache.put(Commands.eth().getBlock(hash(1)), cached)
+        def batch = new ReactorBatch()
+        def item1 = batch.add(Commands.eth().getBlock(hash(1)))
+        def item2 = batch.add(Commands.eth().getBlock(hash(2)))
+        def item3 = batch.add(Commands.eth().getBlockNumber())
+        ReactorBatch upstream = null
+        delegate.execute(_ as ReactorBatch) >> { ReactorBatch b ->
+            upstream = b
+            return Flux.just(
+                new RpcCallResponse(Commands.eth().getBlock(hash(2)), fetched),
+                new RpcCallResponse(Commands.eth().getBlockNumber(), 100L)
+            )
+        }
+        when:
+        def act = client.execute(batch).collectList().block(Duration.ofSeconds(1))
+        then:
+        act.size() == 3
+        upstream.items.map { it.call }.collectList().block() == [Commands.eth().getBlock(hash(2)), Commands.eth().getBlockNumber()]
+        item1.result.block(Duration.ofSeconds(1)).is(cached)
+        item2.result.block(Duration.ofSeconds(1)).is(fetched)
+        item3.result.block(Duration.ofSeconds(1)) == 100L
+        cache.get(Commands.eth().getBlock(hash(2))).is(fetched)
+        cache.size == 2
+    }
+
+    def "Doesn't call upstream when all items are cached"() {
+        setup:
+        def delegate = Mock(ReactorRpcClient)
+        def cache = new ResponseCache(16, 1024 * 1024)
+        def client = new CachingReactorRpcClient(delegate, cache)
+        def cached = new BlockJson()
+        cache.put(Commands.eth().getBlock(hash(1)), cached)
+        def batch = new ReactorBatch()
+        def item = batch.add(Commands.eth().getBlock(hash(1)))
+        when:
+        def act = client.execute(batch).collectList().block(Duration.ofSeconds(1))
+        then:
+        0 * delegate.execute(_)
+        act.size() == 1
+        item.result.block(Duration.ofSeconds(1)).is(cached)
+    }
+
+    def "Fails missing batch items on upstream error"() {
+        setup:
+        def delegate = Mock(ReactorRpcClient)
+        def cache = new ResponseCache(16, 1024 * 1024)
+        def client = new CachingReactorRpcClient(delegate, cache)
+        def cached = new BlockJson()
+        cache.put(Commands.eth().getBlock(hash(1)), cached)
+        def batch = new ReactorBatch()
+        def item1 = batch.add(Commands.eth().getBlock(hash(1)))
+        def item2 = batch.add(Commands.eth().getBlock(hash(2)))
+        delegate.execute(_ as ReactorBatch) >> Flux.error(new RpcException(-32000, "test"))
+        when:
+        def act = client.execute(batch)
+        then:
+        StepVerifier.create(act)
+            .expectNextCount(1)
+            .expectError(RpcException)
+            .verify(Duration.ofSeconds(1))
+        item1.result.block(Duration.ofSeconds(1)).is(cached)
+        StepVerifier.create(item2.result)
+            .expectError(RpcException)
+            .verify(Duration.ofSeconds(1))
+    }
+}
@@ -0,0 +1,79 @@
+package io.emeraldpay.etherjar.rpc
+
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+
+class CoalescingFuturesRpcClientSpec extends Specification {
+
+    def "Shares one execution between equal calls"() {
+        setup:
+        def delegate = Mock(FuturesRpcClient)
+        def client = new CoalescingFuturesRpcClient(delegate)
+        def upstream = new CompletableFuture<Long>()
+        when:
+        def first = client.execute(Commands.eth().getBlockNumber())
+        def second = client.execute(Commands.eth().getBlockNumber())
+        then:
+        1 * delegate.execute(Commands.eth().getBlockNumber()) >> upstream
+        client.inFlight == 1
+        client.coalesced == 1
+        when:
+        upstream.complete(100L)
+        then:
+        first.get() == 100L
+        second.get() == 100L
+        client.inFlight == 0
+    }
+
+    def "Cancelled caller doesn't affect others"() {
+        setup:
+        def delegate = Mock(FuturesRpcClient)
+        def client = new CoalescingFuturesRpcClient(delegate)
+        def upstream = new CompletableFuture<Long>()
+        delegate.execute(_) >> upstream
+        when:
+        def first = client.execute(Commands.eth().getBlockNumber())
+        def second = client.execute(Commands.eth().getBlockNumber())
+        first.cancel(true)
+        upstream.complete(100L)
+        then:
+        first.isCancelled()
+        !upstream.isCancelled()
+        second.get() == 100L
+    }
+
+    def "Executes again after error"() {
+        setup:
+        def delegate = Mock(FuturesRpcClient)
+        def client = new CoalescingFuturesRpcClient(delegate)
+        def failed = new CompletableFuture<Long>()
+        failed.completeExceptionally(new RpcException(-32000, "test"))
+        when:
+        client.execute(Commands.eth().getBlockNumber()).get()
+        then:
+        1 * delegate.execute(_) >> failed
+        def t = thrown(ExecutionException)
+        t.cause instanceof RpcException
+        client.inFlight == 0
+        when:
+        def act = client.execute(Commands.eth().getBlockNumber()).get()
+        then:
+        1 * delegate.execute(_) >> CompletableFuture.completedFuture(101L)
+        act == 101L
+    }
+
+    def "Executes different calls separately"() {
+        setup:
+        def delegate = Mock(FuturesRpcClient)
+        def client = new CoalescingFuturesRpcClient(delegate)
+        when:
+        client.execute(Commands.eth().getBlockNumber())
+        client.execute(Commands.eth().getBlock(100))
+        then:
+        2 * delegate.execute(_) >> new CompletableFuture()
+        client.inFlight == 2
+        client.coalesced == 0
+    }
+}
@@ -0,0 +1,130 @@
+package io.emeraldpay.etherjar.rpc
+
+import reactor.test.StepVerifier
+import reactor.test.publisher.TestPublisher
+import spock.lang.Specification
+
+import java.time.Duration
+
+class CoalescingReactorRpcClientSpec extends Specification {
+
+    def "Shares one execution between equal calls"() {
+        setup:
+        def delegate = Mock(ReactorRpcClient)
+        def client = new CoalescingReactorRpcClient(delegate)
+        def upstream = TestPublisher.<Long>create()
+        when:
+        def first = client.execute(Commands.eth().getBlockNumber()).toFuture()
+        then:
+        1 * delegate.execute(Commands.eth().getBlockNumber()) >> upstream.mono()
+        client.inFlight == 1
+        when:
+        def second = client.execute(Commands.eth().getBlockNumber())
+        then:
+        0 * delegate.execute(_)
+        StepVerifier.create(second)
+            .then { upstream.emit(100L) }
+            .expectNext(100L)
+            .expectComplete()
+            .verify(Duration.ofSeconds(1))
+        first.get() == 100L
+        client.coalesced == 1
+        client.inFlight == 0
+    }
+
+    def "Passes error to all joined subscribers"() {
+        setup:
+        def delegate = Mock(ReactorRpcClient)
+        def client = new CoalescingReactorRpcClient(delegate)
+        def upstream = TestPublisher.<Long>create()
+        when:
+        def first = client.execute(Commands.eth().getBlockNumber())
+        def second = client.execute(Commands.eth().getBlockNumber())
+        def firstVerifier = StepVerifier.create(first)
+            .expectError(RpcException)
+            .verifyLater()
+        then:
+        1 * delegate.execute(_ as RpcCall) >> upstream.mono()
+        StepVerifier.create(second)
+            .then { upstream.error(new RpcException(-32000, "test")) }
+            .expectErrorMatches { it instanceof RpcException && it.code == -32000 }
+            .verify(Duration.ofSeconds(1))
+        firstVerifier.verify(Duration.ofSeconds(1))
+        client.inFlight == 0
+    }
+
+    def "Keeps execution while any subscriber is left"() {
+        setup:
+        def delegate = Mock(ReactorRpcClient)
+        def client = new CoalescingReactorRpcClient(delegate)
+        def upstream = TestPublisher.<Long>create()
+        delegate.execute(_ as RpcCall) >> upstream.mono()
+        when:
+        def first = client.execute(Commands.eth().getBlockNumber()).subscribe()
+        def second = client.execute(Commands.eth().getBlockNumber()).toFuture()
+        first.dispose()
+        then:
+        upstream.assertNotCancelled()
+        client.inFlight == 1
+        when:
+        upstream.emit(100L)
+        then:
+        second.get() == 100L
+    }
+
+    def "Cancels execution when all subscribers cancelled"() {
+        setup:
+        def delegate = Mock(ReactorRpcClient)
+        def client = new CoalescingReactorRpcClient(delegate)
+        def upstream = TestPublisher.<Long>create()
+        delegate.execute(_ as RpcCall) >> upstream.mono()
+        when:
+        def first = client.execute(Commands.eth().getBlockNumber()).subscribe()
+        def second = client.execute(Commands.eth().getBlockNumber()).subscribe()
+        first.dispose()
+        second.dispose()
+        then:
+        upstream.assertCancelled()
+        client.inFlight == 0
+    }
+
+    def "Executes again after completion"() {
+        setup:
+        def delegate = Mock(ReactorRpcClient)
+        def client = new CoalescingReactorRpcClient(delegate)
+        def upstream1 = TestPublisher.<Long>create()
+        def upstream2 = TestPublisher.<Long>create()
+        2 * delegate.execute(_ as RpcCall) >>> [upstream1.mono(), upstream2.mono()]
+        when:
+        def first = client.execute(Commands.eth().getBlockNumber())
+        then:
+        StepVerifier.create(first)
+            .then { upstream1.emit(100L) }
+            .expectNext(100L)
+            .expectComplete()
+            .verify(Duration.ofSeconds(1))
+        when:
+        def second = client.execute(Commands.eth().getBlockNumber())
+        then:
+        StepVerifier.create(second)
+            .then { upstream2.emit(101L) }
+            .expectNext(101L)
+            .expectComplete()
+            .verify(Duration.ofSeconds(1))
+        client.coalesced == 0
+        client.inFlight == 0
+    }
+
+    def "Executes different calls separately"() {
+        setup:
+        def delegate = Mock(ReactorRpcClient)
+        def client = new CoalescingReactorRpcClient(delegate)
+        when:
+        client.execute(Commands.eth().getBlockNumber()).subscribe()
+        client.execute(Commands.eth().getBlock(100)).subscribe()
+        then:
+        2 * delegate.execute(_ as RpcCall) >> { TestPublisher.create().mono() }
+        client.inFlight == 2
+        client.coalesced == 0
+    }
+}
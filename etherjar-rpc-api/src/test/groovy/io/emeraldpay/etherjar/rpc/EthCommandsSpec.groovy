@@ -246,6 +246,16 @@ class EthCommandsSpec extends Specification {
         call.params == ['0xf45c301e123a068badac079d0cff1a9e4ad51911', 'latest']
         call.jsonType == String
         call.resultType == HexData
+
+        when:
+        call = Commands.eth().getCode(Address.from('0xf45c301e123a068badac079d0cff1a9e4ad51911'),
+            BlockHash.from('0x4eeb9aa586c63c0f1ce033e6c6fb44b4db1ffe8c5e19c93e2b768c71b5f9cb9c'))
+
+        then:
+        call.method == "eth_getCode"
+        call.params == ['0xf45c301e123a068badac079d0cff1a9e4ad51911', [blockHash: '0x4eeb9aa586c63c0f1ce033e6c6fb44b4db1ffe8c5e19c93e2b768c71b5f9cb9c']]
+        call.jsonType == String
+        call.resultType == HexData
     }
 
     def getWork() {
@@ -421,4 +421,35 @@ class JacksonEthRpcConverterSpec extends Specification {
         act.hash.toHex() == '0xa0437cab40119e21bc92d1ce5be52c89c64fa3b914489d51b4fe209a33ed31a5'
         act.transactions == null
     }
+
+    def "Parse tx with unknown and nested fields"() {
+        setup:
+        def json = '{"jsonrpc":"2.0","id":1,"result":{"extra":{"nested":[1,{"hash":"0x00"}]},"hash":"0x1a2169d29474fe7bbddb7e601d8a7af8f7ece67e4628050d904a46218fdef3e8","value":"0xde0b6b3a7640000","gas":21000,"nonce":"0x10","input":"0x","to":null,"accessList":[]}}'
+
+        when:
+        def act = jacksonRpcConverter.fromJson(new ByteArrayInputStream(json.bytes), TransactionJson)
+
+        then:
+        act.hash.toHex() == '0x1a2169d29474fe7bbddb7e601d8a7af8f7ece67e4628050d904a46218fdef3e8'
+        act.value == Wei.ofEthers(1)
+        act.gas == 21000
+        act.nonce == 16
+        act.input == null
+        act.to == null
+        act.signature == null
+    }
+
+    def "Parse log without topics"() {
+        setup:
+        def json = '{"jsonrpc":"2.0","id":1,"result":{"logIndex":"0x1","data":"0x0102","removed":false}}'
+
+        when:
+        def act = jacksonRpcConverter.fromJson(new ByteArrayInputStream(json.bytes), TransactionLogJson)
+
+        then:
+        act.logIndex == 1
+        act.data.toHex() == '0x0102'
+        act.topics == []
+        act.removed == false
+    }
 }
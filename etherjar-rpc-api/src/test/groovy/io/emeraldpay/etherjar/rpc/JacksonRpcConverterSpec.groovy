@@ -131,4 +131,32 @@ class JacksonRpcConverterSpec extends Specification {
         act[5].id == 5
         act[5].result == "0x435901"
     }
+
+    def "converts batch with result before id"() {
+        setup:
+        def json = '[{"result":{"a":[1,2]},"id":9},{"result":"0x2a","jsonrpc":"2.0","id":7},{"jsonrpc":"2.0","id":8,"error":{"code":-32000,"message":"failed"}}]'
+        def target = [
+                7: String,
+                8: String
+        ]
+        when:
+        def act = jacksonRpcConverter.parseBatch(new ByteArrayInputStream(json.bytes), target)
+        then:
+        act.size() == 2
+        act[0].id == 7
+        act[0].result == "0x2a"
+        act[0].error == null
+        act[1].id == 8
+        act[1].result == null
+        act[1].error.code == -32000
+        act[1].error.message == "failed"
+    }
+
+    def "fails to convert batch which is not array"() {
+        when:
+        jacksonRpcConverter.parseBatch(new ByteArrayInputStream('{"id":1,"result":"0x2a"}'.bytes), [1: String])
+        then:
+        def t = thrown(RpcException)
+        t.code == RpcResponseError.CODE_UPSTREAM_INVALID_RESPONSE
+    }
 }
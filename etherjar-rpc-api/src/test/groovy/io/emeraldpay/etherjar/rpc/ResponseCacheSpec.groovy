@@ -0,0 +1,129 @@
+package io.emeraldpay.etherjar.rpc
+
+import io.emeraldpay.etherjar.domain.Address
+import io.emeraldpay.etherjar.domain.BlockHash
+import io.emeraldpay.etherjar.domain.TransactionId
+import io.emeraldpay.etherjar.hex.HexData
+import io.emeraldpay.etherjar.rpc.json.BlockJson
+import io.emeraldpay.etherjar.rpc.json.BlockTag
+import io.emeraldpay.etherjar.rpc.json.TransactionReceiptJson
+import spock.lang.Specification
+
+class ResponseCacheSpec extends Specification {
+
+    static BlockHash hash(int i) {
+        return BlockHash.from(String.format("0x%064x", i))
+    }
+
+    def "Returns stored value"() {
+        setup:
+        def cache = new ResponseCache(16, 1024 * 1024)
+        def block = new BlockJson()
+        when:
+        cache.put(Commands.eth().getBlock(hash(1)), block)
+        then:
+        cache.get(Commands.eth().getBlock(hash(1))).is(block)
+        cache.get(Commands.eth().getBlock(hash(2))) == null
+        cache.size == 1
+        cache.hits == 1
+        cache.misses == 1
+        cache.hitRate == 0.5d
+    }
+
+    def "Evicts least recently used by count"() {
+        setup:
+        def cache = new ResponseCache(2, 1024 * 1024)
+        when:
+        cache.put(Commands.eth().getBlock(hash(1)), new BlockJson())
+        cache.put(Commands.eth().getBlock(hash(2)), new BlockJson())
+        cache.get(Commands.eth().getBlock(hash(1)))
+        cache.put(Commands.eth().getBlock(hash(3)), new BlockJson())
+        then:
+        cache.size == 2
+        cache.evictions == 1
+        cache.get(Commands.eth().getBlock(hash(1))) != null
+        cache.get(Commands.eth().getBlock(hash(2))) == null
+    }
+
+    def "Keeps weight under limit"() {
+        setup:
+        def cache = new ResponseCache(100, 100, { 40L })
+        when:
+        (1..5).each { cache.put(Commands.eth().getBlock(hash(it)), new BlockJson()) }
+        then:
+        cache.size == 2
+        cache.weight == 80
+        cache.evictions == 3
+    }
+
+    def "Ignores value heavier than cache"() {
+        setup:
+        def cache = new ResponseCache(100, 100, { 101L })
+        when:
+        cache.put(Commands.eth().getBlock(hash(1)), new BlockJson())
+        then:
+        cache.size == 0
+        cache.weight == 0
+    }
+
+    def "Clear resets stats"() {
+        setup:
+        def cache = new ResponseCache(16, 1024)
+        cache.put(Commands.eth().getBlock(hash(1)), new BlockJson())
+        cache.get(Commands.eth().getBlock(hash(1)))
+        when:
+        cache.clear()
+        then:
+        cache.size == 0
+        cache.hits == 0
+        cache.hitRate == 0.0d
+    }
+
+    def "Hash addressed calls are cacheable"() {
+        setup:
+        def calls = new CacheableCalls()
+        def address = Address.from("0x0000000000000000000000000000000000000001")
+        expect:
+        calls.isCacheable(Commands.eth().getBlock(hash(1)))
+        calls.isCacheable(Commands.eth().getCode(address, hash(1)))
+        calls.isCacheable(Commands.eth().getCode(address, hash(1)), HexData.from("0x00"))
+        !calls.isCacheable(Commands.eth().getCode(address, 100))
+        !calls.isCacheable(Commands.eth().getCode(address, BlockTag.LATEST))
+        !calls.isCacheable(Commands.eth().getBlock(100))
+        !calls.isCacheable(Commands.eth().getBlockNumber())
+    }
+
+    def "Caches receipt only after confirmations"() {
+        setup:
+        def calls = new CacheableCalls({ 1000L }, 12)
+        def call = Commands.eth().getTransactionReceipt(TransactionId.from(String.format("0x%064x", 1)))
+        def receipt = new TransactionReceiptJson()
+        when:
+        receipt.blockNumber = height as Long
+        then:
+        calls.isCacheable(call)
+        calls.isCacheable(call, receipt) == cacheable
+        where:
+        height | cacheable
+        988    | true
+        989    | false
+        1000   | false
+    }
+
+    def "Caches code at height only after confirmations"() {
+        setup:
+        def calls = new CacheableCalls({ 1000L }, 12)
+        def address = Address.from("0x0000000000000000000000000000000000000001")
+        def call = Commands.eth().getCode(address, height)
+        expect:
+        calls.isCacheable(call)
+        calls.isCacheable(call, HexData.from("0x00")) == cacheable
+        !calls.isCacheable(Commands.eth().getCode(address, BlockTag.LATEST))
+        where:
+        height | cacheable
+        988    | true
+        989    | false
+        1000   | false
+        2000   | false
+    }
+}
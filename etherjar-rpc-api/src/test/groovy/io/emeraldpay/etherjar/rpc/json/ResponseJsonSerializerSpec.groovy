@@ -18,6 +18,7 @@ package io.emeraldpay.etherjar.rpc.json
 import io.emeraldpay.etherjar.domain.Address
 import io.emeraldpay.etherjar.domain.TransactionId
 import io.emeraldpay.etherjar.domain.Wei
+import io.emeraldpay.etherjar.hex.HexQuantity
 import io.emeraldpay.etherjar.rpc.JacksonRpcConverter
 import io.emeraldpay.etherjar.rpc.RpcResponseError
 import spock.lang.Specification
@@ -114,6 +115,23 @@ class ResponseJsonSerializerSpec extends Specification {
         act == '{"jsonrpc":"2.0","id":1,"result":"0xd8b72d434c800000"}'
     }
 
+    def "Serialize when result is quantity"() {
+        setup:
+        def val = new ResponseJson()
+        val.id = 1
+        val.result = HexQuantity.from(value)
+        when:
+        def act = objectMapper.toJson(val)
+        then:
+        act == '{"jsonrpc":"2.0","id":1,"result":"' + exp + '"}'
+        where:
+        value                                   | exp
+        0L                                      | "0x0"
+        0x1234L                                 | "0x1234"
+        -255L                                   | "-0xff"
+        new BigInteger("10000000000000000", 16) | "0x10000000000000000"
+    }
+
     def "Serialize when result is Transaction"() {
         setup:
         def val = new ResponseJson()
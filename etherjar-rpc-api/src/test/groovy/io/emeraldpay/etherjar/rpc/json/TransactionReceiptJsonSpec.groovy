@@ -16,6 +16,8 @@
 package io.emeraldpay.etherjar.rpc.json
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import io.emeraldpay.etherjar.domain.BlockHash
+import io.emeraldpay.etherjar.domain.InternCache
 import io.emeraldpay.etherjar.rpc.JacksonRpcConverter
 import spock.lang.Specification
 
@@ -160,6 +162,25 @@ class TransactionReceiptJsonSpec extends Specification {
         receipt.transactionIndex == 0x95
     }
 
+    def "deserialize 0xec00aa with intern cache"() {
+        setup:
+        def cache = new InternCache<BlockHash>(64)
+        BlockHash.setInternCache(cache)
+        InputStream json = this.class.classLoader.getResourceAsStream("receipt/0xec00aa.json")
+
+        when:
+        def receipt = jacksonRpcConverter.fromJson(json, TransactionReceiptJson)
+
+        then:
+        receipt.blockHash.toHex() == "0x57c09bd9f137287b3a4d2691bf5259df2107fcf3c1c69f5a50c9324f528d1793"
+        receipt.logs.every { it.blockHash.is(receipt.blockHash) }
+        cache.misses == 1
+        cache.hits == 9
+
+        cleanup:
+        BlockHash.setInternCache(null)
+    }
+
     def "serialize 0xec00aa"() {
         setup:
         InputStream origJson = this.class.classLoader.getResourceAsStream("receipt/0xec00aa.json")
@@ -20,12 +20,14 @@ import io.emeraldpay.etherjar.rpc.ReactorBatch;
 import io.emeraldpay.etherjar.rpc.RpcConverter;
 import io.emeraldpay.etherjar.rpc.json.RequestJson;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
-import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
-import reactor.util.function.Tuple2;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
 import java.util.function.Function;
 
 /**
@@ -33,40 +35,68 @@ import java.util.function.Function;
  */
 public class BatchToString {
 
-    private RpcConverter rpcConverter;
+    private final RpcConverter rpcConverter;
+    private final ByteBufAllocator allocator;
 
+    /**
+     * Creates converter which produces unpooled buffers wrapping an array of the exact size of the JSON, which
+     * don't need to be released
+     *
+     * @param rpcConverter converter to JSON
+     */
     public BatchToString(RpcConverter rpcConverter) {
-        this.rpcConverter = rpcConverter;
+        this(rpcConverter, null);
     }
 
-    private Function<Tuple2<String, Boolean>, Publisher<String>> arrange = (x) -> {
-        boolean first = x.getT2();
-        if (first) {
-            return Mono.just(x.getT1());
-        } else {
-            return Flux.just(",", x.getT1());
-        }
-    };
+    /**
+     * Creates converter which writes into buffers of the provided allocator, without copying the JSON into an exact
+     * size array. The consumer of {@link #convertToJson(Flux)} owns the buffer and must release it, i.e. as the HTTP
+     * client does after sending it.
+     *
+     * @param rpcConverter converter to JSON
+     * @param allocator allocator of the buffers for the serialized batch, or null to use unpooled buffers
+     */
+    public BatchToString(RpcConverter rpcConverter, ByteBufAllocator allocator) {
+        this.rpcConverter = rpcConverter;
+        this.allocator = allocator;
+    }
 
-    private Function<ReactorBatch.ReactorBatchItem, RequestJson> toRequest =
+    private Function<ReactorBatch.ReactorBatchItem, RequestJson<Integer>> toRequest =
         (bi) -> new RequestJson<>(bi.getCall().getMethod(), bi.getCall().getParams(), bi.getId());
 
 
     /**
-     * Converts batch to JSON RPC request string
+     * Converts batch to JSON RPC request string. The whole batch is written in one pass into a single buffer.
      *
      * @param batch request batch
      * @return string serialized batch with individual mappings as context
      */
     public Flux<ByteBuf> convertToJson(Flux<ReactorBatch.ReactorBatchItem> batch) {
-        Flux<String> items = batch
+        return batch
             .map(toRequest)
-            .map(rpcConverter::toJson)
-            .zipWith(Flux.range(0, Integer.MAX_VALUE).map(i -> i == 0))
-            .flatMap(arrange);
-        return Flux.concat(Flux.just("["), items, Flux.just("]"))
-            .map(String::getBytes)
-            .map(Unpooled::wrappedBuffer);
+            .collectList()
+            .map(this::write)
+            .flux();
+    }
+
+    private ByteBuf write(List<RequestJson<Integer>> requests) {
+        if (allocator == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                rpcConverter.writeJson(requests, out);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Unable to serialize to JSON", e);
+            }
+            return Unpooled.wrappedBuffer(out.toByteArray());
+        }
+        ByteBuf buf = allocator.buffer();
+        try {
+            rpcConverter.writeJson(requests, new ByteBufOutputStream(buf));
+            return buf;
+        } catch (IOException | RuntimeException e) {
+            buf.release();
+            throw new IllegalArgumentException("Unable to serialize to JSON", e);
+        }
     }
 
     /**
@@ -40,11 +40,11 @@ import org.apache.http.impl.client.HttpClients;
 import org.apache.http.ssl.SSLContexts;
 
 import javax.net.ssl.SSLContext;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
@@ -62,6 +62,12 @@ public class HttpRpcTransport implements RpcTransport<DefaultBatch.FutureBatchIt
 
     private ResponseJsonConverter responseJsonConverter = new ResponseJsonConverter();
 
+    /**
+     * Buffer for request JSON, reused by all requests made from the same thread. The blocking client sends the whole
+     * request within execute(), so the buffer is free to reuse after that.
+     */
+    private static final ThreadLocal<RequestBuffer> requestBuffer = ThreadLocal.withInitial(RequestBuffer::new);
+
     private final URI target;
     private final ExecutorService executorService;
     private final RpcConverter rpcConverter;
@@ -113,12 +119,19 @@ public class HttpRpcTransport implements RpcTransport<DefaultBatch.FutureBatchIt
         CompletableFuture<Iterable<RpcCallResponse>> f = new CompletableFuture<>();
         executorService.submit(() -> {
             try {
-                String json = rpcConverter.toJson(rpcRequests);
+                RequestBuffer json = requestBuffer.get();
+                json.reset();
+                rpcConverter.writeJson(rpcRequests, json);
                 RequestBuilder requestBuilder = RequestBuilder.create("POST")
                         .setUri(target)
                         .addHeader("Content-Type", "application/json")
-                        .setEntity(new ByteArrayEntity(json.getBytes(StandardCharsets.UTF_8)));
-                HttpResponse rcpResponse = httpclient.execute(requestBuilder.build(), this.context);
+                        .setEntity(new ByteArrayEntity(json.getBuffer(), 0, json.size()));
+                HttpResponse rcpResponse;
+                try {
+                    rcpResponse = httpclient.execute(requestBuilder.build(), this.context);
+                } finally {
+                    json.release();
+                }
                 int statusCode = rcpResponse.getStatusLine().getStatusCode();
                 if (statusCode != 200) {
                     throw new IOException("Server returned error response: " + statusCode);
@@ -156,6 +169,37 @@ public class HttpRpcTransport implements RpcTransport<DefaultBatch.FutureBatchIt
             return null;
         };
     }
+
+    /**
+     * Output stream with access to its internal array, to send it without making a copy
+     */
+    private static class RequestBuffer extends ByteArrayOutputStream {
+
+        /**
+         * Buffers larger than that are not kept between requests
+         */
+        private static final int MAX_RETAINED_SIZE = 1024 * 1024;
+        private static final int INITIAL_SIZE = 4096;
+
+        RequestBuffer() {
+            super(INITIAL_SIZE);
+        }
+
+        byte[] getBuffer() {
+            return buf;
+        }
+
+        /**
+         * Drop the array if it grew too large for a single large batch
+         */
+        void release() {
+            if (buf.length > MAX_RETAINED_SIZE) {
+                buf = new byte[INITIAL_SIZE];
+            }
+            reset();
+        }
+    }
+
     public static class Builder {
         private URI target;
         private ExecutorService executorService;
@@ -31,6 +31,7 @@ import java.util.function.Function;
 import io.emeraldpay.etherjar.rpc.*;
 import io.emeraldpay.etherjar.rpc.json.ResponseJson;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaders;
@@ -208,7 +209,8 @@ public class ReactorHttpRpcClient extends AbstractReactorRpcClient implements Re
             }
             ReactorRpcTransport transport;
             if (transportType == TransportType.BATCH) {
-                BatchToString batchToString = new BatchToString(rpcConverter);
+                // the buffer is released by the HTTP client after sending it
+                BatchToString batchToString = new BatchToString(rpcConverter, ByteBufAllocator.DEFAULT);
                 transport = new BatchTransport(clientBuilder, target, rpcConverter, batchToString);
             } else if (transportType == TransportType.SEPARATED) {
                 transport = new SeparatedTransport(clientBuilder, target, rpcConverter);
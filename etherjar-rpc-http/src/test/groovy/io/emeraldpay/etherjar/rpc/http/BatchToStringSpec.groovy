@@ -21,9 +21,12 @@ import io.emeraldpay.etherjar.rpc.JacksonRpcConverter
 import io.emeraldpay.etherjar.rpc.ReactorBatch
 import io.emeraldpay.etherjar.rpc.json.BlockTag
 import io.netty.buffer.ByteBuf
+import io.netty.buffer.PooledByteBufAllocator
 import reactor.core.publisher.Flux
 import spock.lang.Specification
 
+import java.nio.charset.StandardCharsets
+
 class BatchToStringSpec extends Specification {
 
     def "Convert to JSON an empty call"() {
@@ -68,6 +71,36 @@ class BatchToStringSpec extends Specification {
             ']'
     }
 
+    def "Convert to JSON as a single buffer"() {
+        setup:
+        BatchToString converter = new BatchToString(new JacksonRpcConverter())
+
+        ReactorBatch batch = new ReactorBatch()
+        batch.add(Commands.eth().blockNumber)
+        batch.add(Commands.eth().getBalance(Address.EMPTY, BlockTag.LATEST))
+        when:
+        def act = converter.convertToJson(batch.getItems()).collectList().block()
+        then:
+        act.size() == 1
+        act[0].hasArray()
+    }
+
+    def "Convert to JSON with provided allocator"() {
+        setup:
+        BatchToString converter = new BatchToString(new JacksonRpcConverter(), PooledByteBufAllocator.DEFAULT)
+
+        ReactorBatch batch = new ReactorBatch()
+        batch.add(Commands.eth().blockNumber)
+        when:
+        def act = converter.convertToJson(batch.getItems()).collectList().block()
+        then:
+        act.size() == 1
+        act[0].refCnt() == 1
+        act[0].toString(StandardCharsets.UTF_8) == '[{"jsonrpc":"2.0","method":"eth_blockNumber","params":[],"id":1}]'
+        cleanup:
+        act*.release()
+    }
+
     // ----
 
     byte[] readBytes(Flux<ByteBuf> input) {
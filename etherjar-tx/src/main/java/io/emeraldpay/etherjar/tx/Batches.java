@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2021 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.tx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Parallel processing of a batch for the elliptic curve operations, which take ~100us per item. The batch is split
+ * into chunks of a few items per task, which is enough to make the scheduling overhead negligible and still spread
+ * a batch over all threads.
+ */
+final class Batches {
+
+    static final int CHUNK = 16;
+
+    private Batches() {
+    }
+
+    /**
+     * @param items items to process
+     * @param fn function to apply to each item, must handle its errors
+     * @param executor executor to run on
+     * @param <T> type of items
+     * @param <R> type of results
+     * @return results in the same order as the items
+     */
+    @SuppressWarnings("unchecked")
+    static <T, R> CompletableFuture<List<R>> mapAsync(List<? extends T> items, ItemFunction<T, R> fn, Executor executor) {
+        // copy to have a stable random access list, the original may be changed while processing
+        Object[] source = items.toArray();
+        Object[] results = new Object[source.length];
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (int start = 0; start < source.length; start += CHUNK) {
+            int from = start;
+            int to = Math.min(source.length, start + CHUNK);
+            tasks.add(CompletableFuture.runAsync(() -> {
+                for (int i = from; i < to; i++) {
+                    results[i] = fn.apply(i, (T) source[i]);
+                }
+            }, executor));
+        }
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0]))
+            .thenApply((ignored) -> (List<R>) Arrays.asList(results));
+    }
+
+    interface ItemFunction<T, R> {
+        R apply(int index, T item);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.tx;
+
+import io.emeraldpay.etherjar.domain.Address;
+import io.emeraldpay.etherjar.hex.Hex32;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU on heap. The entries are split by hash into a few segments, each is an access ordered {@link LinkedHashMap}
+ * with its own lock, so threads rarely wait for each other. The order is exact within a segment.
+ */
+class HeapSenderCache extends SenderCache {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final int capacity;
+
+    HeapSenderCache(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid cache size: " + size);
+        }
+        int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(size));
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            // spread the remainder, so the total is exactly the size
+            segments[i] = new Segment(size / count + (i < size % count ? 1 : 0));
+        }
+        this.capacity = size;
+    }
+
+    private Segment segment(byte[] txHash) {
+        // the key is a hash already, any bits are good enough
+        return segments[(txHash[0] & 0xff) & (segments.length - 1)];
+    }
+
+    @Override
+    protected Address lookup(byte[] txHash) {
+        Segment segment = segment(txHash);
+        Hex32 key = Hex32.from(txHash);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    @Override
+    protected void store(byte[] txHash, Address sender) {
+        Segment segment = segment(txHash);
+        // the key is kept by the cache, so it must not share the array with the caller
+        Hex32 key = Hex32.from(txHash.clone());
+        synchronized (segment) {
+            segment.put(key, sender);
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getSize() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        super.clear();
+    }
+
+    private class Segment extends LinkedHashMap<Hex32, Address> {
+        private final int limit;
+
+        Segment(int limit) {
+            super(16, 0.75f, true);
+            this.limit = limit;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Hex32, Address> eldest) {
+            if (size() > limit) {
+                evicted();
+                return true;
+            }
+            return false;
+        }
+    }
+}
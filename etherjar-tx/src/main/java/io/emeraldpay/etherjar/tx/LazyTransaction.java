@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2021 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.tx;
+
+import io.emeraldpay.etherjar.domain.Address;
+import io.emeraldpay.etherjar.domain.Keccak256;
+import io.emeraldpay.etherjar.domain.MethodId;
+import io.emeraldpay.etherjar.domain.TransactionId;
+import io.emeraldpay.etherjar.domain.Wei;
+import io.emeraldpay.etherjar.hex.HexData;
+import io.emeraldpay.etherjar.rlp.RlpIndex;
+import io.emeraldpay.etherjar.rlp.RlpType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A read-only view over a raw transaction, which decodes the fields only when they are accessed. The constructor makes
+ * a single pass over the RLP headers to find the position of each field, and each getter decodes only that field.
+ * It's much cheaper than the full {@link TransactionDecoder#decode(byte[])} when only a few fields are needed,
+ * ex. just the recipient, the method and the hash.
+ * <p>
+ * Supports the legacy transactions, with or without EIP-155 chain id, and EIP-2930 transactions with an access list.
+ * The view refers to the original array, so it must not be modified while the view is in use.
+ *
+ * @see TransactionDecoder#decodeLazy(byte[])
+ */
+public class LazyTransaction {
+
+    private static final TransactionDecoder DECODER = new TransactionDecoder();
+
+    private static final int FIELDS_STANDARD = 6;
+    private static final int FIELDS_ACCESS_LIST = 8;
+    private static final int SIGNATURE_FIELDS = 3;
+
+    private final byte[] raw;
+    private final TransactionType type;
+    private final RlpIndex index;
+    /**
+     * Position of the nonce in the list, the fields before it are specific to the type
+     */
+    private final int main;
+
+    /**
+     * @param raw encoded transaction
+     * @throws IllegalArgumentException if RLP is invalid or has wrong structure
+     */
+    public LazyTransaction(byte[] raw) {
+        if (raw.length <= 1) {
+            throw new IllegalArgumentException("Raw TX is too short: " + raw.length);
+        }
+        this.raw = raw;
+        this.type = TransactionType.fromPrefix(raw[0]);
+        int start = type == TransactionType.STANDARD ? 0 : 1;
+        try {
+            this.index = RlpIndex.of(raw, start, raw.length - start);
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException("Transaction has invalid RLP encoding. " + e.getMessage());
+        }
+        int fields = type == TransactionType.STANDARD ? FIELDS_STANDARD : FIELDS_ACCESS_LIST;
+        if (index.size() != fields && index.size() != fields + SIGNATURE_FIELDS) {
+            throw new IllegalArgumentException("Transaction has invalid RLP encoding. Has " + index.size() + " fields");
+        }
+        this.main = type == TransactionType.STANDARD ? 0 : 1;
+        for (int i = 0; i < index.size(); i++) {
+            RlpType expected = (type == TransactionType.ACCESS_LIST && i == FIELDS_ACCESS_LIST - 1) ? RlpType.LIST : RlpType.BYTES;
+            if (index.getType(i) != expected) {
+                throw new IllegalArgumentException("Transaction has invalid RLP encoding. Field " + i + " is not " + expected);
+            }
+        }
+    }
+
+    /**
+     * @return the original encoded transaction, not copied
+     */
+    public byte[] getRaw() {
+        return raw;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    /**
+     * @return chain id, either from EIP-2930 field or from EIP-155 signature, or null if it's not specified
+     */
+    public Integer getChainId() {
+        if (type == TransactionType.ACCESS_LIST) {
+            return (int) index.getLong(0);
+        }
+        if (isSigned()) {
+            long v = index.getLong(FIELDS_STANDARD);
+            if (v != 27 && v != 28) {
+                return Eip155.toChainId((int) v);
+            }
+        }
+        return null;
+    }
+
+    public long getNonce() {
+        return index.getLong(main);
+    }
+
+    public Wei getGasPrice() {
+        return new Wei(index.getBigInt(main + 1));
+    }
+
+    public long getGas() {
+        return index.getLong(main + 2);
+    }
+
+    /**
+     * @return recipient, or null if it's a contract creation
+     */
+    public Address getTo() {
+        int i = main + 3;
+        if (index.getLength(i) == 0) {
+            return null;
+        }
+        return Address.from(index.get(i));
+    }
+
+    public Wei getValue() {
+        return new Wei(index.getBigInt(main + 4));
+    }
+
+    public HexData getData() {
+        return new HexData(index.get(main + 5));
+    }
+
+    /**
+     * @return size of the input data, in bytes
+     */
+    public int getDataSize() {
+        return index.getLength(main + 5);
+    }
+
+    /**
+     * @return method id, i.e. the first 4 bytes of the input data, or null if the data is shorter
+     */
+    public MethodId getMethodId() {
+        int i = main + 5;
+        if (index.getLength(i) < MethodId.SIZE_BYTES) {
+            return null;
+        }
+        int offset = index.getOffset(i);
+        return MethodId.from(Arrays.copyOfRange(raw, offset, offset + MethodId.SIZE_BYTES));
+    }
+
+    /**
+     * @return access list, or empty list for a legacy transaction
+     */
+    public List<TransactionWithAccess.Access> getAccessList() {
+        if (type != TransactionType.ACCESS_LIST) {
+            return Collections.emptyList();
+        }
+        return TransactionDecoder.readAccessList(index.getList(FIELDS_ACCESS_LIST - 1));
+    }
+
+    public boolean isSigned() {
+        return index.size() > signatureStart();
+    }
+
+    private int signatureStart() {
+        return type == TransactionType.STANDARD ? FIELDS_STANDARD : FIELDS_ACCESS_LIST;
+    }
+
+    /**
+     * @return signature, or null if the transaction is not signed
+     */
+    public Signature getSignature() {
+        if (!isSigned()) {
+            return null;
+        }
+        int i = signatureStart();
+        Signature signature;
+        if (type == TransactionType.ACCESS_LIST) {
+            SignatureEIP2930 eip2930 = new SignatureEIP2930();
+            eip2930.setChainId((int) index.getLong(0));
+            eip2930.setYParity((int) index.getLong(i));
+            signature = eip2930;
+        } else {
+            int v = (int) index.getLong(i);
+            if (v == 27 || v == 28) {
+                signature = new Signature();
+            } else {
+                signature = new SignatureEIP155(Eip155.toChainId(v));
+            }
+            signature.setV(v);
+        }
+        signature.setR(index.getBigInt(i + 1));
+        signature.setS(index.getBigInt(i + 2));
+        return signature;
+    }
+
+    /**
+     * @return hash of the signed transaction, which is its id. Computed directly from the raw bytes.
+     */
+    public TransactionId getTransactionId() {
+        return TransactionId.from(Keccak256.digest(raw));
+    }
+
+    /**
+     * Decode all the fields
+     *
+     * @return fully decoded transaction, a {@link TransactionWithAccess} for EIP-2930
+     */
+    public Transaction toTransaction() {
+        return DECODER.decode(raw);
+    }
+}
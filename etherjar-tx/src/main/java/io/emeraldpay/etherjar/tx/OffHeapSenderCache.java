@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2021 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.tx;
+
+import io.emeraldpay.etherjar.domain.Address;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache stored in a single direct buffer, set associative: the key selects a bucket of {@link #WAYS} slots, and
+ * a new entry replaces the least recently used slot of its bucket. Each slot is 64 bytes:
+ * <pre>
+ *     0..31  transaction hash
+ *     32..51 sender address
+ *     56..63 last access stamp, 0 for an empty slot
+ * </pre>
+ * Buckets are guarded by a fixed number of striped locks, and each lock has own clock for the stamps.
+ */
+class OffHeapSenderCache extends SenderCache {
+
+    static final int WAYS = 8;
+
+    private static final int SLOT = 64;
+    private static final int KEY_SIZE = 32;
+    private static final int ADDRESS_OFFSET = 32;
+    private static final int STAMP_OFFSET = 56;
+    private static final int LOCKS = 64;
+
+    private final ByteBuffer data;
+    private final int buckets;
+    private final Object[] locks;
+    private final long[] clocks;
+    private final AtomicInteger size = new AtomicInteger(0);
+
+    OffHeapSenderCache(int size) {
+        if (size <= 0 || size > (1 << 24)) {
+            throw new IllegalArgumentException("Invalid cache size: " + size);
+        }
+        int capacity = Math.max(WAYS, Integer.highestOneBit(size - 1) << 1);
+        this.buckets = capacity / WAYS;
+        this.data = ByteBuffer.allocateDirect(capacity * SLOT);
+        this.locks = new Object[Math.min(LOCKS, buckets)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        this.clocks = new long[locks.length];
+    }
+
+    private int bucket(byte[] txHash) {
+        // the key is a hash already, so the first bytes are uniformly distributed
+        int h = ((txHash[0] & 0xff) << 24) | ((txHash[1] & 0xff) << 16) | ((txHash[2] & 0xff) << 8) | (txHash[3] & 0xff);
+        return h & (buckets - 1);
+    }
+
+    private boolean keyEquals(int slot, byte[] txHash) {
+        int pos = slot * SLOT;
+        for (int i = 0; i < KEY_SIZE; i += 8) {
+            if (data.getLong(pos + i) != getLong(txHash, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long getLong(byte[] b, int off) {
+        return ((long) (b[off] & 0xff) << 56)
+            | ((long) (b[off + 1] & 0xff) << 48)
+            | ((long) (b[off + 2] & 0xff) << 40)
+            | ((long) (b[off + 3] & 0xff) << 32)
+            | ((long) (b[off + 4] & 0xff) << 24)
+            | ((long) (b[off + 5] & 0xff) << 16)
+            | ((long) (b[off + 6] & 0xff) << 8)
+            | ((long) (b[off + 7] & 0xff));
+    }
+
+    private long stamp(int slot) {
+        return data.getLong(slot * SLOT + STAMP_OFFSET);
+    }
+
+    @Override
+    protected Address lookup(byte[] txHash) {
+        int bucket = bucket(txHash);
+        int lock = bucket & (locks.length - 1);
+        int first = bucket * WAYS;
+        synchronized (locks[lock]) {
+            for (int slot = first; slot < first + WAYS; slot++) {
+                if (stamp(slot) != 0 && keyEquals(slot, txHash)) {
+                    data.putLong(slot * SLOT + STAMP_OFFSET, ++clocks[lock]);
+                    byte[] address = new byte[Address.SIZE_BYTES];
+                    for (int i = 0; i < address.length; i++) {
+                        address[i] = data.get(slot * SLOT + ADDRESS_OFFSET + i);
+                    }
+                    return Address.from(address);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected void store(byte[] txHash, Address sender) {
+        int bucket = bucket(txHash);
+        int lock = bucket & (locks.length - 1);
+        int first = bucket * WAYS;
+        byte[] address = sender.getBytes();
+        synchronized (locks[lock]) {
+            int target = -1;
+            long oldest = Long.MAX_VALUE;
+            for (int slot = first; slot < first + WAYS; slot++) {
+                long stamp = stamp(slot);
+                if (stamp != 0 && keyEquals(slot, txHash)) {
+                    target = slot;
+                    break;
+                }
+                if (stamp < oldest) {
+                    oldest = stamp;
+                    target = slot;
+                }
+            }
+            int pos = target * SLOT;
+            long stamp = stamp(target);
+            if (stamp == 0) {
+                size.incrementAndGet();
+            } else if (!keyEquals(target, txHash)) {
+                evicted();
+            }
+            for (int i = 0; i < KEY_SIZE; i++) {
+                data.put(pos + i, txHash[i]);
+            }
+            for (int i = 0; i < address.length; i++) {
+                data.put(pos + ADDRESS_OFFSET + i, address[i]);
+            }
+            data.putLong(pos + STAMP_OFFSET, ++clocks[lock]);
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return buckets * WAYS;
+    }
+
+    @Override
+    public int getSize() {
+        return size.get();
+    }
+
+    @Override
+    public void clear() {
+        for (int lock = 0; lock < locks.length; lock++) {
+            synchronized (locks[lock]) {
+                for (int bucket = lock; bucket < buckets; bucket += locks.length) {
+                    int first = bucket * WAYS;
+                    for (int slot = first; slot < first + WAYS; slot++) {
+                        if (stamp(slot) != 0) {
+                            data.putLong(slot * SLOT + STAMP_OFFSET, 0);
+                            size.decrementAndGet();
+                        }
+                    }
+                }
+                clocks[lock] = 0;
+            }
+        }
+        super.clear();
+    }
+}
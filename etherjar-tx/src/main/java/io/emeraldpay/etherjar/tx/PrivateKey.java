@@ -16,17 +16,20 @@
 package io.emeraldpay.etherjar.tx;
 
 import io.emeraldpay.etherjar.domain.Address;
+import io.emeraldpay.etherjar.domain.Keccak256;
 import io.emeraldpay.etherjar.hex.Hex32;
 import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
-import org.bouncycastle.jcajce.provider.digest.Keccak;
 import org.bouncycastle.math.ec.ECPoint;
-import org.bouncycastle.math.ec.FixedPointCombMultiplier;
 
 import java.math.BigInteger;
 
 public class PrivateKey {
 
     private final byte[] raw;
+    /**
+     * Public key derived from the private key on the first use
+     */
+    private volatile byte[] publicKey;
 
     private PrivateKey(byte[] raw) {
         this.raw = raw;
@@ -55,22 +58,31 @@ public class PrivateKey {
 
     public Address getAddress() {
         byte[] pubkey = getPublicKey();
-        Keccak.Digest256 digest = new Keccak.Digest256();
-        digest.update(pubkey);
-        byte[] hash = digest.digest();
+        byte[] hash = Keccak256.digest(pubkey);
 
         byte[] buf = new byte[20];
         System.arraycopy(hash, 12, buf, 0, 20);
         return Address.from(buf);
     }
 
+    /**
+     * Public key for the private key, as 64 bytes of X and Y coordinates (without the leading 0x04).
+     * It's derived once for the instance and then kept, so it's better to reuse an instance of the key.
+     *
+     * @return public key
+     */
     public byte[] getPublicKey() {
-        return PrivateKey.getPublicKey(new BigInteger(1, raw));
+        byte[] current = publicKey;
+        if (current == null) {
+            current = PrivateKey.getPublicKey(new BigInteger(1, raw));
+            publicKey = current;
+        }
+        //do not give reference to the cached value
+        return current.clone();
     }
 
     public static byte[] getPublicKey(BigInteger pk) {
-        FixedPointCombMultiplier mul = new FixedPointCombMultiplier();
-        ECPoint point = mul.multiply(Signer.CURVE_PARAMS.getG(), pk);
+        ECPoint point = FixedBaseMultiplier.multiply(pk);
         byte[] full = point.getEncoded(false);
         byte[] ethereum = new byte[full.length - 1];
         System.arraycopy(full, 1, ethereum, 0, ethereum.length);
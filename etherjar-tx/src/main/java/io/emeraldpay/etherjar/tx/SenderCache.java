@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2021 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.tx;
+
+import io.emeraldpay.etherjar.domain.Address;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded concurrent cache of recovered transaction senders, keyed by the transaction hash. Recovering a sender
+ * is an elliptic curve operation which takes ~200us, while the hash of a raw transaction is about a microsecond, so
+ * when the same transactions come again (ex. pending transactions from different peers) it saves most of the CPU.
+ * <p>
+ * Use with {@link SenderRecovery#SenderRecovery(java.util.concurrent.Executor, SenderCache)}.
+ * <p>
+ * There are two implementations:
+ * <ul>
+ *     <li>{@link #create(int)} - LRU on heap</li>
+ *     <li>{@link #createOffHeap(int)} - approximate LRU, with entries stored outside of the heap in a single direct
+ *     buffer of 64 bytes per entry, so a large cache doesn't add anything to scan for GC</li>
+ * </ul>
+ */
+public abstract class SenderCache {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param size maximum number of entries
+     * @return LRU cache on heap
+     */
+    public static SenderCache create(int size) {
+        return new HeapSenderCache(size);
+    }
+
+    /**
+     * @param size maximum number of entries, rounded up to a power of two
+     * @return cache stored off heap
+     */
+    public static SenderCache createOffHeap(int size) {
+        return new OffHeapSenderCache(size);
+    }
+
+    /**
+     * @param txHash hash of the transaction, 32 bytes
+     * @return sender of the transaction if it's cached, or null
+     */
+    public Address get(byte[] txHash) {
+        checkKey(txHash);
+        Address result = lookup(txHash);
+        if (result != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Remember sender of the transaction, may evict the least recently used entry
+     *
+     * @param txHash hash of the transaction, 32 bytes
+     * @param sender sender of the transaction
+     */
+    public void put(byte[] txHash, Address sender) {
+        checkKey(txHash);
+        if (sender == null) {
+            throw new NullPointerException("Sender is null");
+        }
+        store(txHash, sender);
+    }
+
+    protected abstract Address lookup(byte[] txHash);
+
+    protected abstract void store(byte[] txHash, Address sender);
+
+    protected void evicted() {
+        evictions.increment();
+    }
+
+    /**
+     * @return maximum number of entries
+     */
+    public abstract int getCapacity();
+
+    /**
+     * @return current number of entries
+     */
+    public abstract int getSize();
+
+    /**
+     * @return number of lookups which found the sender
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of lookups which didn't find the sender
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of entries removed to give space to new entries
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return ratio of hits to all lookups, or 0 if there were no lookups
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        if (total == 0) {
+            return 0;
+        }
+        return (double) hits / total;
+    }
+
+    /**
+     * Remove all entries and reset the stats
+     */
+    public void clear() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    private static void checkKey(byte[] txHash) {
+        if (txHash == null || txHash.length != 32) {
+            throw new IllegalArgumentException("Transaction hash must be 32 bytes");
+        }
+    }
+}
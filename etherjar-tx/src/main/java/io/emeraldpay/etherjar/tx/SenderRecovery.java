@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2021 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.tx;
+
+import io.emeraldpay.etherjar.domain.Address;
+import io.emeraldpay.etherjar.domain.Keccak256;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Recovers senders of many transactions at once, i.e. for a whole block, running the elliptic curve operations
+ * in parallel.
+ * <p>
+ * Unlike {@link Transaction#extractFrom()} it doesn't modify the transactions. A sender which cannot be recovered
+ * (transaction is not signed, signature or raw data is invalid) is returned as null, without failing the batch.
+ * <p>
+ * With a {@link SenderCache} it looks for the transaction hash in the cache first, and recovers only the senders
+ * it doesn't know yet. For a raw transaction the hash is taken directly from the input, i.e. a cached sender doesn't
+ * even need to decode the transaction.
+ */
+public class SenderRecovery {
+
+    private static final TransactionEncoder ENCODER = new TransactionEncoder();
+
+    private final TransactionDecoder decoder = new TransactionDecoder();
+    private final Executor executor;
+    private final SenderCache cache;
+
+    /**
+     * Recovery on the common {@link ForkJoinPool}
+     */
+    public SenderRecovery() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor executor to run the recovery on
+     */
+    public SenderRecovery(Executor executor) {
+        this(executor, null);
+    }
+
+    /**
+     * Recovery on the common {@link ForkJoinPool}
+     *
+     * @param cache cache of already known senders
+     */
+    public SenderRecovery(SenderCache cache) {
+        this(ForkJoinPool.commonPool(), cache);
+    }
+
+    /**
+     * @param executor executor to run the recovery on
+     * @param cache cache of already known senders, or null to always recover
+     */
+    public SenderRecovery(Executor executor, SenderCache cache) {
+        this.executor = executor;
+        this.cache = cache;
+    }
+
+    /**
+     * @return cache used by the recovery, or null if not set
+     */
+    public SenderCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Recover sender of a single transaction, on the current thread
+     *
+     * @param tx signed transaction
+     * @return sender address, or null if cannot be recovered
+     */
+    public Address recover(Transaction tx) {
+        if (tx == null || !tx.isSigned()) {
+            return null;
+        }
+        if (cache == null) {
+            return recoverSignature(tx);
+        }
+        byte[] raw;
+        if (tx instanceof TransactionWithAccess) {
+            raw = ENCODER.encode((TransactionWithAccess) tx, true);
+        } else {
+            raw = ENCODER.encode(tx, true);
+        }
+        byte[] txHash = Keccak256.digest(raw);
+        Address sender = cache.get(txHash);
+        if (sender == null) {
+            sender = recoverSignature(tx);
+            if (sender != null) {
+                cache.put(txHash, sender);
+            }
+        }
+        return sender;
+    }
+
+    private Address recoverSignature(Transaction tx) {
+        Signature signature = tx.getSignature();
+        if (signature.getR() == null || signature.getS() == null) {
+            return null;
+        }
+        byte[] message = signature.getMessage();
+        if (message == null) {
+            message = tx.hash();
+        }
+        byte[] pubkey = Signer.ecrecover(signature.getRecId(), message, signature.getR(), signature.getS());
+        if (pubkey == null) {
+            return null;
+        }
+        byte[] hash = Keccak256.digest(pubkey);
+        byte[] address = new byte[Address.SIZE_BYTES];
+        System.arraycopy(hash, hash.length - Address.SIZE_BYTES, address, 0, Address.SIZE_BYTES);
+        return Address.from(address);
+    }
+
+    /**
+     * Recover sender of a single raw transaction, on the current thread
+     *
+     * @param raw RLP encoded signed transaction
+     * @return sender address, or null if cannot be recovered
+     */
+    public Address recoverRaw(byte[] raw) {
+        if (raw == null) {
+            return null;
+        }
+        byte[] txHash = null;
+        if (cache != null) {
+            txHash = Keccak256.digest(raw);
+            Address cached = cache.get(txHash);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Transaction tx;
+        try {
+            tx = decoder.decode(raw);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        if (tx == null || !tx.isSigned()) {
+            return null;
+        }
+        Address sender = recoverSignature(tx);
+        if (sender != null && txHash != null) {
+            cache.put(txHash, sender);
+        }
+        return sender;
+    }
+
+    /**
+     * @param txs signed transactions, ex. as decoded by {@link TransactionDecoder}
+     * @return senders in the same order as transactions
+     */
+    public List<Address> recoverAll(List<? extends Transaction> txs) {
+        return recoverAllAsync(txs).join();
+    }
+
+    /**
+     * @param txs signed transactions, ex. as decoded by {@link TransactionDecoder}
+     * @return future senders in the same order as transactions
+     */
+    public CompletableFuture<List<Address>> recoverAllAsync(List<? extends Transaction> txs) {
+        return Batches.mapAsync(txs, (i, tx) -> recoverSafe(tx), executor);
+    }
+
+    /**
+     * @param raw RLP encoded signed transactions
+     * @return senders in the same order as transactions
+     */
+    public List<Address> recoverAllRaw(List<byte[]> raw) {
+        return recoverAllRawAsync(raw).join();
+    }
+
+    /**
+     * @param raw RLP encoded signed transactions
+     * @return future senders in the same order as transactions
+     */
+    public CompletableFuture<List<Address>> recoverAllRawAsync(List<byte[]> raw) {
+        return Batches.mapAsync(raw, (i, item) -> recoverRaw(item), executor);
+    }
+
+    private Address recoverSafe(Transaction tx) {
+        try {
+            return recover(tx);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2021 EmeraldPay Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.emeraldpay.etherjar.tx;
+
+/**
+ * Result of signing a single transaction in a batch, see {@link Signer#signAll(java.util.List, PrivateKey)}.
+ * Either has the signed raw transaction or the error which happened with this transaction.
+ */
+public class SignResult {
+
+    private final int index;
+    private final Transaction transaction;
+    private final Signature signature;
+    private final byte[] raw;
+    private final Throwable error;
+
+    private SignResult(int index, Transaction transaction, Signature signature, byte[] raw, Throwable error) {
+        this.index = index;
+        this.transaction = transaction;
+        this.signature = signature;
+        this.raw = raw;
+        this.error = error;
+    }
+
+    static SignResult success(int index, Transaction transaction, Signature signature, byte[] raw) {
+        return new SignResult(index, transaction, signature, raw, null);
+    }
+
+    static SignResult failure(int index, Transaction transaction, Throwable error) {
+        return new SignResult(index, transaction, null, null, error);
+    }
+
+    /**
+     * @return position of the transaction in the original batch
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return original transaction
+     */
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return signature, or null if failed to sign
+     */
+    public Signature getSignature() {
+        return signature;
+    }
+
+    /**
+     * @return signed transaction encoded as RLP, ready to broadcast, or null if failed to sign
+     */
+    public byte[] getRaw() {
+        return raw;
+    }
+
+    /**
+     * @return error which happened during signing, or null if it was successful
+     */
+    public Throwable getError() {
+        return error;
+    }
+}
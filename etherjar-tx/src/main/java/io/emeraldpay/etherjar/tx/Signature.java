@@ -17,7 +17,7 @@
 package io.emeraldpay.etherjar.tx;
 
 import io.emeraldpay.etherjar.domain.Address;
-import org.bouncycastle.jcajce.provider.digest.Keccak;
+import io.emeraldpay.etherjar.domain.Keccak256;
 
 import java.math.BigInteger;
 
@@ -93,9 +93,7 @@ public class Signature {
             if (pubkey == null) {
                 return null;
             }
-            Keccak.Digest256 digest = new Keccak.Digest256();
-            digest.update(pubkey);
-            byte[] hash = digest.digest();
+            byte[] hash = Keccak256.digest(pubkey);
 
             byte[] buf = new byte[20];
             System.arraycopy(hash, 12, buf, 0, 20);
@@ -16,6 +16,7 @@
 package io.emeraldpay.etherjar.tx;
 
 import io.emeraldpay.etherjar.domain.Address;
+import io.emeraldpay.etherjar.domain.Keccak256;
 import io.emeraldpay.etherjar.hex.Hex32;
 import io.emeraldpay.etherjar.hex.HexData;
 import io.emeraldpay.etherjar.hex.HexQuantity;
@@ -23,9 +24,7 @@ import org.bouncycastle.asn1.x9.X9ECParameters;
 import org.bouncycastle.crypto.digests.SHA256Digest;
 import org.bouncycastle.crypto.ec.CustomNamedCurves;
 import org.bouncycastle.crypto.params.ECDomainParameters;
-import org.bouncycastle.crypto.signers.ECDSASigner;
 import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
-import org.bouncycastle.jcajce.provider.digest.Keccak;
 import org.bouncycastle.math.ec.ECAlgorithms;
 import org.bouncycastle.math.ec.ECFieldElement;
 import org.bouncycastle.math.ec.ECPoint;
@@ -33,12 +32,18 @@ import org.bouncycastle.math.ec.custom.sec.SecP256K1Curve;
 
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 public class Signer {
 
     public static final ECDomainParameters CURVE_PARAMS;
     public static final SecP256K1Curve CURVE;
     private static final BigInteger CURVE_ORDER;
+    private static final byte[] MESSAGE_PREFIX = "\u0019Ethereum Signed Message:\n".getBytes();
+    private static final TransactionEncoder ENCODER = new TransactionEncoder();
 
     static {
         X9ECParameters params = CustomNamedCurves.getByName("secp256k1");
@@ -146,12 +151,11 @@ public class Signer {
     }
 
     protected byte[] getMessageHash(byte[] msg) {
-        Keccak.Digest256 digest = new Keccak.Digest256();
-        digest.update((byte)0x19);
-        digest.update("Ethereum Signed Message:\n".getBytes());
-        digest.update(Integer.toString(msg.length).getBytes());
-        digest.update(msg);
-        return digest.digest();
+        return Keccak256.digestConcat(
+            MESSAGE_PREFIX,
+            Integer.toString(msg.length).getBytes(),
+            msg
+        );
     }
 
     private byte[] toBytes(BigInteger value) {
@@ -179,22 +183,103 @@ public class Signer {
         return tx.hash(chainId);
     }
 
+    /**
+     * Sign a batch of transactions in parallel on the common {@link ForkJoinPool}.
+     *
+     * @param txs transactions to sign
+     * @param pk signer private key
+     * @return results in the same order as the transactions
+     * @see #signAll(List, PrivateKey, Executor)
+     */
+    public List<SignResult> signAll(List<? extends Transaction> txs, PrivateKey pk) {
+        return signAll(txs, pk, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sign a batch of transactions in parallel on the provided executor. Each transaction gets the signature set
+     * (as with {@link Transaction#setSignature(Signature)}) and is encoded into raw bytes. A failure of a single transaction
+     * doesn't stop the batch, it's reported in the result for that transaction.
+     *
+     * @param txs transactions to sign
+     * @param pk signer private key
+     * @param executor executor to sign on
+     * @return results in the same order as the transactions
+     */
+    public List<SignResult> signAll(List<? extends Transaction> txs, PrivateKey pk, Executor executor) {
+        return signAllAsync(txs, pk, executor).join();
+    }
+
+    /**
+     * Sign a batch of transactions in parallel on the provided executor, without blocking the current thread.
+     *
+     * @param txs transactions to sign
+     * @param pk signer private key
+     * @param executor executor to sign on
+     * @return future results in the same order as the transactions
+     * @see #signAll(List, PrivateKey, Executor)
+     */
+    public CompletableFuture<List<SignResult>> signAllAsync(List<? extends Transaction> txs, PrivateKey pk, Executor executor) {
+        return Batches.mapAsync(txs, (i, tx) -> signItem(i, tx, pk), executor);
+    }
+
+    private SignResult signItem(int index, Transaction tx, PrivateKey pk) {
+        try {
+            Signature signature = sign(tx, pk);
+            tx.setSignature(signature);
+            byte[] raw;
+            if (tx instanceof TransactionWithAccess) {
+                raw = ENCODER.encode((TransactionWithAccess) tx, true);
+            } else {
+                raw = ENCODER.encode(tx, true);
+            }
+            return SignResult.success(index, tx, signature, raw);
+        } catch (Exception e) {
+            return SignResult.failure(index, tx, e);
+        }
+    }
+
+    /**
+     * Sign the hash with deterministic ECDSA (RFC 6979). The recovery id is taken from the parity of Y of the
+     * random point {@code R} produced during the signing, so it doesn't need to recover the public key afterwards.
+     *
+     * @param hash hash to sign
+     * @param key signer private key
+     * @param type type of the signature to produce, one of {@link Signature}, {@link SignatureEIP155} or {@link SignatureEIP2930}
+     * @param <T> type of the signature
+     * @return signature
+     */
     @SuppressWarnings("unchecked")
     public <T extends Signature> T create(byte[] hash, PrivateKey key, Class<T> type) {
-        ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
-        signer.init(true, key.getECKey());
-        BigInteger[] signature = signer.generateSignature(hash);
-        if (signature.length != 2) {
-            throw new IllegalStateException("Invalid signature components: " + signature.length);
-        }
-        BigInteger r = signature[0];
-        BigInteger s = signature[1];
+        BigInteger n = CURVE_PARAMS.getN();
+        BigInteger d = new BigInteger(1, key.getRaw());
+        BigInteger e = calculateE(n, hash);
+
+        HMacDSAKCalculator kCalculator = new HMacDSAKCalculator(new SHA256Digest());
+        kCalculator.init(n, d, hash);
+
+        BigInteger r, s;
+        int y;
+        do {
+            BigInteger k;
+            ECPoint p;
+            do {
+                k = kCalculator.nextK();
+                p = FixedBaseMultiplier.multiply(k);
+                BigInteger x = p.getAffineXCoord().toBigInteger();
+                // x >= n would need recovery id 2 or 3, which cannot be encoded in Ethereum signature.
+                // Practically never happens with secp256k1 (probability is about 2^-128)
+                r = x.compareTo(n) < 0 ? x : BigInteger.ZERO;
+            } while (r.signum() == 0);
+            y = p.getAffineYCoord().testBitZero() ? 1 : 0;
+            s = k.modInverse(n).multiply(e.add(d.multiply(r))).mod(n);
+        } while (s.signum() == 0);
+
         if (s.compareTo(CURVE_ORDER) > 0) {
-            s = CURVE_PARAMS.getN().subtract(s);
+            // use low S, which is a signature for the point -R, i.e. with the opposite Y
+            s = n.subtract(s);
+            y ^= 1;
         }
-        byte[] publicKey = key.getPublicKey();
 
-        int y = getY(hash, r, s, publicKey);
         if (SignatureEIP155.class.equals(type)) {
             return (T) new SignatureEIP155(chainId, hash, Eip155.toV(y, chainId), r, s);
         }
@@ -204,6 +289,29 @@ public class Signer {
         return (T) new Signature(hash, 27 + y, r, s);
     }
 
+    /**
+     * Same as in BouncyCastle {@code ECDSASigner}, the hash truncated to the bit length of the curve order
+     */
+    private static BigInteger calculateE(BigInteger n, byte[] hash) {
+        int log2n = n.bitLength();
+        int messageBitLength = hash.length * 8;
+        BigInteger e = new BigInteger(1, hash);
+        if (log2n < messageBitLength) {
+            e = e.shiftRight(messageBitLength - log2n);
+        }
+        return e;
+    }
+
+    /**
+     * Find recovery id by recovering public keys for both possible values, which is two additional elliptic curve
+     * multiplications. Not used by {@link #create(byte[], PrivateKey, Class)} anymore.
+     *
+     * @param hash signed hash
+     * @param r R of the signature
+     * @param s S of the signature
+     * @param publicKey public key of the signer
+     * @return recovery id, 0 or 1
+     */
     public int getY(byte[] hash, BigInteger r, BigInteger s, byte[] publicKey) {
         byte[] pub0 = ecrecover(0, hash, r, s);
         if (Arrays.equals(publicKey, pub0)) {
@@ -228,10 +336,12 @@ public class Signer {
     // see https://github.com/bitcoinj/bitcoinj/blob/master/core/src/main/java/org/bitcoinj/core/ECKey.java
     protected static byte[] ecrecover(int recId, byte[] message, BigInteger r, BigInteger s) {
         BigInteger n = CURVE_PARAMS.getN();
+        if (recId < 0 || r.signum() <= 0 || s.signum() <= 0 || r.compareTo(n) >= 0 || s.compareTo(n) >= 0) {
+            return null;
+        }
 
         // Let x = r + jn
-        BigInteger i = BigInteger.valueOf((long)recId / 2);
-        BigInteger x = r.add(i.multiply(n));
+        BigInteger x = recId < 2 ? r : r.add(BigInteger.valueOf(recId / 2).multiply(n));
 
         if (x.compareTo(CURVE.getQ()) >= 0) {
             // Cannot have point co-ordinates larger than this as everything takes place modulo Q.
@@ -240,9 +350,10 @@ public class Signer {
 
         // Compressed keys require you to know an extra bit of data about the y-coord as there are two possibilities.
         // So it's encoded in the recId.
+        // Note that the original code also verifies that nR is the point at infinity, but for secp256k1 the cofactor
+        // is 1, so any point on the curve has order n and that check is not needed
         ECPoint R = decompressKey(x, (recId & 1) == 1);
-        if (!R.multiply(n).isInfinity()) {
-            // If nR != point at infinity, then recId (i.e. v) is invalid
+        if (R == null) {
             return null;
         }
 
@@ -255,16 +366,15 @@ public class Signer {
         // Where -e is the modular additive inverse of e, that is z such that z + e = 0 (mod n).
         // In the above equation, ** is point multiplication and + is point addition (the EC group operator).
         //
-        // We can find the additive inverse by subtracting e from zero then taking the mod. For example the additive
-        // inverse of 3 modulo 11 is 8 because 3 + 8 mod 11 = 0, and -3 mod 11 = 8.
-        //
         BigInteger e = new BigInteger(1, message);
-        BigInteger eInv = BigInteger.ZERO.subtract(e).mod(n);
         BigInteger rInv = r.modInverse(n);
         BigInteger srInv = rInv.multiply(s).mod(n);
-        BigInteger eInvrInv = rInv.multiply(eInv).mod(n);
+        BigInteger eInvrInv = rInv.multiply(e).negate().mod(n);
 
-        ECPoint q = ECAlgorithms.sumOfTwoMultiplies(CURVE_PARAMS.getG(), eInvrInv, R, srInv);
+        ECPoint q = ECAlgorithms.sumOfTwoMultiplies(CURVE_PARAMS.getG(), eInvrInv, R, srInv).normalize();
+        if (q.isInfinity()) {
+            return null;
+        }
 
         // For Ethereum we don't use first byte of the key
         byte[] full = q.getEncoded(false);
@@ -278,22 +388,18 @@ public class Signer {
      *
      * @param xBN X-coordinate
      * @param yBit Sign of Y-coordinate
-     * @return Uncompressed public key
+     * @return Uncompressed public key, or null if X is not a coordinate of a point on the curve
      */
     private static ECPoint decompressKey(BigInteger xBN, boolean yBit) {
         ECFieldElement x = CURVE.fromBigInteger(xBN);
-        ECFieldElement alpha = x.multiply(x.square().add(CURVE.getA())).add(CURVE.getB());
+        ECFieldElement alpha = x.square().add(CURVE.getA()).multiply(x).add(CURVE.getB());
         ECFieldElement beta = alpha.sqrt();
-        if (beta == null)
-            throw new IllegalArgumentException("Invalid point compression");
-        ECPoint ecPoint;
-        BigInteger nBeta = beta.toBigInteger();
-        if (nBeta.testBit(0) == yBit) {
-            ecPoint = CURVE.createPoint(x.toBigInteger(), nBeta);
-        } else {
-            ECFieldElement y = CURVE.fromBigInteger(CURVE.getQ().subtract(nBeta));
-            ecPoint = CURVE.createPoint(x.toBigInteger(), y.toBigInteger());
+        if (beta == null) {
+            return null;
+        }
+        if (beta.testBitZero() != yBit) {
+            beta = beta.negate();
         }
-        return ecPoint;
+        return CURVE.createPoint(xBN, beta.toBigInteger());
     }
 }
@@ -17,10 +17,10 @@
 package io.emeraldpay.etherjar.tx;
 
 import io.emeraldpay.etherjar.domain.Address;
+import io.emeraldpay.etherjar.domain.Keccak256;
 import io.emeraldpay.etherjar.domain.TransactionId;
 import io.emeraldpay.etherjar.domain.Wei;
 import io.emeraldpay.etherjar.hex.HexData;
-import org.bouncycastle.jcajce.provider.digest.Keccak;
 
 import java.math.BigInteger;
 
@@ -128,15 +128,12 @@ public class Transaction {
      * @see io.emeraldpay.etherjar.domain.TransactionId
      */
     public byte[] hash() {
-        return hash(signature != null && signature instanceof SignatureEIP155 ? 1 : null);
+        return hash(signature instanceof SignatureEIP155 ? ((SignatureEIP155) signature).getChainId() : null);
     }
 
     public byte[] hash(Integer chainId) {
         byte[] rlp = ENCODER.encode(this, false, chainId);
-
-        Keccak.Digest256 keccak = new Keccak.Digest256();
-        keccak.update(rlp);
-        return keccak.digest();
+        return Keccak256.digest(rlp);
     }
 
     public TransactionId transactionId() {
@@ -144,10 +141,7 @@ public class Transaction {
             throw new IllegalStateException("Transaction is not signed");
         }
         byte[] rlp = ENCODER.encode(this,true);
-
-        Keccak.Digest256 keccak = new Keccak.Digest256();
-        keccak.update(rlp);
-        return TransactionId.from(keccak.digest());
+        return TransactionId.from(Keccak256.digest(rlp));
     }
 
 }
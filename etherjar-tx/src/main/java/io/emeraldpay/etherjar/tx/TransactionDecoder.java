@@ -41,6 +41,19 @@ public class TransactionDecoder {
         throw new IllegalArgumentException("Unsupported transaction type: " + type);
     }
 
+    /**
+     * Index the raw transaction without decoding its fields, which are decoded only when accessed. Suitable when only
+     * a few fields are needed, ex. recipient and method of a contract call.
+     *
+     * @param raw encoded transaction, legacy or EIP-2930
+     * @return lazy view over the raw transaction
+     * @throws IllegalArgumentException if RLP is invalid or has wrong structure
+     * @see LazyTransaction
+     */
+    public LazyTransaction decodeLazy(byte[] raw) {
+        return new LazyTransaction(raw);
+    }
+
     /**
      * Decode transaction from an RLP encoded data
      *
@@ -123,26 +136,7 @@ public class TransactionDecoder {
         this.readMainPart(rdr, tx);
 
         if (rdr.hasNext() && rdr.getType() == RlpType.LIST) {
-            RlpReader accessListRdr = rdr.nextList();
-            List<TransactionWithAccess.Access> accessList = new ArrayList<>();
-
-            while (accessListRdr.hasNext()) {
-                RlpReader accessItemRdr = accessListRdr.nextList();
-                Address address = Address.from(accessItemRdr.next());
-                RlpReader storageListRdr = accessItemRdr.nextList();
-                List<Hex32> storageList = new ArrayList<>();
-                while (storageListRdr.hasNext()) {
-                    storageList.add(Hex32.from(storageListRdr.next()));
-                }
-                accessList.add(new TransactionWithAccess.Access(address, storageList));
-                if (!accessItemRdr.isConsumed()) {
-                    throw new IllegalArgumentException("Transaction has invalid RLP encoding. Invalid value: Access List Item");
-                }
-            }
-            if (!accessListRdr.isConsumed()) {
-                throw new IllegalArgumentException("Transaction has invalid RLP encoding. Invalid value: Access List");
-            }
-            tx.setAccessList(accessList);
+            tx.setAccessList(readAccessList(rdr.nextList()));
         } else {
             throw new IllegalArgumentException("Transaction has invalid RLP encoding. Not a list: Access List");
         }
@@ -179,6 +173,27 @@ public class TransactionDecoder {
         return tx;
     }
 
+    static List<TransactionWithAccess.Access> readAccessList(RlpReader accessListRdr) {
+        List<TransactionWithAccess.Access> accessList = new ArrayList<>();
+        while (accessListRdr.hasNext()) {
+            RlpReader accessItemRdr = accessListRdr.nextList();
+            Address address = Address.from(accessItemRdr.next());
+            RlpReader storageListRdr = accessItemRdr.nextList();
+            List<Hex32> storageList = new ArrayList<>();
+            while (storageListRdr.hasNext()) {
+                storageList.add(Hex32.from(storageListRdr.next()));
+            }
+            accessList.add(new TransactionWithAccess.Access(address, storageList));
+            if (!accessItemRdr.isConsumed()) {
+                throw new IllegalArgumentException("Transaction has invalid RLP encoding. Invalid value: Access List Item");
+            }
+        }
+        if (!accessListRdr.isConsumed()) {
+            throw new IllegalArgumentException("Transaction has invalid RLP encoding. Invalid value: Access List");
+        }
+        return accessList;
+    }
+
     protected void readMainPart(RlpReader rdr, Transaction tx) {
         if (rdr.hasNext() && rdr.getType() == RlpType.BYTES) {
             tx.setNonce(rdr.nextLong());
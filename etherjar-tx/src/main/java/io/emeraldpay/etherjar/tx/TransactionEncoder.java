@@ -19,129 +19,403 @@ import io.emeraldpay.etherjar.hex.Hex32;
 import io.emeraldpay.etherjar.hex.HexData;
 import io.emeraldpay.etherjar.rlp.RlpWriter;
 
-import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 
+/**
+ * Encodes transactions as RLP.
+ * <p>
+ * The exact length of the result is computed first, so the RLP is written directly into the target, either a new array
+ * or a caller provided {@link ByteBuffer}, without any intermediate buffers. With {@link #encodeHex(Transaction, ByteBuffer)}
+ * a signed transaction goes straight into a hex string of a request body.
+ */
 public class TransactionEncoder {
 
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
     public byte[] encode(Transaction tx, boolean includeSignature) {
-        if (includeSignature) {
-            return encode(tx, true, null);
-        } else {
-            Signature signature = tx.getSignature();
-            if (signature instanceof SignatureEIP155) {
-                int chainId = ((SignatureEIP155)signature).getChainId();
-                return encode(tx, false, chainId);
-            } else {
-                throw new IllegalStateException("Neigher signature not chainId specified");
-            }
-        }
+        return encode(tx, includeSignature, chainIdToSign(tx, includeSignature));
     }
 
     public byte[] encode(Transaction tx, boolean includeSignature, Integer chainId) {
-        RlpWriter wrt = new RlpWriter();
-        wrt.startList()
-            .write(tx.getNonce())
-            .write(tx.getGasPrice().getAmount())
-            .write(tx.getGas());
-        if (tx.getTo() != null) {
-            wrt.write(tx.getTo().getBytes());
+        int payload = payloadLength(tx, includeSignature, chainId);
+        byte[] result = new byte[RlpWriter.encodedListLength(payload)];
+        write(tx, includeSignature, chainId, payload, ByteBuffer.wrap(result));
+        return result;
+    }
+
+    public byte[] encode(TransactionWithAccess tx, boolean includeSignature) {
+        int payload = payloadLength(tx, includeSignature);
+        byte[] result = new byte[1 + RlpWriter.encodedListLength(payload)];
+        write(tx, includeSignature, payload, ByteBuffer.wrap(result));
+        return result;
+    }
+
+    /**
+     * Exact length of the encoded transaction, i.e. the size of array produced by {@link #encode(Transaction, boolean)}
+     *
+     * @param tx transaction
+     * @param includeSignature true to encode with the signature
+     * @return length of the encoded transaction
+     */
+    public int getEncodedLength(Transaction tx, boolean includeSignature) {
+        return getEncodedLength(tx, includeSignature, chainIdToSign(tx, includeSignature));
+    }
+
+    /**
+     * Exact length of the encoded transaction, i.e. the size of array produced by {@link #encode(Transaction, boolean, Integer)}
+     *
+     * @param tx transaction
+     * @param includeSignature true to encode with the signature
+     * @param chainId chain id to include into an unsigned transaction, or null
+     * @return length of the encoded transaction
+     */
+    public int getEncodedLength(Transaction tx, boolean includeSignature, Integer chainId) {
+        return RlpWriter.encodedListLength(payloadLength(tx, includeSignature, chainId));
+    }
+
+    /**
+     * Exact length of the encoded transaction, i.e. the size of array produced by {@link #encode(TransactionWithAccess, boolean)}
+     *
+     * @param tx transaction
+     * @param includeSignature true to encode with the signature
+     * @return length of the encoded transaction, including the type prefix
+     */
+    public int getEncodedLength(TransactionWithAccess tx, boolean includeSignature) {
+        return 1 + RlpWriter.encodedListLength(payloadLength(tx, includeSignature));
+    }
+
+    /**
+     * Encode into the provided buffer, starting at its current position
+     *
+     * @param tx transaction
+     * @param includeSignature true to encode with the signature
+     * @param dest target buffer, its position is moved to the end of the written data
+     * @return number of bytes written
+     * @throws BufferOverflowException if the encoded transaction doesn't fit into the buffer, the buffer stays unchanged
+     */
+    public int encodeTo(Transaction tx, boolean includeSignature, ByteBuffer dest) {
+        return encodeTo(tx, includeSignature, chainIdToSign(tx, includeSignature), dest);
+    }
+
+    /**
+     * Encode into the provided buffer, starting at its current position
+     *
+     * @param tx transaction
+     * @param includeSignature true to encode with the signature
+     * @param chainId chain id to include into an unsigned transaction, or null
+     * @param dest target buffer, its position is moved to the end of the written data
+     * @return number of bytes written
+     * @throws BufferOverflowException if the encoded transaction doesn't fit into the buffer, the buffer stays unchanged
+     */
+    public int encodeTo(Transaction tx, boolean includeSignature, Integer chainId, ByteBuffer dest) {
+        int payload = payloadLength(tx, includeSignature, chainId);
+        int length = RlpWriter.encodedListLength(payload);
+        if (dest.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        write(tx, includeSignature, chainId, payload, dest);
+        return length;
+    }
+
+    /**
+     * Encode into the provided buffer, starting at its current position
+     *
+     * @param tx transaction
+     * @param includeSignature true to encode with the signature
+     * @param dest target buffer, its position is moved to the end of the written data
+     * @return number of bytes written
+     * @throws BufferOverflowException if the encoded transaction doesn't fit into the buffer, the buffer stays unchanged
+     */
+    public int encodeTo(TransactionWithAccess tx, boolean includeSignature, ByteBuffer dest) {
+        int payload = payloadLength(tx, includeSignature);
+        int length = 1 + RlpWriter.encodedListLength(payload);
+        if (dest.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        write(tx, includeSignature, payload, dest);
+        return length;
+    }
+
+    /**
+     * Encode a signed transaction as a hex string with {@code 0x} prefix, written as ASCII bytes into the provided buffer,
+     * i.e. as a value for {@code eth_sendRawTransaction}. The RLP is written into the tail of the same space and then
+     * expanded to hex in place, so nothing else is allocated.
+     * <p>
+     * Requires {@code 2 + 2 * length} bytes remaining in the buffer, where length is provided by {@code getEncodedLength}.
+     *
+     * @param tx signed transaction, a {@link TransactionWithAccess} is encoded with its type
+     * @param dest target buffer, its position is moved to the end of the written data
+     * @return number of bytes written
+     * @throws BufferOverflowException if the hex doesn't fit into the buffer, the buffer stays unchanged
+     */
+    public int encodeHex(Transaction tx, ByteBuffer dest) {
+        int length;
+        if (tx instanceof TransactionWithAccess) {
+            length = getEncodedLength((TransactionWithAccess) tx, true);
         } else {
-            wrt.write(new byte[0]);
+            length = getEncodedLength(tx, true, null);
         }
-        if (tx.getValue() != null) {
-            wrt.write(tx.getValue().getAmount());
+        int total = 2 + length * 2;
+        if (dest.remaining() < total) {
+            throw new BufferOverflowException();
+        }
+        int start = dest.position();
+        int rlp = start + 2 + length;
+        ByteBuffer tail = dest.duplicate();
+        tail.position(rlp);
+        if (tx instanceof TransactionWithAccess) {
+            encodeTo((TransactionWithAccess) tx, true, tail);
         } else {
-            wrt.write(new byte[0]);
+            encodeTo(tx, true, null, tail);
         }
+        dest.put(start, (byte) '0');
+        dest.put(start + 1, (byte) 'x');
+        // the byte at i is read before its position is overwritten by the hex chars of the previous bytes
+        for (int i = 0; i < length; i++) {
+            int b = dest.get(rlp + i) & 0xff;
+            dest.put(start + 2 + i * 2, (byte) HEX_DIGITS[b >>> 4]);
+            dest.put(start + 3 + i * 2, (byte) HEX_DIGITS[b & 0x0f]);
+        }
+        dest.position(start + total);
+        return total;
+    }
 
-        HexData data = tx.getData();
-        if (data != null) {
-            wrt.write(data.getBytes());
+    private static Integer chainIdToSign(Transaction tx, boolean includeSignature) {
+        if (includeSignature) {
+            return null;
+        }
+        Signature signature = tx.getSignature();
+        if (signature instanceof SignatureEIP155) {
+            return ((SignatureEIP155) signature).getChainId();
         } else {
-            wrt.write(new byte[0]);
+            throw new IllegalStateException("Neigher signature not chainId specified");
         }
+    }
 
+    private static Signature requireSignature(Transaction tx) {
+        Signature signature = tx.getSignature();
+        if (signature == null) {
+            throw new NullPointerException("Signature is not set for transaction");
+        }
+        return signature;
+    }
+
+    private int payloadLength(Transaction tx, boolean includeSignature, Integer chainId) {
+        int length = mainPartLength(tx);
         if (includeSignature) {
-            Signature signature = tx.getSignature();
-            if (signature == null) {
-                throw new NullPointerException("Signature is not set for transaction");
-            }
-            wrt.write(signature.getV())
-                .write(signature.getR())
-                .write(signature.getS());
+            Signature signature = requireSignature(tx);
+            length += RlpWriter.encodedLength(signature.getV())
+                + RlpWriter.encodedLength(signature.getR())
+                + RlpWriter.encodedLength(signature.getS());
         } else if (chainId != null) {
             // if EIP-155 include chain id and empty r,s
-            wrt.write(chainId.byteValue())
-                .write(0)
-                .write(0);
+            length += byteLength(chainId.byteValue()) + 2;
         }
-        wrt.closeList();
-        return wrt.toByteArray();
+        return length;
     }
 
-    public byte[] encode(TransactionWithAccess tx, boolean includeSignature) {
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-        buffer.write(1);
-        RlpWriter wrt = new RlpWriter(buffer);
-        wrt.startList()
-            .write(Integer.valueOf(tx.getChainId()).byteValue())
-            .write(tx.getNonce())
-            .write(tx.getGasPrice().getAmount())
-            .write(tx.getGas());
-        if (tx.getTo() != null) {
-            wrt.write(tx.getTo().getBytes());
-        } else {
-            wrt.write(new byte[0]);
+    private void write(Transaction tx, boolean includeSignature, Integer chainId, int payload, ByteBuffer dest) {
+        putListHeader(dest, payload);
+        writeMainPart(tx, dest);
+        if (includeSignature) {
+            Signature signature = tx.getSignature();
+            putLong(dest, signature.getV());
+            putBigInt(dest, signature.getR());
+            putBigInt(dest, signature.getS());
+        } else if (chainId != null) {
+            putByte(dest, chainId.byteValue());
+            putLong(dest, 0);
+            putLong(dest, 0);
         }
-        if (tx.getValue() != null) {
-            wrt.write(tx.getValue().getAmount());
-        } else {
-            wrt.write(new byte[0]);
+    }
+
+    private int payloadLength(TransactionWithAccess tx, boolean includeSignature) {
+        int length = byteLength(Integer.valueOf(tx.getChainId()).byteValue())
+            + mainPartLength(tx)
+            + RlpWriter.encodedListLength(accessListLength(tx));
+        if (includeSignature) {
+            Signature signature = tx.getSignature();
+            if (signature == null) {
+                // just empty signature
+                length += 3;
+            } else if (signature instanceof SignatureEIP2930) {
+                int yParity = ((SignatureEIP2930) signature).getYParity();
+                length += (yParity == 0 ? 1 : byteLength(Integer.valueOf(yParity).byteValue()))
+                    + RlpWriter.encodedLength(signature.getR())
+                    + RlpWriter.encodedLength(signature.getS());
+            } else {
+                throw new ClassCastException("Required signature " + SignatureEIP2930.class.getName() + " but have " + signature.getClass().getName());
+            }
         }
+        return length;
+    }
 
-        HexData data = tx.getData();
-        if (data != null) {
-            wrt.write(data.getBytes());
-        } else {
-            wrt.write(new byte[0]);
+    private int accessListLength(TransactionWithAccess tx) {
+        int length = 0;
+        for (TransactionWithAccess.Access access: tx.getAccessList()) {
+            length += RlpWriter.encodedListLength(accessLength(access));
         }
+        return length;
+    }
+
+    private int accessLength(TransactionWithAccess.Access access) {
+        int keys = 0;
+        for (Hex32 storageKey: access.getStorageKeys()) {
+            keys += dataLength(storageKey);
+        }
+        return dataLength(access.getAddress()) + RlpWriter.encodedListLength(keys);
+    }
 
-        wrt.startList();
+    private void write(TransactionWithAccess tx, boolean includeSignature, int payload, ByteBuffer dest) {
+        dest.put((byte) 1);
+        putListHeader(dest, payload);
+        putByte(dest, Integer.valueOf(tx.getChainId()).byteValue());
+        writeMainPart(tx, dest);
+
+        putListHeader(dest, accessListLength(tx));
         for (TransactionWithAccess.Access access: tx.getAccessList()) {
-            wrt.startList();
-            wrt.write(access.getAddress().getBytes());
-            wrt.startList();
+            putListHeader(dest, accessLength(access));
+            putData(dest, access.getAddress());
+            int keys = 0;
+            for (Hex32 storageKey: access.getStorageKeys()) {
+                keys += dataLength(storageKey);
+            }
+            putListHeader(dest, keys);
             for (Hex32 storageKey: access.getStorageKeys()) {
-                wrt.write(storageKey.getBytes());
+                putData(dest, storageKey);
             }
-            wrt.closeList();
-            wrt.closeList();
         }
-        wrt.closeList();
 
         if (includeSignature) {
             Signature signature = tx.getSignature();
             if (signature == null) {
-                // just empty signature
-                wrt.write(0)
-                    .write(0)
-                    .write(0);
+                putLong(dest, 0);
+                putLong(dest, 0);
+                putLong(dest, 0);
             } else {
-                if (signature instanceof SignatureEIP2930) {
-                    int yParity = ((SignatureEIP2930)signature).getYParity();
-                    if (yParity == 0) {
-                        wrt.write(0);
-                    } else {
-                        wrt.write(Integer.valueOf(yParity).byteValue());
-                    }
-                    wrt.write(signature.getR());
-                    wrt.write(signature.getS());
+                int yParity = ((SignatureEIP2930) signature).getYParity();
+                if (yParity == 0) {
+                    putLong(dest, 0);
                 } else {
-                    throw new ClassCastException("Required signature " + SignatureEIP2930.class.getName() + " but have " + signature.getClass().getName());
+                    putByte(dest, Integer.valueOf(yParity).byteValue());
                 }
+                putBigInt(dest, signature.getR());
+                putBigInt(dest, signature.getS());
             }
         }
-        wrt.closeList();
-        return buffer.toByteArray();
+    }
+
+    private int mainPartLength(Transaction tx) {
+        return RlpWriter.encodedLength(tx.getNonce())
+            + RlpWriter.encodedLength(tx.getGasPrice().getAmount())
+            + RlpWriter.encodedLength(tx.getGas())
+            + (tx.getTo() != null ? dataLength(tx.getTo()) : 1)
+            + (tx.getValue() != null ? RlpWriter.encodedLength(tx.getValue().getAmount()) : 1)
+            + (tx.getData() != null ? dataLength(tx.getData()) : 1);
+    }
+
+    private void writeMainPart(Transaction tx, ByteBuffer dest) {
+        putLong(dest, tx.getNonce());
+        putBigInt(dest, tx.getGasPrice().getAmount());
+        putLong(dest, tx.getGas());
+        if (tx.getTo() != null) {
+            putData(dest, tx.getTo());
+        } else {
+            putStringHeader(dest, 0);
+        }
+        if (tx.getValue() != null) {
+            putBigInt(dest, tx.getValue().getAmount());
+        } else {
+            putStringHeader(dest, 0);
+        }
+        HexData data = tx.getData();
+        if (data != null) {
+            putData(dest, data);
+        } else {
+            putStringHeader(dest, 0);
+        }
+    }
+
+    // ---- RLP primitives, the same encoding as produced by RlpWriter
+
+    private static int byteLength(byte value) {
+        return (value & 0xff) <= 0x7f ? 1 : 2;
+    }
+
+    private static int dataLength(HexData value) {
+        int size = value.getSize();
+        if (size == 1) {
+            return byteLength(value.getBytes()[0]);
+        }
+        return RlpWriter.encodedStringLength(size);
+    }
+
+    private static void putByte(ByteBuffer dest, byte value) {
+        if ((value & 0xff) > 0x7f) {
+            dest.put((byte) 0x81);
+        }
+        dest.put(value);
+    }
+
+    private static void putData(ByteBuffer dest, HexData value) {
+        int size = value.getSize();
+        if (size == 1) {
+            putByte(dest, value.getBytes()[0]);
+        } else {
+            putStringHeader(dest, size);
+            value.writeTo(dest);
+        }
+    }
+
+    private static void putLong(ByteBuffer dest, long value) {
+        if (value >= 0 && value <= 0x7f) {
+            dest.put(value == 0 ? (byte) 0x80 : (byte) value);
+        } else {
+            int length = bytesLength(value);
+            dest.put((byte) (0x80 + length));
+            putNumber(dest, value, length);
+        }
+    }
+
+    private static void putBigInt(ByteBuffer dest, BigInteger value) {
+        if (value.signum() >= 0 && value.bitLength() < 64) {
+            putLong(dest, value.longValue());
+            return;
+        }
+        byte[] bytes = value.toByteArray();
+        int pos = 0;
+        while (pos < bytes.length && bytes[pos] == 0) pos++;
+        putStringHeader(dest, bytes.length - pos);
+        dest.put(bytes, pos, bytes.length - pos);
+    }
+
+    private static void putStringHeader(ByteBuffer dest, int length) {
+        putHeader(dest, 0x80, 0xb7, length);
+    }
+
+    private static void putListHeader(ByteBuffer dest, int payload) {
+        putHeader(dest, 0xc0, 0xf7, payload);
+    }
+
+    private static void putHeader(ByteBuffer dest, int shortOffset, int longOffset, int length) {
+        if (length <= longOffset - shortOffset) {
+            dest.put((byte) (shortOffset + length));
+        } else {
+            int sizeLength = bytesLength(length);
+            dest.put((byte) (longOffset + sizeLength));
+            putNumber(dest, length, sizeLength);
+        }
+    }
+
+    private static void putNumber(ByteBuffer dest, long value, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            dest.put((byte) (value >>> (i * 8)));
+        }
+    }
+
+    private static int bytesLength(long value) {
+        return (64 - Long.numberOfLeadingZeros(value) + 7) / 8;
     }
 }
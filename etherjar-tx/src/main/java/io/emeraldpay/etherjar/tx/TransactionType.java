@@ -56,7 +56,7 @@ public enum TransactionType {
             }
             throw new IllegalArgumentException("Unsupported type: 0x" + Integer.toHexString(u));
         }
-        if (u >= 0xcf && u <= 0xfe) {
+        if (u >= 0xc0 && u <= 0xfe) {
             return TransactionType.STANDARD;
         }
         throw new IllegalArgumentException("Unsupported type: 0x" + Integer.toHexString(u));
@@ -16,8 +16,8 @@
 package io.emeraldpay.etherjar.tx;
 
 import io.emeraldpay.etherjar.domain.Address;
+import io.emeraldpay.etherjar.domain.Keccak256;
 import io.emeraldpay.etherjar.hex.Hex32;
-import org.bouncycastle.jcajce.provider.digest.Keccak;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -55,13 +55,10 @@ public class TransactionWithAccess extends Transaction {
     @Override
     public byte[] hash(Integer chainId) {
         byte[] rlp = ENCODER.encode(this, false);
-
-        Keccak.Digest256 keccak = new Keccak.Digest256();
-        keccak.update(rlp);
-        return keccak.digest();
+        return Keccak256.digest(rlp);
     }
 
-    static class Access {
+    public static class Access {
         private Address address;
         private List<Hex32> storageKeys;
 
@@ -0,0 +1,55 @@
+package io.emeraldpay.etherjar.tx
+
+import org.bouncycastle.math.ec.FixedPointCombMultiplier
+import spock.lang.Specification
+
+class FixedBaseMultiplierSpec extends Specification {
+
+    static BigInteger N = Signer.CURVE_PARAMS.getN()
+
+    static reference(BigInteger k) {
+        new FixedPointCombMultiplier().multiply(Signer.CURVE_PARAMS.getG(), k).normalize()
+    }
+
+    def "Multiply same as generic multiplier"() {
+        expect:
+        FixedBaseMultiplier.multiply(k) == reference(k)
+        where:
+        k << [
+            BigInteger.ONE,
+            BigInteger.valueOf(2),
+            BigInteger.valueOf(15),
+            BigInteger.valueOf(16),
+            N - BigInteger.ONE,
+            N - BigInteger.valueOf(2),
+            BigInteger.ONE.shiftLeft(255),
+            new BigInteger("4646464646464646464646464646464646464646464646464646464646464646", 16),
+        ]
+    }
+
+    def "Multiply random scalars"() {
+        setup:
+        def random = new Random(1)
+        expect:
+        (1..50).every {
+            def k = new BigInteger(256, random).mod(N)
+            FixedBaseMultiplier.multiply(k) == reference(k)
+        }
+    }
+
+    def "Multiply scalar larger than order"() {
+        setup:
+        def k = BigInteger.ONE.shiftLeft(256) - BigInteger.ONE
+        expect:
+        FixedBaseMultiplier.multiply(k) == reference(k.mod(N))
+    }
+
+    def "Rejects invalid scalar"() {
+        when:
+        FixedBaseMultiplier.multiply(k)
+        then:
+        thrown(IllegalArgumentException)
+        where:
+        k << [BigInteger.ONE.negate(), BigInteger.ONE.shiftLeft(256)]
+    }
+}
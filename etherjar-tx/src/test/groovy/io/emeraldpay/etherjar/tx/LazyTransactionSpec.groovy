@@ -0,0 +1,130 @@
+package io.emeraldpay.etherjar.tx
+
+import io.emeraldpay.etherjar.domain.Address
+import io.emeraldpay.etherjar.domain.MethodId
+import io.emeraldpay.etherjar.domain.Wei
+import io.emeraldpay.etherjar.hex.HexData
+import org.apache.commons.codec.binary.Hex
+import spock.lang.Specification
+
+class LazyTransactionSpec extends Specification {
+
+    TransactionDecoder decoder = new TransactionDecoder()
+    TransactionEncoder encoder = new TransactionEncoder()
+
+    static List<String> SAMPLES = [
+            "f86b823ca485059b9b95f08303d090948b3b3b624c3c0397d3da8fd861512393d51dcbac8084667a2f581ca0d7ddf1368fa81f6092ec15734000f911501af11876ef908a418f015030503a64a039837b1d2ee9c8ee011f44407927b540df893884eef98f67b164c8cafb82061b",
+            "f8cb82afdc843b9aca008303d090947ef66b77759e12caf3ddb3e4aff524e577c59d8d80b864e9c6c1760000000000000000000000000000000000000000000000000000000000000004000000000000000000000000000000000000000000000000000000000043c636a65ea4943acfacb227680b6ba20c477ba24ef87049a4a5b3958385e215bb08641ba01e8a3bacc31fc91ade73278d0267b70d38b53623ab0a28d1e20e133286f8a85ca02f2e0ac2c4e9e4410804fa62c9cba70e18eed8b93ec2a2ad5762279de8288b63",
+            "f86c8227b2843b9aca008275309413ac1a2c6d1a4efc492a40d8f9d4e9f14b7c726887b1a2bc2ec50000001ca077313351aaa29a277e3cf015c354542e042b00c4757e1ac70fdbc9b1d0341c23a079c62b0c278676c590afd0f8bcfc4654b5babb99a5883baefc539acd55ee0365",
+            "01f8cb01808504a817c800830249f0943535353535353535353535353535353535353535880de0b6b3a764000080f85bf85994de0b295669a9fd93d5f28d9ec85e40f4cb697baef842a00000000000000000000000000000000000000000000000000000000000000003a0000000000000000000000000000000000000000000000000000000000000000701a038c8eb279a4b6c4b806258389e1b5906b28418e3eff9e0fc81173f54fa37a255a03acaa2b6d5e4edb561b918b4cb49cf1dbae9972ca90df7af6364598353a2c125",
+            "01f8e201018504a817c800830249f0943535353535353535353535353535353535353535880de0b6b3a764000080f872f85994de0b295669a9fd93d5f28d9ec85e40f4cb697baef842a00000000000000000000000000000000000000000000000000000000000000003a00000000000000000000000000000000000000000000000000000000000000007d694bb9bc244d798123fde783fcc1c72d3bb8c189413c080a0b935047bf9b8464afec5bda917281610b2aaabd8de4b01d2eba6e876c934ca7aa0431b406eb13aefca05a0320c3595700b9375df6fac8cc8ec5603ac2e42af4894",
+    ]
+
+    def "Same fields as full decoding"() {
+        setup:
+        def raw = Hex.decodeHex(hex)
+        when:
+        def lazy = decoder.decodeLazy(raw)
+        def full = decoder.decode(raw)
+        then:
+        lazy.nonce == full.nonce
+        lazy.gasPrice == full.gasPrice
+        lazy.gas == full.gas
+        lazy.to == full.to
+        lazy.value == full.value
+        lazy.data == full.data
+        lazy.dataSize == full.data.size
+        lazy.methodId == (full.data.size >= 4 ? MethodId.fromInput(full.data) : null)
+        lazy.signed
+        lazy.signature.class == full.signature.class
+        lazy.signature.v == full.signature.v
+        lazy.signature.recId == full.signature.recId
+        lazy.signature.r == full.signature.r
+        lazy.signature.s == full.signature.s
+        lazy.transactionId == full.transactionId() || full instanceof TransactionWithAccess
+        lazy.toTransaction().class == full.class
+        where:
+        hex << SAMPLES
+    }
+
+    def "Decodes access list"() {
+        setup:
+        def raw = Hex.decodeHex(SAMPLES[4])
+        when:
+        def lazy = decoder.decodeLazy(raw)
+        def full = decoder.decodeAccessList(raw)
+        then:
+        lazy.type == TransactionType.ACCESS_LIST
+        lazy.chainId == 1
+        (lazy.signature as SignatureEIP2930).chainId == 1
+        lazy.accessList.size() == 2
+        lazy.accessList.collect { it.address } == full.accessList.collect { it.address }
+        lazy.accessList.collect { it.storageKeys } == full.accessList.collect { it.storageKeys }
+    }
+
+    def "Decodes EIP-155 transaction"() {
+        setup:
+        def tx = new Transaction()
+        tx.tap {
+            nonce = 5
+            gasPrice = 20000000000
+            gas = 100000
+            to = Address.from("0x3535353535353535353535353535353535353535")
+            value = Wei.ofEthers(1)
+            data = HexData.from("0xa9059cbb0000000000000000000000000000000000000000000000000000000000000001")
+        }
+        tx.signature = new Signer(61).sign(tx, PrivateKey.create("0x4646464646464646464646464646464646464646464646464646464646464646"))
+        def raw = encoder.encode(tx, true)
+        when:
+        def lazy = decoder.decodeLazy(raw)
+        then:
+        lazy.type == TransactionType.STANDARD
+        lazy.chainId == 61
+        lazy.signature instanceof SignatureEIP155
+        (lazy.signature as SignatureEIP155).chainId == 61
+        lazy.methodId == MethodId.from("0xa9059cbb")
+        lazy.to == tx.to
+        lazy.transactionId == tx.transactionId()
+        lazy.raw.is(raw)
+    }
+
+    def "Unsigned and contract creation"() {
+        setup:
+        def tx = new Transaction()
+        tx.tap {
+            nonce = 1
+            gasPrice = 1
+            gas = 21000
+            data = HexData.from("0x60")
+        }
+        def raw = encoder.encode(tx, false, null)
+        when:
+        def lazy = decoder.decodeLazy(raw)
+        then:
+        lazy.to == null
+        lazy.methodId == null
+        lazy.value == Wei.ZERO
+        !lazy.signed
+        lazy.signature == null
+        lazy.chainId == null
+        lazy.accessList.isEmpty()
+    }
+
+    def "Fails on invalid structure"() {
+        when:
+        decoder.decodeLazy(Hex.decodeHex(hex))
+        then:
+        thrown(IllegalArgumentException)
+        where:
+        hex << [
+            // list of 2 items
+            "c20102",
+            // list is longer than input
+            "f86b823ca4",
+            // access list is not a list
+            "01cb0101010101010101010101",
+            // data after the list
+            SAMPLES[0] + "00",
+        ]
+    }
+}
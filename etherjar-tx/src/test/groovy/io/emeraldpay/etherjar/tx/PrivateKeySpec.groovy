@@ -19,4 +19,17 @@ class PrivateKeySpec extends Specification {
         "0x29e339d55949c854d2e0e416299b193fad0f325146a7ceecb99d668c585f4455" | "0x0052b4dCD2277D6e02ef0275597Cb584c7619bF3"
         "0x24be93d7f49cf1121f0caef133bf123d0b770f4861753adb5add11418ca44534" | "0xff777EF157F1235843fCB7c32c2EfFAd36020bb8"
     }
+
+    def "Public key is derived once"() {
+        setup:
+        def key = PrivateKey.create("0x8313a298521f902c3b62121ac551d28ba3f844ccf1c1e0a98880981a8be91e52")
+        when:
+        def first = key.getPublicKey()
+        first[0] = (byte) (first[0] ^ 0xff)
+        def second = key.getPublicKey()
+        then:
+        second.length == 64
+        second == PrivateKey.getPublicKey(new BigInteger(1, key.getRaw()))
+        second != first
+    }
 }
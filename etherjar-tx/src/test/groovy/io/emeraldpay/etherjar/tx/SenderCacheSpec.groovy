@@ -0,0 +1,145 @@
+package io.emeraldpay.etherjar.tx
+
+import io.emeraldpay.etherjar.domain.Address
+import io.emeraldpay.etherjar.domain.Keccak256
+import spock.lang.Specification
+
+class SenderCacheSpec extends Specification {
+
+    static byte[] key(int i) {
+        return Keccak256.digest(BigInteger.valueOf(i).toByteArray())
+    }
+
+    static Address address(int i) {
+        return Address.from(Arrays.copyOf(key(i + 1000000), 20))
+    }
+
+    def "Returns stored sender"() {
+        when:
+        cache.put(key(1), address(1))
+        cache.put(key(2), address(2))
+        then:
+        cache.get(key(1)) == address(1)
+        cache.get(key(2)) == address(2)
+        cache.get(key(3)) == null
+        cache.size == 2
+        cache.hits == 2
+        cache.misses == 1
+        cache.hitRate == 2.0d / 3.0d
+        where:
+        cache << [SenderCache.create(16), SenderCache.createOffHeap(16)]
+    }
+
+    def "Replaces sender for same key"() {
+        when:
+        cache.put(key(1), address(1))
+        cache.put(key(1), address(2))
+        then:
+        cache.get(key(1)) == address(2)
+        cache.size == 1
+        cache.evictions == 0
+        where:
+        cache << [SenderCache.create(16), SenderCache.createOffHeap(16)]
+    }
+
+    def "Keeps key when caller reuses array"() {
+        setup:
+        def buffer = key(1)
+        when:
+        cache.put(buffer, address(1))
+        System.arraycopy(key(2), 0, buffer, 0, buffer.length)
+        then:
+        cache.get(key(1)) == address(1)
+        cache.get(key(2)) == null
+        where:
+        cache << [SenderCache.create(16), SenderCache.createOffHeap(16)]
+    }
+
+    def "Keeps size under capacity"() {
+        when:
+        (0..<10000).each { cache.put(key(it), address(it)) }
+        then:
+        cache.size <= cache.capacity
+        cache.size + cache.evictions == 10000
+        cache.get(key(9999)) == address(9999)
+        where:
+        cache << [SenderCache.create(1000), SenderCache.createOffHeap(1000)]
+    }
+
+    def "Evicts least recently used"() {
+        setup:
+        def cache = SenderCache.create(4)
+        (0..<4).each { cache.put(key(it), address(it)) }
+        when:
+        // makes 0 the latest, so 1 is evicted instead
+        cache.get(key(0))
+        cache.put(key(4), address(4))
+        then:
+        cache.get(key(0)) == address(0)
+        cache.get(key(1)) == null
+        cache.evictions == 1
+    }
+
+    def "Evicts least recently used in bucket for off heap"() {
+        setup:
+        def cache = SenderCache.createOffHeap(OffHeapSenderCache.WAYS)
+        def ways = OffHeapSenderCache.WAYS
+        (0..<ways).each { cache.put(key(it), address(it)) }
+        when:
+        cache.get(key(0))
+        cache.put(key(ways), address(ways))
+        then:
+        cache.capacity == ways
+        cache.get(key(0)) == address(0)
+        cache.get(key(1)) == null
+        cache.get(key(ways)) == address(ways)
+        cache.evictions == 1
+    }
+
+    def "Clear removes entries and stats"() {
+        setup:
+        (0..<100).each { cache.put(key(it), address(it)) }
+        cache.get(key(1))
+        when:
+        cache.clear()
+        then:
+        cache.size == 0
+        cache.hits == 0
+        cache.hitRate == 0
+        cache.get(key(1)) == null
+        where:
+        cache << [SenderCache.create(64), SenderCache.createOffHeap(64)]
+    }
+
+    def "Off heap capacity is power of two"() {
+        expect:
+        SenderCache.createOffHeap(size).capacity == capacity
+        where:
+        size | capacity
+        1    | 8
+        8    | 8
+        9    | 16
+        1000 | 1024
+        1024 | 1024
+    }
+
+    def "Rejects invalid size"() {
+        when:
+        SenderCache.create(0)
+        then:
+        thrown(IllegalArgumentException)
+        when:
+        SenderCache.createOffHeap(-1)
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "Rejects invalid key"() {
+        setup:
+        def cache = SenderCache.create(16)
+        when:
+        cache.get(new byte[20])
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
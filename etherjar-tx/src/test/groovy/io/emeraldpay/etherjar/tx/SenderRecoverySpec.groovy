@@ -0,0 +1,156 @@
+package io.emeraldpay.etherjar.tx
+
+import io.emeraldpay.etherjar.domain.Address
+import io.emeraldpay.etherjar.domain.Wei
+import spock.lang.Specification
+
+import java.util.concurrent.Executors
+
+class SenderRecoverySpec extends Specification {
+
+    TransactionEncoder encoder = new TransactionEncoder()
+
+    static List<PrivateKey> KEYS = [
+        "0x4646464646464646464646464646464646464646464646464646464646464646",
+        "0x8313a298521f902c3b62121ac551d28ba3f844ccf1c1e0a98880981a8be91e52",
+        "0xea65739882d3e4fe0bc4c0e4c49b9eb05f528a03580274b17dc53727390912a2",
+    ].collect { PrivateKey.create(it) }
+
+    Transaction transaction(long nonce) {
+        Transaction tx = new Transaction()
+        tx.tap {
+            it.nonce = nonce
+            gasPrice = 20000000000
+            gas = 21000
+            to = Address.from("0x3535353535353535353535353535353535353535")
+            value = Wei.ofEthers(1)
+        }
+        return tx
+    }
+
+    byte[] signed(int i) {
+        def key = KEYS[i % KEYS.size()]
+        if (i % 4 == 3) {
+            TransactionWithAccess tx = new TransactionWithAccess()
+            tx.tap {
+                chainId = 1
+                nonce = i
+                gasPrice = 20000000000
+                gas = 21000
+                to = Address.from("0x3535353535353535353535353535353535353535")
+                value = Wei.ofEthers(1)
+            }
+            tx.signature = new Signer(1).sign(tx, key)
+            return encoder.encode(tx, true)
+        }
+        // mainnet, other chain and legacy without chain id
+        def signer = new Signer([1, 61, null][i % 4])
+        def tx = transaction(i)
+        tx.signature = signer.sign(tx, key)
+        return encoder.encode(tx, true)
+    }
+
+    def "Recover senders of raw transactions"() {
+        setup:
+        def raw = (0..<40).collect { signed(it) }
+        def executor = Executors.newFixedThreadPool(3)
+        def recovery = new SenderRecovery(executor)
+        when:
+        def act = recovery.recoverAllRaw(raw)
+        then:
+        act.size() == 40
+        act.eachWithIndex { address, i ->
+            assert address == KEYS[i % KEYS.size()].address
+        }
+        cleanup:
+        executor.shutdown()
+    }
+
+    def "Recover senders of decoded transactions"() {
+        setup:
+        def decoder = new TransactionDecoder()
+        def txs = (0..<20).collect { decoder.decode(signed(it)) }
+        def recovery = new SenderRecovery()
+        when:
+        def act = recovery.recoverAll(txs)
+        then:
+        act.size() == 20
+        act.eachWithIndex { address, i ->
+            assert address == KEYS[i % KEYS.size()].address
+            assert txs[i].signature.message == null
+        }
+    }
+
+    def "Recover same as extractFrom"() {
+        setup:
+        def tx = new TransactionDecoder().decode(signed(1))
+        when:
+        def act = new SenderRecovery().recover(tx)
+        then:
+        act == tx.extractFrom()
+    }
+
+    def "Return null for invalid items"() {
+        setup:
+        def recovery = new SenderRecovery()
+        def invalidSignature = transaction(1)
+        invalidSignature.signature = new Signature(null, 27, BigInteger.ONE, BigInteger.ZERO)
+        when:
+        def act = recovery.recoverAllRaw([signed(0), [0x01, 0x02] as byte[], null])
+        then:
+        act[0] == KEYS[0].address
+        act[1] == null
+        act[2] == null
+
+        when:
+        act = recovery.recoverAll([transaction(1), invalidSignature, null])
+        then:
+        act == [null, null, null]
+    }
+
+    def "Uses cache for raw transactions"() {
+        setup:
+        def cache = SenderCache.create(100)
+        def recovery = new SenderRecovery(cache)
+        def raw = (0..<8).collect { signed(it) }
+        when:
+        def first = recovery.recoverAllRaw(raw)
+        def second = recovery.recoverAllRaw(raw)
+        then:
+        first == second
+        first.eachWithIndex { address, i ->
+            assert address == KEYS[i % KEYS.size()].address
+        }
+        cache.size == 8
+        cache.hits == 8
+        cache.misses == 8
+    }
+
+    def "Decoded and raw transactions share cache"() {
+        setup:
+        def cache = SenderCache.createOffHeap(100)
+        def recovery = new SenderRecovery(Executors.newSingleThreadExecutor(), cache)
+        def decoder = new TransactionDecoder()
+        def raw = (0..<8).collect { signed(it) }
+        when:
+        recovery.recoverAllRaw(raw)
+        def act = recovery.recoverAll(raw.collect { decoder.decode(it) })
+        then:
+        act.eachWithIndex { address, i ->
+            assert address == KEYS[i % KEYS.size()].address
+        }
+        cache.hits == 8
+        cache.misses == 8
+    }
+
+    def "Doesn't cache invalid transactions"() {
+        setup:
+        def cache = SenderCache.create(100)
+        def recovery = new SenderRecovery(cache)
+        when:
+        def act = recovery.recoverRaw([0x01, 0x02] as byte[])
+        then:
+        act == null
+        cache.size == 0
+    }
+}
@@ -356,4 +356,94 @@ class SignerSpec extends Specification {
         !act
     }
 
+    def "Create same signature as ECDSASigner with correct recovery id"() {
+        setup:
+        def random = new Random(1)
+        def n = Signer.CURVE_PARAMS.getN()
+        expect:
+        (1..30).every {
+            def raw = new byte[32]
+            random.nextBytes(raw)
+            def pk = PrivateKey.create(raw)
+            def hash = new byte[32]
+            random.nextBytes(hash)
+
+            def ecdsa = new org.bouncycastle.crypto.signers.ECDSASigner(
+                new org.bouncycastle.crypto.signers.HMacDSAKCalculator(new org.bouncycastle.crypto.digests.SHA256Digest())
+            )
+            ecdsa.init(true, pk.getECKey())
+            def exp = ecdsa.generateSignature(hash)
+            def expS = exp[1] > n.shiftRight(1) ? n - exp[1] : exp[1]
+
+            def act = signer.create(hash, pk, Signature.class)
+            act.r == exp[0] && act.s == expS &&
+                act.recId == signer.getY(hash, exp[0], expS, pk.getPublicKey()) &&
+                act.recoverAddress() == pk.getAddress()
+        }
+    }
+
+    def "Sign batch in order"() {
+        setup:
+        PrivateKey pk = PrivateKey.create("0x4646464646464646464646464646464646464646464646464646464646464646")
+        def txs = (0..<100).collect { i ->
+            Transaction tx = new Transaction()
+            tx.tap {
+                nonce = i
+                gasPrice = 20000000000
+                gas = 21000
+                to = Address.from("0x3535353535353535353535353535353535353535")
+                value = Wei.ofEthers(1)
+            }
+            return tx
+        }
+        def executor = java.util.concurrent.Executors.newFixedThreadPool(4)
+        when:
+        def act = signer.signAll(txs, pk, executor)
+        then:
+        act.size() == 100
+        act.eachWithIndex { item, i ->
+            assert item.success
+            assert item.index == i
+            assert item.transaction.is(txs[i])
+            def copy = new Transaction()
+            copy.tap {
+                nonce = i
+                gasPrice = 20000000000
+                gas = 21000
+                to = Address.from("0x3535353535353535353535353535353535353535")
+                value = Wei.ofEthers(1)
+            }
+            copy.signature = signer.sign(copy, pk)
+            assert item.raw == encoder.encode(copy, true)
+            assert new TransactionDecoder().decode(item.raw).extractFrom() == pk.address
+        }
+        cleanup:
+        executor.shutdown()
+    }
+
+    def "Sign batch with failed item"() {
+        setup:
+        PrivateKey pk = PrivateKey.create("0x4646464646464646464646464646464646464646464646464646464646464646")
+        Transaction ok = new Transaction()
+        ok.tap {
+            nonce = 1
+            gasPrice = 20000000000
+            gas = 21000
+            to = Address.from("0x3535353535353535353535353535353535353535")
+            value = Wei.ofEthers(1)
+        }
+        // gas price is required
+        Transaction invalid = new Transaction()
+        when:
+        def act = signer.signAll([ok, invalid, null], pk)
+        then:
+        act.size() == 3
+        act[0].success
+        act[0].raw != null
+        !act[1].success
+        act[1].raw == null
+        act[1].error instanceof NullPointerException
+        !act[2].success
+        act[2].transaction == null
+    }
 }
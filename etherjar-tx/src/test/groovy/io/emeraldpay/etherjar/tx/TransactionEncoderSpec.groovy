@@ -183,4 +183,61 @@ class TransactionEncoderSpec extends Specification {
         then:
         Hex.encodeHexString(act) == "01f8e201018504a817c800830249f0943535353535353535353535353535353535353535880de0b6b3a764000080f872f85994de0b295669a9fd93d5f28d9ec85e40f4cb697baef842a00000000000000000000000000000000000000000000000000000000000000003a00000000000000000000000000000000000000000000000000000000000000007d694bb9bc244d798123fde783fcc1c72d3bb8c189413c080a0b935047bf9b8464afec5bda917281610b2aaabd8de4b01d2eba6e876c934ca7aa0431b406eb13aefca05a0320c3595700b9375df6fac8cc8ec5603ac2e42af4894"
     }
+
+    def "Exact encoded length"() {
+        setup:
+        def tx = decoder.decode(Hex.decodeHex("f8cb82190785055ae8260082d2e2949ca222a6350c37c1b5014c5c59dc36892af3335880b864beabacc80000000000000000000000009ca222a6350c37c1b5014c5c59dc36892af333580000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000126a040f7779aa122cee043e26bce3c65ea8f8fcbc6eba8de5534e59227818e67d290a06b5a4e78a378231e4d95d681b106ea02daa967db5404683306ef51959ff938ab"))
+        when:
+        def act = encoder.getEncodedLength(tx, true)
+        then:
+        act == 205
+        act == encoder.encode(tx, true).length
+        encoder.getEncodedLength(tx, false, 1) == encoder.encode(tx, false, 1).length
+    }
+
+    def "Encode into a buffer"() {
+        setup:
+        def raw = "f8cb82190785055ae8260082d2e2949ca222a6350c37c1b5014c5c59dc36892af3335880b864beabacc80000000000000000000000009ca222a6350c37c1b5014c5c59dc36892af333580000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000126a040f7779aa122cee043e26bce3c65ea8f8fcbc6eba8de5534e59227818e67d290a06b5a4e78a378231e4d95d681b106ea02daa967db5404683306ef51959ff938ab"
+        def tx = decoder.decode(Hex.decodeHex(raw))
+        def buf = java.nio.ByteBuffer.allocate(300)
+        buf.put(0x11 as byte)
+        when:
+        def written = encoder.encodeTo(tx, true, buf)
+        then:
+        written == 205
+        buf.position() == 206
+        Hex.encodeHexString(Arrays.copyOfRange(buf.array(), 1, 206)) == raw
+        buf.array()[0] == 0x11 as byte
+    }
+
+    def "Fails to encode into a small buffer"() {
+        setup:
+        Transaction tx = new Transaction()
+        tx.tap {
+            nonce = 9
+            gasPrice = BigInteger.valueOf(20000000000)
+            gas = 0x5208
+            to = Address.from("0x3535353535353535353535353535353535353535")
+            value = Wei.ofEthers(1)
+        }
+        def buf = java.nio.ByteBuffer.allocate(20)
+        when:
+        encoder.encodeTo(tx, false, 1, buf)
+        then:
+        thrown(java.nio.BufferOverflowException)
+        buf.position() == 0
+    }
+
+    def "Encode as hex into a buffer"() {
+        setup:
+        def raw = "01f8e201018504a817c800830249f0943535353535353535353535353535353535353535880de0b6b3a764000080f872f85994de0b295669a9fd93d5f28d9ec85e40f4cb697baef842a00000000000000000000000000000000000000000000000000000000000000003a00000000000000000000000000000000000000000000000000000000000000007d694bb9bc244d798123fde783fcc1c72d3bb8c189413c080a0b935047bf9b8464afec5bda917281610b2aaabd8de4b01d2eba6e876c934ca7aa0431b406eb13aefca05a0320c3595700b9375df6fac8cc8ec5603ac2e42af4894"
+        def tx = decoder.decode(Hex.decodeHex(raw))
+        def buf = java.nio.ByteBuffer.allocate(1024)
+        when:
+        def written = encoder.encodeHex(tx, buf)
+        then:
+        written == 2 + raw.length()
+        buf.position() == written
+        new String(buf.array(), 0, written, "US-ASCII") == "0x" + raw
+    }
 }